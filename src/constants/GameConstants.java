@@ -2,10 +2,39 @@ package constants;
 
 /**
  * This class contains commonly used values from the game. 
+ * The size of the board and the amount of ships of every type are read from system properties when the class is loaded, so a game can
+ * be played or stress tested on another board without changing the code. All players and the server have to use the same values.
  */
 public class GameConstants {
-    public static final int BOARD_SIZE_X = 15;
-    public static final int BOARD_SIZE_Y = 10;
+    // The system properties with the width and the height of the board
+    public static final String BOARD_SIZE_X_PROPERTY = "battleship.board.width";
+    public static final String BOARD_SIZE_Y_PROPERTY = "battleship.board.height";
+
+    // The system property with the amount of carriers, battleships, destroyers, super patrols and patrols, separated by commas
+    public static final String FLEET_PROPERTY = "battleship.fleet";
+
+    // The values that are used if the properties aren't set
+    public static final int DEFAULT_BOARD_SIZE_X = 15;
+    public static final int DEFAULT_BOARD_SIZE_Y = 10;
+    public static final String DEFAULT_FLEET = "2,3,5,8,10";
+
+    // The largest width and height of the board, the boards are full arrays that the TUI draws and the protocol sends whole
+    public static final int MAX_BOARD_SIZE = 1024;
+
+    // The size of the biggest ship type, the carrier
+    public static final int MAX_SHIP_SIZE = 5;
+
+    public static final int BOARD_SIZE_X = parseBoardSize(BOARD_SIZE_X_PROPERTY, System.getProperty(BOARD_SIZE_X_PROPERTY), DEFAULT_BOARD_SIZE_X);
+    public static final int BOARD_SIZE_Y = parseBoardSize(BOARD_SIZE_Y_PROPERTY, System.getProperty(BOARD_SIZE_Y_PROPERTY), DEFAULT_BOARD_SIZE_Y);
+
+    // The amount of fields on the board
+    public static final int BOARD_FIELDS = BOARD_SIZE_X * BOARD_SIZE_Y;
+
+    // For each ship size the amount of ships of that size, index 0 is unused
+    private static final int[] FLEET = parseFleet(System.getProperty(FLEET_PROPERTY, DEFAULT_FLEET), BOARD_SIZE_X, BOARD_SIZE_Y);
+
+    // The time a player has for a move in milliseconds
+    public static final long MOVE_TIME = 30000L;
 
     // Field types in client boards 
     public static final String FIELD_TYPE_WATER = "WATER";
@@ -54,4 +83,75 @@ public class GameConstants {
     public static final String FIELD_TYPE_CARRIER_MID_HIT = "CARRIER_MID_HIT";
     public static final String FIELD_TYPE_CARRIER_BACK_MID_HIT = "CARRIER_BACK_MID_HIT";
     public static final String FIELD_TYPE_CARRIER_BACK_HIT = "CARRIER_BACK_HIT";
+
+    /**
+     * Getter for the amount of ships of a ship type.
+     * @param size The size of the ship type.
+     * @return The amount of ships of that size that are placed on a board.
+     * @pre size >= 1 && size <= MAX_SHIP_SIZE
+     */
+    public static int getShipAmount(int size) {
+        return FLEET[size];
+    }
+
+    /**
+     * Reads the width or height of the board from the value of a system property.
+     * @param property The name of the property, for the error message.
+     * @param value The value of the property, null if it isn't set.
+     * @param defaultSize The size if the property isn't set.
+     * @return The size.
+     * @throws IllegalArgumentException If the value isn't a number from 1 to MAX_BOARD_SIZE.
+     */
+    public static int parseBoardSize(String property, String value, int defaultSize) {
+        if (value == null) {
+            return defaultSize;
+        }
+        try {
+            int size = Integer.parseInt(value.trim());
+            if (size >= 1 && size <= MAX_BOARD_SIZE) {
+                return size;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(property + " must be a number from 1 to " + MAX_BOARD_SIZE + ", not " + value);
+    }
+
+    /**
+     * Reads the fleet from the value of the fleet property and checks that it can be placed on the board. The ships may take up at most
+     * half of the board, so that the random placement always finds free fields quickly.
+     * @param value The amounts of carriers, battleships, destroyers, super patrols and patrols, separated by commas.
+     * @param sizeX The width of the board.
+     * @param sizeY The height of the board.
+     * @return For each ship size the amount of ships of that size, index 0 is unused.
+     * @throws IllegalArgumentException If the value doesn't contain five amounts or the fleet doesn't fit on the board.
+     * @pre value != null, sizeX >= 1, sizeY >= 1
+     */
+    public static int[] parseFleet(String value, int sizeX, int sizeY) {
+        int fields = sizeX * sizeY;
+        String[] amounts = value.split(",");
+        if (amounts.length != MAX_SHIP_SIZE) {
+            throw new IllegalArgumentException(FLEET_PROPERTY + " must contain " + MAX_SHIP_SIZE + " amounts, not " + value);
+        }
+
+        int[] fleet = new int[MAX_SHIP_SIZE + 1];
+        long shipFields = 0;
+        for (int i = 0; i < MAX_SHIP_SIZE; i++) {
+            int size = MAX_SHIP_SIZE - i; // The amounts start with the biggest ship
+            try {
+                fleet[size] = Integer.parseInt(amounts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(FLEET_PROPERTY + " must contain numbers, not " + value);
+            }
+            if (fleet[size] < 0 || (fleet[size] > 0 && size > sizeX)) {
+                throw new IllegalArgumentException(FLEET_PROPERTY + " doesn't fit on a board that is " + sizeX + " wide: " + value);
+            }
+            shipFields += (long) fleet[size] * size;
+        }
+
+        if (shipFields == 0 || shipFields > fields / 2) {
+            throw new IllegalArgumentException(FLEET_PROPERTY + " must have ships on at most half of the " + fields + " fields: " + value);
+        }
+        return fleet;
+    }
 }
@@ -0,0 +1,43 @@
+package constants.tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import constants.GameConstants;
+
+public class GameConstantsTest {
+
+    /**
+     * Test that board sizes from 1 to the maximum are accepted and everything else is rejected
+     */
+    @Test
+    public void boardSizeTest() {
+        String property = GameConstants.BOARD_SIZE_X_PROPERTY;
+        assertEquals(15, GameConstants.parseBoardSize(property, null, 15));
+        assertEquals(1000, GameConstants.parseBoardSize(property, " 1000 ", 15));
+        assertEquals(GameConstants.MAX_BOARD_SIZE, GameConstants.parseBoardSize(property, "" + GameConstants.MAX_BOARD_SIZE, 15));
+
+        assertThrows(IllegalArgumentException.class, () -> GameConstants.parseBoardSize(property, "0", 15));
+        assertThrows(IllegalArgumentException.class, () -> GameConstants.parseBoardSize(property, "" + (GameConstants.MAX_BOARD_SIZE + 1), 15));
+        assertThrows(IllegalArgumentException.class, () -> GameConstants.parseBoardSize(property, "wide", 15));
+    }
+
+    /**
+     * Test that a custom fleet is read biggest ship first and that fleets that don't fit are rejected
+     */
+    @Test
+    public void fleetTest() {
+        assertArrayEquals(new int[] { 0, 10, 8, 5, 3, 2 }, GameConstants.parseFleet(GameConstants.DEFAULT_FLEET, 15, 10));
+        assertArrayEquals(new int[] { 0, 4, 0, 0, 0, 1 }, GameConstants.parseFleet("1, 0, 0, 0, 4", 5, 4));
+
+        assertThrows(IllegalArgumentException.class, () -> GameConstants.parseFleet("1,2,3,4", 15, 10)); // not five amounts
+        assertThrows(IllegalArgumentException.class, () -> GameConstants.parseFleet("1,2,x,4,5", 15, 10));
+        assertThrows(IllegalArgumentException.class, () -> GameConstants.parseFleet("0,0,0,0,-1", 15, 10));
+        assertThrows(IllegalArgumentException.class, () -> GameConstants.parseFleet("1,0,0,0,0", 4, 10)); // a carrier is wider than the board
+        assertThrows(IllegalArgumentException.class, () -> GameConstants.parseFleet("0,0,0,0,0", 15, 10)); // no ships
+        assertThrows(IllegalArgumentException.class, () -> GameConstants.parseFleet("0,0,0,0,11", 5, 4)); // more than half of the board
+    }
+}
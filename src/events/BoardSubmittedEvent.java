@@ -0,0 +1,25 @@
+package events;
+
+// External imports
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for encoding the board and sending it to the server.
+ */
+@Name("battleship.BoardSubmitted")
+@Label("Board Submitted")
+@Category({ "Battleship", "Game" })
+@Description("Encoding the board and sending it to the server")
+public class BoardSubmittedEvent extends Event {
+    // The player whose board was sent
+    @Label("Player")
+    public String player;
+
+    // The opponent the board was placed against
+    @Label("Enemy")
+    public String enemy;
+}
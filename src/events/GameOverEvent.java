@@ -0,0 +1,45 @@
+package events;
+
+// External imports
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for the end of a game.
+ */
+@Name("battleship.GameOver")
+@Label("Game Over")
+@Category({ "Battleship", "Game" })
+@Description("The end of a game")
+public class GameOverEvent extends Event {
+    // The player of this client
+    @Label("Player")
+    public String player;
+
+    // The winner, empty for a tie
+    @Label("Winner")
+    public String winner;
+
+    // Whether the game ended normally instead of because a player left
+    @Label("Normal End")
+    public boolean normalEnd;
+
+    /**
+     * Commits a game over event if game over events are enabled.
+     * @param player The player of this client.
+     * @param winner The winner, empty for a tie.
+     * @param normalEnd Whether the game ended normally instead of because a player left.
+     */
+    public static void emit(String player, String winner, boolean normalEnd) {
+        GameOverEvent event = new GameOverEvent();
+        if (event.isEnabled()) {
+            event.player = player;
+            event.winner = winner;
+            event.normalEnd = normalEnd;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package events;
+
+// External imports
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for the handshake with the server. It lasts from sending the player name until the server accepted or
+ * rejected it.
+ */
+@Name("battleship.Handshake")
+@Label("Handshake")
+@Category({ "Battleship", "Connection" })
+@Description("From sending the player name until the server answered")
+public class HandshakeEvent extends Event {
+    // The name that was sent
+    @Label("Player")
+    public String player;
+
+    // Whether the server accepted the name
+    @Label("Accepted")
+    public boolean accepted;
+}
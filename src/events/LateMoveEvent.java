@@ -0,0 +1,33 @@
+package events;
+
+// External imports
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a move that wasn't made within the move time.
+ */
+@Name("battleship.LateMove")
+@Label("Late Move")
+@Category({ "Battleship", "Game" })
+@Description("A player didn't move within the move time")
+public class LateMoveEvent extends Event {
+    // The player that was late
+    @Label("Player")
+    public String player;
+
+    /**
+     * Commits a late move event if late move events are enabled.
+     * @param player The player that was late.
+     */
+    public static void emit(String player) {
+        LateMoveEvent event = new LateMoveEvent();
+        if (event.isEnabled()) {
+            event.player = player;
+            event.commit();
+        }
+    }
+}
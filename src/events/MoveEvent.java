@@ -0,0 +1,53 @@
+package events;
+
+// External imports
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a move the user made. The event is only filled in when it is enabled, so a disabled event costs
+ * next to nothing.
+ */
+@Name("battleship.Move")
+@Label("Move")
+@Category({ "Battleship", "Game" })
+@Description("A move made by the user")
+public class MoveEvent extends Event {
+    // The player that moved
+    @Label("Player")
+    public String player;
+
+    // The coordinates of the move
+    @Label("X")
+    public int x;
+
+    @Label("Y")
+    public int y;
+
+    // The time from the start of the turn until the move
+    @Label("Think Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long latency;
+
+    /**
+     * Commits a move event if move events are enabled.
+     * @param player The player that moved.
+     * @param x The X coordinate of the move.
+     * @param y The Y coordinate of the move.
+     * @param latency The time from the start of the turn until the move in nanoseconds.
+     */
+    public static void emit(String player, int x, int y, long latency) {
+        MoveEvent event = new MoveEvent();
+        if (event.isEnabled()) {
+            event.player = player;
+            event.x = x;
+            event.y = y;
+            event.latency = latency;
+            event.commit();
+        }
+    }
+}
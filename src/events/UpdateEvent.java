@@ -0,0 +1,64 @@
+package events;
+
+// External imports
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for the result of a move of either player. The event is only filled in when it is enabled, so a disabled
+ * event costs next to nothing.
+ */
+@Name("battleship.Update")
+@Label("Update")
+@Category({ "Battleship", "Game" })
+@Description("The result of a move")
+public class UpdateEvent extends Event {
+    // The player that made the move
+    @Label("Player")
+    public String player;
+
+    // The coordinates of the move
+    @Label("X")
+    public int x;
+
+    @Label("Y")
+    public int y;
+
+    // The result of the move
+    @Label("Hit")
+    public boolean hit;
+
+    @Label("Sunk")
+    public boolean sunk;
+
+    // The time from sending the move until its result arrived, 0 if it isn't known
+    @Label("Round Trip Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long latency;
+
+    /**
+     * Commits an update event if update events are enabled.
+     * @param player The player that made the move.
+     * @param x The X coordinate of the move.
+     * @param y The Y coordinate of the move.
+     * @param hit Whether a ship was hit.
+     * @param sunk Whether a ship was sunk.
+     * @param latency The time from sending the move until its result arrived in nanoseconds, 0 if it isn't known.
+     */
+    public static void emit(String player, int x, int y, boolean hit, boolean sunk, long latency) {
+        UpdateEvent event = new UpdateEvent();
+        if (event.isEnabled()) {
+            event.player = player;
+            event.x = x;
+            event.y = y;
+            event.hit = hit;
+            event.sunk = sunk;
+            event.latency = latency;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package events.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import events.MoveEvent;
+import events.UpdateEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class EventsTest {
+
+    /**
+     * Test that an enabled event ends up in the recording with its fields and a disabled one doesn't
+     */
+    @Test
+    public void recordingTest() throws IOException {
+        Path file = Files.createTempFile("battleship", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("battleship.Update");
+            recording.disable("battleship.Move");
+            recording.start();
+            UpdateEvent.emit("player", 3, 4, true, false, 1000);
+            MoveEvent.emit("player", 3, 4, 1000);
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            long updates = events.stream().filter(event -> event.getEventType().getName().equals("battleship.Update")).count();
+            assertEquals(1, updates);
+            assertTrue(events.stream().noneMatch(event -> event.getEventType().getName().equals("battleship.Move")));
+
+            RecordedEvent update = events.stream().filter(event -> event.getEventType().getName().equals("battleship.Update")).findFirst().get();
+            assertEquals("player", update.getString("player"));
+            assertEquals(3, update.getInt("x"));
+            assertTrue(update.getBoolean("hit"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
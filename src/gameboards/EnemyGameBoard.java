@@ -7,15 +7,18 @@ import constants.GameConstants;
  * This class represent the opponent's board of a player. The enemy's board has its own class because it differs from the player's own board.
  * It differs because this board is simplre. Since it can only know when a ship has been hit or sunk its fields only have three values, regular water, hit water, and hit ship.
  * This class can perform moves on the board and validate a move, meaning check out whether that move hasn't already previously been made.
+ * In multiplayer a shot is shown as pending as soon as it is sent, until the update of the server confirms it with {@link #makeMove(int, int, boolean)}
+ * or it is rolled back with {@link #clearPending(int, int)}.
  * This class is used both when playing multiplayer and signleplayer.
  * TODO: Create an interface to cover the methods that are used both by the GameBoard and the EnemyGameBoard
- * @inv score >= 0, board != null and board always contains one of the three possible field states (the constants)
+ * @inv score >= 0, board != null and board always contains one of the four possible field states (the constants)
  */
 public class EnemyGameBoard {
     // Possible states of the fields of this board
     public static final String WATER = "WATER";
     public static final String WATER_HIT = "WATER_HIT";
     public static final String SHIP_HIT = "SHIP_HIT";
+    public static final String SHOT_PENDING = "SHOT_PENDING";
 
     // The score of this board
     private int score;
@@ -28,7 +31,7 @@ public class EnemyGameBoard {
      * to set all fields to water.
      */
     public EnemyGameBoard() {
-        board = new String[15][10];
+        board = new String[GameConstants.BOARD_SIZE_X][GameConstants.BOARD_SIZE_Y];
         board = initialiseEmptyBoard();
         score = 0;
     }
@@ -71,7 +74,7 @@ public class EnemyGameBoard {
     }
 
     /**
-     * Checks whether a move isn't made on a field that is outside the board or already been shot.
+     * Checks whether a move isn't made on a field that is outside the board or already been shot, or whose shot is still pending.
      * @param x The x coordinate of the move
      * @param y The y coordinate ofthe move
      * @return Whether the move is valid
@@ -85,7 +88,8 @@ public class EnemyGameBoard {
             y >= 0 && 
             y < GameConstants.BOARD_SIZE_Y && 
             !board[x][y].equals(EnemyGameBoard.SHIP_HIT) &&
-            !board[x][y].equals(EnemyGameBoard.WATER_HIT)
+            !board[x][y].equals(EnemyGameBoard.WATER_HIT) &&
+            !board[x][y].equals(EnemyGameBoard.SHOT_PENDING)
         );
     }
 
@@ -95,7 +99,7 @@ public class EnemyGameBoard {
      * @param x X coordinate of the move.
      * @param y Y coordinate of the move.
      * @param isHit Indicates whether a ships was hit.
-     * @pre board != null, x >= 0 && x < 15, y >= 0 && y < 10
+     * @pre board != null, x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y
      * @post ensures that a hit move is made on board correctly depending on what isHit indicates
      */
     public void makeMove(int x, int y, boolean isHit) {
@@ -106,6 +110,42 @@ public class EnemyGameBoard {
         }
     }
 
+    /**
+     * Shows a shot that was sent but whose result isn't known yet.
+     * @param x X coordinate of the shot.
+     * @param y Y coordinate of the shot.
+     * @pre board != null, x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y
+     * @post ensures that the field is pending if it was water
+     */
+    public void markPending(int x, int y) {
+        if (board[x][y].equals(EnemyGameBoard.WATER)) {
+            board[x][y] = EnemyGameBoard.SHOT_PENDING;
+        }
+    }
+
+    /**
+     * Rolls back a pending shot whose result will not come, because it was too late or ignored by the server.
+     * @param x X coordinate of the shot.
+     * @param y Y coordinate of the shot.
+     * @pre board != null, x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y
+     * @post ensures that the field is water again if it was pending
+     */
+    public void clearPending(int x, int y) {
+        if (board[x][y].equals(EnemyGameBoard.SHOT_PENDING)) {
+            board[x][y] = EnemyGameBoard.WATER;
+        }
+    }
+
+    /**
+     * Clears this board for the next game without allocating a new board.
+     * @pre board != null
+     * @post ensures that the score is 0 and all fields are water
+     */
+    public void resetBoard() {
+        initialiseEmptyBoard();
+        score = 0;
+    }
+
    /**
      * Initialises a given board by setting all fields of it to the string WATER
      * @param board the board to be initalised with water fields
@@ -2,6 +2,7 @@ package gameboards;
 
 // External imports
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -20,9 +21,12 @@ import multiplayer.ProtocolMessages;
  * the biggest difference between the two boards is really how they're displayed in the terminal. This class is more detailed about showing the exact location of ships.
  * This board is also used both in multiplayer and singleplayer although there are methods that are specific to the singplayer as they would otherwise be on server side. The javadoc
  * mentions that a method is for singleplayer only. This class keeps track of where each ship is placed and which fields have been shot. It can also encode the board so it could
- * be sent to the server.
+ * be sent to the server. The amount of ship fields that weren't hit yet is counted along, so that checking whether all ships are destroyed
+ * doesn't depend on the size of the board. The board itself is a full array of fields, since the TUI draws it and the protocol sends it
+ * whole, so setting up, encoding and drawing a board take time in its size, once per game or per frame. Everything that happens per
+ * shot takes time in the size of the ships.
  * TODO: Create an interface to cover the methods that are used both by the GameBoard and the EnemyGameBoard
- * @inv score >= 0, ships != null, board != null
+ * @inv score >= 0, ships != null, board != null, shipStarts != null, shipFieldsLeft >= 0
  */
 public class GameBoard  {
     // The score of this board
@@ -30,12 +34,21 @@ public class GameBoard  {
 
     // List of ships
     private List<Ship> ships;
+
+    // The first field, y * BOARD_SIZE_X + x, of every ship in ships, in the same order
+    private int[] shipStarts;
+
+    // The amount of ship fields on the board that weren't hit yet
+    private int shipFieldsLeft;
  
     // The game board
     private String[][] board;
 
     // Re-usable instance of Random
     private Random random;
+
+    // The maximum amount of random boards of which the coldest is kept when placing against an opponent's heatmap
+    public static final int MAX_PLACEMENT_CANDIDATES = 64;
     
     /**
      * Constructor that calls for a board creation based on the argument. Either 
@@ -45,6 +58,7 @@ public class GameBoard  {
 	public GameBoard(boolean manualPlacement) {
         random = new Random();
         ships = new ArrayList<>();
+        shipStarts = new int[0];
         score = 0;
         if (manualPlacement) {
             manualBoard();  
@@ -53,6 +67,22 @@ public class GameBoard  {
         }
     }
 
+    /**
+     * Constructor that wraps an already existing board, for example one that was decoded
+     * with {@link #decodeBoard(String[], int)}. No ships are generated.
+     * @param board The board to be wrapped.
+     * @param score The score the board already has.
+     * @pre board != null, score >= 0
+     * @post ensures that the given board and score are set
+     */
+    public GameBoard(String[][] board, int score) {
+        random = new Random();
+        ships = new ArrayList<>();
+        shipStarts = new int[0];
+        this.score = score;
+        setBoard(board);
+    }
+
     /**
      * To manually create the board.
      */
@@ -66,29 +96,144 @@ public class GameBoard  {
      * and water fields.
      */
     public void generateBoard() {
-        String[][] newBoard = new String[15][10];
+        String[][] newBoard = new String[GameConstants.BOARD_SIZE_X][GameConstants.BOARD_SIZE_Y];
         newBoard = initialiseEmptyBoard(newBoard);
-        findPlaceOnBoard(new Carrier(), newBoard);
-        findPlaceOnBoard(new Battleship(), newBoard);
-        findPlaceOnBoard(new Destroyer(), newBoard);
-        findPlaceOnBoard(new SuperPatrol(), newBoard);
-        findPlaceOnBoard(new Patrol(), newBoard);
-        
-        setBoard(newBoard);
+        placeFleet(newBoard);
+
+        this.board = newBoard;
+        this.shipFieldsLeft = placedShipFields();
     }
 
     /**
-     * Setter for a newly created board.
+     * Clears this board and places a new random fleet on it for the next game. The board array and the list of ships are
+     * re-used instead of allocated again, so that a client that plays many games in a row doesn't create a new board every game.
+     * @pre board != null, ships != null
+     * @post ensures that the score is 0, no field is hit and the same board array is filled with the right amount of ships and water fields
+     */
+    public void resetBoard() {
+        ships.clear();
+        score = 0;
+        initialiseEmptyBoard(board);
+        placeFleet(board);
+        shipFieldsLeft = placedShipFields();
+    }
+
+    /**
+     * Places every ship of the fleet on an empty board.
+     * @param board The board on which the ships are to be placed.
+     * @pre board != null and board only contains water fields
+     */
+    private void placeFleet(String[][] board) {
+        findPlaceOnBoard(new Carrier(), board);
+        findPlaceOnBoard(new Battleship(), board);
+        findPlaceOnBoard(new Destroyer(), board);
+        findPlaceOnBoard(new SuperPatrol(), board);
+        findPlaceOnBoard(new Patrol(), board);
+    }
+
+    /**
+     * Generates a board that avoids the fields an opponent usually shoots early. Random boards are generated until the time budget
+     * is used up or {@link #MAX_PLACEMENT_CANDIDATES} boards were generated, and the board whose ships are on the least heat is kept.
+     * Taking the best of a limited amount of random boards biases the ships towards cold fields while the placement stays hard to predict.
+     * All candidates are placed on the same board array and only their ship fields are summed and cleared again, so a candidate costs
+     * time in the amount of ship fields and not in the size of the board.
+     * @param heat For each field, y * BOARD_SIZE_X + x, how early the opponent usually shoots it, see {@link ShotHeatmaps#getHeat(String)}.
+     * @param timeBudget The maximum time in milliseconds spent on generating boards.
+     * @pre heat != null, heat.length == BOARD_SIZE_X * BOARD_SIZE_Y, timeBudget >= 0
+     * @post ensures that at least one board is generated and that a board filled with the right amount of ships and water fields is set
+     */
+    public void generateBoard(int[] heat, long timeBudget) {
+        long deadline = System.nanoTime() + timeBudget * 1000000L;
+        String[][] newBoard = initialiseEmptyBoard(new String[GameConstants.BOARD_SIZE_X][GameConstants.BOARD_SIZE_Y]);
+        List<Ship> bestShips = null;
+        int[] bestStarts = null;
+        long bestHeat = Long.MAX_VALUE;
+
+        int candidates = 0;
+        do {
+            ships = new ArrayList<>();
+            placeFleet(newBoard);
+            long boardHeat = 0;
+            for (int i = 0; i < ships.size(); i++) {
+                for (int field = shipStarts[i]; field < shipStarts[i] + ships.get(i).getSize(); field++) {
+                    boardHeat += heat[field];
+                }
+            }
+            if (boardHeat < bestHeat) {
+                bestHeat = boardHeat;
+                bestShips = ships;
+                bestStarts = Arrays.copyOf(shipStarts, ships.size());
+            }
+            clearShips(newBoard);
+            candidates++;
+        } while (candidates < MAX_PLACEMENT_CANDIDATES && System.nanoTime() < deadline);
+
+        ships = bestShips;
+        shipStarts = bestStarts;
+        for (int i = 0; i < ships.size(); i++) {
+            ships.get(i).placeOnBoard(newBoard, shipStarts[i] % GameConstants.BOARD_SIZE_X, shipStarts[i] / GameConstants.BOARD_SIZE_X);
+        }
+        this.board = newBoard;
+        this.shipFieldsLeft = placedShipFields();
+    }
+
+    /**
+     * Sets the fields of the ships in the list of ships back to water.
+     * @param board The board the ships were placed on.
+     * @pre board != null, the ships in the list of ships are placed on board
+     */
+    private void clearShips(String[][] board) {
+        for (int i = 0; i < ships.size(); i++) {
+            int y = shipStarts[i] / GameConstants.BOARD_SIZE_X;
+            for (int x = shipStarts[i] % GameConstants.BOARD_SIZE_X; x < shipStarts[i] % GameConstants.BOARD_SIZE_X + ships.get(i).getSize(); x++) {
+                board[x][y] = GameConstants.FIELD_TYPE_WATER;
+            }
+        }
+    }
+
+    /**
+     * Setter for a board that wasn't generated here, so its ship fields that weren't hit have to be counted on the whole board.
      * @param board the board to be set.
      * @pre board != null
-     * @post ensures that the given board is set
+     * @post ensures that the given board is set and its ship fields that weren't hit are counted
      */
     private void setBoard(String[][] board) {
         if (board != null) {
             this.board = board;
+            this.shipFieldsLeft = countShipFields(board);
         }
     }
 
+    /**
+     * Counts the fields of the ships in the list of ships, which are all not hit on a board that was just generated.
+     * @return The amount of ship fields.
+     */
+    private int placedShipFields() {
+        int amount = 0;
+        for (Ship ship : ships) {
+            amount += ship.getSize();
+        }
+        return amount;
+    }
+
+    /**
+     * Counts the ship fields of a board that weren't hit yet.
+     * @param board The board to count on.
+     * @return The amount of ship fields that weren't hit.
+     * @pre board != null
+     */
+    private int countShipFields(String[][] board) {
+        int amount = 0;
+        for (int x = 0; x < GameConstants.BOARD_SIZE_X; x++) {
+            for (int y = 0; y < GameConstants.BOARD_SIZE_Y; y++) {
+                if (!board[x][y].startsWith(GameConstants.FIELD_TYPE_WATER) && !board[x][y].endsWith(GameConstants.FIELD_TYPE_HIT_EXTENSION)) {
+                    amount++;
+                }
+            }
+        }
+        return amount;
+    }
+
     /**
      * Getter for the game board created.
      * @return the board.
@@ -140,11 +285,14 @@ public class GameBoard  {
      * Makes a move if the given field isn't already fired upon.
      * @param x The X coordinate of the move
      * @param y The Y coorindate of the move
-     * @pre board != null, x >= 0 && x < 15, y >= 0 && y < 10
+     * @pre board != null, x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y
      * @post ensures that the x,y field is set to hit if not hit already
      */
     public void makeMove(int x, int y) {
         if (!board[x][y].endsWith(GameConstants.FIELD_TYPE_HIT_EXTENSION)) {
+            if (!board[x][y].equals(GameConstants.FIELD_TYPE_WATER)) {
+                shipFieldsLeft--;
+            }
             board[x][y] = board[x][y] + GameConstants.FIELD_TYPE_HIT_EXTENSION;
         }
     }
@@ -167,11 +315,15 @@ public class GameBoard  {
             int y = 0;
             while (!isPlaced) {
                 
-                x = random.nextInt(15);
-                y = random.nextInt(10);
+                x = random.nextInt(GameConstants.BOARD_SIZE_X);
+                y = random.nextInt(GameConstants.BOARD_SIZE_Y);
 
                 isPlaced = doesFit(x, y, ship.getSize(), board);
             }
+            if (shipStarts.length == ships.size()) {
+                shipStarts = Arrays.copyOf(shipStarts, Math.max(16, shipStarts.length * 2));
+            }
+            shipStarts[ships.size()] = y * GameConstants.BOARD_SIZE_X + x;
             ships.add(ship.placeOnBoard(board, x, y));
         }
     }
@@ -183,11 +335,11 @@ public class GameBoard  {
      * @param shipSize The size of the ship to be checked
      * @param board The game board
      * @return Whether the ship fits on the board and doesn't overlap any other ships
-     * @pre board != null, x >= 0 && x < 15, y >= 0 && y < 10, shipSize < 15 && shipSize >= 0
+     * @pre board != null, x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y, shipSize >= 0
      * @post returns indication of whether the board will fit on the board rightwards from the given coordinates
      */
     public boolean doesFit(int x, int y, int shipSize, String[][] board) {
-        if (x + (shipSize-1) < 15) { // Checks whether ship fits on board
+        if (x + (shipSize-1) < GameConstants.BOARD_SIZE_X) { // Checks whether ship fits on board
 
             for (int i = x; i < x+shipSize; i++) { // Iterates over the fields that the ship would take up
                 if (!board[i][y].equals("WATER")) {
@@ -209,8 +361,8 @@ public class GameBoard  {
      * @post ensures that the given board is filled with "WATER"
      */
     public String[][] initialiseEmptyBoard(String[][] board) {
-        for (int i = 0; i < 15; i++) {
-            for (int j = 0; j < 10; j++) {
+        for (int i = 0; i < GameConstants.BOARD_SIZE_X; i++) {
+            for (int j = 0; j < GameConstants.BOARD_SIZE_Y; j++) {
                 board[i][j] = "WATER";
             }
         }
@@ -228,18 +380,41 @@ public class GameBoard  {
      * The start of the string is always ProtocolMessages.CLIENTBOARD+ProtocolMessages.DELIMITER
      */
     public String encodeBoard(String[][] board) {
-        String encodedBoard = ProtocolMessages.CLIENTBOARD;
+        StringBuilder encodedBoard = new StringBuilder(ProtocolMessages.CLIENTBOARD);
+
+        for (int i = 0; i < GameConstants.BOARD_SIZE_Y; i++) {
+
+            for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) {
+                encodedBoard.append(ProtocolMessages.DELIMITER);
+                encodedBoard.append(board[j][i]);
+            }
+
+        }
+
+        return encodedBoard.toString();
+    }
+
+    /**
+     * Decodes the fields of a board that was encoded with {@link #encodeBoard(String[][])} back to a String double array.
+     * @param fields The encoded message split on ProtocolMessages.DELIMITER.
+     * @param offset The index in fields of the first board field.
+     * @return The decoded board.
+     * @throws ArrayIndexOutOfBoundsException If fields doesn't contain a full board starting from offset.
+     * @pre fields != null, offset >= 0
+     * @post ensures that the returned board has the fields in the same positions as they were before encoding
+     */
+    public static String[][] decodeBoard(String[] fields, int offset) {
+        String[][] board = new String[GameConstants.BOARD_SIZE_X][GameConstants.BOARD_SIZE_Y];
 
         for (int i = 0; i < GameConstants.BOARD_SIZE_Y; i++) {
 
             for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) {
-                encodedBoard += ProtocolMessages.DELIMITER;
-                encodedBoard += board[j][i];
+                board[j][i] = fields[offset + i * GameConstants.BOARD_SIZE_X + j];
             }
 
         }
 
-        return encodedBoard;
+        return board;
     }
 
 
@@ -249,7 +424,7 @@ public class GameBoard  {
      * @param x The X coordinate of the move.
      * @param y The Y coordinate of the move.
      * @return Information about whether a ship was hit, whether that hit resulted in sinking the ship, and whether all ships have been destroyed.
-     * @pre x >= 0 && x < 15, y >= 0 && y < 10, board != null
+     * @pre x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y, board != null
      * @post ensures that the move on those coordinates is made and results of that move are returned. Results indicate whether ship was hit, sunk and whether all ships are destroyed
      * @post also ensures that if the move on those x,y coordinates was previously made, then the hit and sink will return false
      */
@@ -286,21 +461,7 @@ public class GameBoard  {
      * @post ensures that returns true if all ship parts on the board have _HIT extension or in other words if all ships are destroyed
      */
     public boolean allShipsDestroyed() {
-        boolean allShipsDestroyed = true;
-
-        for (int i = 0; i < GameConstants.BOARD_SIZE_Y; i++) {
-
-            for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) {
-
-                if (!board[j][i].startsWith(GameConstants.FIELD_TYPE_WATER) && !board[j][i].endsWith(GameConstants.FIELD_TYPE_HIT_EXTENSION)) {
-                    allShipsDestroyed = false;
-                }
-                
-            }
-
-        }
-
-        return allShipsDestroyed;
+        return shipFieldsLeft == 0;
     }
 
     /**
@@ -309,7 +470,7 @@ public class GameBoard  {
      * @param x The X coordinate of the move.
      * @param y The Y coordinate of the move.
      * @return Whether a ship was sunk as a result of the move.
-     * @pre x >= 0 && x < 15, y >= 0 && y < 10, board != null
+     * @pre x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y, board != null
      * @post ensures that it returns true in the case that the ship on given coordinates is sunk
      */
     public boolean hasSunk(int x, int y) {
@@ -0,0 +1,179 @@
+package gameboards;
+
+// External imports
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Internal imports
+import constants.GameConstants;
+
+/**
+ * This class keeps a heatmap of where each opponent likes to shoot, so that a board can be placed where that opponent shoots late.
+ * During a game the order of the opponent's shots on the player's board is recorded. After the game the shots are folded into the heatmap
+ * of that opponent: early shots add more heat than late shots, and the heat of older games fades out so that the heatmap follows an
+ * opponent that changes their way of shooting. Every field is kept as one unsigned 16 bit value, so the file only needs two bytes per field
+ * per opponent and updating it after a game is a single pass over the fields.
+ * The file is read on first use. If it is missing or was made for another board size the heatmaps start empty.
+ * @inv file != null, gameShots != null, shots >= 0
+ */
+public class ShotHeatmaps {
+    // The file that is used if none is given
+    public static final String DEFAULT_FILE = "shot-heatmaps.bin";
+
+    // The amount of fields on the board
+    public static final int FIELDS = GameConstants.BOARD_FIELDS;
+
+    // The heat of the first shot of a game, the heat of later shots goes down to 0
+    private static final int FIRST_SHOT_HEAT = 255;
+
+    // The heat that is added is multiplied by this so that fading out keeps enough precision
+    private static final int HEAT_SCALE = 64;
+
+    // After every game the old heat is divided by this and subtracted, so that it fades out
+    private static final int FADE = 4;
+
+    // Marks the start of a heatmap file: "BSHM"
+    private static final int MAGIC = 0x4253484d;
+    private static final int VERSION = 2;
+
+    // The file the heatmaps are stored in
+    private Path file;
+
+    // For each opponent name the heat of every field, y * BOARD_SIZE_X + x, null until the file was read
+    private Map<String, char[]> heatmaps;
+
+    // For each field the number of the opponent's shot on it in the current game, -1 if not shot
+    private int[] gameShots;
+
+    // The amount of the opponent's shots in the current game
+    private int shots;
+
+    /**
+     * Creates the heatmaps that are stored in the default file.
+     */
+    public ShotHeatmaps() {
+        this(Paths.get(DEFAULT_FILE));
+    }
+
+    /**
+     * Creates the heatmaps that are stored in the given file.
+     * @param file The heatmap file.
+     * @pre file != null
+     * @post ensures that no shot of the current game is recorded
+     */
+    public ShotHeatmaps(Path file) {
+        this.file = file;
+        this.gameShots = new int[FIELDS];
+        Arrays.fill(gameShots, -1);
+        this.shots = 0;
+    }
+
+    /**
+     * Records a shot of the opponent in the current game.
+     * @param x The X coordinate of the shot.
+     * @param y The Y coordinate of the shot.
+     * @pre x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y
+     * @post ensures that the field is recorded with its shot number, unless it was shot before
+     */
+    public void recordShot(int x, int y) {
+        int field = y * GameConstants.BOARD_SIZE_X + x;
+        if (gameShots[field] == -1) {
+            gameShots[field] = shots;
+            shots++;
+        }
+    }
+
+    /**
+     * Folds the shots of the current game into the heatmap of the opponent and starts a new game.
+     * @param opponent The name of the opponent.
+     * @pre opponent != null
+     * @post ensures that the heatmap of the opponent contains the current game and no shot of a new game is recorded
+     */
+    public synchronized void finishGame(String opponent) {
+        if (shots > 0) {
+            char[] heat = load().computeIfAbsent(opponent, name -> new char[FIELDS]);
+            for (int field = 0; field < FIELDS; field++) {
+                int added = gameShots[field] == -1 ? 0 : (int) ((long) FIRST_SHOT_HEAT * (FIELDS - gameShots[field]) / FIELDS);
+                heat[field] = (char) (heat[field] - heat[field] / FADE + added * HEAT_SCALE);
+            }
+        }
+        Arrays.fill(gameShots, -1);
+        shots = 0;
+    }
+
+    /**
+     * Gives the heatmap of an opponent.
+     * @param opponent The name of the opponent.
+     * @return For each field, y * BOARD_SIZE_X + x, how early the opponent usually shoots it, or null if there is no game against the opponent.
+     * @pre opponent != null
+     */
+    public synchronized int[] getHeat(String opponent) {
+        char[] heat = load().get(opponent);
+        if (heat == null) {
+            return null;
+        }
+
+        int[] copy = new int[FIELDS];
+        for (int field = 0; field < FIELDS; field++) {
+            copy[field] = heat[field];
+        }
+        return copy;
+    }
+
+    /**
+     * Writes all heatmaps to the file.
+     * @throws IOException If the file can't be written.
+     */
+    public synchronized void save() throws IOException {
+        Map<String, char[]> maps = load();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeShort(GameConstants.BOARD_SIZE_X);
+            out.writeShort(GameConstants.BOARD_SIZE_Y);
+            out.writeInt(maps.size());
+            for (Map.Entry<String, char[]> entry : maps.entrySet()) {
+                out.writeUTF(entry.getKey());
+                for (char heat : entry.getValue()) {
+                    out.writeChar(heat);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the heatmap file if that wasn't done yet.
+     * @return The heatmaps per opponent, empty if the file couldn't be used.
+     */
+    private Map<String, char[]> load() {
+        if (heatmaps == null) {
+            heatmaps = new HashMap<>();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() == MAGIC && in.readByte() == VERSION && in.readShort() == GameConstants.BOARD_SIZE_X
+                        && in.readShort() == GameConstants.BOARD_SIZE_Y) {
+                    int opponents = in.readInt();
+                    for (int i = 0; i < opponents; i++) {
+                        String opponent = in.readUTF();
+                        char[] heat = new char[FIELDS];
+                        for (int field = 0; field < FIELDS; field++) {
+                            heat[field] = in.readChar();
+                        }
+                        heatmaps.put(opponent, heat);
+                    }
+                }
+            } catch (IOException e) {
+                // No usable file, so the heatmaps that were read completely are kept
+            }
+        }
+        return heatmaps;
+    }
+}
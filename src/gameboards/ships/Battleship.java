@@ -1,5 +1,8 @@
 package gameboards.ships;
 
+// Internal imports
+import constants.GameConstants;
+
 /**
  * This class represents the battleships. It contains mostly information about the ship type. It is also used to 
  * place a battleship on a given board.
@@ -15,7 +18,7 @@ public class Battleship implements Ship {
 
     public Battleship() {
         this.size = 4;
-        this.amount = 3;
+        this.amount = GameConstants.getShipAmount(this.size);
     }
 
     private enum shipParts {
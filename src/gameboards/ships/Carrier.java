@@ -1,5 +1,8 @@
 package gameboards.ships;
 
+// Internal imports
+import constants.GameConstants;
+
 /**
  * This class represents the carriers. It contains mostly information about the ship type. It is also used to 
  * place a carrier on a given board.
@@ -14,7 +17,7 @@ public class Carrier implements Ship {
     
     public Carrier() {
         this.size = 5;
-        this.amount = 2;
+        this.amount = GameConstants.getShipAmount(this.size);
     }
 
     private enum shipParts {
@@ -1,5 +1,8 @@
 package gameboards.ships;
 
+// Internal imports
+import constants.GameConstants;
+
 /**
  * This class represents the destroyers. It contains mostly information about the ship type. It is also used to 
  * place a destroyer on a given board.
@@ -14,7 +17,7 @@ public class Destroyer implements Ship {
 
     public Destroyer() {
         this.size = 3;
-        this.amount = 5;
+        this.amount = GameConstants.getShipAmount(this.size);
     }
 
     private enum shipParts {
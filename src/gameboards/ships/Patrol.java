@@ -1,5 +1,8 @@
 package gameboards.ships;
 
+// Internal imports
+import constants.GameConstants;
+
 /**
  * This class represents the patrols. It contains mostly information about the ship type. It is also used to 
  * place a patrol on a given board.
@@ -14,7 +17,7 @@ public class Patrol implements Ship {
 
     public Patrol() {
         this.size = 1;
-        this.amount = 10;
+        this.amount = GameConstants.getShipAmount(this.size);
     }
 
     private enum shipParts {
@@ -15,7 +15,7 @@ public interface Ship  {
 
     /**
      * To get the amount of the specific ship that needs to be placed
-     * @pre amount > 0
+     * @pre amount >= 0
      * @post Ensures the amount of the ship is returned.
      * @return The amount of ships of the implementing type to be placed
      */ 
@@ -27,7 +27,7 @@ public interface Ship  {
      * @param board The board on which to place the ship
      * @param x X coordinate
      * @param y Y coordinate
-     * @pre board != null, x >= 0 && x < 15, y >= 0 && y < 10
+     * @pre board != null, x >= 0 && x + getSize() <= BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y
      * @post Ensures the ship is placed on given board starting from the given coordinates righwards.
      * @return The instance of this ship. 
      */
@@ -1,5 +1,8 @@
 package gameboards.ships;
 
+// Internal imports
+import constants.GameConstants;
+
 /**
  * This class represents the super patrols. It contains mostly information about the ship type. It is also used to 
  * place a super patrol on a given board.
@@ -14,7 +17,7 @@ public class SuperPatrol implements Ship {
 
     public SuperPatrol() {
         this.size = 2;
-        this.amount = 8;
+        this.amount = GameConstants.getShipAmount(this.size);
     }
 
     private enum shipParts {
@@ -123,4 +123,31 @@ public class EnemyGameBoardTest {
         //try isValidMove() on the already hit water field
         assertFalse(enemyGameBoard.isValidMove(5,4));
     }
+
+    /**
+     * Test that a pending shot can't be fired again, is rolled back to water and is confirmed by the result of the move
+     */
+    @Test
+    public void pendingShotTest() {
+        board = enemyGameBoard.getBoard();
+
+        enemyGameBoard.markPending(3, 3);
+        assertTrue(board[3][3].equals(EnemyGameBoard.SHOT_PENDING));
+        assertFalse(enemyGameBoard.isValidMove(3, 3));
+
+        // A rolled back shot can be fired again
+        enemyGameBoard.clearPending(3, 3);
+        assertTrue(board[3][3].equals(EnemyGameBoard.WATER));
+        assertTrue(enemyGameBoard.isValidMove(3, 3));
+
+        // The result of the move replaces the pending shot, and rolling back doesn't undo a result
+        enemyGameBoard.markPending(3, 3);
+        enemyGameBoard.makeMove(3, 3, true);
+        enemyGameBoard.clearPending(3, 3);
+        assertTrue(board[3][3].equals(EnemyGameBoard.SHIP_HIT));
+
+        // Only water can become pending
+        enemyGameBoard.markPending(3, 3);
+        assertTrue(board[3][3].equals(EnemyGameBoard.SHIP_HIT));
+    }
 }
@@ -345,4 +345,30 @@ public class GameBoardTest {
         }
         assertTrue(gameboard.allShipsDestroyed()); //assert that all ships on the board have been sunk
     }
-}
\ No newline at end of file
+
+    /**
+     * Test the method resetBoard(), which places a new fleet on the same board array and clears the hits and the score
+     */
+    @Test
+    public void resetBoardTest() {
+        int shipCount = gameboard.getShips().size();
+        for (int i = 0; i < GameConstants.BOARD_SIZE_X; i++) {
+            for (int j = 0; j < GameConstants.BOARD_SIZE_Y; j++) {
+                gameboard.singlePlayerMakeMove(i, j);
+            }
+        }
+        gameboard.addScore(true, true);
+        assertTrue(gameboard.allShipsDestroyed());
+
+        gameboard.resetBoard();
+        assertTrue(gameboard.getBoard() == board); //assert that the board array is re-used
+        assertTrue(gameboard.getScore() == 0);
+        assertTrue(gameboard.getShips().size() == shipCount);
+        assertFalse(gameboard.allShipsDestroyed());
+        for (int i = 0; i < GameConstants.BOARD_SIZE_X; i++) {
+            for (int j = 0; j < GameConstants.BOARD_SIZE_Y; j++) {
+                assertFalse(board[i][j].endsWith(GameConstants.FIELD_TYPE_HIT_EXTENSION));
+            }
+        }
+    }
+}
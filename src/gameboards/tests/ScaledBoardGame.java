@@ -0,0 +1,48 @@
+package gameboards.tests;
+
+// External imports
+import java.util.Random;
+
+// Internal imports
+import constants.GameConstants;
+import gameboards.GameBoard;
+import singleplayer.players.ComputerPlayer;
+import singleplayer.players.MonteCarloPlayer;
+import singleplayer.tournament.Match;
+import singleplayer.tournament.Strategy;
+
+/**
+ * Plays a game between two random computer players and a few moves of the Monte Carlo player on the board and fleet that are set with
+ * the system properties of {@link GameConstants}, and prints the time they took. Started in its own JVM by {@link ScaledBoardTest}, since
+ * the board size can only be set when the constants are loaded.
+ */
+public class ScaledBoardGame {
+    // The amount of Monte Carlo moves that are timed
+    private static final int MONTE_CARLO_MOVES = 5;
+
+    /**
+     * Plays the game and the moves and prints the board size, the winner and the times in milliseconds.
+     * @param args Not used.
+     */
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        Strategy random = new Strategy("random", ComputerPlayer::new, () -> new GameBoard(false));
+        int winner = new Match(random, random).play(new Random());
+        long gameTime = (System.nanoTime() - start) / 1000000L;
+
+        MonteCarloPlayer player = new MonteCarloPlayer(null, 50, 200, null);
+        GameBoard target = new GameBoard(false);
+        start = System.nanoTime();
+        for (int move = 0; move < MONTE_CARLO_MOVES; move++) {
+            int field = player.chooseField();
+            int x = field % GameConstants.BOARD_SIZE_X;
+            int y = field / GameConstants.BOARD_SIZE_X;
+            boolean[] result = target.singlePlayerMakeMove(x, y);
+            player.update(x, y, result[0], result[1]);
+        }
+        long moveTime = (System.nanoTime() - start) / 1000000L / MONTE_CARLO_MOVES;
+
+        System.out.println(GameConstants.BOARD_SIZE_X + "x" + GameConstants.BOARD_SIZE_Y + " winner " + winner + " game " + gameTime
+            + " ms, monte carlo move " + moveTime + " ms");
+    }
+}
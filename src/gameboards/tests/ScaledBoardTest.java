@@ -0,0 +1,58 @@
+package gameboards.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import constants.GameConstants;
+
+public class ScaledBoardTest {
+
+    /**
+     * Test that a whole random game and some Monte Carlo moves are played on a 1000 by 1000 board with 28000 ships in little time
+     */
+    @Test
+    public void bigBoardTest() throws IOException, InterruptedException, URISyntaxException {
+        String output = play(1000, 1000, "1000,2000,5000,8000,12000");
+        assertTrue(output.startsWith("1000x1000 winner "), output);
+    }
+
+    /**
+     * Test that a game is played on a small board with a custom fleet
+     */
+    @Test
+    public void smallBoardTest() throws IOException, InterruptedException, URISyntaxException {
+        String output = play(6, 5, "1,0,1,0,2");
+        assertTrue(output.startsWith("6x5 winner "), output);
+    }
+
+    /**
+     * Plays a {@link ScaledBoardGame} in a new JVM with the given board and fleet.
+     * @return The line the game printed.
+     */
+    private String play(int sizeX, int sizeY, String fleet) throws IOException, InterruptedException, URISyntaxException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        // The classes may be loaded by the test launcher instead of from the class path of this JVM
+        String classes = Paths.get(ScaledBoardGame.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        Process process = new ProcessBuilder(java, "-cp", classes + File.pathSeparator + System.getProperty("java.class.path"),
+            "-D" + GameConstants.BOARD_SIZE_X_PROPERTY + "=" + sizeX, "-D" + GameConstants.BOARD_SIZE_Y_PROPERTY + "=" + sizeY,
+            "-D" + GameConstants.FLEET_PROPERTY + "=" + fleet, ScaledBoardGame.class.getName()).redirectErrorStream(true).start();
+
+        String line;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            line = in.readLine();
+        }
+        assertTrue(process.waitFor(60, TimeUnit.SECONDS), "The game took more than a minute");
+        assertEquals(0, process.exitValue(), line);
+        return line;
+    }
+}
@@ -0,0 +1,103 @@
+package gameboards.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import constants.GameConstants;
+import gameboards.GameBoard;
+import gameboards.ShotHeatmaps;
+
+public class ShotHeatmapsTest {
+
+    /**
+     * Test that early shots get more heat than late shots and that the heatmaps are read back the same
+     */
+    @Test
+    public void finishAndSaveTest() throws IOException {
+        Path file = Files.createTempFile("shot-heatmaps", ".bin");
+        try {
+            ShotHeatmaps heatmaps = new ShotHeatmaps(file);
+            assertNull(heatmaps.getHeat("enemy"));
+
+            heatmaps.recordShot(0, 0);
+            heatmaps.recordShot(5, 5);
+            heatmaps.finishGame("enemy");
+            int[] heat = heatmaps.getHeat("enemy");
+            assertTrue(heat[0] > heat[5 * GameConstants.BOARD_SIZE_X + 5]);
+            assertTrue(heat[5 * GameConstants.BOARD_SIZE_X + 5] > heat[1]);
+            assertEquals(0, heat[1]);
+            assertNull(heatmaps.getHeat("someone else"));
+
+            heatmaps.save();
+            int[] read = new ShotHeatmaps(file).getHeat("enemy");
+            for (int field = 0; field < ShotHeatmaps.FIELDS; field++) {
+                assertEquals(heat[field], read[field]);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test that the heat of old games fades out but never overflows
+     */
+    @Test
+    public void fadeTest() {
+        ShotHeatmaps heatmaps = new ShotHeatmaps(Path.of("does-not-exist.bin"));
+        heatmaps.recordShot(0, 0);
+        heatmaps.finishGame("enemy");
+        int first = heatmaps.getHeat("enemy")[0];
+
+        for (int game = 0; game < 100; game++) {
+            heatmaps.recordShot(0, 0);
+            heatmaps.finishGame("enemy");
+        }
+        int many = heatmaps.getHeat("enemy")[0];
+        assertTrue(many > first && many <= 0xFFFF);
+
+        for (int game = 0; game < 100; game++) {
+            heatmaps.recordShot(1, 0);
+            heatmaps.finishGame("enemy");
+        }
+        assertTrue(heatmaps.getHeat("enemy")[0] < first);
+    }
+
+    /**
+     * Test that a board placed against a heatmap has fewer ship fields on the hot half of the board
+     */
+    @Test
+    public void adaptivePlacementTest() {
+        int[] heat = new int[ShotHeatmaps.FIELDS];
+        for (int field = 0; field < ShotHeatmaps.FIELDS / 2; field++) { // The upper half is hot
+            heat[field] = 1000;
+        }
+
+        GameBoard gameBoard = new GameBoard(false);
+        gameBoard.generateBoard(heat, 1000);
+
+        int hot = 0;
+        int cold = 0;
+        String[][] board = gameBoard.getBoard();
+        for (int x = 0; x < GameConstants.BOARD_SIZE_X; x++) {
+            for (int y = 0; y < GameConstants.BOARD_SIZE_Y; y++) {
+                if (!board[x][y].equals(GameConstants.FIELD_TYPE_WATER)) {
+                    if (y < GameConstants.BOARD_SIZE_Y / 2) {
+                        hot++;
+                    } else {
+                        cold++;
+                    }
+                }
+            }
+        }
+        assertEquals(63, hot + cold);
+        assertTrue(hot < cold);
+        assertEquals(28, gameBoard.getShips().size());
+    }
+}
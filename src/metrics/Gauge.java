@@ -0,0 +1,86 @@
+package metrics;
+
+// External imports
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * This class is a value that goes up and down, like whether a game is running or how many threads there are. The value is either set
+ * by the code that owns it or read from a supplier every time the gauge is read.
+ * @inv name != null, help != null, value != null
+ */
+public class Gauge {
+    // The name the gauge is exported with
+    private String name;
+
+    // What the gauge measures
+    private String help;
+
+    // The value if it is set
+    private AtomicLong value;
+
+    // Gives the value if it is read instead of set, null otherwise
+    private LongSupplier supplier;
+
+    /**
+     * Creates a gauge whose value is set.
+     * @param name The name the gauge is exported with.
+     * @param help What the gauge measures.
+     * @pre name != null, help != null
+     * @post ensures that the value is 0
+     */
+    public Gauge(String name, String help) {
+        this(name, help, null);
+    }
+
+    /**
+     * Creates a gauge whose value is read from a supplier.
+     * @param name The name the gauge is exported with.
+     * @param help What the gauge measures.
+     * @param supplier Gives the value, null to set the value instead.
+     * @pre name != null, help != null
+     */
+    public Gauge(String name, String help, LongSupplier supplier) {
+        this.name = name;
+        this.help = help;
+        this.value = new AtomicLong();
+        this.supplier = supplier;
+    }
+
+    /**
+     * Sets the value.
+     * @param newValue The new value.
+     */
+    public void set(long newValue) {
+        value.set(newValue);
+    }
+
+    /**
+     * Adds to the value.
+     * @param amount The amount to add, negative to subtract.
+     */
+    public void add(long amount) {
+        value.getAndAdd(amount);
+    }
+
+    /**
+     * @return The current value.
+     */
+    public long get() {
+        return supplier != null ? supplier.getAsLong() : value.get();
+    }
+
+    /**
+     * @return The name the gauge is exported with.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return What the gauge measures.
+     */
+    public String getHelp() {
+        return help;
+    }
+}
@@ -0,0 +1,168 @@
+package metrics;
+
+// External imports
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class is a latency histogram in the style of HdrHistogram. Values are counted in buckets whose width grows with the value: every
+ * power of two is split into {@link #SUB_BUCKETS} equal buckets, so every value is kept with a relative error of at most about 3% from
+ * a nanosecond up to the largest long, in a fixed array. Recording a value is an index calculation and a few atomic adds, without a
+ * lock and without allocating, so it can be done on every message.
+ * @inv name != null, help != null, counts != null
+ */
+public class Histogram {
+    // The amount of bits used for the buckets inside a power of two
+    private static final int SUB_BUCKET_BITS = 5;
+
+    // The amount of buckets inside a power of two
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // The amount of buckets needed for every positive long
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    // The name the histogram is exported with
+    private String name;
+
+    // What the histogram measures
+    private String help;
+
+    // The amount of values in every bucket
+    private AtomicLongArray counts;
+
+    // The amount of values, their sum and the biggest value
+    private AtomicLong count;
+    private AtomicLong sum;
+    private AtomicLong max;
+
+    /**
+     * @param name The name the histogram is exported with.
+     * @param help What the histogram measures.
+     * @pre name != null, help != null
+     * @post ensures that the histogram is empty
+     */
+    public Histogram(String name, String help) {
+        this.name = name;
+        this.help = help;
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.count = new AtomicLong();
+        this.sum = new AtomicLong();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Records a value.
+     * @param value The value, negative values are recorded as 0.
+     * @post ensures that the value is counted in its bucket, the count, the sum and the maximum
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.getAndIncrement(bucketOf(value));
+        count.getAndIncrement();
+        sum.getAndAdd(value);
+
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Gives a percentile of the recorded values.
+     * @param percentile The percentile, between 0 and 100.
+     * @return The highest value that is in the same bucket as the value at the percentile, or 0 if nothing was recorded.
+     * @pre percentile >= 0 && percentile <= 100
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            total += counts.get(bucket);
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(bucket), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @return The amount of recorded values.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return The sum of the recorded values.
+     */
+    public long getSum() {
+        return sum.get();
+    }
+
+    /**
+     * @return The biggest recorded value, 0 if nothing was recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return The average of the recorded values, 0 if nothing was recorded.
+     */
+    public double getMean() {
+        long values = count.get();
+        return values == 0 ? 0 : (double) sum.get() / values;
+    }
+
+    /**
+     * @return The name the histogram is exported with.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return What the histogram measures.
+     */
+    public String getHelp() {
+        return help;
+    }
+
+    /**
+     * Finds the bucket of a value. Values below SUB_BUCKETS have a bucket each, after that every power of two gets SUB_BUCKETS buckets.
+     * @param value The value, not negative.
+     * @return The index of the bucket.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @param bucket The index of a bucket.
+     * @return The highest value that is counted in the bucket.
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long next = (SUB_BUCKETS + subBucket + 1) << shift;
+        return next - 1 < 0 ? Long.MAX_VALUE : next - 1;
+    }
+}
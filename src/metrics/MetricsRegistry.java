@@ -0,0 +1,106 @@
+package metrics;
+
+// External imports
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * This class keeps all counters, gauges and histograms of a process by name. A metric is looked up or created once, usually in a static
+ * final field of the class that records it, so the hot path only touches the metric itself and never the registry. Asking for a name
+ * that is already registered gives the same metric, so two classes can share one.
+ * @inv counters != null, gauges != null, histograms != null
+ */
+public class MetricsRegistry {
+    // The registry that is used by the game
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    // The metrics by name
+    private ConcurrentMap<String, StripedCounter> counters;
+    private ConcurrentMap<String, Gauge> gauges;
+    private ConcurrentMap<String, Histogram> histograms;
+
+    /**
+     * Creates an empty registry.
+     */
+    public MetricsRegistry() {
+        counters = new ConcurrentHashMap<>();
+        gauges = new ConcurrentHashMap<>();
+        histograms = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return The registry that is used by the game.
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Gives the counter with the given name, creating it if it doesn't exist yet.
+     * @param name The name of the counter.
+     * @param help What the counter counts, only used if the counter is created.
+     * @return The counter.
+     * @pre name != null, help != null
+     */
+    public StripedCounter counter(String name, String help) {
+        return counters.computeIfAbsent(name, key -> new StripedCounter(key, help));
+    }
+
+    /**
+     * Gives the gauge with the given name whose value is set, creating it if it doesn't exist yet.
+     * @param name The name of the gauge.
+     * @param help What the gauge measures, only used if the gauge is created.
+     * @return The gauge.
+     * @pre name != null, help != null
+     */
+    public Gauge gauge(String name, String help) {
+        return gauges.computeIfAbsent(name, key -> new Gauge(key, help));
+    }
+
+    /**
+     * Gives the gauge with the given name whose value is read from a supplier, creating it if it doesn't exist yet.
+     * @param name The name of the gauge.
+     * @param help What the gauge measures, only used if the gauge is created.
+     * @param supplier Gives the value, only used if the gauge is created.
+     * @return The gauge.
+     * @pre name != null, help != null, supplier != null
+     */
+    public Gauge gauge(String name, String help, LongSupplier supplier) {
+        return gauges.computeIfAbsent(name, key -> new Gauge(key, help, supplier));
+    }
+
+    /**
+     * Gives the histogram with the given name, creating it if it doesn't exist yet.
+     * @param name The name of the histogram.
+     * @param help What the histogram measures, only used if the histogram is created.
+     * @return The histogram.
+     * @pre name != null, help != null
+     */
+    public Histogram histogram(String name, String help) {
+        return histograms.computeIfAbsent(name, key -> new Histogram(key, help));
+    }
+
+    /**
+     * @return A list of all counters.
+     */
+    public List<StripedCounter> getCounters() {
+        return new ArrayList<>(counters.values());
+    }
+
+    /**
+     * @return A list of all gauges.
+     */
+    public List<Gauge> getGauges() {
+        return new ArrayList<>(gauges.values());
+    }
+
+    /**
+     * @return A list of all histograms.
+     */
+    public List<Histogram> getHistograms() {
+        return new ArrayList<>(histograms.values());
+    }
+}
@@ -0,0 +1,200 @@
+package metrics;
+
+// External imports
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * This class is an optional HTTP endpoint that serves all metrics of a {@link MetricsRegistry} in the Prometheus text format, so that
+ * bots and other clients that run as daemons can be scraped. It is built on the HTTP server of the JDK and answers on its own thread,
+ * and since metrics are read without locks a scrape never blocks a game thread. Counters and gauges are exported as they are and
+ * histograms as summaries with the 50th, 90th and 99th percentile. The thread counts of the JVM are added as gauges.
+ * Set the system property {@link #PORT_PROPERTY} to start the endpoint with the client or the server, for example
+ * -Dbattleship.metrics.port=9400 and then curl http://localhost:9400/metrics. The endpoint only listens on the loopback address,
+ * unless the system property {@link #HOST_PROPERTY} names another address to bind to, for example 0.0.0.0 for all interfaces.
+ * @inv server != null, registry != null
+ */
+public class MetricsServer {
+    // The system property with the port to serve the metrics on
+    public static final String PORT_PROPERTY = "battleship.metrics.port";
+
+    // The system property with the address to serve the metrics on, the loopback address if it isn't set
+    public static final String HOST_PROPERTY = "battleship.metrics.host";
+
+    // The path the metrics are served on
+    public static final String PATH = "/metrics";
+
+    // The percentiles histograms are exported with
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+
+    // The content type of the Prometheus text format
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // The HTTP server
+    private HttpServer server;
+
+    // The metrics that are served
+    private MetricsRegistry registry;
+
+    // The thread that answers the requests
+    private ExecutorService executor;
+
+    /**
+     * Creates the endpoint on the loopback address and registers the thread gauges, but doesn't start serving yet.
+     * @param registry The metrics to serve.
+     * @param port The port to serve on, 0 for any free port.
+     * @throws IOException If the port can't be bound.
+     * @pre registry != null, port >= 0
+     */
+    public MetricsServer(MetricsRegistry registry, int port) throws IOException {
+        this(registry, InetAddress.getLoopbackAddress(), port);
+    }
+
+    /**
+     * Creates the endpoint and registers the thread gauges, but doesn't start serving yet.
+     * @param registry The metrics to serve.
+     * @param host The address to serve on, the wildcard address to serve on all interfaces.
+     * @param port The port to serve on, 0 for any free port.
+     * @throws IOException If the port can't be bound.
+     * @pre registry != null, host != null, port >= 0
+     */
+    public MetricsServer(MetricsRegistry registry, InetAddress host, int port) throws IOException {
+        this.registry = registry;
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(PATH, this::handle);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        registry.gauge("jvm_threads_live", "Live threads of the JVM", threads::getThreadCount);
+        registry.gauge("jvm_threads_daemon", "Live daemon threads of the JVM", threads::getDaemonThreadCount);
+        registry.gauge("jvm_threads_peak", "Most live threads of the JVM at the same time", threads::getPeakThreadCount);
+    }
+
+    /**
+     * Starts the endpoint if the system property {@link #PORT_PROPERTY} is set, on the address of {@link #HOST_PROPERTY} or else on the
+     * loopback address.
+     * @param registry The metrics to serve.
+     * @return The started endpoint or null if the property isn't set or the endpoint couldn't be started.
+     * @pre registry != null
+     */
+    public static MetricsServer startFromProperty(MetricsRegistry registry) {
+        String port = System.getProperty(PORT_PROPERTY);
+        if (port == null) {
+            return null;
+        }
+
+        String host = System.getProperty(HOST_PROPERTY);
+        try {
+            InetAddress address = host == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(host);
+            MetricsServer metricsServer = new MetricsServer(registry, address, Integer.parseInt(port));
+            metricsServer.start();
+            return metricsServer;
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("Could not start the metrics endpoint on port " + port + ". " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Starts serving the metrics.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops serving the metrics.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * @return The address the metrics are served on.
+     */
+    public InetAddress getAddress() {
+        return server.getAddress().getAddress();
+    }
+
+    /**
+     * @return The port the metrics are served on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Answers a scrape with all metrics.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = format(registry).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Writes all metrics of a registry in the Prometheus text format, sorted by name.
+     * @param registry The metrics to write.
+     * @return The metrics in the Prometheus text format.
+     * @pre registry != null
+     */
+    public static String format(MetricsRegistry registry) {
+        StringBuilder text = new StringBuilder();
+
+        List<StripedCounter> counters = registry.getCounters();
+        counters.sort(Comparator.comparing(StripedCounter::getName));
+        for (StripedCounter counter : counters) {
+            header(text, counter.getName(), counter.getHelp(), "counter");
+            text.append(counter.getName()).append(' ').append(counter.get()).append('\n');
+        }
+
+        List<Gauge> gauges = registry.getGauges();
+        gauges.sort(Comparator.comparing(Gauge::getName));
+        for (Gauge gauge : gauges) {
+            header(text, gauge.getName(), gauge.getHelp(), "gauge");
+            text.append(gauge.getName()).append(' ').append(gauge.get()).append('\n');
+        }
+
+        List<Histogram> histograms = registry.getHistograms();
+        histograms.sort(Comparator.comparing(Histogram::getName));
+        for (Histogram histogram : histograms) {
+            header(text, histogram.getName(), histogram.getHelp(), "summary");
+            for (double quantile : QUANTILES) {
+                text.append(histogram.getName()).append("{quantile=\"").append(quantile).append("\"} ")
+                        .append(histogram.getPercentile(quantile * 100)).append('\n');
+            }
+            text.append(histogram.getName()).append("_sum ").append(histogram.getSum()).append('\n');
+            text.append(histogram.getName()).append("_count ").append(histogram.getCount()).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes the HELP and TYPE lines of a metric.
+     */
+    private static void header(StringBuilder text, String name, String help, String type) {
+        text.append("# HELP ").append(name).append(' ').append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+}
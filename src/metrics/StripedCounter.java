@@ -0,0 +1,88 @@
+package metrics;
+
+// External imports
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class is a counter that many threads can add to at the same time without a lock and without fighting over one cache line.
+ * The count is spread over stripes that each sit on their own cache line, a thread adds to the stripe picked by its id and reading the
+ * counter adds all stripes up. Adding never allocates.
+ * @inv name != null, help != null, cells != null
+ */
+public class StripedCounter {
+    // The amount of longs between two stripes, so that every stripe has its own 64 byte cache line
+    private static final int PADDING = 8;
+
+    // The amount of stripes, a power of two of at least twice the amount of cores
+    private static final int STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1) * 2;
+
+    // The name the counter is exported with
+    private String name;
+
+    // What the counter counts
+    private String help;
+
+    // The stripes, one used long every PADDING longs
+    private AtomicLongArray cells;
+
+    /**
+     * @param name The name the counter is exported with.
+     * @param help What the counter counts.
+     * @pre name != null, help != null
+     * @post ensures that the counter is 0
+     */
+    public StripedCounter(String name, String help) {
+        this.name = name;
+        this.help = help;
+        this.cells = new AtomicLongArray(STRIPES * PADDING);
+    }
+
+    /**
+     * Adds one to the counter.
+     */
+    public void increment() {
+        add(1);
+    }
+
+    /**
+     * Adds to the counter.
+     * @param amount The amount to add.
+     */
+    public void add(long amount) {
+        cells.getAndAdd(stripe(), amount);
+    }
+
+    /**
+     * @return The sum of all stripes. Adds that happen at the same time may or may not be included.
+     */
+    public long get() {
+        long sum = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            sum += cells.get(stripe * PADDING);
+        }
+        return sum;
+    }
+
+    /**
+     * @return The name the counter is exported with.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return What the counter counts.
+     */
+    public String getHelp() {
+        return help;
+    }
+
+    /**
+     * @return The index of the stripe of the current thread.
+     */
+    private int stripe() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id * 0x9E3779B97F4A7C15L >>> 32);
+        return (hash & (STRIPES - 1)) * PADDING;
+    }
+}
@@ -0,0 +1,61 @@
+package metrics.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import metrics.MetricsRegistry;
+import metrics.MetricsServer;
+
+public class MetricsServerTest {
+
+    /**
+     * Test that the metrics are written in the Prometheus text format
+     */
+    @Test
+    public void formatTest() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("moves_total", "Moves").add(3);
+        registry.gauge("in_game", "In game").set(1);
+        registry.histogram("rtt_nanoseconds", "Round trip time").record(20);
+
+        String text = MetricsServer.format(registry);
+        assertTrue(text.contains("# TYPE moves_total counter\nmoves_total 3\n"));
+        assertTrue(text.contains("# HELP in_game In game\n# TYPE in_game gauge\nin_game 1\n"));
+        assertTrue(text.contains("# TYPE rtt_nanoseconds summary\n"));
+        assertTrue(text.contains("rtt_nanoseconds{quantile=\"0.99\"} 20\n"));
+        assertTrue(text.contains("rtt_nanoseconds_sum 20\nrtt_nanoseconds_count 1\n"));
+    }
+
+    /**
+     * Test that the endpoint serves the metrics over HTTP
+     */
+    @Test
+    public void scrapeTest() throws IOException {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("moves_total", "Moves").increment();
+        MetricsServer server = new MetricsServer(registry, 0);
+        server.start();
+        try {
+            assertTrue(server.getAddress().isLoopbackAddress());
+            URL url = new URL("http", server.getAddress().getHostAddress(), server.getPort(), MetricsServer.PATH);
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            assertEquals(200, connection.getResponseCode());
+            assertTrue(connection.getContentType().startsWith("text/plain"));
+            try (InputStream in = connection.getInputStream()) {
+                String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(body.contains("moves_total 1\n"));
+                assertTrue(body.contains("jvm_threads_live "));
+            }
+        } finally {
+            server.stop();
+        }
+    }
+}
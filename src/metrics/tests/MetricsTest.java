@@ -0,0 +1,84 @@
+package metrics.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import metrics.Gauge;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import metrics.StripedCounter;
+
+public class MetricsTest {
+
+    /**
+     * Test that a counter that is added to from many threads doesn't lose adds
+     */
+    @Test
+    public void stripedCounterTest() throws InterruptedException {
+        StripedCounter counter = new StripedCounter("test_total", "Test");
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100000; j++) {
+                    counter.increment();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        counter.add(5);
+        assertEquals(400005, counter.get());
+    }
+
+    /**
+     * Test that percentiles are within the precision of the buckets
+     */
+    @Test
+    public void histogramTest() {
+        Histogram histogram = new Histogram("test_nanoseconds", "Test");
+        assertEquals(0, histogram.getPercentile(50));
+
+        for (long value = 1; value <= 100000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(100000, histogram.getCount());
+        assertEquals(100000000, histogram.getMax());
+        assertEquals(50000500, histogram.getMean(), 1);
+
+        long median = histogram.getPercentile(50);
+        assertTrue(Math.abs(median - 50000000) < 50000000 * 0.04);
+        long p99 = histogram.getPercentile(99);
+        assertTrue(Math.abs(p99 - 99000000) < 99000000 * 0.04);
+        assertEquals(100000000, histogram.getPercentile(100));
+
+        histogram.record(-5); // Recorded as 0
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getPercentile(0));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+    }
+
+    /**
+     * Test that the registry gives the same metric for the same name
+     */
+    @Test
+    public void registryTest() {
+        MetricsRegistry registry = new MetricsRegistry();
+        assertSame(registry.counter("a_total", "A"), registry.counter("a_total", "Other help"));
+        assertSame(registry.histogram("b_nanoseconds", "B"), registry.histogram("b_nanoseconds", "B"));
+
+        Gauge set = registry.gauge("c", "C");
+        set.set(3);
+        set.add(-1);
+        assertEquals(2, registry.gauge("c", "C").get());
+        assertEquals(7, registry.gauge("d", "D", () -> 7).get());
+
+        assertEquals(1, registry.getCounters().size());
+        assertEquals(2, registry.getGauges().size());
+        assertEquals(1, registry.getHistograms().size());
+    }
+}
@@ -52,7 +52,8 @@ public interface ClientProtocol {
 
     /**
      * Called by the move thread to send the move to the server if it is the user's move. If it
-     * isn't the user's move, it informs the user of that and doesn't send the move to server.
+     * isn't the user's move, or the last move is still waiting for its update, the move is held
+     * and sent as soon as the turn is the user's again.
      * @param x The x value of the move.
      * @param y The y value of the move
      * @throws ServerUnavailableException If there's an IO problem with the server.
@@ -83,6 +84,13 @@ public interface ClientProtocol {
      */
     public void gameOver(String winnerName, boolean winType);
 
+    /**
+     * Called after the game ended when the user wants to play another game over the same connection. Resets the boards
+     * and asks the server for a new game with the same player name, which the server answers like a handshake.
+     * @throws ServerUnavailableException If there's an IO problem with the server.
+     */
+    public void playAgain() throws ServerUnavailableException;
+
     /**
      * Sends a message to the server indicating that this client will exit.
      * @throws ServerUnavailableException if IO errors occur.
@@ -0,0 +1,108 @@
+package multiplayer;
+
+/**
+ * This class estimates the offset between the clock of the server and the clock of the client and the round trip between them, like
+ * NTP does. The client sends a {@link ProtocolMessages#PROBE} with the time t0 at which it was sent. The server answers with t0, the time t1
+ * at which it received the probe, the time t2 at which it sent the answer and the end of the move timer of the client's turn, and the
+ * client notes the time t3 at which the answer arrived. The round trip is (t3 - t0) - (t2 - t1) and the offset of the server's clock is
+ * ((t1 - t0) + (t2 - t3)) / 2. Probes that were delayed on the way give a wrong offset, so like the clock filter of NTP the offset of the
+ * probe with the shortest round trip of the last {@link #WINDOW} probes is used.
+ * All times are in microseconds of {@link #now()}, which doesn't jump like the wall clock. Its origin is different in every process, the offset covers that.
+ * @inv offsets != null, delays != null, 0 <= count <= WINDOW
+ */
+public class ClockSync {
+    // The system property with the time in milliseconds between the probes of the client, 0 to only probe when a turn starts
+    public static final String INTERVAL_PROPERTY = "battleship.probe.interval";
+
+    // The value that is used if the property isn't set
+    public static final long DEFAULT_INTERVAL = 1000L;
+
+    // The amount of recent probes the offset is chosen from
+    public static final int WINDOW = 8;
+
+    // The offsets and round trips of the recent probes, used as a ring
+    private long[] offsets;
+    private long[] delays;
+
+    // The amount of probes recorded so far, at most WINDOW
+    private int count;
+
+    // The position in the ring of the next probe
+    private int next;
+
+    // The offset of the server's clock, valid once a probe was recorded
+    private volatile long offset;
+
+    /**
+     * Creates a clock sync without any probes.
+     * @post ensures that hasOffset() == false
+     */
+    public ClockSync() {
+        this.offsets = new long[WINDOW];
+        this.delays = new long[WINDOW];
+    }
+
+    /**
+     * @return The time in milliseconds between the probes of the client, 0 if it only probes when a turn starts.
+     */
+    public static long interval() {
+        return Math.max(0L, Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL));
+    }
+
+    /**
+     * @return The time in microseconds that is used in probes, from System.nanoTime().
+     */
+    public static long now() {
+        return System.nanoTime() / 1000L;
+    }
+
+    /**
+     * Records the answer to a probe.
+     * @param t0 The time the client sent the probe, in the client's clock.
+     * @param t1 The time the server received the probe, in the server's clock.
+     * @param t2 The time the server sent the answer, in the server's clock.
+     * @param t3 The time the client received the answer, in the client's clock.
+     * @return The round trip of the probe in microseconds, without the time the server took to answer.
+     * @pre t0 <= t3, t1 <= t2
+     * @post ensures that the offset is the one of the recent probe with the shortest round trip
+     */
+    public synchronized long record(long t0, long t1, long t2, long t3) {
+        long delay = Math.max(0L, (t3 - t0) - (t2 - t1));
+        offsets[next] = ((t1 - t0) + (t2 - t3)) / 2;
+        delays[next] = delay;
+        next = (next + 1) % WINDOW;
+        count = Math.min(count + 1, WINDOW);
+
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            if (delays[i] < delays[best]) {
+                best = i;
+            }
+        }
+        offset = offsets[best];
+        return delay;
+    }
+
+    /**
+     * @return Whether a probe was answered, so that the offset is known.
+     */
+    public synchronized boolean hasOffset() {
+        return count > 0;
+    }
+
+    /**
+     * @return The time in microseconds that the server's clock is ahead of the client's clock.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Turns a time of the server into the time of the client at the same moment.
+     * @param serverTime A time in microseconds in the server's clock.
+     * @return The System.nanoTime() of the client at that time.
+     */
+    public long toLocalNanos(long serverTime) {
+        return (serverTime - offset) * 1000L;
+    }
+}
@@ -1,21 +1,39 @@
 package multiplayer;
 
 // External imports
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 // Internal imports
+import constants.GameConstants;
+import events.BoardSubmittedEvent;
+import events.GameOverEvent;
+import events.HandshakeEvent;
+import events.LateMoveEvent;
+import events.MoveEvent;
+import events.UpdateEvent;
 import exceptions.ProtocolException;
 import exceptions.ServerUnavailableException;
 import exceptions.SocketCreationException;
 import gameboards.EnemyGameBoard;
 import gameboards.GameBoard;
+import gameboards.ShotHeatmaps;
+import metrics.Gauge;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import metrics.MetricsServer;
+import metrics.StripedCounter;
 import singleplayer.game.Game;
+import singleplayer.players.AutoPilot;
+import tui.BoardSnapshot;
 import tui.GameClientTUI;
 import tui.TerminalColors;
 
@@ -26,18 +44,20 @@ import tui.TerminalColors;
  * @inv view != null, playerName != null
  */
 public class GameClient implements ClientProtocol {
-	// Socket for communication with the server
-	private Socket socket;
-	
-	// Reading and writing buffers for communication with the server
-	private BufferedReader in;
-    private BufferedWriter out;
+	// The connection to the server, a socket unless the client was given another transport
+	private Transport transport;
+
+	// The only writer of the transport, all messages to the server go through it
+	private OutboundQueue outbound;
+
+	// The maximum time in milliseconds to wait for the exit message to be written before the program exits
+	private static final long EXIT_FLUSH_TIME = 1000L;
 
 	// The TUI for getting user input
 	private GameClientTUI view;
 
-	// The user entered player name
-	private String playerName;
+	// The user entered player name, volatile since a name retry changes it on its own thread
+	private volatile String playerName;
 
 	// Enemies name
 	private String enemyName;
@@ -54,8 +74,97 @@ public class GameClient implements ClientProtocol {
 	// The thread in which moveObj is put in
 	private Thread moveThread;
 
-	// Indicates whether it is currently my move
-	private boolean myMove;
+	// Indicates whether it is currently my move, volatile since the move thread reads it
+	private volatile boolean myMove;
+
+	// The maximum time in milliseconds spent on placing the board against the opponent's heatmap
+	public static final long PLACEMENT_TIME = 200L;
+
+	// Where each opponent usually shoots, updated with the opponent's shots of every game
+	private ShotHeatmaps heatmaps;
+
+	// Writes the heatmap file after a game, so that a slow disk doesn't hold up the listener thread, created on first use, guarded by this
+	private ExecutorService heatmapSaver;
+
+	// Indicates whether the board is placed away from where the opponent usually shoots
+	private boolean adaptivePlacement;
+
+	// The system property that turns on the pipelined connect, in which the board is sent right after the handshake
+	public static final String PIPELINED_PROPERTY = "battleship.pipelined";
+
+	// Indicates whether the board was already sent to the server
+	private boolean boardSent;
+
+	// Indicates whether the last game has ended, volatile since the move thread checks it before playing again
+	private volatile boolean gameOver;
+
+	// Indicates whether the server has sent a heartbeat, after which a read timeout means that the server is gone
+	private boolean heartbeatSeen;
+
+	// The flight recorder event of the handshake that is waiting for an answer, null if there is none
+	private HandshakeEvent handshakeEvent;
+
+	// The System.nanoTime() at which the current move of the user started, volatile since the move thread reads it
+	private volatile long turnStart;
+
+	// The System.nanoTime() at which the last move was sent, 0 if there is no move waiting for its update, volatile since the move thread reads it
+	private volatile long moveSentAt;
+
+	// The field y * BOARD_SIZE_X + x of the move that is shown as pending until its update arrives, -1 if there is none
+	private volatile int pendingShot = -1;
+
+	// The fields y * BOARD_SIZE_X + x of the moves that were entered before the user's turn, sent in order once it starts, guarded by this
+	private ArrayDeque<Integer> preMoves = new ArrayDeque<>();
+
+	// Estimates when the server ends the user's turn from the measured round trips
+	private TurnClock turnClock = new TurnClock();
+
+	// Moves for the user just before the move would be late, null if it isn't turned on
+	private AutoPilot autoPilot = AutoPilot.fromProperties();
+
+	// Estimates the clock of the server and the round trip with probes, see ClockSync
+	private ClockSync clockSync = new ClockSync();
+
+	// The timer of the probes and the auto-pilot, created on first use, and the task of the auto-pilot for the current turn, guarded by this
+	private Timer timer;
+	private TimerTask autoPilotTask;
+
+	// The amount of probes in a row without an answer after which the client stops probing
+	private static final int MAX_UNANSWERED_PROBES = 5;
+
+	// Indicates whether the server has answered a probe, so that it knows them, volatile since the listener thread sets it
+	private volatile boolean probesAnswered;
+
+	// The task that sends a probe every interval, null if it isn't running, and the probes since the last answer, guarded by this
+	private TimerTask probeTask;
+	private int unansweredProbes;
+
+	// Records the traffic of this process if the system property is set, see TrafficRecorder, otherwise null
+	private static final TrafficRecorder RECORDER = TrafficRecorder.fromProperty();
+
+	// Metrics of the client, registered once so that recording them doesn't allocate
+	private static final MetricsRegistry METRICS = MetricsRegistry.global();
+	private static final StripedCounter MESSAGES_SENT = METRICS.counter("client_messages_sent_total", "Messages sent to the server");
+	private static final StripedCounter MESSAGES_RECEIVED = METRICS.counter("client_messages_received_total", "Messages received from the server");
+	private static final StripedCounter MOVES = METRICS.counter("client_moves_total", "Moves sent by the user");
+	private static final StripedCounter LATE_MOVES = METRICS.counter("client_late_moves_total", "Moves of the user that were too late");
+	private static final StripedCounter PRE_MOVES_FIRED = METRICS.counter("client_premoves_fired_total", "Moves entered before the turn that were sent when it started");
+	private static final StripedCounter PRE_MOVES_DROPPED = METRICS.counter("client_premoves_dropped_total", "Moves entered before the turn that were dropped because their field was shot meanwhile");
+	private static final StripedCounter AUTO_MOVES = METRICS.counter("client_autopilot_moves_total", "Moves the auto-pilot made because the user was about to be late");
+	private static final StripedCounter SHOT_ROLLBACKS = METRICS.counter("client_shot_rollbacks_total", "Pending shots that were rolled back because no update confirmed them");
+	private static final StripedCounter HEARTBEATS_RECEIVED = METRICS.counter("client_heartbeats_received_total", "Heartbeats received from the server");
+	private static final Histogram MOVE_RTT = METRICS.histogram("client_move_rtt_nanoseconds", "Time from sending a move until its update arrived");
+	private static final Histogram PROBE_RTT = METRICS.histogram("client_probe_rtt_nanoseconds", "Round trip of a clock probe without the time the server took to answer");
+	private static final Histogram TURN_SLACK = METRICS.histogram("client_turn_slack_milliseconds", "Time that was left of the move timer when the user moved");
+	private static final Gauge IN_GAME = METRICS.gauge("client_in_game", "1 while a multiplayer game is running");
+	private static final Histogram HANDLE_HANDSHAKE_TIME = commandHistogram("handshake");
+	private static final Histogram HANDLE_ENEMYNAME_TIME = commandHistogram("enemyname");
+	private static final Histogram HANDLE_NAME_EXISTS_TIME = commandHistogram("name_exists");
+	private static final Histogram HANDLE_SETUP_TIME = commandHistogram("setup");
+	private static final Histogram HANDLE_UPDATE_TIME = commandHistogram("update");
+	private static final Histogram HANDLE_GAMEOVER_TIME = commandHistogram("gameover");
+	private static final Histogram HANDLE_PROBE_TIME = commandHistogram("probe");
+	private static final Histogram HANDLE_UNKNOWN_TIME = commandHistogram("unknown");
 
 
 	/**
@@ -66,16 +175,60 @@ public class GameClient implements ClientProtocol {
 		board = new GameBoard(false);
 		setup();
     }
-	
+
+	/**
+	 * Creates a multiplayer client that is connected through the given transport without asking the user anything, for example to a
+	 * scripted peer in the same process with a {@link LoopbackTransport}. The board is placed randomly, moves are given with
+	 * {@link #move(int, int)} and the messages of the server are only handled once {@link #start()} is called.
+	 * @param view The TUI to show the game with.
+	 * @param playerName The name of the user.
+	 * @param transport The connection to the server.
+	 * @pre view != null, playerName != null, transport != null
+	 * @post ensures that the client is connected and no message was sent yet
+	 */
+	public GameClient(GameClientTUI view, String playerName, Transport transport) {
+		this(view, playerName, transport, new ShotHeatmaps());
+	}
+
+	/**
+	 * Creates a multiplayer client like {@link #GameClient(GameClientTUI, String, Transport)} that keeps the opponent's shots in the
+	 * given heatmaps instead of the default file.
+	 * @param view The TUI to show the game with.
+	 * @param playerName The name of the user.
+	 * @param transport The connection to the server.
+	 * @param heatmaps The heatmaps of the opponents.
+	 * @pre view != null, playerName != null, transport != null, heatmaps != null
+	 * @post ensures that the client is connected and no message was sent yet
+	 */
+	public GameClient(GameClientTUI view, String playerName, Transport transport, ShotHeatmaps heatmaps) {
+		this.view = view;
+		this.playerName = playerName;
+		board = new GameBoard(false);
+		enemyBoard = new EnemyGameBoard();
+		this.heatmaps = heatmaps;
+		moveObj = new Move(enemyBoard, this, view);
+		moveThread = new Thread(moveObj);
+		myMove = false;
+		connect(transport);
+	}
+
+	/**
+	 * Starts the client, and the metrics endpoint if its port is set with the system property {@link MetricsServer#PORT_PROPERTY}.
+	 * @param args Not used.
+	 */
 	public static void main(String[] args) {
+		MetricsServer.startFromProperty(METRICS);
 		new GameClient();
     }
 	
 	/**
 	 * Prompts the user about their player name and whether they want to play multiplayer or singleplayer.
 	 * If player chooses to play multiplayer then an enemy board is created, new move thread is created, and a connection to the server is created 
-	 * that is followed by handshake and calling {@link #start()} to listen to server messages. 
+	 * that is followed by handshake and calling {@link #start()} to listen to server messages. If the system property {@link #PIPELINED_PROPERTY}
+	 * is true and the board isn't placed against the enemy, the board is sent right after the handshake instead of after the enemy's name arrived,
+	 * which saves the round trips of waiting for the handshake and the enemy before the game can start.
 	 * If player chooses to play single player then a new instance of a game is created and the game handles all singleplayer matters there.
+	 * If player chooses to watch a game then a connection to the server is created and a {@link SpectatorClient} listens to the chosen room.
 	 * @throws ServerUnavailableException If IO error occurs when communicating with the server.
 	 * @throws ProtocolException If there is a messup with a protocol message.
 	 * @throws IOException If a general IO error occurs not related to communcation with server.
@@ -91,18 +244,23 @@ public class GameClient implements ClientProtocol {
 		playerName = view.getString(TerminalColors.PURPLE_BOLD + "> Enter your player name, try to make it unique: " + TerminalColors.RESET);
 		view.showEmptyLines(1);
 		
-		view.showMessageLn(TerminalColors.BLUE_BOLD + "> To make a move in the game enter a-o and 1-10 (example: a,2)" + TerminalColors.RESET);
+		view.showMessageLn(TerminalColors.BLUE_BOLD + "> To make a move in the game enter a-" + GameClientTUI.columnName(GameConstants.BOARD_SIZE_X - 1) + " and 1-" + GameConstants.BOARD_SIZE_Y + " (example: a,2)" + TerminalColors.RESET);
 		String gameType = view.getGameType();
 
 		if (gameType.equalsIgnoreCase("m")) { // Multiplayer
 
 			enemyBoard = new EnemyGameBoard();
+			heatmaps = new ShotHeatmaps();
+			adaptivePlacement = view.getAdaptivePlacement();
+			view.showMessageLn(TerminalColors.BLUE_BOLD + "> Enter t in the game to see how much time is left to move" + TerminalColors.RESET);
 			moveObj = new Move(enemyBoard, this, view);
 			moveThread = new Thread(moveObj);
 			myMove = false;
 			
 			try {
 				createConnection();
+				enableHeartbeat();
+				offerProbes();
 			} catch (SocketCreationException sce) {
 				view.showMessageLn(TerminalColors.RED_BOLD+sce.getMessage()+TerminalColors.RESET);
 				System.exit(0);
@@ -110,6 +268,9 @@ public class GameClient implements ClientProtocol {
 
 			try {
 				handleHello(playerName);
+				if (Boolean.getBoolean(PIPELINED_PROPERTY) && !adaptivePlacement) {
+					clientBoard(board);
+				}
 			} catch (ServerUnavailableException sue) {
 				view.showMessageLn(TerminalColors.RED_BOLD+sue.getMessage()+TerminalColors.RESET);
 				System.exit(0);
@@ -122,9 +283,28 @@ public class GameClient implements ClientProtocol {
 				System.exit(0);
 			} 
 
+		} else if (gameType.equalsIgnoreCase("w")) { // Watch a game
+
+			try {
+				createConnection();
+			} catch (SocketCreationException sce) {
+				view.showMessageLn(TerminalColors.RED_BOLD+sce.getMessage()+TerminalColors.RESET);
+				System.exit(0);
+			}
+
+			view.showEmptyLines(1);
+			int roomId = view.getInt(TerminalColors.PURPLE_BOLD + "> Enter the number of the room to watch, 0 for the latest game: " + TerminalColors.RESET);
+
+			try {
+				new SpectatorClient(this, transport, view).watch(roomId);
+			} catch (ProtocolException | ServerUnavailableException pe) {
+				view.showMessageLn(TerminalColors.RED_BOLD+pe.getMessage()+TerminalColors.RESET);
+			}
+			System.exit(0);
+
 		} else { // Single player
 
-			new Game(playerName, view);
+			new Game(playerName, view, view.getHardComputer());
 		
 		}
 
@@ -138,12 +318,12 @@ public class GameClient implements ClientProtocol {
 	 * until a connection is established or until the user indicates to exit 
 	 * the program.
 	 * @throws ServerUnavailableException
-	 * @pre view != null, socket == null
+	 * @pre view != null, transport == null
 	 * @post ensures that an attempt is made to connect to the server using user enter host ip and port, if not succesfully will inform the user 
 	 */
 	public void createConnection() throws SocketCreationException {
 		clearConnection();
-		while (socket == null) {
+		while (transport == null) {
 			view.showEmptyLines(1);
 			String host = view.getString(TerminalColors.PURPLE_BOLD + "> Enter the ip address of the server: " + TerminalColors.RESET);
 			view.showEmptyLines(1);
@@ -154,9 +334,7 @@ public class GameClient implements ClientProtocol {
 				InetAddress addr = InetAddress.getByName(host);
 				view.showEmptyLines(1);
 				view.showMessageLn(TerminalColors.BLUE_BOLD + "> Attempting to connect to " + addr + ":" + port + "..." + TerminalColors.RESET);
-				socket = new Socket(addr, port);
-				out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
-            	in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+				connect(new StreamTransport(new Socket(addr, port)));
 			} catch (IOException | IllegalArgumentException e) {
 				throw new SocketCreationException("Error while creating a connection to the server. " +e.getMessage());
 			}
@@ -164,29 +342,166 @@ public class GameClient implements ClientProtocol {
 	}
 	
 	/**
-	 * Resets the serverSocket and In- and OutputStreams to null.
+	 * Uses a connection to the server that is already open, for example a {@link LoopbackTransport} to a server or peer in the same process.
+	 * @param transport The connection to the server.
+	 * @pre transport != null
+	 * @post ensures that the messages to the server are written to the transport by the sender of a new {@link OutboundQueue}
+	 */
+	public void connect(Transport transport) {
+		this.transport = transport;
+		outbound = new OutboundQueue(transport);
+		outbound.start();
+	}
+
+	/**
+	 * Offers heartbeats to the server and makes reads time out, see {@link Heartbeat}. The settings are read from the system properties.
+	 * Only one heartbeat is sent right away. A server that knows heartbeats answers it, and only then the client sends heartbeats whenever
+	 * it is idle, see {@link #heartbeatAnswered()}, so a server that doesn't know them gets no more than this one.
+	 * @throws SocketCreationException If the timeout can't be set on the transport or the first heartbeat can't be sent.
+	 * @pre transport != null, outbound != null
+	 * @post ensures that reads time out after the idle timeout and that one heartbeat is sent if heartbeats are turned on
+	 */
+	public void enableHeartbeat() throws SocketCreationException {
+		heartbeatSeen = false;
+		try {
+			transport.setReadTimeout(Heartbeat.idleTimeout());
+			if (Heartbeat.interval() > 0) {
+				outbound.send(ProtocolMessages.HEARTBEAT);
+			}
+		} catch (IOException e) {
+			throw new SocketCreationException("Error while setting up the connection to the server. " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Handles the first heartbeat of the server, which shows that it knows heartbeats. From now on the client sends a heartbeat whenever
+	 * nothing was sent for the heartbeat interval.
+	 * @pre outbound != null
+	 * @post ensures that heartbeats are sent when the client is idle, if they are turned on
+	 */
+	private void heartbeatAnswered() {
+		long interval = Heartbeat.interval();
+		if (interval > 0) {
+			outbound.setHeartbeat(ProtocolMessages.HEARTBEAT, interval);
+		}
+	}
+
+	/**
+	 * Sends a single clock probe to find out whether the server knows probes, independent of heartbeats. Only once the server answers it
+	 * the client keeps probing, see {@link #probe(long, long, long, long)}, so a server that doesn't know probes gets no more than this one.
+	 * @pre outbound != null
+	 * @post ensures that one probe is sent, unless it can't be sent
+	 */
+	public void offerProbes() {
+		sendProbe();
+	}
+
+	/**
+	 * Starts sending a clock probe every {@link ClockSync#interval()} milliseconds, so that the offset of the server's clock and the round trip
+	 * stay up to date. Only called once the server has answered a probe.
+	 * @pre outbound != null
+	 * @post ensures that probes are sent until too many of them aren't answered
+	 */
+	private synchronized void startProbes() {
+		long interval = ClockSync.interval();
+		if (interval == 0 || probeTask != null) {
+			return;
+		}
+		if (timer == null) {
+			timer = new Timer("client-timer", true);
+		}
+		probeTask = new TimerTask() {
+			public void run() {
+				sendProbe();
+			}
+		};
+		timer.schedule(probeTask, interval, interval);
+	}
+
+	/**
+	 * Sends a clock probe with the time it is sent. A probe that can't be sent is skipped, the next message that fails tells the user.
+	 * After {@link #MAX_UNANSWERED_PROBES} probes in a row without an answer the client stops probing and the turn clock falls back to
+	 * its own estimate, until an answer arrives after all.
+	 */
+	private void sendProbe() {
+		synchronized (this) {
+			if (unansweredProbes >= MAX_UNANSWERED_PROBES) {
+				probesAnswered = false;
+				if (probeTask != null) {
+					probeTask.cancel();
+					probeTask = null;
+				}
+				return;
+			}
+			unansweredProbes++;
+		}
+		try {
+			sendMessage(ProtocolMessages.PROBE + ProtocolMessages.DELIMITER + ClockSync.now());
+		} catch (ServerUnavailableException e) {
+			// Not a move, so nothing is lost
+		}
+	}
+
+	/**
+	 * Handles the answer to a clock probe. The round trip is added to the turn clock, and if the probe was sent during the user's current
+	 * turn the end of the move timer that the server told is used as the deadline of the turn. The first answer shows that the server
+	 * knows probes, so the client starts probing every interval and at the start of every turn.
+	 * @param sent The time the probe was sent in the client's clock.
+	 * @param received The time the server received the probe in the server's clock.
+	 * @param answered The time the server sent the answer in the server's clock.
+	 * @param deadline The end of the move timer of the user in the server's clock, -1 if it isn't the user's move.
+	 * @post ensures that the clock sync and the turn clock include the probe
+	 */
+	public void probe(long sent, long received, long answered, long deadline) {
+		synchronized (this) {
+			unansweredProbes = 0;
+		}
+		if (!probesAnswered) {
+			probesAnswered = true;
+			startProbes();
+		}
+		long delay = clockSync.record(sent, received, answered, ClockSync.now());
+		PROBE_RTT.record(delay * 1000L);
+		turnClock.recordRtt(delay * 1000L);
+		if (deadline != -1 && myMove && sent * 1000L >= turnStart) {
+			turnClock.setServerDeadline(clockSync.toLocalNanos(deadline));
+		}
+	}
+
+	/**
+	 * Gives the time that is left to send a move in the user's current turn, see {@link TurnClock}.
+	 * @return The time in milliseconds, -1 if it isn't the user's move.
+	 */
+	public long getRemainingTurnTime() {
+		if (!myMove) {
+			return -1L;
+		}
+		return Math.max(0L, turnClock.getRemaining() / 1000000L);
+	}
+
+	/**
+	 * Resets the transport and its outbound queue to null.
 	 * Always make sure to close current connections via closeConnection() 
 	 * before calling this method!
-	 * @post ensures that socket == null, in == null, out == null
+	 * @post ensures that transport == null, outbound == null
 	 */
 	public void clearConnection() {
-		socket = null;
-		in = null;
-		out = null;
+		transport = null;
+		outbound = null;
 	}
 	
 	/**
-	 * Closes the connection by closing the In- and OutputStreams, as 
-	 * well as the socket.
-	 * @pre in != null, out != null, socket != null, view != null
-	 * @post ensures that the socket and communication through it is closed. If fails user is informed.
+	 * Closes the connection by closing the transport, which closes the 
+	 * In- and OutputStreams as well as the socket.
+	 * @pre transport != null, view != null
+	 * @post ensures that the transport and communication through it is closed. If fails user is informed.
 	 */
 	public void closeConnection() {
 		view.showMessageLn("Closing the connection...");
+		outbound.close();
+		outbound.awaitEmpty(EXIT_FLUSH_TIME);
 		try {
-			in.close();
-			out.close();
-			socket.close();
+			transport.close();
 			System.exit(0);
 		} catch (IOException e) {
 			view.showMessageLn("Error closing connection. Exiting program.");
@@ -195,19 +510,23 @@ public class GameClient implements ClientProtocol {
 	}
 	
     /**
-	 * Sends a message to the connected server followed by a new line. 
-	 * The stream is then flushed.
+	 * Sends a message to the connected server followed by a new line. The message is queued in the {@link OutboundQueue},
+	 * whose sender thread writes it together with any other queued messages and then flushes the stream. This method
+	 * can be called from any thread and only waits if the server doesn't read its messages. If the traffic is recorded, see
+	 * {@link TrafficRecorder}, the message is recorded once it is queued.
 	 * @param message The message to send to the server.
 	 * @throws ServerUnavailableException if IO errors occurs.
-	 * @pre out != null, message != null
+	 * @pre outbound != null, message != null
 	 * @post ensures that an attempt is made at sending the given message, if fails user is informed
 	 */
 	public void sendMessage(String message) throws ServerUnavailableException {
-		if (out != null) {
+		if (outbound != null) {
 			try {
-				out.write(message);
-				out.newLine();
-                out.flush();
+				outbound.send(message);
+				MESSAGES_SENT.increment();
+				if (RECORDER != null) {
+					RECORDER.sent(message);
+				}
             } catch (IOException e) {
 				throw new ServerUnavailableException("Could not write to server. Exiting program.");
             }
@@ -220,8 +539,8 @@ public class GameClient implements ClientProtocol {
 
 	/**
 	 * Continuously listens to server input and forwards the input to the
-	 * {@link #handleCommand(String)} method.
-	 * @throws ServerUnavailableException if IO error occurs.
+	 * {@link #handleCommand(String)} method. Heartbeats are only used to notice that the server is gone and aren't forwarded.
+	 * @throws ServerUnavailableException if IO error occurs or if the server sent heartbeats before and then nothing for the idle timeout.
 	 * @throws ProtocolException if there is a messup with a protocol message.
 	 * @pre input != null
 	 * @post ensures that messages from the connected server will be received and forwarded to {@link #handleCommand(String)},
@@ -231,16 +550,49 @@ public class GameClient implements ClientProtocol {
 		
         String input;
 		try {
-			input = in.readLine();
+			input = readMessage();
 			while (input != null) {
                 handleCommand(input);
-				input = in.readLine();
+				input = readMessage();
             }
+        } catch (SocketTimeoutException e) {
+			throw new ServerUnavailableException("The server stopped responding. Exiting program.");
         } catch (IOException e) {
 			throw new ServerUnavailableException("Could not read from server. Exiting program.");
 		} 
 	}
 
+	/**
+	 * Reads the next message from the server that isn't a heartbeat. A read timeout is only passed on if the server has sent a heartbeat
+	 * before, since a server that doesn't send heartbeats may be silent for a long time while waiting for an enemy. If the traffic is
+	 * recorded every message is recorded, heartbeats included.
+	 * @return The message or null if the server closed the connection.
+	 * @throws SocketTimeoutException If the server sent heartbeats and then nothing for the idle timeout.
+	 * @throws IOException If reading fails.
+	 */
+	private String readMessage() throws IOException {
+		while (true) {
+			try {
+				String input = transport.readLine();
+				if (input != null && RECORDER != null) {
+					RECORDER.received(input);
+				}
+				if (input == null || !input.equals(ProtocolMessages.HEARTBEAT)) {
+					return input;
+				}
+				if (!heartbeatSeen) {
+					heartbeatSeen = true;
+					heartbeatAnswered();
+				}
+				HEARTBEATS_RECEIVED.increment();
+			} catch (SocketTimeoutException e) {
+				if (heartbeatSeen) {
+					throw e;
+				}
+			}
+		}
+	}
+
 
 	/**
 	 * Deals with the messages received from the server. If the input is a valid protocol message 
@@ -251,13 +603,33 @@ public class GameClient implements ClientProtocol {
 	 * @pre input != null, view != null
 	 * @post ensures that if the input contains a correctly formatted protocol message, the appropriate handler 
 	 * methods of it will be called. If the input is partly correct protocol message the user is informed of what went wrong.
+	 * @post ensures that the time it took to handle the message is recorded in the histogram of its opcode
 	 */
 	public void handleCommand(String input) throws ServerUnavailableException, ProtocolException {
+		MESSAGES_RECEIVED.increment();
+		long start = System.nanoTime();
+		try {
+			dispatchCommand(input);
+		} finally {
+			commandTime(input).record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Calls the handler method of a message from the server, see {@link #handleCommand(String)}.
+	 * @param input The message from the server.
+	 * @throws ServerUnavailableException if IO error occurs.
+	 * @throws ProtocolException if there is a messup with a protocol message.
+	 */
+	private void dispatchCommand(String input) throws ServerUnavailableException, ProtocolException {
 		if (input.equals(ProtocolMessages.HANDSHAKE)) { // Handshake
 
+			commitHandshake(true);
 			view.showEmptyLines(1);
 			view.showMessageLn(TerminalColors.BLUE_BOLD + "> Welcome to the battleship server! Wait until an enemy connects." + TerminalColors.RESET);
-			moveThread.start();
+			if (moveThread.getState() == Thread.State.NEW) { // The move thread keeps running when playing again
+				moveThread.start();
+			}
 		} else if(input.split(";")[0].equals(ProtocolMessages.ENEMYNAME)) { // Enemy name
 			
 			try {
@@ -270,6 +642,7 @@ public class GameClient implements ClientProtocol {
 		
 		} else if (input.equals(ProtocolMessages.NAME_EXISTS)) { // Name exists
 
+			commitHandshake(false);
 			nameExists();
 
 		} else if (input.split(";")[0].equals(ProtocolMessages.SETUP)) { // Game setup
@@ -277,6 +650,7 @@ public class GameClient implements ClientProtocol {
 			try {
 				String whoGoesFirstName = input.split(";")[1];
 				gameSetup(whoGoesFirstName);
+				firePreMove(); // The user may have entered moves before the game started
 			} catch (ArrayIndexOutOfBoundsException e) {
 				throw new ProtocolException("Who goes first name wasn't provided in SETUP message.");
 			}
@@ -294,9 +668,17 @@ public class GameClient implements ClientProtocol {
 				String whoGoesNextName = splitInput[7];
 
 				update(x, y, isHit, isSunk, isLate, whoWentName, whoGoesNextName);
+				firePreMove(); // Sent right after the update that gives the user the turn, without waiting for the move thread
 			} catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
 				throw new ProtocolException("Update message had problem parsing an integer or one of the values wasn't provided.");
 			}
+		} else if (input.split(";")[0].equals(ProtocolMessages.PROBE)) { // Answer to a clock probe
+			try {
+				String[] splitInput = input.split(";");
+				probe(Long.parseLong(splitInput[1]), Long.parseLong(splitInput[2]), Long.parseLong(splitInput[3]), Long.parseLong(splitInput[4]));
+			} catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+				throw new ProtocolException("Probe message had problem parsing a time or one of the times wasn't provided.");
+			}
 		} else if (input.split(";")[0].equals(ProtocolMessages.GAMEOVER)) { // Game over
 			try {
 				String winnerName = input.split(";")[1];
@@ -309,6 +691,58 @@ public class GameClient implements ClientProtocol {
 		}
 	}
 
+	/**
+	 * Registers the histogram of the time it takes to handle one kind of message.
+	 * @param opcode The name of the kind of message.
+	 * @return The histogram.
+	 */
+	private static Histogram commandHistogram(String opcode) {
+		return METRICS.histogram("client_handle_" + opcode + "_nanoseconds", "Time to handle a " + opcode + " message");
+	}
+
+	/**
+	 * Finds the histogram of the opcode of a message without splitting it, so that it doesn't allocate.
+	 * @param input The message from the server.
+	 * @return The histogram of the opcode of the message.
+	 */
+	private static Histogram commandTime(String input) {
+		int length = input.indexOf(ProtocolMessages.DELIMITER);
+		if (length == -1) {
+			length = input.length();
+		}
+
+		if (isCommand(input, length, ProtocolMessages.HANDSHAKE)) {
+			return HANDLE_HANDSHAKE_TIME;
+		} else if (isCommand(input, length, ProtocolMessages.ENEMYNAME)) {
+			return HANDLE_ENEMYNAME_TIME;
+		} else if (isCommand(input, length, ProtocolMessages.NAME_EXISTS)) {
+			return HANDLE_NAME_EXISTS_TIME;
+		} else if (isCommand(input, length, ProtocolMessages.SETUP)) {
+			return HANDLE_SETUP_TIME;
+		} else if (isCommand(input, length, ProtocolMessages.UPDATE)) {
+			return HANDLE_UPDATE_TIME;
+		} else if (isCommand(input, length, ProtocolMessages.GAMEOVER)) {
+			return HANDLE_GAMEOVER_TIME;
+		} else if (isCommand(input, length, ProtocolMessages.PROBE)) {
+			return HANDLE_PROBE_TIME;
+		}
+		return HANDLE_UNKNOWN_TIME;
+	}
+
+	/**
+	 * @return Whether the opcode of the message, its first length characters, is the given command.
+	 */
+	private static boolean isCommand(String input, int length, String command) {
+		return length == command.length() && input.startsWith(command);
+	}
+
+	/**
+	 * @return Whether a move was sent and its update didn't arrive yet.
+	 */
+	public boolean isMovePending() {
+		return moveSentAt != 0;
+	}
+
 	/**
 	 * Getter for myMove
 	 * @return Whether it is my move or not.
@@ -319,6 +753,170 @@ public class GameClient implements ClientProtocol {
 		return this.myMove;
 	}
 
+	/**
+	 * Getter for the end of the move timer of the user's current move.
+	 * @return The System.nanoTime() at which the current or last move of the user runs out.
+	 */
+	public long getTurnDeadline() {
+		return turnClock.getSendDeadline();
+	}
+
+	/**
+	 * Starts a move of the user and its move timer. The prompt of the move thread is restarted so that it waits until the new deadline.
+	 * @pre moveObj != null
+	 * @post ensures that myMove == true
+	 */
+	private void startTurn() {
+		myMove = true;
+		turnStart = System.nanoTime();
+		turnClock.startTurn();
+		moveObj.cancelPrompt();
+		if (probesAnswered) {
+			sendProbe(); // Asks for the end of the move timer of the new turn right away
+		}
+		scheduleAutoPilot();
+	}
+
+	/**
+	 * Writes the heatmaps to their file on the saver thread, so the listener thread goes on with the next message right away. When the
+	 * program exits it waits up to {@link #EXIT_FLUSH_TIME} milliseconds for saves that are still running.
+	 * @pre heatmaps != null
+	 * @post ensures that the heatmaps are saved after all games that ended before, unless the file can't be written
+	 */
+	private synchronized void saveHeatmaps() {
+		if (heatmapSaver == null) {
+			ExecutorService saver = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "heatmap-saver");
+				thread.setDaemon(true);
+				return thread;
+			});
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				saver.shutdown();
+				try {
+					saver.awaitTermination(EXIT_FLUSH_TIME, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}, "heatmap-saver-exit"));
+			heatmapSaver = saver;
+		}
+		heatmapSaver.execute(() -> {
+			try {
+				heatmaps.save();
+			} catch (IOException e) {
+				view.showMessageLn(TerminalColors.RED_BOLD + "> Could not save where your opponent shot. " + e.getMessage() + TerminalColors.RESET);
+			}
+		});
+	}
+
+	/**
+	 * Ends the move of the user. The prompt of the move thread is stopped, so it no longer waits for a move.
+	 * @pre moveObj != null
+	 * @post ensures that myMove == false
+	 */
+	private void endTurn() {
+		myMove = false;
+		moveObj.cancelPrompt();
+		cancelAutoPilot();
+	}
+
+	/**
+	 * Starts the auto-pilot for the turn that just started, if it is turned on. It moves {@link AutoPilot#getMargin()} before the send deadline of the turn.
+	 * @post ensures that the auto-pilot of an earlier turn is cancelled
+	 */
+	private synchronized void scheduleAutoPilot() {
+		if (autoPilot == null) {
+			return;
+		}
+		cancelAutoPilot();
+		if (timer == null) {
+			timer = new Timer("client-timer", true);
+		}
+		long turn = turnStart;
+		autoPilotTask = new TimerTask() {
+			public void run() {
+				autoMove(turn);
+			}
+		};
+		long delay = turnClock.getRemaining() / 1000000L - autoPilot.getMargin();
+		timer.schedule(autoPilotTask, Math.max(0L, delay));
+	}
+
+	/**
+	 * Cancels the auto-pilot of the current turn.
+	 * @post ensures that autoPilotTask == null
+	 */
+	private synchronized void cancelAutoPilot() {
+		if (autoPilotTask != null) {
+			autoPilotTask.cancel();
+			autoPilotTask = null;
+		}
+	}
+
+	/**
+	 * Called by the timer of the auto-pilot. Chooses a shot within the budget of the auto-pilot and sends it as a normal move, unless the user
+	 * moved or the turn ended while it was chosen. The shot is chosen without holding the lock of the client, so the user can still move meanwhile.
+	 * @param turn The turnStart of the turn the auto-pilot was started for.
+	 * @pre autoPilot != null
+	 * @post ensures that a move is sent if the user didn't send one in this turn
+	 */
+	private void autoMove(long turn) {
+		if (turn != turnStart || !myMove || isMovePending() || gameOver) {
+			return;
+		}
+		int field = autoPilot.chooseField();
+		int x = field % GameConstants.BOARD_SIZE_X;
+		int y = field / GameConstants.BOARD_SIZE_X;
+		synchronized (this) {
+			if (turn != turnStart || !myMove || isMovePending() || gameOver || !enemyBoard.isValidMove(x, y)) {
+				return;
+			}
+			AUTO_MOVES.increment();
+			view.showEmptyLines(1);
+			view.showMessageLn(TerminalColors.BLUE_BOLD + "> Auto-pilot fired " + moveName(x, y) + " before your time ran out." + TerminalColors.RESET);
+			try {
+				move(x, y);
+			} catch (ServerUnavailableException sue) {
+				view.showMessageLn(TerminalColors.RED_BOLD + sue.getMessage() + TerminalColors.RESET);
+				System.exit(0);
+			}
+		}
+	}
+
+	/**
+	 * Drops the pre-moves, which belong to the game that ended.
+	 * @post ensures that no pre-moves are held
+	 */
+	private synchronized void clearPreMoves() {
+		preMoves.clear();
+	}
+
+	/**
+	 * Rolls back the shot that is shown as pending, because the server will not send its update: the move was too late, was ignored
+	 * by the server or the game ended before it was made.
+	 * @return Whether there was a pending shot.
+	 * @pre enemyBoard != null
+	 * @post ensures that pendingShot == -1 and that the field of the shot is water again
+	 */
+	private synchronized boolean rollbackPendingShot() {
+		int shot = pendingShot;
+		if (shot == -1) {
+			return false;
+		}
+		pendingShot = -1;
+		enemyBoard.clearPending(shot % GameConstants.BOARD_SIZE_X, shot / GameConstants.BOARD_SIZE_X);
+		SHOT_ROLLBACKS.increment();
+		return true;
+	}
+
+	/**
+	 * Getter for gameOver
+	 * @return Whether the last game has ended and a new one can be started with {@link #playAgain()}.
+	 */
+	public boolean isGameOver() {
+		return gameOver;
+	}
+
 	/**
 	 * Getter for the client board
 	 * @return The client's board
@@ -337,38 +935,80 @@ public class GameClient implements ClientProtocol {
 	 */
 	@Override
 	public void handleHello(String playerName) throws ServerUnavailableException {
-
+		beginHandshake();
 		sendMessage(ProtocolMessages.HANDSHAKE+ProtocolMessages.DELIMITER+playerName);
 	}
+
+	/**
+	 * Begins the flight recorder event of a handshake, which ends when the server answers it.
+	 */
+	private void beginHandshake() {
+		handshakeEvent = new HandshakeEvent();
+		handshakeEvent.player = playerName;
+		handshakeEvent.begin();
+	}
 	
+	/**
+	 * Ends and commits the flight recorder event of the handshake that is waiting for an answer.
+	 * @param accepted Whether the server accepted the name.
+	 */
+	private void commitHandshake(boolean accepted) {
+		if (handshakeEvent != null) {
+			handshakeEvent.end();
+			handshakeEvent.accepted = accepted;
+			handshakeEvent.commit();
+			handshakeEvent = null;
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
+	 * The new name is asked on its own thread, so that the listener thread keeps reading messages from the server while the user types.
+	 * A board that was already sent is kept by the server and isn't sent again.
 	 * @pre view != null
 	 * @post ensures that an attempt will be made at sending the handshake message to the server given the player's name
 	 */
 	@Override
 	public void nameExists() throws ServerUnavailableException {
-		view.showEmptyLines(1);
-		view.showMessageLn(TerminalColors.RED_BOLD +  "> The name " + playerName + " is the same as your opponents. Please choose a different name." + TerminalColors.RESET);
-		view.showEmptyLines(1);
-		playerName = view.getString(TerminalColors.PURPLE_BOLD + "> Enter your player name: " + TerminalColors.RESET);
-		handleHello(playerName);	
+		Thread retry = new Thread(() -> {
+			view.showEmptyLines(1);
+			view.showMessageLn(TerminalColors.RED_BOLD +  "> The name " + playerName + " is the same as your opponents. Please choose a different name." + TerminalColors.RESET);
+			view.showEmptyLines(1);
+			playerName = view.getString(TerminalColors.PURPLE_BOLD + "> Enter your player name: " + TerminalColors.RESET);
+			try {
+				handleHello(playerName);
+			} catch (ServerUnavailableException sue) {
+				view.showMessageLn(TerminalColors.RED_BOLD+sue.getMessage()+TerminalColors.RESET);
+				System.exit(0);
+			}
+		}, "name-retry");
+		retry.start();
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * If adaptive placement was chosen and there is a heatmap of the enemy, the board is first placed again away from where the enemy usually shoots.
+	 * If the board was already sent with the handshake it isn't sent again.
 	 * @pre view != null, enemyName != null
 	 * @post ensures that user will be informed of the enemy's name and both enemies (empty) and user's boards are printed. 
 	 * @post Also, ensures that an attempt is made at sendin the user's board to the server.
 	 */
 	@Override
 	public void enemyName(String enemyName) throws ServerUnavailableException {
+		if (adaptivePlacement && !boardSent) {
+			int[] heat = heatmaps.getHeat(enemyName);
+			if (heat != null) {
+				synchronized (this) { // The boards are only changed under the lock of the client, see BoardSnapshot
+					board.generateBoard(heat, PLACEMENT_TIME);
+				}
+			}
+		}
 		view.showEmptyLines(1);
 		view.showMessageLn(TerminalColors.BLUE_BOLD + "> Enemy: " + enemyName + TerminalColors.RESET);
-		view.printBoard(board.getBoard(), board.getScore(), playerName);
-		view.showEmptyLines(4);
-		view.printEnemyBoard(enemyBoard.getBoard(), enemyBoard.getScore(), enemyName);
-		clientBoard(board);
+		view.showBoards(new BoardSnapshot(this, board.getBoard(), board.getScore(), playerName, enemyBoard.getBoard(), enemyBoard.getScore(), enemyName, true));
+		if (!boardSent) {
+			clientBoard(board);
+		}
 	}
 
 	/**
@@ -378,7 +1018,14 @@ public class GameClient implements ClientProtocol {
 	 */
 	@Override
 	public void clientBoard(GameBoard board) throws ServerUnavailableException {
+		BoardSubmittedEvent event = new BoardSubmittedEvent();
+		event.begin();
 		sendMessage(board.encodeBoard(board.getBoard()));
+		boardSent = true;
+		event.end();
+		event.player = playerName;
+		event.enemy = enemyName;
+		event.commit();
 	}
 	
 	/**
@@ -388,12 +1035,12 @@ public class GameClient implements ClientProtocol {
 	 */
 	@Override
 	public void gameSetup(String whoGoesFirstName) {
-		
+		IN_GAME.set(1);
 		if (playerName.equals(whoGoesFirstName)) { // If I go first
 			view.showEmptyLines(1);
 			view.showMessageLn(TerminalColors.GREEN_BOLD +  "> It's your turn!" + TerminalColors.RESET);
 			view.showEmptyLines(1);
-			myMove = true;
+			startTurn();
 		} else { // If enemy goes first
 			view.showEmptyLines(1);		
 		}
@@ -403,23 +1050,80 @@ public class GameClient implements ClientProtocol {
 
 	/**
 	 * {@inheritDoc}
-	 * @pre x >= 0 && x < 15, y >= 0 && y < 10, view != null
-	 * @post ensures that an attempt is made at sending user's move to the server or informing the user that it is not their move
+	 * The shot is shown as pending on the enemy's board right away, so the user sees it without waiting for the round trip to the server.
+	 * The update of the move then shows its result, and if no update confirms it the shot is rolled back, see {@link #rollbackPendingShot()}.
+	 * A move that is entered during the opponent's turn, or while the last move waits for its update, is held as a pre-move and sent
+	 * the instant the turn is the user's, see {@link #firePreMove()}. Moves and pre-moves are sent under the lock of the client, so
+	 * the move thread and the listener never both send a move for the same turn. A pre-move on a field that was shot already or that is
+	 * already waiting to be fired isn't queued.
+	 * @pre x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y, view != null
+	 * @post ensures that an attempt is made at sending user's move to the server or that it is held until the user's turn
 	 */
 	@Override
-	public void move(int x, int y) throws ServerUnavailableException {
-		if (myMove) {
+	public synchronized void move(int x, int y) throws ServerUnavailableException {
+		if (myMove && !isMovePending()) {
+			long now = System.nanoTime();
+			TURN_SLACK.record(GameConstants.MOVE_TIME - (now - turnStart) / 1000000L);
+			enemyBoard.markPending(x, y); // Marked before moveSentAt is set, so that the listener sees the mark once it sees the move
+			pendingShot = y * GameConstants.BOARD_SIZE_X + x;
+			moveSentAt = now;
+			MoveEvent.emit(playerName, x, y, now - turnStart);
+			MOVES.increment();
 			sendMessage(ProtocolMessages.MOVE + ProtocolMessages.DELIMITER + String.valueOf(x) + ProtocolMessages.DELIMITER + String.valueOf(y));
+			view.showBoards(new BoardSnapshot(this, board.getBoard(), board.getScore(), playerName, enemyBoard.getBoard(), enemyBoard.getScore(), enemyName, true));
+		} else if (!enemyBoard.isValidMove(x, y)) { // Never queued, it would only be dropped when the turn comes
+			PRE_MOVES_DROPPED.increment();
+			view.showEmptyLines(1);
+			view.showMessageLn(TerminalColors.RED_BOLD + "> Not your move yet, and " + moveName(x, y) + " was shot already." + TerminalColors.RESET);
+		} else if (preMoves.contains(y * GameConstants.BOARD_SIZE_X + x)) {
+			view.showEmptyLines(1);
+			view.showMessageLn(TerminalColors.BLUE_BOLD + "> Not your move yet. " + moveName(x, y) + " is already waiting to be fired." + TerminalColors.RESET);
 		} else {
+			preMoves.add(y * GameConstants.BOARD_SIZE_X + x);
 			view.showEmptyLines(1);			
-			view.showMessageLn(TerminalColors.RED_BOLD + "> Not your move!" + TerminalColors.RESET);
+			view.showMessageLn(TerminalColors.BLUE_BOLD + "> Not your move yet. " + moveName(x, y) + " is fired as soon as it is." + TerminalColors.RESET);
 		}
 		
 	}
+
+	/**
+	 * Sends the oldest pre-move whose field wasn't shot meanwhile, if it is the user's move and no move is waiting for its update.
+	 * Pre-moves whose field was shot in the meantime are dropped. Called by the listener after every update and the setup, since
+	 * they may have given the turn to the user.
+	 * @throws ServerUnavailableException If the move can't be sent.
+	 * @pre enemyBoard != null, view != null
+	 * @post ensures that at most one pre-move is sent and that the pre-moves before it are dropped
+	 */
+	private synchronized void firePreMove() throws ServerUnavailableException {
+		while (myMove && !isMovePending() && !gameOver && !preMoves.isEmpty()) {
+			int field = preMoves.poll();
+			int x = field % GameConstants.BOARD_SIZE_X;
+			int y = field / GameConstants.BOARD_SIZE_X;
+			if (enemyBoard.isValidMove(x, y)) {
+				PRE_MOVES_FIRED.increment();
+				view.showEmptyLines(1);
+				view.showMessageLn(TerminalColors.BLUE_BOLD + "> Fired " + moveName(x, y) + "." + TerminalColors.RESET);
+				move(x, y);
+			} else {
+				PRE_MOVES_DROPPED.increment();
+				view.showEmptyLines(1);
+				view.showMessageLn(TerminalColors.RED_BOLD + "> Dropped " + moveName(x, y) + ", that field was shot already." + TerminalColors.RESET);
+			}
+		}
+	}
+
+	/**
+	 * @param x The X coordinate of a move.
+	 * @param y The Y coordinate of a move.
+	 * @return The move as the user types it, like a,2.
+	 */
+	private static String moveName(int x, int y) {
+		return GameClientTUI.columnName(x) + "," + (y + 1);
+	}
 					
 	/**
 	 * {@inheritDoc}
-	 * @pre x >= 0 && x < 15, y >= 0 && y < 10, whoWentName != null, whoGoesNextName != null, view != null, enemyBoard != null, board != null
+	 * @pre x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y, whoWentName != null, whoGoesNextName != null, view != null, enemyBoard != null, board != null
 	 * @post ensures that the user is informed of the previous move's results and of who is supposed to go next
 	 */
 	@Override
@@ -427,15 +1131,22 @@ public class GameClient implements ClientProtocol {
 		if (isLate) { // If the update indicates that the move was late
 				
 			if (playerName.equals(whoWentName)) { // If I didn't make the move on time
+				LATE_MOVES.increment();
+				LateMoveEvent.emit(playerName);
+				moveSentAt = 0;
+				if (rollbackPendingShot()) {
+					view.showBoards(new BoardSnapshot(this, board.getBoard(), board.getScore(), playerName, enemyBoard.getBoard(), enemyBoard.getScore(), enemyName, true));
+				}
 				view.showEmptyLines(2);
 				view.showMessageLn(TerminalColors.RED_BOLD +  "> You missed your move." + TerminalColors.RESET);
 				view.showEmptyLines(1);
 				view.showMessage(TerminalColors.PURPLE_BOLD + "> Enter coordinates or q to quit: " + TerminalColors.RESET);
-				myMove = false;
+				endTurn();
 		
 			} else { // If opponent didn't make their move on time
 
-				myMove = true;
+				startTurn();
+				LateMoveEvent.emit(whoWentName);
 				view.showEmptyLines(2);
 				view.showMessageLn(TerminalColors.GREEN_BOLD +  "> Enemy missed their turn. It's your turn!" + TerminalColors.RESET);
 				view.showEmptyLines(1);
@@ -445,14 +1156,34 @@ public class GameClient implements ClientProtocol {
 		} else { // If the update isn't about late move
 
 			if (playerName.equals(whoWentName)) { // If I made the previous move
+				if (pendingShot != y * GameConstants.BOARD_SIZE_X + x) { // The update is about another field, so the pending shot won't be confirmed
+					rollbackPendingShot();
+				}
+				pendingShot = -1;
+				if (!isHit) { // The turn ends before the move stops being pending, so a script never sees a turn that is over
+					endTurn();
+				}
+				long rtt = 0;
+				if (moveSentAt != 0) {
+					rtt = System.nanoTime() - moveSentAt;
+					MOVE_RTT.record(rtt);
+					turnClock.recordRtt(rtt);
+					moveSentAt = 0;
+				}
+				UpdateEvent.emit(whoWentName, x, y, isHit, isSunk, rtt);
+				if (autoPilot != null) {
+					autoPilot.update(x, y, isHit, isSunk);
+				}
+				if (isHit) { // If it was a hit the next move starts now
+					startTurn();
+				}
 				
-				enemyBoard.makeMove(x, y, isHit);
+				synchronized (this) {
+					enemyBoard.makeMove(x, y, isHit);
+				}
 				board.addScore(isHit, isSunk);
-				view.printBoard(board.getBoard(), board.getScore(), playerName);
-				view.showEmptyLines(4);
-				view.printEnemyBoard(enemyBoard.getBoard(), enemyBoard.getScore(), enemyName);
+				view.showBoards(new BoardSnapshot(this, board.getBoard(), board.getScore(), playerName, enemyBoard.getBoard(), enemyBoard.getScore(), enemyName, true));
 				if (!isHit) {
-					myMove = false;
 					view.showEmptyLines(2);
 					view.showMessageLn(TerminalColors.RED_BOLD+  "> You missed enemies boat. Wait for your move." + TerminalColors.RESET);
 					view.showEmptyLines(1);
@@ -471,19 +1202,22 @@ public class GameClient implements ClientProtocol {
  
 	
 			} else { // If opponent made the previous move
-				board.makeMove(x, y);
+				rollbackPendingShot(); // The server ignored a shot that was still pending
+				UpdateEvent.emit(whoWentName, x, y, isHit, isSunk, 0);
+				synchronized (this) {
+					board.makeMove(x, y);
+				}
+				heatmaps.recordShot(x, y);
 				enemyBoard.addScore(isHit, isSunk);
-				view.printBoard(board.getBoard(), board.getScore(), playerName);
-				view.showEmptyLines(4);
-				view.printEnemyBoard(enemyBoard.getBoard(), enemyBoard.getScore(), enemyName);
+				view.showBoards(new BoardSnapshot(this, board.getBoard(), board.getScore(), playerName, enemyBoard.getBoard(), enemyBoard.getScore(), enemyName, true));
 				if (!isHit) {
-					myMove = true;
+					startTurn();
 					view.showEmptyLines(2);
 					view.showMessageLn(TerminalColors.GREEN_BOLD +  "> Enemy missed your ship. It's your turn!" + TerminalColors.RESET);
 					view.showEmptyLines(1);
 					view.showMessage(TerminalColors.PURPLE_BOLD + "> Enter coordinates or q to quit:" + TerminalColors.RESET);
 				} else {
-					myMove = false;
+					endTurn();
 					view.showEmptyLines(2);
 					view.showMessageLn(TerminalColors.RED_BOLD +  "> Enemy hit your ship. Wait for your move!" + TerminalColors.RESET);
 					view.showEmptyLines(1);
@@ -498,10 +1232,20 @@ public class GameClient implements ClientProtocol {
 	/**
 	 * {@inheritDoc}
 	 * @pre winnerName != null, view != null
-	 * @post ensures that the user is informed of why the game ended
+	 * @post ensures that the user is informed of why the game ended and that the enemy's shots are added to the enemy's heatmap, which is saved in the background
 	 */
 	@Override
 	public void gameOver(String winnerName, boolean winType) {
+		IN_GAME.set(0);
+		endTurn();
+		rollbackPendingShot();
+		clearPreMoves();
+		GameOverEvent.emit(playerName, winnerName, winType);
+		if (enemyName != null) {
+			heatmaps.finishGame(enemyName);
+			saveHeatmaps();
+		}
+
 		if (winType) { // If end of game was reached normally
 
 			if (playerName.equals(winnerName)) { // If I win
@@ -528,16 +1272,50 @@ public class GameClient implements ClientProtocol {
 		
 		}
 		view.showEmptyLines(1);
-		view.showMessage("Type q to exit game: ");
+		view.showMessage("Type p to play again or q to exit game: ");
+		gameOver = true;
     }
+
+	/**
+	 * {@inheritDoc}
+	 * The connection, the listener thread and the move thread are kept, and both boards are cleared in place, so that starting
+	 * the next game only costs the messages of the handshake. The board is sent right away if the connect is pipelined, see {@link #setup()}.
+	 * @pre gameOver == true, board != null, enemyBoard != null, view != null
+	 * @post ensures that both boards are reset and that an attempt is made at asking the server for a new game
+	 */
+	@Override
+	public void playAgain() throws ServerUnavailableException {
+		gameOver = false;
+		enemyName = null;
+		boardSent = false;
+		moveSentAt = 0;
+		pendingShot = -1;
+		clearPreMoves();
+		if (autoPilot != null) {
+			autoPilot.reset();
+		}
+		synchronized (this) {
+			board.resetBoard();
+			enemyBoard.resetBoard();
+		}
+
+		view.showEmptyLines(1);
+		view.showMessageLn(TerminalColors.BLUE_BOLD + "> Looking for a new game..." + TerminalColors.RESET);
+		beginHandshake();
+		sendMessage(ProtocolMessages.PLAY_AGAIN);
+		if (Boolean.getBoolean(PIPELINED_PROPERTY) && !adaptivePlacement) {
+			clientBoard(board);
+		}
+	}
 	
 	/**
 	 * {@inheritDoc}
-	 * @post ensures that an attempt is made at sending exit messag to the server
+	 * @post ensures that an attempt is made at sending exit messag to the server and that it is written before this method returns
 	 */
     @Override
     public void sendExit() throws ServerUnavailableException {
 		sendMessage(ProtocolMessages.EXIT);
+		outbound.awaitEmpty(EXIT_FLUSH_TIME);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package multiplayer;
+
+/**
+ * Contains the settings of the heartbeats that the client and the reference server send each other. A side that has nothing else
+ * to send sends a {@link ProtocolMessages#HEARTBEAT} message every {@link #interval()} milliseconds, so a live peer is never silent
+ * for long. Reads on the socket time out after {@link #idleTimeout()} milliseconds, and once the peer has sent a heartbeat such a
+ * timeout means that the peer is gone, even if the connection was never closed. A peer that never sent a heartbeat doesn't know them,
+ * so it is not timed out and keeps working like before.
+ * Both values can be changed with system properties, 0 turns the heartbeats or the timeout off.
+ */
+public class Heartbeat {
+    // The system property with the time in milliseconds between heartbeats
+    public static final String INTERVAL_PROPERTY = "battleship.heartbeat.interval";
+
+    // The system property with the time in milliseconds without any message after which the peer is considered gone
+    public static final String IDLE_TIMEOUT_PROPERTY = "battleship.idle.timeout";
+
+    // The values that are used if the properties aren't set
+    public static final long DEFAULT_INTERVAL = 2000L;
+    public static final long DEFAULT_IDLE_TIMEOUT = 10000L;
+
+    /**
+     * @return The time in milliseconds between heartbeats, 0 if no heartbeats are sent.
+     */
+    public static long interval() {
+        return Math.max(0L, Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL));
+    }
+
+    /**
+     * @return The time in milliseconds after which a read times out, 0 if reads don't time out.
+     */
+    public static int idleTimeout() {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0L, Long.getLong(IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT)));
+    }
+}
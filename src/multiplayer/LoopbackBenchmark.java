@@ -0,0 +1,201 @@
+package multiplayer;
+
+// External imports
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+// Internal imports
+import constants.GameConstants;
+import exceptions.ProtocolException;
+import exceptions.ServerUnavailableException;
+import tui.GameClientTUI;
+
+/**
+ * This class measures how many messages the client handles without the network, over a {@link LoopbackTransport}. First one thread
+ * writes update messages that another thread reads, which is the cost of the transport itself. Then {@link GameClient}s play games
+ * against a scripted peer: the client shoots every field of the enemy's board with pre-moves, and the peer answers each move with its
+ * update and a shot at the client's board that gives the turn back. So every message goes through the same parsing, board updates and
+ * outbound queue as in a game on the server. The output of the clients is thrown away.
+ * Run the main method, optionally with the amount of messages for the transport and the amount of games as arguments.
+ */
+public class LoopbackBenchmark {
+    // The amount of messages written through the transport if none is given
+    public static final int DEFAULT_MESSAGES = 5000000;
+
+    // The amount of games played if none is given
+    public static final int DEFAULT_GAMES = 200;
+
+    // The names of the client and the scripted peer
+    private static final String PLAYER = "bench";
+    private static final String ENEMY = "peer";
+
+    /**
+     * The scripted peer that plays the server's part of a game in which only the client shoots at will.
+     * @inv transport != null, messages >= 0
+     */
+    private static class Peer implements Runnable {
+        // The end of the connection of the peer
+        private LoopbackTransport transport;
+
+        // The amount of messages read and written
+        private long messages;
+
+        // The amount of shots at the client's board
+        private int shots;
+
+        /**
+         * @param transport The end of the connection of the peer.
+         * @pre transport != null
+         */
+        private Peer(LoopbackTransport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * Answers the client until it shot every field, then closes the connection. Heartbeats and probes are read and not answered.
+         */
+        @Override
+        public void run() {
+            int fields = GameConstants.BOARD_SIZE_X * GameConstants.BOARD_SIZE_Y;
+            try {
+                String input = transport.readLine();
+                while (input != null) {
+                    messages++;
+                    String[] splitInput = input.split(ProtocolMessages.DELIMITER);
+                    if (splitInput[0].equals(ProtocolMessages.HANDSHAKE)) {
+                        send(ProtocolMessages.HANDSHAKE);
+                        send(ProtocolMessages.ENEMYNAME + ProtocolMessages.DELIMITER + ENEMY);
+                    } else if (splitInput[0].equals(ProtocolMessages.CLIENTBOARD)) {
+                        send(ProtocolMessages.SETUP + ProtocolMessages.DELIMITER + PLAYER);
+                    } else if (splitInput[0].equals(ProtocolMessages.MOVE)) {
+                        send(update(Integer.parseInt(splitInput[1]), Integer.parseInt(splitInput[2]), PLAYER, ENEMY));
+                        if (shots == fields - 1) { // The client shot its last field
+                            transport.flush();
+                            transport.close();
+                            return;
+                        }
+                        send(update(shots % GameConstants.BOARD_SIZE_X, shots / GameConstants.BOARD_SIZE_X, ENEMY, PLAYER));
+                        shots++;
+                    }
+                    transport.flush();
+                    input = transport.readLine();
+                }
+            } catch (IOException e) {
+                transport.close();
+            }
+        }
+
+        /**
+         * @param message The message to write to the client.
+         * @throws IOException If the connection is closed.
+         */
+        private void send(String message) throws IOException {
+            transport.write(message);
+            messages++;
+        }
+
+        /**
+         * @return An update of a shot that missed.
+         */
+        private static String update(int x, int y, String whoWent, String whoGoesNext) {
+            return ProtocolMessages.UPDATE + ProtocolMessages.DELIMITER + x + ProtocolMessages.DELIMITER + y + ProtocolMessages.DELIMITER
+                + false + ProtocolMessages.DELIMITER + false + ProtocolMessages.DELIMITER + false + ProtocolMessages.DELIMITER + whoWent
+                + ProtocolMessages.DELIMITER + whoGoesNext;
+        }
+    }
+
+    /**
+     * Writes messages from one thread and reads them on the calling thread.
+     * @param messages The amount of messages.
+     * @throws IOException If the messages couldn't all be read.
+     * @throws InterruptedException If the calling thread is interrupted.
+     * @pre messages >= 0
+     */
+    public static void pipe(int messages) throws IOException, InterruptedException {
+        LoopbackTransport transport = new LoopbackTransport();
+        LoopbackTransport peer = transport.getPeer();
+        String update = Peer.update(1, 2, ENEMY, PLAYER);
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < messages; i++) {
+                    peer.write(update);
+                }
+            } catch (IOException e) {
+                // The reader counts the messages that arrived
+            }
+            peer.close();
+        }, "benchmark-writer");
+        writer.start();
+
+        int read = 0;
+        while (transport.readLine() != null) {
+            read++;
+        }
+        writer.join();
+        if (read != messages) {
+            throw new IOException("Only " + read + " of " + messages + " messages arrived.");
+        }
+    }
+
+    /**
+     * Plays a game of a client against the scripted peer.
+     * @param view The TUI of the client.
+     * @return The amount of messages the client and the peer exchanged.
+     * @throws ServerUnavailableException If the client couldn't send or read a message.
+     * @throws ProtocolException If the client got a message it couldn't parse.
+     * @throws InterruptedException If the calling thread is interrupted.
+     * @pre view != null
+     */
+    public static long game(GameClientTUI view) throws ServerUnavailableException, ProtocolException, InterruptedException {
+        LoopbackTransport transport = new LoopbackTransport();
+        Peer peer = new Peer(transport.getPeer());
+        Thread thread = new Thread(peer, "benchmark-peer");
+        thread.start();
+
+        GameClient client = new GameClient(view, PLAYER, transport);
+        for (int y = 0; y < GameConstants.BOARD_SIZE_Y; y++) { // All shots are pre-moves, fired as soon as the turn comes
+            for (int x = 0; x < GameConstants.BOARD_SIZE_X; x++) {
+                client.move(x, y);
+            }
+        }
+        client.handleHello(PLAYER);
+        client.start();
+        thread.join();
+        return peer.messages;
+    }
+
+    /**
+     * Runs the benchmark and prints the messages per second. Reads no input and throws the output of the clients away.
+     * @param args The amount of messages for the transport and the amount of games, both optional.
+     * @throws Exception If the benchmark fails.
+     */
+    public static void main(String[] args) throws Exception {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MESSAGES;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_GAMES;
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setIn(new ByteArrayInputStream(new byte[0]));
+
+        long start = System.nanoTime();
+        pipe(messages);
+        report(out, "Transport", messages, System.nanoTime() - start);
+
+        GameClientTUI view = new GameClientTUI();
+        long exchanged = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            exchanged += game(view);
+        }
+        report(out, games + " games", exchanged, System.nanoTime() - start);
+        System.exit(0);
+    }
+
+    /**
+     * Prints how many messages per second went through.
+     */
+    private static void report(PrintStream out, String name, long messages, long nanos) {
+        out.println(name + ": " + messages + " messages in " + nanos / 1000000L + " ms, " + messages * 1000000000L / Math.max(1L, nanos) + " messages per second");
+    }
+}
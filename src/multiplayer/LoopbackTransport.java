@@ -0,0 +1,157 @@
+package multiplayer;
+
+// External imports
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is one end of an in-memory connection to a peer in the same process, see {@link #getPeer()}. A written message is handed
+ * to the peer as the same String object, so nothing is encoded, copied or sent through the kernel, and the cost of the protocol and the
+ * game logic can be measured apart from the network. Each direction holds at most the capacity it was created with, after which the writer
+ * waits until the peer reads, like a socket whose buffer is full. Messages are handed over when they are written, so flushing does nothing.
+ * @inv in != null, out != null, peer != null
+ */
+public class LoopbackTransport implements Transport {
+    // The default amount of messages that each direction holds
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    // How long a waiting thread waits before it checks whether the connection was closed, in nanoseconds
+    private static final long CLOSE_CHECK_INTERVAL = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // The messages to this end and the messages from this end
+    private Pipe in;
+    private Pipe out;
+
+    // The other end of the connection
+    private LoopbackTransport peer;
+
+    // The time in milliseconds after which a read times out, 0 if reads don't time out
+    private volatile int readTimeout;
+
+    /**
+     * The messages of one direction of the connection.
+     * @inv lines != null
+     */
+    private static class Pipe {
+        // The messages that weren't read yet
+        private BlockingQueue<String> lines;
+
+        // Indicates whether one of the ends was closed
+        private volatile boolean closed;
+
+        /**
+         * @param capacity The amount of messages the pipe holds.
+         * @pre capacity > 0
+         */
+        private Pipe(int capacity) {
+            this.lines = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    /**
+     * Creates an end with the default capacity and its connected peer.
+     */
+    public LoopbackTransport() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an end and its connected peer.
+     * @param capacity The amount of messages that each direction holds.
+     * @pre capacity > 0
+     * @post ensures that getPeer().getPeer() == this
+     */
+    public LoopbackTransport(int capacity) {
+        this.in = new Pipe(capacity);
+        this.out = new Pipe(capacity);
+        this.peer = new LoopbackTransport(this);
+    }
+
+    /**
+     * Creates the peer of an end.
+     * @param peer The end that is created.
+     */
+    private LoopbackTransport(LoopbackTransport peer) {
+        this.in = peer.out;
+        this.out = peer.in;
+        this.peer = peer;
+    }
+
+    /**
+     * @return The other end of the connection.
+     */
+    public LoopbackTransport getPeer() {
+        return peer;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The messages that were written before the connection was closed are still read.
+     */
+    @Override
+    public String readLine() throws IOException {
+        int timeout = readTimeout;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        try {
+            while (true) {
+                String line = in.lines.poll(CLOSE_CHECK_INTERVAL, TimeUnit.NANOSECONDS);
+                if (line != null) {
+                    return line;
+                }
+                if (in.closed && in.lines.isEmpty()) {
+                    return null;
+                }
+                if (timeout > 0 && System.nanoTime() - deadline >= 0) {
+                    throw new SocketTimeoutException("Read timed out");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading.");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Waits while the direction to the peer is full.
+     */
+    @Override
+    public void write(String message) throws IOException {
+        try {
+            while (!out.closed) {
+                if (out.lines.offer(message, CLOSE_CHECK_INTERVAL, TimeUnit.NANOSECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing.");
+        }
+        throw new IOException("The connection is closed.");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (out.closed) {
+            throw new IOException("The connection is closed.");
+        }
+    }
+
+    @Override
+    public void setReadTimeout(int timeout) {
+        readTimeout = timeout;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Both directions are closed, so writes of the peer fail as well.
+     */
+    @Override
+    public void close() {
+        in.closed = true;
+        out.closed = true;
+    }
+}
@@ -1,32 +1,43 @@
 package multiplayer;
 
 // External imports
-import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 // Internal imports
+import constants.GameConstants;
 import exceptions.ServerUnavailableException;
 import gameboards.EnemyGameBoard;
+import tui.ConsoleInput;
 import tui.GameClientTUI;
 import tui.TerminalColors;
 
 /**
  * This classes is used by the game client to continuously ask for user input for a move. This promopting for user input is on its own
  * thread so as to not block the showing of other messages in terminal. Just because this always prompts for a move, doesn't mean that
- * the move can always be made. That's because the game client keeps track of whether it is the user's move or not. Also, this continuously 
- * prompting thread for user input allows the user to exit the game at any point by typing q. Ultimately, this idea for a thread that always asks
- * for a move came about because of the 30 second restriction on a move. If a user misses a move then the scanner.readLine() should be canceled, but
- * it can't be. Hence, it just always asks for input. Important to note that this thread is only started once a client has succesfully connected to the server
- * and a game has begun
+ * the move can always be made. That's because the game client keeps track of whether it is the user's move or not. A valid move that is entered
+ * during the opponent's move is given to the client anyway, which holds it as a pre-move and sends it as soon as the turn changes. Also, this continuously 
+ * prompting thread for user input allows the user to exit the game at any point by typing q. The input is read with {@link ConsoleInput},
+ * so a prompt for a move waits at most until the move timer runs out and is cancelled by the client as soon as the turn changes. Lines
+ * typed in the meantime are kept for the next prompt. If the input is a script a line is only taken once it is the user's move or the game is over,
+ * so a script of moves is played as fast as the turns come instead of being rejected for coming too early. Important to note that this thread is only started once a client has succesfully
+ * connected to the server and a game has begun
  * TODO: Converge this class with the one in players package. 
- * @inv client != null, view != null, enemyBoard != null
+ * @inv client != null, view != null, enemyBoard != null, input != null
  */
 public class Move implements Runnable {
-    // To convert the char input to an integer
-    public static final String[] alphabet = { "a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "l", "m", "n", "o"};
+    // The names of the columns of the board, see GameClientTUI.columnName(int)
+    public static final String[] alphabet = columnNames();
 
 
-    // Scanner variable to get user input
-    private Scanner scanner;
+    // How long a script waits for the turn before checking it again, in case a wake up was missed
+    private static final long TURN_CHECK_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // The console input the moves are read from
+    private ConsoleInput input;
+
+    // The thread that is waiting for the turn, woken up by cancelPrompt()
+    private volatile Thread waitingThread;
 
     // Enemies game board
     private EnemyGameBoard enemyBoard;
@@ -51,17 +62,18 @@ public class Move implements Runnable {
         this.enemyBoard = enemyBoard;
         this.client = client;
         this.view = view;
+        this.input = ConsoleInput.system();
     }
 
     /**
-     * Prompts user to make a move until a valid move is entered. 
+     * Prompts user to make a move until a valid move is entered or the prompt is cancelled.
      * This prompt is always active after game has begun so even if it's not your
-     * move you can enter coordinats. However, the move won't be sent to the server
-     * because myMove variable in client is always updated about whos move it is.
-     * If it user's move and user enters valid coordinates, then the move method is called on client. 
+     * move you can enter coordinats. Valid coordinates are given to the move method of the client
+     * either way, which sends them right away if it is the user's move and otherwise holds them until it is.
+     * During the user's move the prompt waits at most until the move timer runs out, and it stops when the client calls {@link #cancelPrompt()}.
      * @throws ServerUnavailableException
      * @pre view != null, client != null, enemyBoard != null
-     * @post ensures that a valid move or exiting the program are achieved. 
+     * @post ensures that a valid move, exiting the program or the end of the prompt are achieved. 
      */
     public void getMove() throws ServerUnavailableException {
 
@@ -73,20 +85,33 @@ public class Move implements Runnable {
         
         while (!validMove) {
             
-            view.showEmptyLines(1);
-            String coordinates = getString("> Enter coordinates or q to quit: ");
+            if (input.isScripted()) {
+                awaitTurn();
+            }
+            String coordinates = input.readLine(promptDeadline());
+            if (coordinates == null) { // If the turn changed, the move timer ran out or the console was closed
+                return;
+            }
 
             if (coordinates.equals("q")) { // If user indicates to exit
                 client.sendExit();
                 System.exit(0);
             }
 
-            if (!client.getMyMove()) {  // If it's not the user's move
+            if (coordinates.equals("t")) { // If user wants to know the time that is left to move
+
+                view.showTurnTime(client.getRemainingTurnTime());
+
+            } else if (coordinates.equals("p") && client.isGameOver()) { // If user wants to play another game
+
+                client.playAgain();
+
+            } else if (client.isGameOver()) {  // If there is no move to make
 
                 view.showEmptyLines(1);   
                 view.showMessageLn(TerminalColors.RED_BOLD + "> Not your move." + TerminalColors.RESET);
         
-            } else { // If it is the user's move
+            } else { // If it is the user's move, or a pre-move during the opponent's move
 
                 try {
                     // Parses the entered coordinates
@@ -123,9 +148,49 @@ public class Move implements Runnable {
                 }
                 
             }
+
+            if (!validMove) {
+                view.showEmptyLines(1);
+                view.showMessage(TerminalColors.PURPLE_BOLD + "> Enter coordinates or q to quit: " + TerminalColors.RESET);
+            }
          }
     }
 
+    /**
+     * Gives the time until which the prompt waits for input. During the user's move that is the end of the move timer, otherwise there is no deadline
+     * and the prompt waits until it is cancelled. Once the move timer ran out the prompt also waits without deadline, for the server to end the turn.
+     * @return The System.nanoTime() until which to wait or {@link ConsoleInput#NO_DEADLINE}.
+     */
+    private long promptDeadline() {
+        long deadline = client.getTurnDeadline();
+        if (client.getMyMove() && deadline - System.nanoTime() > 0) {
+            return deadline;
+        }
+        return ConsoleInput.NO_DEADLINE;
+    }
+
+    /**
+     * Stops the prompt that is waiting for input, so that the next prompt starts with the state of the new turn. Called by the client when the turn changes.
+     * @post ensures that a waiting prompt returns without taking a line
+     */
+    public void cancelPrompt() {
+        input.cancel();
+        LockSupport.unpark(waitingThread);
+    }
+
+    /**
+     * Waits until it is the user's move and no move is waiting for its update, or the game is over. Used for scripts, whose moves
+     * would otherwise be taken before the turn comes.
+     * @post ensures that it is the user's move and no move is pending, or that the game is over
+     */
+    private void awaitTurn() {
+        waitingThread = Thread.currentThread();
+        while ((!client.getMyMove() || client.isMovePending()) && !client.isGameOver()) {
+            LockSupport.parkNanos(this, TURN_CHECK_INTERVAL);
+        }
+        waitingThread = null;
+    }
+
 
     /**
      * Get the x coordinate as number from the letter that user inputs.
@@ -135,46 +200,30 @@ public class Move implements Runnable {
      * @post ensures that the proper index of the letter from the alphabet is array or -1 if the letter aint in there
      */
     public int indexOfLetterInAlphabet(String letter) {
-        if (letter.length() != 1) { 
-
-            return -1;
-        
-        } else {
-        
-            for (int i = 0; i < alphabet.length; i++) {
-                if (alphabet[i].equals(letter)) {
-                    return i;
-                }
-            }
-            return -1;
-        
-        }
+        return GameClientTUI.columnIndex(letter);
     }
 
-
     /**
-     * Promopts user the question for coordinates.
-     * @param question The question for user to answer.
-     * @return User's input.
-     * @pre question != null, view != null
-     * @post ensures that a String response is returned that was entered by the user
+     * @return The names of all columns of the board, in order.
      */
-    public String getString(String question) {
-        scanner = new Scanner(System.in);
-        view.showMessage(TerminalColors.PURPLE_BOLD+ question+ TerminalColors.RESET);
-        return scanner.nextLine();
-        
+    private static String[] columnNames() {
+        String[] names = new String[GameConstants.BOARD_SIZE_X];
+        for (int x = 0; x < names.length; x++) {
+            names[x] = GameClientTUI.columnName(x);
+        }
+        return names;
     }
 
+
     /**
-     * The thread loop that keeps asking for user input until user indicates to quit.
+     * The thread loop that keeps asking for user input until user indicates to quit or the console is closed.
      * @pre view != null
      * @post ensures that this thread will always ask user for input eithe coordinates or to exit program 
      */
 	@Override
 	public void run() {
         
-        while (true) {
+        while (!input.isClosed()) {
             try {
 				getMove();
 			} catch (ServerUnavailableException e) {
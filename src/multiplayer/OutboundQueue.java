@@ -0,0 +1,323 @@
+package multiplayer;
+
+// External imports
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Internal imports
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import metrics.StripedCounter;
+
+/**
+ * This class is the only writer of a connection. Any thread can queue a message without a lock, and one sender thread takes the
+ * messages out of the queue and writes them. All messages that are queued while the sender is writing are written together and
+ * flushed once, so a burst of messages costs one system call instead of one per message, and the threads that send messages never
+ * fight over the writer. If the peer doesn't read and {@link #capacity} messages are waiting, senders wait until there is room
+ * again and give up after {@link #blockTime} milliseconds, so a slow peer slows the game down instead of filling the memory. A sender
+ * reserves its place with a compare-and-set on {@link #pending} before it queues its message, so concurrent senders never queue more than
+ * capacity messages. Threads that wait for room or for the queue to be empty park until the sender thread wakes them after a write.
+ * If a heartbeat is set the sender writes it whenever nothing was written for the heartbeat interval, see {@link Heartbeat}.
+ * @inv queue != null, pending != null, waiters != null, out != null, capacity > 0, blockTime >= 0
+ */
+public class OutboundQueue implements Runnable {
+    // The default amount of messages that may wait to be written
+    public static final int DEFAULT_CAPACITY = 256;
+
+    // The default time in milliseconds a sender waits for room in the queue
+    public static final long DEFAULT_BLOCK_TIME = 5000L;
+
+    // The most messages written before a flush, so that a flood of messages is still sent in parts
+    private static final int MAX_BATCH = 64;
+
+    // Metrics of the writes, shared by all queues
+    private static final MetricsRegistry METRICS = MetricsRegistry.global();
+    private static final Histogram WRITE_TIME = METRICS.histogram("client_send_write_nanoseconds", "Time to write a batch of messages to the socket buffer");
+    private static final Histogram FLUSH_TIME = METRICS.histogram("client_send_flush_nanoseconds", "Time to flush a batch of messages to the socket");
+    private static final Histogram BATCH_SIZE = METRICS.histogram("client_send_batch_messages", "Messages written with one flush");
+    private static final StripedCounter BLOCKED = METRICS.counter("client_send_blocked_total", "Messages that had to wait because the queue was full");
+
+    // The messages that weren't written yet
+    private ConcurrentLinkedQueue<String> queue;
+
+    // The amount of messages that were queued but not written yet
+    private AtomicInteger pending;
+
+    // The threads that wait for room in the queue or for it to be empty, woken by the sender after every write
+    private ConcurrentLinkedQueue<Thread> waiters;
+
+    // The connection the messages are written to, only used by the sender thread
+    private Transport out;
+
+    // The amount of messages that may wait to be written
+    private int capacity;
+
+    // The time in milliseconds a sender waits for room in the queue
+    private long blockTime;
+
+    // The thread that writes the messages, null until started
+    private volatile Thread sender;
+
+    // Indicates whether no more messages are accepted
+    private volatile boolean closed;
+
+    // The error that stopped the sender, null if there was none
+    private volatile IOException failure;
+
+    // The message that is written when the connection was idle for heartbeatInterval, null if no heartbeats are sent
+    private volatile String heartbeat;
+
+    // The time in nanoseconds without a write after which the heartbeat is written
+    private volatile long heartbeatInterval;
+
+    /**
+     * Creates a queue with the default capacity and block time.
+     * @param out The writer of the connection.
+     * @pre out != null
+     */
+    public OutboundQueue(BufferedWriter out) {
+        this(new StreamTransport(null, out));
+    }
+
+    /**
+     * @param out The writer of the connection.
+     * @param capacity The amount of messages that may wait to be written.
+     * @param blockTime The time in milliseconds a sender waits for room in the queue.
+     * @pre out != null, capacity > 0, blockTime >= 0
+     */
+    public OutboundQueue(BufferedWriter out, int capacity, long blockTime) {
+        this(new StreamTransport(null, out), capacity, blockTime);
+    }
+
+    /**
+     * Creates a queue with the default capacity and block time.
+     * @param out The connection the messages are written to.
+     * @pre out != null
+     */
+    public OutboundQueue(Transport out) {
+        this(out, DEFAULT_CAPACITY, DEFAULT_BLOCK_TIME);
+    }
+
+    /**
+     * @param out The connection the messages are written to.
+     * @param capacity The amount of messages that may wait to be written.
+     * @param blockTime The time in milliseconds a sender waits for room in the queue.
+     * @pre out != null, capacity > 0, blockTime >= 0
+     * @post ensures that the queue is empty and open
+     */
+    public OutboundQueue(Transport out, int capacity, long blockTime) {
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.pending = new AtomicInteger();
+        this.waiters = new ConcurrentLinkedQueue<>();
+        this.out = out;
+        this.capacity = capacity;
+        this.blockTime = blockTime;
+    }
+
+    /**
+     * Makes the sender write a message whenever nothing was written for the given interval.
+     * @param message The heartbeat message.
+     * @param interval The time in milliseconds without a write after which the message is written.
+     * @pre message != null, interval > 0
+     */
+    public void setHeartbeat(String message, long interval) {
+        this.heartbeatInterval = TimeUnit.MILLISECONDS.toNanos(interval);
+        this.heartbeat = message;
+        LockSupport.unpark(sender);
+    }
+
+    /**
+     * Starts the sender thread.
+     * @return The sender thread.
+     * @post ensures that queued messages are written
+     */
+    public Thread start() {
+        Thread thread = new Thread(this, "outbound-sender");
+        thread.setDaemon(true);
+        sender = thread;
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Queues a message to be written followed by a new line. Waits if the queue is full.
+     * @param message The message.
+     * @throws IOException If the queue is closed, writing failed before or the queue stayed full for the block time.
+     * @pre message != null
+     * @post ensures that the message is written after all messages that were queued before it, unless writing fails
+     */
+    public void send(String message) throws IOException {
+        checkOpen();
+        if (!reserve()) { // Back-pressure: wait until the sender made room
+            BLOCKED.increment();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTime);
+            Thread current = Thread.currentThread();
+            waiters.add(current);
+            try {
+                while (!reserve()) { // Checked after adding the thread, so a write in between still wakes it
+                    checkOpen();
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new IOException("The peer doesn't read its messages.");
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                }
+            } finally {
+                waiters.remove(current);
+            }
+        }
+        if (closed || failure != null) { // Closed or failed while the place was taken, so give it back instead of queueing
+            release();
+            checkOpen();
+        }
+
+        queue.offer(message);
+        LockSupport.unpark(sender);
+    }
+
+    /**
+     * Takes a place in the queue if there is room.
+     * @return Whether a place was taken.
+     * @post ensures that pending never goes above capacity because of a sender
+     */
+    private boolean reserve() {
+        while (true) {
+            int current = pending.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (pending.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives back a place that was taken with {@link #reserve()} without queueing a message, and wakes the waiting threads.
+     * @post ensures that pending never goes below 0, also if the sender reset it after a failure
+     */
+    private void release() {
+        while (true) {
+            int current = pending.get();
+            if (current == 0 || pending.compareAndSet(current, current - 1)) {
+                break;
+            }
+        }
+        wakeWaiters();
+    }
+
+    /**
+     * Wakes all threads that wait for room in the queue or for it to be empty, so they check again.
+     */
+    private void wakeWaiters() {
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    /**
+     * Waits until all queued messages are written.
+     * @param timeout The maximum time to wait in milliseconds.
+     * @return Whether all messages were written.
+     * @pre timeout >= 0
+     */
+    public boolean awaitEmpty(long timeout) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        try {
+            while (pending.get() > 0 && failure == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waiters.remove(current);
+        }
+        return failure == null;
+    }
+
+    /**
+     * Stops accepting messages. The sender still writes the messages that were queued before and then stops.
+     * @post ensures that no more messages are accepted
+     */
+    public void close() {
+        closed = true;
+        LockSupport.unpark(sender);
+        wakeWaiters();
+    }
+
+    /**
+     * @return The amount of messages that were queued but not written yet.
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Writes messages until the queue is closed and empty or writing fails. Writes the heartbeat if there was nothing to write for its interval.
+     */
+    @Override
+    public void run() {
+        long lastWrite = System.nanoTime();
+        while (!closed || !queue.isEmpty()) {
+            String message = queue.poll();
+            if (message == null) {
+                if (heartbeat == null || closed) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                long idle = System.nanoTime() - lastWrite;
+                if (idle < heartbeatInterval) {
+                    LockSupport.parkNanos(this, heartbeatInterval - idle);
+                    continue;
+                }
+                pending.incrementAndGet(); // Counted like a queued message so that the count stays right after the write
+                message = heartbeat;
+            }
+
+            int written = 0;
+            try {
+                long start = System.nanoTime();
+                while (message != null) {
+                    out.write(message);
+                    written++;
+                    message = written < MAX_BATCH ? queue.poll() : null;
+                }
+                long flushStart = System.nanoTime();
+                out.flush();
+                WRITE_TIME.record(flushStart - start);
+                FLUSH_TIME.record(System.nanoTime() - flushStart);
+                BATCH_SIZE.record(written);
+                lastWrite = System.nanoTime();
+            } catch (IOException e) {
+                failure = e;
+                closed = true;
+                queue.clear();
+                pending.set(0);
+                wakeWaiters();
+                return;
+            }
+            pending.addAndGet(-written);
+            wakeWaiters();
+        }
+    }
+
+    /**
+     * @throws IOException If the queue is closed or writing failed before.
+     */
+    private void checkOpen() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (closed) {
+            throw new IOException("The connection is closed.");
+        }
+    }
+}
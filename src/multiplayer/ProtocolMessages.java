@@ -18,4 +18,14 @@ public class ProtocolMessages {
     public static final String UPDATE = "u";
     public static final String GAMEOVER = "g";
     public static final String EXIT = "e";
+    public static final String PLAY_AGAIN = "pa";
+    public static final String HEARTBEAT = "hb";
+
+    // A clock probe of the client, pr;t0, answered by the server with pr;t0;t1;t2;deadline, see ClockSync.
+    public static final String PROBE = "pr";
+
+    // These strings are used between the server and spectators watching a game.
+    public static final String SPECTATE = "sp";
+    public static final String SNAPSHOT = "ss";
+    public static final String DELTA = "d";
 }
@@ -0,0 +1,193 @@
+package multiplayer;
+
+// External imports
+import java.io.IOException;
+
+// Internal imports
+import exceptions.ProtocolException;
+import exceptions.ServerUnavailableException;
+import gameboards.GameBoard;
+import tui.BoardSnapshot;
+import tui.GameClientTUI;
+import tui.TerminalColors;
+
+/**
+ * This class represents a read-only spectator of a game that is played on the server. After subscribing to a room the server first sends
+ * a snapshot of both players' boards and after that only the small deltas of each move. The spectator applies the deltas on its own copies
+ * of the boards and prints both of them with the TUI. A spectator never sends moves, so it uses the connection of the game client only for
+ * the subscribe message.
+ * @inv client != null, in != null, view != null
+ */
+public class SpectatorClient {
+    // The game client whose connection is used
+    private GameClient client;
+
+    // The connection of the game client, only read from
+    private Transport in;
+
+    // The TUI to print the boards
+    private GameClientTUI view;
+
+    // The boards and names of both players, indexed by seat
+    private GameBoard[] boards;
+    private String[] names;
+
+    // Indicates whether the watched game has ended
+    private boolean gameEnded;
+
+    /**
+     * @param client The game client that is connected to the server.
+     * @param in The connection of the client.
+     * @param view The TUI.
+     * @pre client != null, in != null, view != null
+     */
+    public SpectatorClient(GameClient client, Transport in, GameClientTUI view) {
+        this.client = client;
+        this.in = in;
+        this.view = view;
+        this.boards = new GameBoard[2];
+        this.names = new String[2];
+        this.gameEnded = false;
+    }
+
+    /**
+     * Subscribes to the given room and then listens to the server until the game ends or the connection is closed.
+     * @param roomId The room to watch, 0 for the latest game on the server.
+     * @throws ServerUnavailableException If IO error occurs when communicating with the server.
+     * @throws ProtocolException If there is a messup with a protocol message.
+     * @pre roomId >= 0
+     * @post ensures that every message from the server is forwarded to {@link #handleCommand(String)} until the game ends
+     */
+    public void watch(int roomId) throws ServerUnavailableException, ProtocolException {
+        client.sendMessage(ProtocolMessages.SPECTATE + ProtocolMessages.DELIMITER + roomId);
+
+        try {
+            String input = in.readLine();
+            while (input != null && !gameEnded) {
+                handleCommand(input);
+                if (!gameEnded) {
+                    input = in.readLine();
+                }
+            }
+        } catch (IOException e) {
+            throw new ServerUnavailableException("Could not read from server. Exiting program.");
+        }
+
+        if (!gameEnded) {
+            view.showEmptyLines(1);
+            view.showMessageLn(TerminalColors.RED_BOLD + "> The game has ended or the room doesn't exist." + TerminalColors.RESET);
+        }
+    }
+
+    /**
+     * Deals with the messages received from the server while watching.
+     * @param input The message from the server.
+     * @throws ProtocolException If there is a messup with a protocol message.
+     * @pre input != null
+     * @post ensures that snapshots replace the boards, deltas are applied to them and game over ends the watching
+     */
+    public void handleCommand(String input) throws ProtocolException {
+        String[] splitInput = input.split(ProtocolMessages.DELIMITER);
+
+        if (splitInput[0].equals(ProtocolMessages.SNAPSHOT)) { // Snapshot of one player's board
+
+            try {
+                int seat = Integer.parseInt(splitInput[1]);
+                names[seat] = splitInput[2];
+                boards[seat] = new GameBoard(GameBoard.decodeBoard(splitInput, 4), Integer.parseInt(splitInput[3]));
+            } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                throw new ProtocolException("Snapshot message had problem parsing an integer or one of the values wasn't provided.");
+            }
+
+            if (boards[0] != null && boards[1] != null) {
+                printBoards(TerminalColors.BLUE_BOLD + "> Watching " + names[0] + " against " + names[1] + "." + TerminalColors.RESET);
+            }
+
+        } else if (splitInput[0].equals(ProtocolMessages.DELTA)) { // A move
+
+            if (boards[0] == null || boards[1] == null) {
+                throw new ProtocolException("Delta message was received before the snapshots.");
+            }
+            applyDelta(SpectatorDelta.decode(input));
+
+        } else if (splitInput[0].equals(ProtocolMessages.GAMEOVER)) { // Game over
+
+            try {
+                gameOver(splitInput.length > 1 ? splitInput[1] : "", Boolean.parseBoolean(splitInput[2]));
+            } catch (ArrayIndexOutOfBoundsException e) {
+                throw new ProtocolException("Game over message didn't include playerName or the win type");
+            }
+
+        }
+    }
+
+    /**
+     * Applies a move to the board of the player that was shot at and prints both boards.
+     * @param delta The move.
+     * @pre delta != null, boards[0] != null, boards[1] != null
+     * @post ensures that the shot field is marked as hit and the shooter's score is updated
+     */
+    public void applyDelta(SpectatorDelta delta) {
+        String shooter = names[delta.getSeat()];
+        String target = names[1 - delta.getSeat()];
+
+        if (delta.isLate()) {
+            printBoards(TerminalColors.RED_BOLD + "> " + shooter + " missed their move." + TerminalColors.RESET);
+            return;
+        }
+
+        synchronized (this) { // The boards are only changed under the lock of the client, see BoardSnapshot
+            boards[1 - delta.getSeat()].makeMove(delta.getX(), delta.getY());
+        }
+        boards[delta.getSeat()].addScore(delta.isHit(), delta.isSunk());
+
+        String field = GameClientTUI.columnName(delta.getX()) + "," + (delta.getY() + 1);
+        if (delta.isSunk()) {
+            printBoards(TerminalColors.GREEN_BOLD + "> " + shooter + " sunk " + target + "'s ship at " + field + "." + TerminalColors.RESET);
+        } else if (delta.isHit()) {
+            printBoards(TerminalColors.GREEN_BOLD + "> " + shooter + " hit " + target + "'s ship at " + field + "." + TerminalColors.RESET);
+        } else {
+            printBoards(TerminalColors.RED_BOLD + "> " + shooter + " missed at " + field + "." + TerminalColors.RESET);
+        }
+    }
+
+    /**
+     * Informs the spectator of the result of the game and stops watching.
+     * @param winnerName The name of the winner or empty string if it's a tie.
+     * @param winType True if the game ended normally, false if game ended because one of the players quit.
+     * @post ensures that gameEnded == true
+     */
+    public void gameOver(String winnerName, boolean winType) {
+        view.showEmptyLines(2);
+        if (!winType) {
+            view.showMessageLn(TerminalColors.BLUE_BOLD + "> A player left, " + winnerName + " wins." + TerminalColors.RESET);
+        } else if (winnerName.isEmpty()) {
+            view.showMessageLn(TerminalColors.BLUE_BOLD + "> Game over: It's a tie." + TerminalColors.RESET);
+        } else {
+            view.showMessageLn(TerminalColors.BLUE_BOLD + "> Game over: " + winnerName + " won!" + TerminalColors.RESET);
+        }
+        gameEnded = true;
+    }
+
+    /**
+     * Getter for the board of a seat.
+     * @param seat The seat of the player.
+     * @return The board of the player or null if its snapshot wasn't received yet.
+     * @pre seat == 0 || seat == 1
+     */
+    public GameBoard getBoard(int seat) {
+        return boards[seat];
+    }
+
+    /**
+     * Prints both players' boards with a message about what happened below them.
+     * @param message The message to be displayed below the boards.
+     * @pre message != null, boards[0] != null, boards[1] != null
+     */
+    private void printBoards(String message) {
+        view.showEmptyLines(3);
+        view.showBoards(new BoardSnapshot(this, boards[0].getBoard(), boards[0].getScore(), names[0], boards[1].getBoard(), boards[1].getScore(), names[1], false));
+        view.showEmptyLines(2);
+        view.showMessageLn(message);
+    }
+}
@@ -0,0 +1,137 @@
+package multiplayer;
+
+// Internal imports
+import exceptions.ProtocolException;
+
+/**
+ * This class represents a single move as it is sent to spectators. Spectators already know both boards from the snapshots
+ * they receive when they start watching, so after that only the coordinates of the move and what happened are needed. To keep the
+ * message small the hit, sunk and late indicators and the seat of the player that made the move are packed into one flags number.
+ * An encoded delta looks like d;x;y;flags
+ * @inv seat == 0 || seat == 1
+ */
+public class SpectatorDelta {
+    // The bits of the flags number
+    private static final int HIT = 1;
+    private static final int SUNK = 2;
+    private static final int LATE = 4;
+    private static final int SECOND_SEAT = 8;
+
+    // The seat (0 or 1) of the player that made the move
+    private int seat;
+
+    // The coordinates of the move
+    private int x;
+    private int y;
+
+    // The results of the move
+    private boolean isHit;
+    private boolean isSunk;
+    private boolean isLate;
+
+    /**
+     * @param seat The seat of the player that made the move.
+     * @param x The X coordinate of the move.
+     * @param y The Y coordinate of the move.
+     * @param isHit Indicates whether a ship was hit.
+     * @param isSunk Indicates whether a ship was sunk.
+     * @param isLate Indicates whether the move was late.
+     * @pre seat == 0 || seat == 1
+     */
+    public SpectatorDelta(int seat, int x, int y, boolean isHit, boolean isSunk, boolean isLate) {
+        this.seat = seat;
+        this.x = x;
+        this.y = y;
+        this.isHit = isHit;
+        this.isSunk = isSunk;
+        this.isLate = isLate;
+    }
+
+    /**
+     * Encodes this delta to the message that is sent to spectators.
+     * @return The encoded delta.
+     * @post ensures that the returned message can be decoded back with {@link #decode(String)}
+     */
+    public String encode() {
+        int flags = 0;
+        if (isHit) {
+            flags |= HIT;
+        }
+        if (isSunk) {
+            flags |= SUNK;
+        }
+        if (isLate) {
+            flags |= LATE;
+        }
+        if (seat == 1) {
+            flags |= SECOND_SEAT;
+        }
+        return ProtocolMessages.DELTA + ProtocolMessages.DELIMITER + x + ProtocolMessages.DELIMITER + y + ProtocolMessages.DELIMITER + flags;
+    }
+
+    /**
+     * Decodes a delta message received from the server.
+     * @param input The delta message.
+     * @return The decoded delta.
+     * @throws ProtocolException If the message isn't a correctly formatted delta.
+     * @pre input != null
+     * @post ensures that the returned delta has the same values as the one that was encoded
+     */
+    public static SpectatorDelta decode(String input) throws ProtocolException {
+        try {
+            String[] splitInput = input.split(ProtocolMessages.DELIMITER);
+            if (!splitInput[0].equals(ProtocolMessages.DELTA)) {
+                throw new ProtocolException("Message is not a delta message.");
+            }
+            int x = Integer.parseInt(splitInput[1]);
+            int y = Integer.parseInt(splitInput[2]);
+            int flags = Integer.parseInt(splitInput[3]);
+
+            return new SpectatorDelta((flags & SECOND_SEAT) != 0 ? 1 : 0, x, y, (flags & HIT) != 0, (flags & SUNK) != 0, (flags & LATE) != 0);
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new ProtocolException("Delta message had problem parsing an integer or one of the values wasn't provided.");
+        }
+    }
+
+    /**
+     * @return The seat of the player that made the move.
+     */
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * @return The X coordinate of the move.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return The Y coordinate of the move.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * @return Whether a ship was hit.
+     */
+    public boolean isHit() {
+        return isHit;
+    }
+
+    /**
+     * @return Whether a ship was sunk.
+     */
+    public boolean isSunk() {
+        return isSunk;
+    }
+
+    /**
+     * @return Whether the move was late.
+     */
+    public boolean isLate() {
+        return isLate;
+    }
+}
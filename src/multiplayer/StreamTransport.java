@@ -0,0 +1,85 @@
+package multiplayer;
+
+// External imports
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+
+/**
+ * This class is a {@link Transport} over a reader and a writer, usually the streams of a socket to the server.
+ * @inv out != null
+ */
+public class StreamTransport implements Transport {
+    // The socket the streams belong to, null if they don't belong to a socket
+    private Socket socket;
+
+    // Reading and writing buffers of the connection, in is null if nothing is read
+    private BufferedReader in;
+    private BufferedWriter out;
+
+    /**
+     * @param socket The connected socket.
+     * @throws IOException If the streams of the socket can't be opened.
+     * @pre socket != null
+     */
+    public StreamTransport(Socket socket) throws IOException {
+        this.socket = socket;
+        this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+    }
+
+    /**
+     * @param in The reader of the connection, null if nothing is read.
+     * @param out The writer of the connection.
+     * @pre out != null
+     */
+    public StreamTransport(BufferedReader in, BufferedWriter out) {
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @pre in != null
+     */
+    @Override
+    public String readLine() throws IOException {
+        return in.readLine();
+    }
+
+    @Override
+    public void write(String message) throws IOException {
+        out.write(message);
+        out.newLine();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Without a socket reads never time out.
+     */
+    @Override
+    public void setReadTimeout(int timeout) throws IOException {
+        if (socket != null) {
+            socket.setSoTimeout(timeout);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+        out.close();
+        if (socket != null) {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package multiplayer;
+
+// External imports
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class records every protocol line the client sends and receives with the time it was sent or received, so that a session can
+ * be replayed later with {@link TrafficReplayer}. Recording is turned on by setting {@link #FILE_PROPERTY} to the file to record to.
+ * The file starts with {@link #MAGIC} and {@link #VERSION}, followed by the wall clock time in milliseconds at which the recording
+ * started. Every line is then one record: a byte that tells whether it was sent or received, the nanoseconds since the record before
+ * and the length of the line in UTF-8 bytes as variable length numbers of 7 bits per byte, and the bytes of the line. A record of a
+ * short message so mostly takes a few bytes more than the message itself.
+ * Lines are recorded by the thread that sends or receives them, so the methods are synchronized. The heartbeats that the outbound
+ * queue sends by itself aren't recorded, the ones that are received are.
+ * @inv out != null, last is a System.nanoTime()
+ */
+public class TrafficRecorder {
+    // The system property with the file to record to, unset to not record
+    public static final String FILE_PROPERTY = "battleship.record";
+
+    // The first bytes of a recording, BSTR, and the version of its format
+    public static final int MAGIC = 0x42535452;
+    public static final int VERSION = 1;
+
+    // The kinds of records
+    public static final byte RECEIVED = 0;
+    public static final byte SENT = 1;
+
+    // The most bytes a recorded line may have, far more than the board of the largest size takes, so a damaged length is noticed
+    public static final int MAX_LINE_BYTES = 64 * 1024 * 1024;
+
+    // The stream the records are written to
+    private DataOutputStream out;
+
+    // The System.nanoTime() of the last record, or of the start of the recording
+    private long last;
+
+    // Indicates whether the recording was closed
+    private boolean closed;
+
+    /**
+     * One line of a recording.
+     * @inv text != null, time >= 0
+     */
+    public static class Entry {
+        // Whether the line was sent or received, SENT or RECEIVED
+        private byte kind;
+
+        // The nanoseconds since the start of the recording
+        private long time;
+
+        // The line
+        private String text;
+
+        /**
+         * @param kind Whether the line was sent or received.
+         * @param time The nanoseconds since the start of the recording.
+         * @param text The line.
+         */
+        public Entry(byte kind, long time, String text) {
+            this.kind = kind;
+            this.time = time;
+            this.text = text;
+        }
+
+        /**
+         * @return Whether the line was sent by the client.
+         */
+        public boolean isSent() {
+            return kind == SENT;
+        }
+
+        /**
+         * @return The nanoseconds since the start of the recording.
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * @return The line.
+         */
+        public String getText() {
+            return text;
+        }
+    }
+
+    /**
+     * Creates a recording, replacing the file if it exists.
+     * @param file The file to record to.
+     * @throws IOException If the file can't be written.
+     * @pre file != null
+     * @post ensures that the header is written and the time of the recording starts now
+     */
+    public TrafficRecorder(Path file) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(System.currentTimeMillis());
+        this.last = System.nanoTime();
+    }
+
+    /**
+     * Creates the recording that is set with {@link #FILE_PROPERTY}. It is closed when the program exits.
+     * @return The recording, or null if the property isn't set or the file can't be written.
+     */
+    public static TrafficRecorder fromProperty() {
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file == null || file.isEmpty()) {
+            return null;
+        }
+        try {
+            TrafficRecorder recorder = new TrafficRecorder(Paths.get(file));
+            Runtime.getRuntime().addShutdownHook(new Thread(recorder::close, "traffic-recorder-exit"));
+            return recorder;
+        } catch (IOException e) {
+            System.err.println("Could not record the traffic to " + file + ". " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Records a line that was sent to the server.
+     * @param text The line.
+     * @pre text != null
+     */
+    public void sent(String text) {
+        record(SENT, text);
+    }
+
+    /**
+     * Records a line that was received from the server.
+     * @param text The line.
+     * @pre text != null
+     */
+    public void received(String text) {
+        record(RECEIVED, text);
+    }
+
+    /**
+     * Writes a record. If writing fails the recording stops, the game goes on.
+     * @param kind Whether the line was sent or received.
+     * @param text The line.
+     */
+    private synchronized void record(byte kind, String text) {
+        if (closed) {
+            return;
+        }
+        long now = System.nanoTime();
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        try {
+            out.writeByte(kind);
+            writeVarLong(out, Math.max(0L, now - last));
+            writeVarLong(out, bytes.length);
+            out.write(bytes);
+            last = now;
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    /**
+     * Writes the records that are still buffered and closes the file.
+     * @post ensures that nothing is recorded anymore
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException e) {
+            // Nothing more to write to
+        }
+    }
+
+    /**
+     * Reads all records of a recording. A record that was cut off at the end, because the program was killed, is left out. The length
+     * of every line is checked before the line is read, so a damaged file never makes it allocate more than the file holds.
+     * @param file The file of the recording.
+     * @return The records in the order they were recorded.
+     * @throws IOException If the file can't be read, isn't a recording or has a line longer than {@link #MAX_LINE_BYTES}.
+     * @pre file != null
+     */
+    public static List<Entry> readAll(Path file) throws IOException {
+        List<Entry> records = new ArrayList<>();
+        // Read as a whole, so that available() is exactly the amount of bytes left
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                throw new IOException(file + " isn't a recording of this version.");
+            }
+            in.readLong(); // The wall clock time of the start
+
+            long time = 0;
+            while (true) {
+                int kind = in.read();
+                if (kind == -1) {
+                    break;
+                }
+                try {
+                    time += readVarLong(in);
+                    long length = readVarLong(in);
+                    if (length < 0 || length > MAX_LINE_BYTES) {
+                        throw new IOException("A line of " + length + " bytes in " + file + " is longer than any line that is recorded.");
+                    }
+                    if (length > in.available()) { // The line was cut off, and so it is the last record
+                        break;
+                    }
+                    byte[] bytes = new byte[(int) length];
+                    in.readFully(bytes);
+                    records.add(new Entry((byte) kind, time, new String(bytes, StandardCharsets.UTF_8)));
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Writes a number that is at least 0 in as few bytes as it needs, 7 bits per byte with the highest bit set on all bytes but the last.
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads a number that was written by {@link #writeVarLong(DataOutputStream, long)}.
+     */
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Invalid number in the recording.");
+    }
+}
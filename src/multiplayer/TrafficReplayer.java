@@ -0,0 +1,173 @@
+package multiplayer;
+
+// External imports
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+// Internal imports
+import exceptions.ProtocolException;
+import exceptions.ServerUnavailableException;
+import gameboards.ShotHeatmaps;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import tui.GameClientTUI;
+
+/**
+ * This class feeds the messages of a recording, see {@link TrafficRecorder}, back into {@link GameClient#handleCommand(String)}, to
+ * reproduce a session or to measure the handling of the messages on a real mix of traffic. A client is created without a server, with
+ * a {@link LoopbackTransport} whose peer throws away what the client sends, so the sent lines of the recording are only used to find
+ * the name of the player. The opponent's shots are kept in a temporary heatmap file, so a replay doesn't change the heatmaps of the user.
+ * The received messages are handled at the speed they were recorded at, or as fast as possible. Received heartbeats
+ * are skipped like the client does, and messages that can't be parsed are counted and skipped.
+ * Run the main method with the file of a recording, optionally followed by fast and the amount of times to replay it.
+ * @inv entries != null
+ */
+public class TrafficReplayer {
+    // The name that is used if the recording has no handshake
+    public static final String DEFAULT_NAME = "replay";
+
+    // The records of the recording
+    private List<TrafficRecorder.Entry> entries;
+
+    // The amount of messages that couldn't be parsed in all replays
+    private int invalid;
+
+    // The temporary heatmap file of the replays, deleted when the program exits, null until the first replay
+    private Path heatmapFile;
+
+    /**
+     * @param entries The records of a recording, see {@link TrafficRecorder#readAll(java.nio.file.Path)}.
+     * @pre entries != null
+     */
+    public TrafficReplayer(List<TrafficRecorder.Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Gives the name of the player in the last handshake before the first received message, which is the name the server accepted unless it
+     * answered with a name retry.
+     * @return The name, or {@link #DEFAULT_NAME} if the recording has no handshake.
+     */
+    public String getPlayerName() {
+        String name = DEFAULT_NAME;
+        for (TrafficRecorder.Entry entry : entries) {
+            if (!entry.isSent()) {
+                if (entry.getText().equals(ProtocolMessages.HANDSHAKE)) { // The name was accepted
+                    break;
+                }
+                continue;
+            }
+            String[] splitInput = entry.getText().split(ProtocolMessages.DELIMITER);
+            if (splitInput[0].equals(ProtocolMessages.HANDSHAKE) && splitInput.length > 1) {
+                name = splitInput[1];
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Replays the received messages into a new client.
+     * @param view The TUI of the client.
+     * @param fast Whether to handle the messages as fast as possible instead of at the speed they were recorded at.
+     * @return The amount of messages that were handled.
+     * @throws ServerUnavailableException If the client couldn't send a message, which doesn't happen while the peer reads.
+     * @throws IOException If the temporary heatmap file can't be created.
+     * @pre view != null
+     */
+    public int replay(GameClientTUI view, boolean fast) throws ServerUnavailableException, IOException {
+        LoopbackTransport transport = new LoopbackTransport();
+        LoopbackTransport peer = transport.getPeer();
+        Thread drain = new Thread(() -> {
+            try {
+                while (peer.readLine() != null) {
+                    // The client's messages aren't answered
+                }
+            } catch (IOException e) {
+                // The replay is over
+            }
+        }, "replay-drain");
+        drain.setDaemon(true);
+        drain.start();
+
+        if (heatmapFile == null) { // Deleted on exit since the heatmaps are saved in the background
+            heatmapFile = Files.createTempFile("replay-heatmaps", ".bin");
+            heatmapFile.toFile().deleteOnExit();
+        }
+        GameClient client = new GameClient(view, getPlayerName(), transport, new ShotHeatmaps(heatmapFile));
+        int handled = 0;
+        long start = System.nanoTime();
+        for (TrafficRecorder.Entry entry : entries) {
+            if (entry.isSent() || entry.getText().equals(ProtocolMessages.HEARTBEAT)) {
+                continue;
+            }
+            if (!fast) {
+                long due = start + entry.getTime();
+                while (System.nanoTime() - due < 0) {
+                    LockSupport.parkNanos(due - System.nanoTime());
+                }
+            }
+            try {
+                client.handleCommand(entry.getText());
+                handled++;
+            } catch (ProtocolException e) {
+                invalid++;
+            }
+        }
+        transport.close();
+        return handled;
+    }
+
+    /**
+     * @return The amount of messages that couldn't be parsed in all replays so far.
+     */
+    public int getInvalid() {
+        return invalid;
+    }
+
+    /**
+     * Replays a recording and prints the messages per second and the times it took to handle each kind of message. When replaying fast
+     * the output of the client is thrown away, otherwise the session is shown like it was played.
+     * @param args The file of the recording, optionally fast and the amount of times to replay it.
+     * @throws Exception If the recording can't be read or the replay fails.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: TrafficReplayer <recording> [fast [times]]");
+            return;
+        }
+        TrafficReplayer replayer = new TrafficReplayer(TrafficRecorder.readAll(Paths.get(args[0])));
+        boolean fast = args.length > 1 && args[1].equals("fast");
+        int times = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        PrintStream out = System.out;
+        if (fast) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+        System.setIn(new ByteArrayInputStream(new byte[0])); // The move thread mustn't take the user's input
+
+        GameClientTUI view = new GameClientTUI();
+        long handled = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < times; i++) {
+            handled += replayer.replay(view, fast);
+        }
+        long nanos = System.nanoTime() - start;
+
+        out.println("Replayed " + handled + " messages as " + replayer.getPlayerName() + " in " + nanos / 1000000L + " ms, "
+            + handled * 1000000000L / Math.max(1L, nanos) + " messages per second, " + replayer.getInvalid() + " couldn't be parsed");
+        for (Histogram histogram : MetricsRegistry.global().getHistograms()) {
+            if (histogram.getName().startsWith("client_handle_") && histogram.getCount() > 0) {
+                out.println(histogram.getName() + ": " + histogram.getCount() + " messages, 50% " + histogram.getPercentile(50)
+                    + " ns, 99% " + histogram.getPercentile(99) + " ns, max " + histogram.getMax() + " ns");
+            }
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,47 @@
+package multiplayer;
+
+// External imports
+import java.io.IOException;
+
+/**
+ * This interface is a connection that carries protocol messages, one message per line. The client doesn't need to know whether the
+ * lines go through a socket, see {@link StreamTransport}, or are handed to a peer in the same process, see {@link LoopbackTransport}.
+ * One thread reads and one other thread writes, usually the sender of an {@link OutboundQueue}.
+ */
+public interface Transport {
+    /**
+     * Reads the next message.
+     * @return The message without its line end, or null if the peer closed the connection.
+     * @throws java.net.SocketTimeoutException If a read timeout is set and no message arrived within it.
+     * @throws IOException If reading fails.
+     */
+    String readLine() throws IOException;
+
+    /**
+     * Writes a message followed by a line end. The message may be held until {@link #flush()} is called.
+     * @param message The message.
+     * @throws IOException If writing fails or the connection is closed.
+     * @pre message != null
+     */
+    void write(String message) throws IOException;
+
+    /**
+     * Sends the messages that were written but are still held.
+     * @throws IOException If writing fails or the connection is closed.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Makes reads time out.
+     * @param timeout The time in milliseconds after which a read times out, 0 if reads don't time out.
+     * @throws IOException If the timeout can't be set.
+     * @pre timeout >= 0
+     */
+    void setReadTimeout(int timeout) throws IOException;
+
+    /**
+     * Closes the connection. The peer reads the end of the connection after the messages that were flushed before.
+     * @throws IOException If closing fails.
+     */
+    void close() throws IOException;
+}
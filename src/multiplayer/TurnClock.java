@@ -0,0 +1,104 @@
+package multiplayer;
+
+// External imports
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import constants.GameConstants;
+
+/**
+ * This class keeps track of when the server ends the user's turn. The server starts its move timer when it sends the update that
+ * gives the turn, which arrives about half a round trip later, and a move needs about half a round trip to reach the server. So a move
+ * is on time if it is sent a round trip before the local end of the move time, and some more to cover a round trip that is slower
+ * than usual. The round trip is smoothed like TCP does it (RFC 6298): the smoothed time and its mean deviation are updated with every
+ * measured round trip, and the deviation is added four times as a safety margin.
+ * Once a server that answers clock probes told the end of the move timer, see {@link ClockSync}, that end is used instead of the estimate.
+ * @inv srtt >= 0, rttvar >= 0
+ */
+public class TurnClock {
+    // The time in nanoseconds the server gives for a move
+    private static final long MOVE_TIME = TimeUnit.MILLISECONDS.toNanos(GameConstants.MOVE_TIME);
+
+    // The System.nanoTime() at which the turn is estimated to have started on the server
+    private volatile long turnStart;
+
+    // The end of the move timer of the turn as told by the server, as System.nanoTime(), 0 while it isn't known
+    private volatile long serverDeadline;
+
+    // The smoothed round trip time in nanoseconds, 0 until the first one is measured
+    private volatile long srtt;
+
+    // The mean deviation of the round trip time in nanoseconds
+    private volatile long rttvar;
+
+    /**
+     * Records that an update gave the turn to the user just now.
+     * @post ensures that the turn is estimated to have started half a round trip ago
+     */
+    public void startTurn() {
+        serverDeadline = 0;
+        turnStart = System.nanoTime() - srtt / 2;
+    }
+
+    /**
+     * Records the end of the move timer of the current turn as told by the server.
+     * @param deadline The System.nanoTime() of the client at which the server ends the turn.
+     * @pre deadline != 0
+     * @post ensures that getServerDeadline() == deadline until the next turn starts
+     */
+    public void setServerDeadline(long deadline) {
+        serverDeadline = deadline;
+    }
+
+    /**
+     * @return The System.nanoTime() at which the current turn was estimated to have started on the server.
+     */
+    public long getTurnStart() {
+        return turnStart;
+    }
+
+    /**
+     * Records a measured round trip to the server, called by one thread at a time.
+     * @param rtt The round trip time in nanoseconds.
+     * @pre rtt >= 0
+     * @post ensures that the smoothed round trip time and its deviation include the measurement
+     */
+    public void recordRtt(long rtt) {
+        if (srtt == 0) {
+            srtt = rtt;
+            rttvar = rtt / 2;
+        } else {
+            rttvar = (3 * rttvar + Math.abs(srtt - rtt)) / 4;
+            srtt = (7 * srtt + rtt) / 8;
+        }
+    }
+
+    /**
+     * @return The System.nanoTime() at which the server ends the turn, as told by the server or else estimated.
+     */
+    public long getServerDeadline() {
+        long deadline = serverDeadline;
+        return deadline != 0 ? deadline : turnStart + MOVE_TIME;
+    }
+
+    /**
+     * @return The last System.nanoTime() at which a move can be sent and still be expected to reach the server in time.
+     */
+    public long getSendDeadline() {
+        return getServerDeadline() - srtt / 2 - 4 * rttvar;
+    }
+
+    /**
+     * @return The time in nanoseconds that is left to send a move, negative once it is too late.
+     */
+    public long getRemaining() {
+        return getSendDeadline() - System.nanoTime();
+    }
+
+    /**
+     * @return The smoothed round trip time in nanoseconds, 0 if none was measured yet.
+     */
+    public long getSmoothedRtt() {
+        return srtt;
+    }
+}
@@ -0,0 +1,41 @@
+package multiplayer.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import multiplayer.ClockSync;
+
+public class ClockSyncTest {
+
+    /**
+     * Test that the round trip leaves out the time the server took and that the offset is the one of the probe with the shortest round trip
+     */
+    @Test
+    public void minimumDelayTest() {
+        ClockSync sync = new ClockSync();
+        assertFalse(sync.hasOffset());
+
+        // The server's clock is 1000 ahead, 100 there and 100 back, 50 to answer
+        assertEquals(200, sync.record(0, 1100, 1150, 250));
+        assertTrue(sync.hasOffset());
+        assertEquals(1000, sync.getOffset());
+
+        // Delayed by 400 on the way there, which would give an offset of 1200
+        assertEquals(600, sync.record(1000, 2500, 2550, 1650));
+        assertEquals(1000, sync.getOffset());
+
+        // A faster probe replaces the offset
+        assertEquals(20, sync.record(2000, 3010, 3010, 2020));
+        assertEquals(1000, sync.getOffset());
+        assertEquals(4000 * 1000L, sync.toLocalNanos(5000));
+
+        // Once the fast probes are out of the window the best of the rest is used
+        for (int i = 0; i < ClockSync.WINDOW; i++) {
+            sync.record(10000, 11300, 11300, 10200 + i);
+        }
+        assertEquals(1200, sync.getOffset());
+    }
+}
@@ -0,0 +1,68 @@
+package multiplayer.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+import multiplayer.LoopbackTransport;
+import multiplayer.OutboundQueue;
+
+public class LoopbackTransportTest {
+
+    /**
+     * Test that messages arrive at the peer in order as the same objects, also when they are written by an outbound queue
+     */
+    @Test
+    public void orderTest() throws Exception {
+        LoopbackTransport transport = new LoopbackTransport(4);
+        LoopbackTransport peer = transport.getPeer();
+        assertSame(transport, peer.getPeer());
+
+        String message = "m;1;2";
+        transport.write(message);
+        assertSame(message, peer.readLine());
+
+        OutboundQueue queue = new OutboundQueue(transport);
+        queue.start();
+        for (int i = 0; i < 100; i++) { // More than the pipe holds, so the sender has to wait for the reader
+            queue.send("m;" + i + ";0");
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals("m;" + i + ";0", peer.readLine());
+        }
+        peer.write("u");
+        assertEquals("u", transport.readLine());
+    }
+
+    /**
+     * Test that the messages written before the connection was closed are still read, and that after them the end of the connection is read
+     */
+    @Test
+    public void closeTest() throws Exception {
+        LoopbackTransport transport = new LoopbackTransport();
+        LoopbackTransport peer = transport.getPeer();
+        transport.write("h;emils");
+        transport.close();
+
+        assertEquals("h;emils", peer.readLine());
+        assertNull(peer.readLine());
+        assertThrows(IOException.class, () -> peer.write("h"));
+        assertThrows(IOException.class, () -> transport.write("e"));
+    }
+
+    /**
+     * Test that a read times out like a socket if a read timeout is set
+     */
+    @Test
+    public void readTimeoutTest() {
+        LoopbackTransport transport = new LoopbackTransport();
+        transport.setReadTimeout(50);
+        assertThrows(SocketTimeoutException.class, transport::readLine);
+    }
+}
@@ -0,0 +1,177 @@
+package multiplayer.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import multiplayer.OutboundQueue;
+
+public class OutboundQueueTest {
+
+    /**
+     * Test that messages from several threads are all written, each thread's in order, and coalesced into few flushes
+     */
+    @Test
+    public void orderAndCoalescingTest() throws Exception {
+        CountingWriter target = new CountingWriter();
+        OutboundQueue queue = new OutboundQueue(new BufferedWriter(target, 1 << 16), 10000, 1000);
+
+        Thread[] threads = new Thread[3];
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    try {
+                        queue.send(thread + ";" + i);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        queue.start();
+        assertTrue(queue.awaitEmpty(5000));
+
+        String[] lines = target.toString().split(System.lineSeparator());
+        assertEquals(3000, lines.length);
+        int[] next = new int[threads.length];
+        for (String line : lines) {
+            int thread = Integer.parseInt(line.split(";")[0]);
+            assertEquals(next[thread], Integer.parseInt(line.split(";")[1]));
+            next[thread]++;
+        }
+        assertTrue(target.flushes < 3000 / 10); // The messages were queued before the sender started, so they are flushed in batches
+    }
+
+    /**
+     * Test that a sender gives up when the peer doesn't read and the queue is full
+     */
+    @Test
+    public void backPressureTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Writer stuck = new StringWriter() {
+            @Override
+            public void flush() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        OutboundQueue queue = new OutboundQueue(new BufferedWriter(stuck), 4, 50);
+        queue.start();
+
+        queue.send("first"); // Taken by the sender, which gets stuck on the flush
+        while (queue.getPending() > 0 && stuck.toString().isEmpty()) {
+            Thread.sleep(1);
+        }
+        for (int i = 0; i < 3; i++) {
+            queue.send("waiting " + i);
+        }
+        assertThrows(IOException.class, () -> {
+            queue.send("one too many");
+            queue.send("two too many");
+        });
+
+        release.countDown();
+        assertTrue(queue.awaitEmpty(5000));
+        queue.close();
+        assertThrows(IOException.class, () -> queue.send("closed"));
+    }
+
+    /**
+     * Test that senders that race for the last places of a full queue never queue more than its capacity
+     */
+    @Test
+    public void concurrentCapacityTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Writer stuck = new StringWriter() {
+            @Override
+            public void flush() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        OutboundQueue queue = new OutboundQueue(new BufferedWriter(stuck), 8, 100);
+        AtomicInteger queued = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[16];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    queue.send("m");
+                    queued.incrementAndGet();
+                } catch (IOException | InterruptedException e) {
+                    // No room in the queue
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(8, queued.get());
+        assertEquals(8, queue.getPending());
+
+        queue.start(); // The waiting messages are written once the peer reads again
+        release.countDown();
+        assertTrue(queue.awaitEmpty(5000));
+    }
+
+    /**
+     * Test that the heartbeat is only written while nothing else is sent
+     */
+    @Test
+    public void heartbeatTest() throws Exception {
+        StringWriter target = new StringWriter();
+        OutboundQueue queue = new OutboundQueue(new BufferedWriter(target));
+        queue.setHeartbeat("hb", 20);
+        queue.start();
+
+        queue.send("m;1;2");
+        Thread.sleep(200);
+        queue.close();
+        queue.awaitEmpty(1000);
+
+        String[] lines = target.toString().split(System.lineSeparator());
+        assertEquals("m;1;2", lines[0]);
+        assertTrue(lines.length >= 2);
+        for (int i = 1; i < lines.length; i++) {
+            assertEquals("hb", lines[i]);
+        }
+        assertEquals(0, queue.getPending());
+    }
+
+    /**
+     * A writer that counts how often it is flushed.
+     */
+    private static class CountingWriter extends StringWriter {
+        private int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
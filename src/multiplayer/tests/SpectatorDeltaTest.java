@@ -0,0 +1,52 @@
+package multiplayer.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import exceptions.ProtocolException;
+import multiplayer.SpectatorDelta;
+
+public class SpectatorDeltaTest {
+
+    /**
+     * Test that a delta is the same after encoding and decoding it
+     */
+    @Test
+    public void encodeDecodeTest() throws ProtocolException {
+        SpectatorDelta delta = SpectatorDelta.decode(new SpectatorDelta(1, 14, 9, true, true, false).encode());
+
+        assertEquals(1, delta.getSeat());
+        assertEquals(14, delta.getX());
+        assertEquals(9, delta.getY());
+        assertTrue(delta.isHit());
+        assertTrue(delta.isSunk());
+        assertFalse(delta.isLate());
+
+        delta = SpectatorDelta.decode(new SpectatorDelta(0, 0, 0, false, false, true).encode());
+        assertEquals(0, delta.getSeat());
+        assertFalse(delta.isHit());
+        assertTrue(delta.isLate());
+    }
+
+    /**
+     * Test that the delta is compact, the flags are packed into one number
+     */
+    @Test
+    public void encodeTest() {
+        assertEquals("d;3;4;9", new SpectatorDelta(1, 3, 4, true, false, false).encode());
+    }
+
+    /**
+     * Test that incorrectly formatted deltas are rejected
+     */
+    @Test
+    public void decodeInvalidTest() {
+        assertThrows(ProtocolException.class, () -> SpectatorDelta.decode("d;3"));
+        assertThrows(ProtocolException.class, () -> SpectatorDelta.decode("d;a;4;1"));
+        assertThrows(ProtocolException.class, () -> SpectatorDelta.decode("u;3;4;1"));
+    }
+}
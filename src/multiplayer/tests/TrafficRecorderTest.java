@@ -0,0 +1,119 @@
+package multiplayer.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import multiplayer.TrafficRecorder;
+import multiplayer.TrafficReplayer;
+
+public class TrafficRecorderTest {
+
+    /**
+     * Test that the records are read back in order with their direction and increasing times, and that a record cut off at the end is left out
+     */
+    @Test
+    public void recordTest() throws Exception {
+        Path file = Files.createTempFile("traffic", ".bin");
+        try {
+            TrafficRecorder recorder = new TrafficRecorder(file);
+            recorder.sent("h;emils");
+            recorder.received("ne");
+            recorder.sent("h;emils2");
+            recorder.received("h");
+            recorder.received("u;1;2;true;false;false;emils2;enemy;\u00e4\u00f6");
+            recorder.close();
+            recorder.sent("e"); // Not recorded anymore
+
+            List<TrafficRecorder.Entry> entries = TrafficRecorder.readAll(file);
+            assertEquals(5, entries.size());
+            assertTrue(entries.get(0).isSent());
+            assertFalse(entries.get(1).isSent());
+            assertEquals("u;1;2;true;false;false;emils2;enemy;\u00e4\u00f6", entries.get(4).getText());
+            for (int i = 1; i < entries.size(); i++) {
+                assertTrue(entries.get(i).getTime() >= entries.get(i - 1).getTime());
+            }
+            assertEquals("emils2", new TrafficReplayer(entries).getPlayerName());
+
+            // A program that was killed while writing leaves half a record
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+            assertEquals(4, TrafficRecorder.readAll(file).size());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test that a damaged length fails the read instead of allocating the line
+     */
+    @Test
+    public void damagedLengthTest() throws Exception {
+        Path file = Files.createTempFile("traffic", ".bin");
+        try {
+            TrafficRecorder recorder = new TrafficRecorder(file);
+            recorder.received("ne");
+            recorder.close();
+
+            // The header takes 13 bytes, then the kind, the time and the length of the record, which becomes the largest number
+            byte[] bytes = Files.readAllBytes(file);
+            byte[] damaged = Arrays.copyOf(bytes, 15 + 10);
+            Arrays.fill(damaged, 15, 24, (byte) 0xFF);
+            damaged[24] = 0x01;
+            Files.write(file, damaged);
+            assertThrows(IOException.class, () -> TrafficRecorder.readAll(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test that a recording is replayed into a client over a loopback transport, skipping the heartbeats and counting what can't be parsed.
+     * The replay runs in a new JVM, since its client reads the console of the process.
+     */
+    @Test
+    public void replayTest() throws Exception {
+        Path file = Files.createTempFile("traffic", ".bin");
+        try {
+            TrafficRecorder recorder = new TrafficRecorder(file);
+            recorder.sent("h;alice");
+            recorder.received("n;bob");
+            recorder.received("hb");
+            recorder.received("s;bob");
+            recorder.received("u;1;2;true;false;false;bob;bob");
+            recorder.received("u;x");
+            recorder.close();
+
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            // The classes may be loaded by the test launcher instead of from the class path of this JVM
+            String classes = Paths.get(TrafficReplayer.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+            Process process = new ProcessBuilder(java, "-cp", classes + File.pathSeparator + System.getProperty("java.class.path"),
+                TrafficReplayer.class.getName(), file.toString(), "fast", "2").redirectErrorStream(true).start();
+
+            String line;
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                line = in.readLine();
+            }
+            assertTrue(process.waitFor(60, TimeUnit.SECONDS), "The replay took more than a minute");
+            assertEquals(0, process.exitValue(), line);
+            assertTrue(line.startsWith("Replayed 6 messages as alice in "), line);
+            assertTrue(line.endsWith(", 2 couldn't be parsed"), line);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package multiplayer.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import constants.GameConstants;
+import multiplayer.TurnClock;
+
+public class TurnClockTest {
+
+    /**
+     * Test that the round trip is smoothed and that a move has to be sent a round trip and four deviations before the local end of the move time
+     */
+    @Test
+    public void sendDeadlineTest() {
+        TurnClock clock = new TurnClock();
+        long ms = TimeUnit.MILLISECONDS.toNanos(1);
+        long moveTime = GameConstants.MOVE_TIME * ms;
+
+        // Without a measured round trip the whole move time is left
+        long before = System.nanoTime();
+        clock.startTurn();
+        assertTrue(clock.getSendDeadline() - before >= moveTime);
+        assertTrue(clock.getRemaining() <= moveTime);
+
+        clock.recordRtt(100 * ms);
+        assertEquals(100 * ms, clock.getSmoothedRtt());
+        clock.recordRtt(100 * ms);
+        assertEquals(100 * ms, clock.getSmoothedRtt()); // The deviation is now 50 * 3 / 4 milliseconds
+
+        before = System.nanoTime();
+        clock.startTurn();
+        long after = System.nanoTime();
+        long margin = 50 * ms + 50 * ms + 4 * (150 * ms / 4); // The turn started half a round trip ago, the move takes another half and four deviations
+        assertTrue(clock.getSendDeadline() <= after + moveTime - margin);
+        assertTrue(clock.getSendDeadline() >= before + moveTime - margin);
+
+        // A slower round trip moves the smoothed time an eighth of the way
+        clock.recordRtt(900 * ms);
+        assertEquals(200 * ms, clock.getSmoothedRtt());
+    }
+}
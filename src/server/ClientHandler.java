@@ -0,0 +1,277 @@
+package server;
+
+// External imports
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import multiplayer.ClockSync;
+import multiplayer.Heartbeat;
+import multiplayer.ProtocolMessages;
+
+/**
+ * This class represents the connection of one client on the reference server. It runs on its own thread and reads the messages
+ * of the client and forwards them to the game room of the client. A connection is either a player, which starts with a handshake,
+ * or a spectator, which starts with a spectate message and after that only receives messages. After a game has ended a player can
+ * ask for a new game, in which case the connection is kept and put in a new room with the name of its last handshake.
+ * Players get heartbeats from their first handshake on, and a player that sent heartbeats and then nothing for the idle timeout is
+ * disconnected, see {@link Heartbeat}.
+ * @inv socket != null, server != null
+ */
+public class ClientHandler implements Runnable {
+    // Socket for communication with the client
+    private Socket socket;
+
+    // Reading and writing buffers for communication with the client
+    private BufferedReader in;
+    private BufferedWriter out;
+
+    // The raw output stream of the socket, only written while holding the lock of this handler
+    private OutputStream rawOut;
+
+    // The stream the spectator messages are written to, which shares the lock of sendMessage so lines never interleave
+    private OutputStream spectatorOut;
+
+    // The server
+    private GameServer server;
+
+    // The room of this client, null until the first message
+    private GameRoom room;
+
+    // Indicates whether this client is a spectator
+    private boolean spectator;
+
+    // The name in the last handshake of this client, null until the first handshake
+    private String name;
+
+    // Indicates whether the client has sent a heartbeat, after which a read timeout means that the client is gone
+    private volatile boolean heartbeatSeen;
+
+    // The task that sends the heartbeats to this client, null if none are sent
+    private volatile ScheduledFuture<?> heartbeatTask;
+
+    // The System.nanoTime() of the last message sent to this client
+    private volatile long lastSent;
+
+    /**
+     * @param socket The socket of the accepted client.
+     * @param server The server.
+     * @throws IOException If the streams of the socket can't be opened.
+     * @pre socket != null, server != null
+     */
+    public ClientHandler(Socket socket, GameServer server) throws IOException {
+        this.socket = socket;
+        this.server = server;
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+        this.rawOut = socket.getOutputStream();
+        this.out = new BufferedWriter(new OutputStreamWriter(rawOut));
+        this.spectatorOut = new LockedOutputStream();
+        this.lastSent = System.nanoTime();
+        socket.setSoTimeout(Heartbeat.idleTimeout());
+    }
+
+    /**
+     * Reads messages from the client until it disconnects or stops sending heartbeats. If a player disconnects its room is informed.
+     */
+    @Override
+    public void run() {
+        try {
+            String input = readMessage();
+            while (input != null) {
+                handleCommand(input);
+                input = readMessage();
+            }
+        } catch (IOException e) {
+            // The client disconnected or stopped responding
+        }
+
+        if (room != null && !spectator) {
+            room.leave(this);
+        }
+        close();
+    }
+
+    /**
+     * Reads the next message of the client. A read timeout is only passed on if the client has sent a heartbeat before,
+     * since clients that don't send heartbeats may be silent for a long time while waiting for an enemy.
+     * @return The message or null if the client closed the connection.
+     * @throws IOException If reading fails or the client sent heartbeats and then nothing for the idle timeout.
+     */
+    private String readMessage() throws IOException {
+        while (true) {
+            try {
+                return in.readLine();
+            } catch (SocketTimeoutException e) {
+                if (heartbeatSeen) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Deals with the messages received from the client. Messages that aren't correctly formatted are ignored.
+     * @param input The message from the client.
+     * @pre input != null
+     * @post ensures that the message is forwarded to the room of the client
+     */
+    public void handleCommand(String input) {
+        String[] splitInput = input.split(ProtocolMessages.DELIMITER);
+
+        try {
+            if (splitInput[0].equals(ProtocolMessages.HEARTBEAT)) { // Heartbeat
+
+                if (!heartbeatSeen) { // Answer the first one right away, so the client knows at once that this server sends heartbeats
+                    heartbeatSeen = true;
+                    sendMessage(ProtocolMessages.HEARTBEAT);
+                }
+
+            } else if (splitInput[0].equals(ProtocolMessages.PROBE)) { // Clock probe
+
+                long received = ClockSync.now();
+                long sent = Long.parseLong(splitInput[1]);
+                long deadline = room != null && !spectator ? room.getMoveDeadline(this) : -1L;
+                sendMessage(ProtocolMessages.PROBE + ProtocolMessages.DELIMITER + sent + ProtocolMessages.DELIMITER + received
+                    + ProtocolMessages.DELIMITER + ClockSync.now() + ProtocolMessages.DELIMITER + deadline);
+
+            } else if (splitInput[0].equals(ProtocolMessages.HANDSHAKE)) { // Handshake
+
+                if (room == null) {
+                    room = server.joinRoom();
+                }
+                if (heartbeatTask == null) {
+                    heartbeatTask = server.scheduleHeartbeat(this::sendHeartbeat);
+                }
+                name = splitInput[1];
+                room.hello(this, name);
+
+            } else if (splitInput[0].equals(ProtocolMessages.PLAY_AGAIN) && room != null && !spectator && name != null) { // Play again
+
+                if (room.hasEnded()) {
+                    room = server.joinRoom();
+                    room.hello(this, name);
+                }
+
+            } else if (splitInput[0].equals(ProtocolMessages.CLIENTBOARD) && room != null) { // Board
+
+                room.clientBoard(this, splitInput);
+
+            } else if (splitInput[0].equals(ProtocolMessages.MOVE) && room != null) { // Move
+
+                room.move(this, Integer.parseInt(splitInput[1]), Integer.parseInt(splitInput[2]));
+
+            } else if (splitInput[0].equals(ProtocolMessages.EXIT)) { // Exit
+
+                if (room != null && !spectator) {
+                    room.leave(this);
+                }
+                close();
+
+            } else if (splitInput[0].equals(ProtocolMessages.SPECTATE) && room == null) { // Spectate
+
+                int roomId = splitInput.length > 1 ? Integer.parseInt(splitInput[1]) : 0;
+                room = server.getRoom(roomId);
+                spectator = true;
+                if (room != null) {
+                    room.spectate(this);
+                } else {
+                    close();
+                }
+
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            server.log("Ignored invalid message: " + input);
+        }
+    }
+
+    /**
+     * Sends a message to the client followed by a new line. If that fails the client is
+     * disconnected, which is noticed by the reading thread.
+     * @param message The message to be sent.
+     * @pre message != null
+     */
+    public synchronized void sendMessage(String message) {
+        try {
+            out.write(message);
+            out.newLine();
+            out.flush();
+            lastSent = System.nanoTime();
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    /**
+     * Sends a heartbeat if nothing was sent to the client for the heartbeat interval.
+     */
+    private void sendHeartbeat() {
+        if (System.nanoTime() - lastSent >= TimeUnit.MILLISECONDS.toNanos(Heartbeat.interval())) {
+            sendMessage(ProtocolMessages.HEARTBEAT);
+        }
+    }
+
+    /**
+     * Getter for the output stream of the client, used to send spectator messages. Every write holds the same lock as
+     * {@link #sendMessage(String)}, so a line that is written at once never interleaves with a heartbeat or a probe answer.
+     * @return The output stream to the client.
+     */
+    public OutputStream getOutputStream() {
+        return spectatorOut;
+    }
+
+    /**
+     * The output stream of the socket for spectator messages, that writes while holding the lock of the handler. Messages that are
+     * sent with sendMessage are always flushed, so nothing of them is buffered when this stream writes.
+     */
+    private class LockedOutputStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            synchronized (ClientHandler.this) {
+                rawOut.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            synchronized (ClientHandler.this) {
+                rawOut.write(bytes, offset, length);
+                lastSent = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (ClientHandler.this) {
+                rawOut.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            rawOut.close();
+        }
+    }
+
+    /**
+     * Closes the connection with the client.
+     * @post ensures that the socket is closed
+     */
+    public void close() {
+        if (heartbeatTask != null) {
+            heartbeatTask.cancel(false);
+        }
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+}
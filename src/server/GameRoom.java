@@ -0,0 +1,377 @@
+package server;
+
+// External imports
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Timer;
+import java.util.TimerTask;
+
+// Internal imports
+import constants.GameConstants;
+import gameboards.GameBoard;
+import multiplayer.ClockSync;
+import multiplayer.ProtocolMessages;
+import multiplayer.SpectatorDelta;
+
+/**
+ * This class represents one game on the reference server between two players. It does on the server side what the singleplayer
+ * game does locally: it keeps both boards, decides who goes first, checks every move against the opponent's board and keeps the 30 second
+ * move timer and the 5 minute game timer. Every change is also published to the spectators of this room.
+ * All methods are synchronized since they are called from the threads of both players and from the timers.
+ * @inv id > 0, players != null, boards != null, spectators != null
+ */
+public class GameRoom {
+    // The time a player has to make a move and the time a whole game may take
+    public static final long MOVE_TIME = 30000L;
+    public static final long GAME_TIME = 300000L;
+
+    // The number of this room
+    private int id;
+
+    // The server this room belongs to
+    private GameServer server;
+
+    // The players, their names and their boards indexed by seat
+    private ClientHandler[] players;
+    private String[] names;
+    private GameBoard[] boards;
+
+    // The seat of the player whose move it is
+    private int currentSeat;
+
+    // Indicates whether the game has started and whether it has ended
+    private boolean started;
+    private boolean ended;
+
+    // Timer for the move and game time limits
+    private Timer timer;
+    private TimerTask moveTask;
+
+    // The time of the end of the current move timer in microseconds of ClockSync.now()
+    private long moveDeadline;
+
+    // Re-usable instance of random
+    private Random random;
+
+    // The spectators of this room
+    private SpectatorHub spectators;
+
+    /**
+     * @param id The number of this room.
+     * @param server The server this room belongs to.
+     * @pre id > 0, server != null
+     */
+    public GameRoom(int id, GameServer server) {
+        this.id = id;
+        this.server = server;
+        this.players = new ClientHandler[2];
+        this.names = new String[2];
+        this.boards = new GameBoard[2];
+        this.random = new Random();
+        this.spectators = new SpectatorHub();
+    }
+
+    /**
+     * Getter for the number of this room.
+     * @return The number of this room.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return Whether both seats are taken.
+     */
+    public synchronized boolean isFull() {
+        return players[0] != null && players[1] != null;
+    }
+
+    /**
+     * Gives the end of the move timer of a player, which the server tells in its answer to a clock probe.
+     * @param player The player that asks.
+     * @return The end of the move timer in microseconds of {@link ClockSync#now()}, or -1 if it isn't the move of the player.
+     * @pre player != null
+     */
+    public synchronized long getMoveDeadline(ClientHandler player) {
+        if (!started || ended || seatOf(player) != currentSeat) {
+            return -1L;
+        }
+        return moveDeadline;
+    }
+
+    /**
+     * @return Whether the game of this room has ended, after which its players may join a new room.
+     */
+    public synchronized boolean hasEnded() {
+        return ended;
+    }
+
+    /**
+     * Seats the player and handles its handshake. If the name is the same as the opponent's the player
+     * is told so and has to send a new handshake. Once both players have a name they are told who their enemy is.
+     * A player may send its board right after the handshake without waiting for the answer, so the game is started here
+     * if both boards were already received.
+     * @param player The player that sent the handshake.
+     * @param name The name in the handshake.
+     * @pre player != null, name != null
+     * @post ensures that the player is seated and that handshake or name exists is sent to it
+     */
+    public synchronized void hello(ClientHandler player, String name) {
+        int seat = seatOf(player);
+        if (seat == -1) {
+            seat = players[0] == null ? 0 : 1;
+            players[seat] = player;
+        }
+
+        if (name.equals(names[1 - seat])) { // If the opponent already has this name
+            player.sendMessage(ProtocolMessages.NAME_EXISTS);
+            return;
+        }
+
+        names[seat] = name;
+        player.sendMessage(ProtocolMessages.HANDSHAKE);
+
+        if (names[0] != null && names[1] != null) { // If both players are here
+            players[0].sendMessage(ProtocolMessages.ENEMYNAME + ProtocolMessages.DELIMITER + names[1]);
+            players[1].sendMessage(ProtocolMessages.ENEMYNAME + ProtocolMessages.DELIMITER + names[0]);
+            startIfReady();
+        }
+    }
+
+    /**
+     * Stores the board of a player. Once both boards are received and both players have a name the game is started.
+     * The board is kept if the player has to send a new handshake because its name was taken.
+     * @param player The player that sent the board.
+     * @param encodedBoard The board message split on the delimiter.
+     * @throws ArrayIndexOutOfBoundsException If the message doesn't contain a full board.
+     * @pre player != null, encodedBoard != null
+     * @post ensures that the board is stored and that the game starts once both boards are there
+     */
+    public synchronized void clientBoard(ClientHandler player, String[] encodedBoard) {
+        int seat = seatOf(player);
+        if (seat == -1 || started) {
+            return;
+        }
+
+        boards[seat] = new GameBoard(GameBoard.decodeBoard(encodedBoard, 1), 0);
+        startIfReady();
+    }
+
+    /**
+     * Makes the move of a player on the opponent's board and informs both players and the spectators of the result.
+     * Moves of the player whose turn it isn't and moves outside the board are ignored.
+     * @param player The player that made the move.
+     * @param x The X coordinate of the move.
+     * @param y The Y coordinate of the move.
+     * @pre player != null
+     * @post ensures that a valid move is made, an update is sent and the game ends if all ships are destroyed
+     */
+    public synchronized void move(ClientHandler player, int x, int y) {
+        int seat = seatOf(player);
+        if (!started || ended || seat != currentSeat || !isOnBoard(x, y)) {
+            return;
+        }
+
+        // result[0]: isHit, result[1]: isSunk, result[2]: areAllShipsDestroyed
+        boolean[] result = boards[1 - seat].singlePlayerMakeMove(x, y);
+        boards[seat].addScore(result[0], result[1]);
+
+        if (!result[0]) { // If no ship was hit the other player goes next
+            currentSeat = 1 - seat;
+        }
+        sendUpdate(seat, x, y, result[0], result[1], false);
+
+        if (result[2]) { // If all ships are destroyed
+            endGame(names[seat], true);
+        } else {
+            scheduleMoveTimer();
+        }
+    }
+
+    /**
+     * Called when a player leaves or its connection drops. The opponent wins the game.
+     * @param player The player that left.
+     * @pre player != null
+     * @post ensures that the game is ended with the opponent as the winner
+     */
+    public synchronized void leave(ClientHandler player) {
+        int seat = seatOf(player);
+        if (seat == -1 || ended) {
+            return;
+        }
+
+        players[seat] = null;
+        if (players[1 - seat] != null && names[1 - seat] != null) {
+            endGame(names[1 - seat], false);
+        } else {
+            endGame("", false);
+        }
+    }
+
+    /**
+     * Adds a spectator to this room. It first receives the current boards of both players and then every move.
+     * A spectator that joins before the game has started receives the snapshots once it starts.
+     * @param spectator The spectator to be added.
+     * @pre spectator != null
+     * @post ensures that the spectator receives snapshots of both boards followed by every later move
+     */
+    public synchronized void spectate(ClientHandler spectator) {
+        spectators.subscribe(spectator.getOutputStream(), started ? snapshot() : new ArrayList<>());
+    }
+
+    /**
+     * Getter for the spectators of this room.
+     * @return The spectators of this room.
+     */
+    public SpectatorHub getSpectators() {
+        return spectators;
+    }
+
+    /**
+     * Starts the game if both players have a name and a board and it hasn't started yet.
+     */
+    private void startIfReady() {
+        if (!started && names[0] != null && names[1] != null && boards[0] != null && boards[1] != null) {
+            startGame();
+        }
+    }
+
+    /**
+     * Randomly picks who goes first, informs both players and the spectators and starts the timers.
+     */
+    private void startGame() {
+        started = true;
+        currentSeat = random.nextInt(2);
+
+        String setup = ProtocolMessages.SETUP + ProtocolMessages.DELIMITER + names[currentSeat];
+        players[0].sendMessage(setup);
+        players[1].sendMessage(setup);
+        for (String message : snapshot()) {
+            spectators.publish(message);
+        }
+
+        timer = new Timer("Room " + id);
+        timer.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                gameTimeUp();
+            }
+        }, GAME_TIME);
+        scheduleMoveTimer();
+        server.log("Room " + id + " started: " + names[0] + " against " + names[1]);
+    }
+
+    /**
+     * (Re)starts the 30 second timer of the current move.
+     */
+    private void scheduleMoveTimer() {
+        if (moveTask != null) {
+            moveTask.cancel();
+        }
+        moveTask = new TimerTask() {
+            @Override
+            public void run() {
+                moveTimeUp();
+            }
+        };
+        moveDeadline = ClockSync.now() + MOVE_TIME * 1000L;
+        timer.schedule(moveTask, MOVE_TIME);
+    }
+
+    /**
+     * Called by the timer when the current player didn't move in time. The turn goes to the other player.
+     */
+    private synchronized void moveTimeUp() {
+        if (ended) {
+            return;
+        }
+        int seat = currentSeat;
+        currentSeat = 1 - seat;
+        sendUpdate(seat, 0, 0, false, false, true);
+        scheduleMoveTimer();
+    }
+
+    /**
+     * Called by the timer when 5 minutes are up. The player with the most points wins.
+     */
+    private synchronized void gameTimeUp() {
+        if (ended) {
+            return;
+        }
+        if (boards[0].getScore() > boards[1].getScore()) {
+            endGame(names[0], true);
+        } else if (boards[0].getScore() < boards[1].getScore()) {
+            endGame(names[1], true);
+        } else {
+            endGame("", true);
+        }
+    }
+
+    /**
+     * Sends the update of a move to both players and its delta to the spectators.
+     */
+    private void sendUpdate(int seat, int x, int y, boolean isHit, boolean isSunk, boolean isLate) {
+        String update = ProtocolMessages.UPDATE + ProtocolMessages.DELIMITER + x + ProtocolMessages.DELIMITER + y
+            + ProtocolMessages.DELIMITER + isHit + ProtocolMessages.DELIMITER + isSunk + ProtocolMessages.DELIMITER + isLate
+            + ProtocolMessages.DELIMITER + names[seat] + ProtocolMessages.DELIMITER + names[currentSeat];
+        players[0].sendMessage(update);
+        players[1].sendMessage(update);
+        spectators.publish(new SpectatorDelta(seat, x, y, isHit, isSunk, isLate).encode());
+    }
+
+    /**
+     * Ends the game, informs everyone that is still connected and removes this room from the server.
+     */
+    private void endGame(String winnerName, boolean winType) {
+        ended = true;
+        if (timer != null) {
+            timer.cancel();
+        }
+
+        String gameOver = ProtocolMessages.GAMEOVER + ProtocolMessages.DELIMITER + winnerName + ProtocolMessages.DELIMITER + winType;
+        for (ClientHandler player : players) {
+            if (player != null) {
+                player.sendMessage(gameOver);
+            }
+        }
+        spectators.publish(gameOver);
+        spectators.close();
+        server.removeRoom(this);
+        server.log("Room " + id + " ended, winner: " + (winnerName.isEmpty() ? "none" : winnerName));
+    }
+
+    /**
+     * Creates the snapshot messages of both boards.
+     * @return The snapshot messages.
+     * @pre boards[0] != null, boards[1] != null
+     */
+    private List<String> snapshot() {
+        List<String> snapshot = new ArrayList<>();
+        for (int seat = 0; seat < 2; seat++) {
+            String encodedBoard = boards[seat].encodeBoard(boards[seat].getBoard());
+            snapshot.add(ProtocolMessages.SNAPSHOT + ProtocolMessages.DELIMITER + seat + ProtocolMessages.DELIMITER + names[seat]
+                + ProtocolMessages.DELIMITER + boards[seat].getScore() + encodedBoard.substring(ProtocolMessages.CLIENTBOARD.length()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return Whether the coordinates are on the board.
+     */
+    private boolean isOnBoard(int x, int y) {
+        return x >= 0 && x < GameConstants.BOARD_SIZE_X && y >= 0 && y < GameConstants.BOARD_SIZE_Y;
+    }
+
+    /**
+     * @return The seat of the player or -1 if the player isn't in this room.
+     */
+    private int seatOf(ClientHandler player) {
+        if (players[0] == player) {
+            return 0;
+        } else if (players[1] == player) {
+            return 1;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,175 @@
+package server;
+
+// External imports
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import metrics.MetricsRegistry;
+import metrics.MetricsServer;
+import multiplayer.Heartbeat;
+
+/**
+ * This class is a small reference server for the battleship protocol. It is meant for trying out the client locally and for testing
+ * features that need server side support, like spectators. It accepts connections, puts every two players that connect together in a
+ * game room and gives every connection its own thread.
+ * @inv serverSocket != null, rooms != null
+ */
+public class GameServer implements Runnable {
+    // The port that is used if none is given
+    public static final int DEFAULT_PORT = 8888;
+
+    // The socket that accepts the clients
+    private ServerSocket serverSocket;
+
+    // The rooms that are currently open by their number
+    private Map<Integer, GameRoom> rooms;
+
+    // The room in which the next player is put, null if a new one has to be created
+    private GameRoom waitingRoom;
+
+    // The number of the room that was created last
+    private int lastRoomId;
+
+    // Runs the heartbeats of all connections on one thread
+    private ScheduledExecutorService heartbeats;
+
+    /**
+     * Opens the server socket on the given port.
+     * @param port The port to listen on, 0 for any free port.
+     * @throws IOException If the port can't be opened.
+     * @pre port >= 0
+     * @post ensures that serverSocket is open and rooms is empty
+     */
+    public GameServer(int port) throws IOException {
+        serverSocket = new ServerSocket(port);
+        rooms = new ConcurrentHashMap<>();
+        lastRoomId = 0;
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Heartbeats");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        try {
+            GameServer server = new GameServer(port);
+            server.log("Listening on port " + server.getPort());
+            MetricsRegistry.global().gauge("server_rooms_open", "Game rooms that are open", () -> server.rooms.size());
+            MetricsServer.startFromProperty(MetricsRegistry.global());
+            server.run();
+        } catch (IOException e) {
+            System.out.println("Could not start the server. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Accepts clients until the server socket is closed. Every client gets its own handler thread.
+     */
+    @Override
+    public void run() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                new Thread(new ClientHandler(socket, this), "Client " + socket.getPort()).start();
+            } catch (IOException e) {
+                // Socket was closed or the client dropped while accepting
+            }
+        }
+    }
+
+    /**
+     * Starts the server on a new thread.
+     * @return The thread the server runs on.
+     */
+    public Thread start() {
+        Thread thread = new Thread(this, "Server");
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Gives the room a new player should join. A new room is created when the previous one is full.
+     * @return The room for the player.
+     * @post ensures that the returned room has a free seat
+     */
+    public synchronized GameRoom joinRoom() {
+        if (waitingRoom == null || waitingRoom.isFull()) {
+            lastRoomId++;
+            waitingRoom = new GameRoom(lastRoomId, this);
+            rooms.put(lastRoomId, waitingRoom);
+        }
+        return waitingRoom;
+    }
+
+    /**
+     * Getter for a room by its number.
+     * @param roomId The number of the room, 0 for the room that was created last.
+     * @return The room or null if it doesn't exist (anymore).
+     */
+    public synchronized GameRoom getRoom(int roomId) {
+        return rooms.get(roomId == 0 ? lastRoomId : roomId);
+    }
+
+    /**
+     * Removes a room after its game has ended.
+     * @param room The room to be removed.
+     * @pre room != null
+     */
+    public synchronized void removeRoom(GameRoom room) {
+        rooms.remove(room.getId());
+        if (waitingRoom == room) {
+            waitingRoom = null;
+        }
+    }
+
+    /**
+     * Runs a heartbeat task of a connection every heartbeat interval, see {@link Heartbeat}.
+     * @param heartbeat The task that sends a heartbeat if the connection was idle.
+     * @return The scheduled task, to be cancelled when the connection closes, or null if heartbeats are turned off.
+     * @pre heartbeat != null
+     */
+    public ScheduledFuture<?> scheduleHeartbeat(Runnable heartbeat) {
+        long interval = Heartbeat.interval();
+        if (interval == 0) {
+            return null;
+        }
+        return heartbeats.scheduleAtFixedRate(heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Closes the server socket so that no new clients are accepted.
+     */
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+        heartbeats.shutdownNow();
+    }
+
+    /**
+     * Prints a message on the server's console.
+     * @param message The message.
+     */
+    public void log(String message) {
+        System.out.println("[server] " + message);
+    }
+}
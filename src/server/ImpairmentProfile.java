@@ -0,0 +1,273 @@
+package server;
+
+// External imports
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class is a script of network impairments for the {@link ImpairmentProxy}. A profile has one step per line, each with the time
+ * in milliseconds since the connection was opened and the settings that apply from then on, for example:
+ * <pre>
+ * # 200 ms round trip with jitter, then a stall, a slow link and a reset
+ * 0 delay=100 jitter=20 distribution=normal
+ * 5000 stall=2000
+ * 10000 bandwidth=2000
+ * 20000 reset
+ * </pre>
+ * delay is the mean time in milliseconds a line takes in each direction and jitter its spread, drawn from a constant, uniform, normal
+ * or pareto distribution. bandwidth caps the bytes per second of each direction, 0 for no cap. reorder is the chance that a line doesn't
+ * wait for the lines before it, unlike TCP, so it can overtake them. stall holds all lines for the given milliseconds and reset closes the
+ * connection abruptly. A step only names the settings that change, the others keep their value. Lines that start with # are skipped.
+ * @inv steps != null, steps are ordered by time
+ */
+public class ImpairmentProfile {
+    // The shape of the pareto distribution, the smaller the heavier its tail
+    private static final double PARETO_SHAPE = 2.5;
+
+    // The steps of the profile, ordered by time
+    private List<Step> steps;
+
+    /**
+     * The distributions the delay of a line is drawn from.
+     */
+    public enum Distribution {
+        CONSTANT, UNIFORM, NORMAL, PARETO
+    }
+
+    /**
+     * One step of a profile with all settings that apply from its time on.
+     * @inv time >= 0, delay >= 0, jitter >= 0, bandwidth >= 0, 0 <= reorder <= 1, stall >= 0
+     */
+    public static class Step {
+        // The time in milliseconds since the connection was opened at which the step starts
+        private long time;
+
+        // The mean delay and its spread in milliseconds, and the distribution it is drawn from
+        private long delay;
+        private long jitter;
+        private Distribution distribution;
+
+        // The most bytes per second in each direction, 0 for no cap
+        private long bandwidth;
+
+        // The chance that a line may overtake the lines before it
+        private double reorder;
+
+        // The time in milliseconds that all lines are held when the step starts, 0 for none
+        private long stall;
+
+        // Indicates whether the connection is reset when the step starts
+        private boolean reset;
+
+        /**
+         * Creates the step that applies before the first step of a profile, without any impairment.
+         */
+        private Step() {
+            this.distribution = Distribution.CONSTANT;
+        }
+
+        /**
+         * Creates a step that keeps the settings of the step before it. A stall or reset of the step before isn't kept.
+         * @param time The start of the step.
+         * @param before The step before it.
+         */
+        private Step(long time, Step before) {
+            this.time = time;
+            this.delay = before.delay;
+            this.jitter = before.jitter;
+            this.distribution = before.distribution;
+            this.bandwidth = before.bandwidth;
+            this.reorder = before.reorder;
+        }
+
+        /**
+         * Draws the time a line takes.
+         * @param random The random to draw with.
+         * @return The delay in nanoseconds, at least 0.
+         * @pre random != null
+         */
+        public long sampleDelay(Random random) {
+            double millis;
+            if (distribution == Distribution.UNIFORM) {
+                millis = delay + jitter * (2 * random.nextDouble() - 1);
+            } else if (distribution == Distribution.NORMAL) {
+                millis = delay + jitter * random.nextGaussian();
+            } else if (distribution == Distribution.PARETO) {
+                millis = delay + jitter * (Math.pow(1 - random.nextDouble(), -1 / PARETO_SHAPE) - 1);
+            } else {
+                millis = delay;
+            }
+            return (long) (Math.max(0, millis) * 1000000);
+        }
+
+        /**
+         * @return The time in milliseconds since the connection was opened at which the step starts.
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * @return The mean delay of a line in milliseconds.
+         */
+        public long getDelay() {
+            return delay;
+        }
+
+        /**
+         * @return The spread of the delay in milliseconds.
+         */
+        public long getJitter() {
+            return jitter;
+        }
+
+        /**
+         * @return The distribution the delay is drawn from.
+         */
+        public Distribution getDistribution() {
+            return distribution;
+        }
+
+        /**
+         * @return The most bytes per second in each direction, 0 for no cap.
+         */
+        public long getBandwidth() {
+            return bandwidth;
+        }
+
+        /**
+         * @return The chance that a line may overtake the lines before it.
+         */
+        public double getReorder() {
+            return reorder;
+        }
+
+        /**
+         * @return The time in milliseconds that all lines are held when the step starts, 0 for none.
+         */
+        public long getStall() {
+            return stall;
+        }
+
+        /**
+         * @return Whether the connection is reset when the step starts.
+         */
+        public boolean isReset() {
+            return reset;
+        }
+    }
+
+    /**
+     * @param steps The steps ordered by time.
+     */
+    private ImpairmentProfile(List<Step> steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * Parses a profile, see the description of the class.
+     * @param lines The lines of the profile.
+     * @return The profile.
+     * @throws IllegalArgumentException If a line isn't a valid step or the steps aren't ordered by time.
+     * @pre lines != null
+     */
+    public static ImpairmentProfile parse(List<String> lines) {
+        List<Step> steps = new ArrayList<>();
+        Step before = new Step();
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] parts = line.split("\\s+");
+            try {
+                Step step = new Step(Long.parseLong(parts[0]), before);
+                if (step.time < before.time) {
+                    throw new IllegalArgumentException("The steps aren't ordered by time: " + line);
+                }
+                for (String setting : Arrays.copyOfRange(parts, 1, parts.length)) {
+                    apply(step, setting);
+                }
+                if (step.delay < 0 || step.jitter < 0 || step.bandwidth < 0 || step.stall < 0 || step.reorder < 0 || step.reorder > 1) {
+                    throw new IllegalArgumentException("A setting is out of range: " + line);
+                }
+                steps.add(step);
+                before = step;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number in step: " + line);
+            }
+        }
+        return new ImpairmentProfile(steps);
+    }
+
+    /**
+     * Reads a profile from a file, see {@link #parse(List)}.
+     * @param file The file of the profile.
+     * @return The profile.
+     * @throws IOException If the file can't be read.
+     * @throws IllegalArgumentException If the file isn't a valid profile.
+     * @pre file != null
+     */
+    public static ImpairmentProfile load(Path file) throws IOException {
+        return parse(Files.readAllLines(file));
+    }
+
+    /**
+     * Changes one setting of a step.
+     * @param step The step.
+     * @param setting The setting as name=value, or reset.
+     * @throws IllegalArgumentException If the setting is unknown.
+     */
+    private static void apply(Step step, String setting) {
+        if (setting.equals("reset")) {
+            step.reset = true;
+            return;
+        }
+
+        String[] nameValue = setting.split("=", 2);
+        if (nameValue.length != 2) {
+            throw new IllegalArgumentException("Setting without value: " + setting);
+        }
+        String value = nameValue[1];
+        if (nameValue[0].equals("delay")) {
+            step.delay = Long.parseLong(value);
+        } else if (nameValue[0].equals("jitter")) {
+            step.jitter = Long.parseLong(value);
+        } else if (nameValue[0].equals("distribution")) {
+            try {
+                step.distribution = Distribution.valueOf(value.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown distribution: " + value);
+            }
+        } else if (nameValue[0].equals("bandwidth")) {
+            step.bandwidth = Long.parseLong(value);
+        } else if (nameValue[0].equals("reorder")) {
+            step.reorder = Double.parseDouble(value);
+        } else if (nameValue[0].equals("stall")) {
+            step.stall = Long.parseLong(value);
+        } else {
+            throw new IllegalArgumentException("Unknown setting: " + setting);
+        }
+    }
+
+    /**
+     * @return The steps of the profile ordered by time, unmodifiable.
+     */
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * @return The step that applies before the first step of any profile, without any impairment.
+     */
+    public static Step none() {
+        return new Step();
+    }
+}
@@ -0,0 +1,448 @@
+package server;
+
+// External imports
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class is a local TCP proxy that sits between clients and a server and makes the network between them worse, to see how the
+ * client copes with a slow or bad connection. Every connection that is accepted gets its own connection to the server and plays the
+ * {@link ImpairmentProfile} from the moment it was opened. The protocol is made of lines, so the proxy delays, holds and reorders
+ * whole lines: each line gets a delay drawn from the profile, waits for the bandwidth of its direction and is written once both have
+ * passed. A stall holds all lines of both directions and a reset closes both sockets abruptly, so both sides see a connection reset.
+ * Run the main method with the port to listen on, the host and port of the server and optionally the file of a profile.
+ * @inv serverSocket != null, targetHost != null, profile != null
+ */
+public class ImpairmentProxy implements Runnable {
+    // The profile that is used if none is given, a round trip of 200 ms
+    public static final String DEFAULT_PROFILE = "0 delay=100";
+
+    // The socket that accepts the clients
+    private ServerSocket serverSocket;
+
+    // The server the clients are connected to
+    private String targetHost;
+    private int targetPort;
+
+    // The impairments of every connection
+    private ImpairmentProfile profile;
+
+    // The number of the connection that was accepted last
+    private int lastLinkId;
+
+    /**
+     * Opens the proxy socket on the given port.
+     * @param port The port to listen on, 0 for any free port.
+     * @param targetHost The host of the server.
+     * @param targetPort The port of the server.
+     * @param profile The impairments of every connection.
+     * @throws IOException If the port can't be opened.
+     * @pre port >= 0, targetHost != null, targetPort > 0, profile != null
+     */
+    public ImpairmentProxy(int port, String targetHost, int targetPort, ImpairmentProfile profile) throws IOException {
+        this.serverSocket = new ServerSocket(port);
+        this.targetHost = targetHost;
+        this.targetPort = targetPort;
+        this.profile = profile;
+    }
+
+    /**
+     * Starts the proxy.
+     * @param args The port to listen on, the host and the port of the server, and optionally the file of a profile.
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: ImpairmentProxy <port> <server host> <server port> [profile file]");
+            return;
+        }
+        try {
+            ImpairmentProfile profile = args.length > 3 ? ImpairmentProfile.load(Paths.get(args[3]))
+                : ImpairmentProfile.parse(Collections.singletonList(DEFAULT_PROFILE));
+            ImpairmentProxy proxy = new ImpairmentProxy(Integer.parseInt(args[0]), args[1], Integer.parseInt(args[2]), profile);
+            proxy.log("Listening on port " + proxy.getPort() + " for " + args[1] + ":" + args[2]);
+            proxy.run();
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Could not start the proxy. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Accepts clients until the proxy socket is closed. Every client is connected to the server.
+     */
+    @Override
+    public void run() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                lastLinkId++;
+                new Link(lastLinkId, client).start();
+            } catch (IOException e) {
+                // Socket was closed, the client dropped while accepting or the server couldn't be reached
+            }
+        }
+    }
+
+    /**
+     * Starts the proxy on a new thread.
+     * @return The thread the proxy runs on.
+     */
+    public Thread start() {
+        Thread thread = new Thread(this, "Proxy");
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * @return The port the proxy listens on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Closes the proxy socket so that no new clients are accepted. Open connections keep going.
+     */
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+
+    /**
+     * Prints a message on the proxy's console.
+     * @param message The message.
+     */
+    public void log(String message) {
+        System.out.println("[proxy] " + message);
+    }
+
+    /**
+     * A line on its way through the proxy, which can be written once its delay has passed. A line without text marks the end of its direction.
+     * @inv due is a System.nanoTime()
+     */
+    private static class Line implements Delayed {
+        // The line without its line end, null at the end of the direction
+        private String text;
+
+        // The System.nanoTime() at which the line can be written
+        private long due;
+
+        // The order in which the lines were read, used between lines that are due at the same time
+        private long sequence;
+
+        /**
+         * @param text The line, null at the end of the direction.
+         * @param due The System.nanoTime() at which the line can be written.
+         * @param sequence The order in which the line was read.
+         */
+        private Line(String text, long due, long sequence) {
+            this.text = text;
+            this.due = due;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(due - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            Line line = (Line) other;
+            if (due != line.due) {
+                return due - line.due < 0 ? -1 : 1;
+            }
+            return Long.compare(sequence, line.sequence);
+        }
+    }
+
+    /**
+     * One client connected through the proxy to the server.
+     * @inv client != null, step != null, openDirections >= 0
+     */
+    private class Link {
+        // The number of the connection, used in the log
+        private int id;
+
+        // The sockets to the client and to the server, server is null until connected
+        private Socket client;
+        private Socket server;
+
+        // The System.nanoTime() at which the connection was opened
+        private long opened;
+
+        // The step of the profile that applies now
+        private volatile ImpairmentProfile.Step step;
+
+        // The System.nanoTime() until which all lines are held
+        private volatile long stallUntil;
+
+        // Indicates whether the connection was closed
+        private volatile boolean closed;
+
+        // The amount of directions that didn't end yet
+        private AtomicInteger openDirections;
+
+        // The directions from the client to the server and back, null until connected
+        private Direction up;
+        private Direction down;
+
+        /**
+         * @param id The number of the connection.
+         * @param client The socket of the accepted client.
+         * @pre client != null
+         */
+        private Link(int id, Socket client) {
+            this.id = id;
+            this.client = client;
+            this.step = ImpairmentProfile.none();
+            this.stallUntil = System.nanoTime();
+            this.openDirections = new AtomicInteger(2);
+        }
+
+        /**
+         * Connects to the server and starts moving lines in both directions and playing the profile.
+         * @throws IOException If the server can't be reached, in which case the client is disconnected.
+         */
+        private void start() throws IOException {
+            try {
+                server = new Socket(targetHost, targetPort);
+            } catch (IOException e) {
+                log("Connection " + id + ": the server can't be reached. " + e.getMessage());
+                client.close();
+                throw e;
+            }
+            opened = System.nanoTime();
+            log("Connection " + id + " opened");
+            up = new Direction(this, client, server);
+            down = new Direction(this, server, client);
+            up.start("Proxy " + id + " up");
+            down.start("Proxy " + id + " down");
+            Thread script = new Thread(this::play, "Proxy " + id + " profile");
+            script.setDaemon(true);
+            script.start();
+        }
+
+        /**
+         * Applies the steps of the profile at their time until the profile ends or the connection is closed.
+         */
+        private void play() {
+            for (ImpairmentProfile.Step next : profile.getSteps()) {
+                long start = opened + TimeUnit.MILLISECONDS.toNanos(next.getTime());
+                while (!closed && System.nanoTime() - start < 0) {
+                    LockSupport.parkNanos(start - System.nanoTime());
+                }
+                if (closed) {
+                    return;
+                }
+
+                step = next;
+                if (next.getStall() > 0) {
+                    log("Connection " + id + ": stalled for " + next.getStall() + " ms");
+                    stallUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(next.getStall());
+                }
+                if (next.isReset()) {
+                    log("Connection " + id + ": reset");
+                    reset();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Closes both sockets abruptly, so that both sides see a connection reset instead of the end of the connection.
+         */
+        private void reset() {
+            if (closed) {
+                return;
+            }
+            try {
+                client.setSoLinger(true, 0);
+                server.setSoLinger(true, 0);
+            } catch (IOException e) {
+                // Closed anyway below
+            }
+            close();
+        }
+
+        /**
+         * Called when a direction wrote its last line. Once both ended the sockets are closed.
+         */
+        private void directionEnded() {
+            if (openDirections.decrementAndGet() == 0) {
+                log("Connection " + id + " closed");
+                close();
+            }
+        }
+
+        /**
+         * Closes both sockets and stops the writers of both directions.
+         */
+        private void close() {
+            closed = true;
+            try {
+                client.close();
+                server.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+            up.stop();
+            down.stop();
+        }
+    }
+
+    /**
+     * Moves the lines of one direction of a link. A reader thread reads the lines and gives each the time it can be written, and a
+     * writer thread writes them once that time and any stall passed.
+     * @inv link != null, from != null, to != null, lines != null
+     */
+    private static class Direction implements Runnable {
+        // The link of the direction
+        private Link link;
+
+        // The socket the lines are read from and the socket they are written to
+        private Socket from;
+        private Socket to;
+
+        // The lines that weren't written yet, taken once they are due
+        private DelayQueue<Line> lines;
+
+        // Draws the delays and which lines may overtake, only used by the reader
+        private Random random;
+
+        // The System.nanoTime() until which the bandwidth is used by the lines before, only used by the reader
+        private long busyUntil;
+
+        // The latest time a line is due, which lines that don't overtake wait for, only used by the reader
+        private long lastDue;
+
+        // The amount of lines read, only used by the reader
+        private long sequence;
+
+        /**
+         * @param link The link of the direction.
+         * @param from The socket the lines are read from.
+         * @param to The socket the lines are written to.
+         */
+        private Direction(Link link, Socket from, Socket to) {
+            this.link = link;
+            this.from = from;
+            this.to = to;
+            this.lines = new DelayQueue<>();
+            this.random = new Random();
+            this.lastDue = System.nanoTime();
+        }
+
+        /**
+         * Starts the reader and the writer thread.
+         * @param name The name of the threads.
+         */
+        private void start(String name) {
+            Thread reader = new Thread(this, name + " reader");
+            Thread writer = new Thread(this::write, name + " writer");
+            reader.setDaemon(true);
+            writer.setDaemon(true);
+            writer.start();
+            reader.start();
+        }
+
+        /**
+         * Makes the writer stop right away, without waiting for the lines that weren't written yet.
+         */
+        private void stop() {
+            lines.put(new Line(null, System.nanoTime(), -1));
+        }
+
+        /**
+         * Reads lines until the end of the connection. If reading fails the other side is reset as well.
+         */
+        @Override
+        public void run() {
+            try {
+                BufferedReader in = new BufferedReader(new InputStreamReader(from.getInputStream(), StandardCharsets.UTF_8));
+                String text = in.readLine();
+                while (text != null) {
+                    lines.put(schedule(text));
+                    text = in.readLine();
+                }
+                lines.put(new Line(null, lastDue, sequence++));
+            } catch (IOException e) {
+                link.reset();
+            }
+        }
+
+        /**
+         * Gives a line the time at which it can be written with the step that applies now.
+         * @param text The line.
+         * @return The line with its time.
+         */
+        private Line schedule(String text) {
+            ImpairmentProfile.Step step = link.step;
+            long now = System.nanoTime();
+            long sent = now;
+            if (step.getBandwidth() > 0) { // The line has to wait for the lines before it and then takes its own size
+                long bytes = text.getBytes(StandardCharsets.UTF_8).length + 1;
+                sent = Math.max(now, busyUntil) + bytes * TimeUnit.SECONDS.toNanos(1) / step.getBandwidth();
+                busyUntil = sent;
+            }
+
+            long due = sent + step.sampleDelay(random);
+            if (random.nextDouble() >= step.getReorder()) { // Like TCP, the line waits for the lines before it
+                due = Math.max(due, lastDue);
+            }
+            lastDue = Math.max(lastDue, due);
+            return new Line(text, due, sequence++);
+        }
+
+        /**
+         * Writes the lines once they are due and no stall holds them, until the end of the direction. Lines that are due together are
+         * flushed together. If writing fails the connection is reset.
+         */
+        private void write() {
+            try {
+                BufferedWriter out = new BufferedWriter(new OutputStreamWriter(to.getOutputStream(), StandardCharsets.UTF_8));
+                while (true) {
+                    Line line = lines.take();
+                    long stallUntil = link.stallUntil;
+                    while (System.nanoTime() - stallUntil < 0) {
+                        LockSupport.parkNanos(stallUntil - System.nanoTime());
+                    }
+
+                    if (line.text == null) {
+                        out.flush();
+                        to.shutdownOutput();
+                        link.directionEnded();
+                        return;
+                    }
+                    out.write(line.text);
+                    out.write('\n');
+                    Line next = lines.peek();
+                    if (next == null || next.getDelay(TimeUnit.NANOSECONDS) > 0) {
+                        out.flush();
+                    }
+                }
+            } catch (IOException e) {
+                link.reset();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                link.reset();
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package server;
+
+// External imports
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * This class fans out the messages of one game room to all of its spectators. Every message is encoded to bytes exactly once
+ * and that same byte array is handed to every watcher, so the cost of encoding doesn't grow with the amount of watchers. Each watcher
+ * has its own bounded queue and writer thread so that a slow spectator can never block the game. If a watcher's queue is full
+ * it is too far behind and it is dropped.
+ * @inv watchers != null
+ */
+public class SpectatorHub {
+    // How many messages a watcher may be behind before it is dropped
+    public static final int WATCHER_QUEUE_SIZE = 256;
+
+    // Queued after the last message of a room to let the watchers finish
+    private static final byte[] END = new byte[0];
+
+    // The spectators of the room
+    private List<Watcher> watchers;
+
+    /**
+     * @post ensures that watchers is initialised and empty
+     */
+    public SpectatorHub() {
+        watchers = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Adds a spectator that first receives the given snapshot messages and after that everything that is published.
+     * @param out The stream to the spectator.
+     * @param snapshot The messages describing the current state of the game.
+     * @pre out != null, snapshot != null
+     * @post ensures that the snapshot is queued for the spectator before any later published message
+     */
+    public void subscribe(OutputStream out, List<String> snapshot) {
+        Watcher watcher = new Watcher(out);
+        for (String message : snapshot) {
+            watcher.queue.offer(encode(message));
+        }
+        watchers.add(watcher);
+        watcher.thread.start();
+    }
+
+    /**
+     * Encodes the message once and queues it for every spectator.
+     * @param message The message to be sent to all spectators.
+     * @pre message != null
+     * @post ensures that the same encoded message is queued for every watcher that isn't too far behind
+     */
+    public void publish(String message) {
+        if (watchers.isEmpty()) {
+            return;
+        }
+
+        byte[] encoded = encode(message);
+        for (Watcher watcher : watchers) {
+            if (!watcher.queue.offer(encoded)) { // If the watcher is too far behind
+                drop(watcher);
+            }
+        }
+    }
+
+    /**
+     * Lets every watcher write what is still queued, after which its stream is closed.
+     * @post ensures that no watchers are left after their queues are drained
+     */
+    public void close() {
+        for (Watcher watcher : watchers) {
+            if (!watcher.queue.offer(END)) {
+                drop(watcher);
+            }
+        }
+    }
+
+    /**
+     * Getter for the amount of spectators.
+     * @return The amount of spectators currently watching.
+     */
+    public int getWatcherCount() {
+        return watchers.size();
+    }
+
+    /**
+     * Encodes a message to the bytes of a line.
+     * @param message The message to be encoded.
+     * @return The message followed by a new line as bytes.
+     */
+    private byte[] encode(String message) {
+        return (message + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Removes a watcher, stops its writer thread and closes its stream.
+     * @param watcher The watcher to be removed.
+     */
+    private void drop(Watcher watcher) {
+        watchers.remove(watcher);
+        if (Thread.currentThread() != watcher.thread) {
+            watcher.thread.interrupt();
+        }
+        try {
+            watcher.out.close();
+        } catch (IOException e) {
+            // The stream is already broken, nothing else to do
+        }
+    }
+
+    /**
+     * A single spectator. It writes the queued messages to its stream on its own thread and only flushes
+     * once the queue is empty, so bursts of moves go out together.
+     */
+    private class Watcher implements Runnable {
+        // The stream to the spectator
+        private OutputStream out;
+
+        // The messages that still have to be written
+        private BlockingQueue<byte[]> queue;
+
+        // The thread writing the messages
+        private Thread thread;
+
+        private Watcher(OutputStream out) {
+            this.out = out;
+            this.queue = new ArrayBlockingQueue<>(WATCHER_QUEUE_SIZE);
+            this.thread = new Thread(this, "Spectator");
+        }
+
+        @Override
+        public void run() {
+            try {
+                byte[] message = queue.take();
+                while (message != END) {
+                    out.write(message);
+                    if (queue.isEmpty()) {
+                        out.flush();
+                    }
+                    message = queue.take();
+                }
+                out.flush();
+            } catch (IOException | InterruptedException e) {
+                // The watcher is dropped below
+            }
+            drop(this);
+        }
+    }
+}
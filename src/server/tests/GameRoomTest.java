@@ -0,0 +1,128 @@
+package server.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+
+import org.junit.jupiter.api.Test;
+
+import gameboards.GameBoard;
+import multiplayer.Heartbeat;
+import server.GameServer;
+
+public class GameRoomTest {
+
+    /**
+     * Test that a game starts when both players send their board right after the handshake, also if one name has to be retried
+     */
+    @Test
+    public void pipelinedHandshakeTest() throws IOException {
+        GameServer server = new GameServer(0);
+        server.start();
+        try (Socket first = new Socket("localhost", server.getPort()); Socket second = new Socket("localhost", server.getPort())) {
+            PrintWriter firstOut = new PrintWriter(first.getOutputStream(), true);
+            PrintWriter secondOut = new PrintWriter(second.getOutputStream(), true);
+            BufferedReader firstIn = new BufferedReader(new InputStreamReader(first.getInputStream()));
+            BufferedReader secondIn = new BufferedReader(new InputStreamReader(second.getInputStream()));
+
+            GameBoard board = new GameBoard(false);
+            firstOut.println("h;alice");
+            firstOut.println(board.encodeBoard(board.getBoard()));
+            assertEquals("h", firstIn.readLine());
+
+            // The second player takes the same name but its board is kept while it picks another one
+            secondOut.println("h;alice");
+            secondOut.println(board.encodeBoard(board.getBoard()));
+            assertEquals("ne", secondIn.readLine());
+            secondOut.println("h;bob");
+
+            assertEquals("h", secondIn.readLine());
+            assertEquals("n;alice", secondIn.readLine());
+            assertTrue(secondIn.readLine().startsWith("s;"));
+            assertEquals("n;bob", firstIn.readLine());
+            assertTrue(firstIn.readLine().startsWith("s;"));
+        } finally {
+            server.close();
+        }
+    }
+
+    /**
+     * Test that a player can start a new game over the same connection after its game has ended
+     */
+    @Test
+    public void playAgainTest() throws IOException {
+        GameServer server = new GameServer(0);
+        server.start();
+        try (Socket first = new Socket("localhost", server.getPort()); Socket second = new Socket("localhost", server.getPort());
+                Socket third = new Socket("localhost", server.getPort())) {
+            PrintWriter firstOut = new PrintWriter(first.getOutputStream(), true);
+            PrintWriter secondOut = new PrintWriter(second.getOutputStream(), true);
+            PrintWriter thirdOut = new PrintWriter(third.getOutputStream(), true);
+            BufferedReader firstIn = new BufferedReader(new InputStreamReader(first.getInputStream()));
+            BufferedReader thirdIn = new BufferedReader(new InputStreamReader(third.getInputStream()));
+
+            GameBoard board = new GameBoard(false);
+            firstOut.println("h;alice");
+            assertEquals("h", firstIn.readLine());
+
+            // A play again before the game has ended is ignored
+            firstOut.println("pa");
+            secondOut.println("h;bob");
+            assertEquals("n;bob", firstIn.readLine());
+            secondOut.println("e");
+            assertEquals("g;alice;false", firstIn.readLine());
+
+            // The first player gets a new room and the board is reset on the client, so a new one is sent
+            firstOut.println("pa");
+            firstOut.println(board.encodeBoard(board.getBoard()));
+            assertEquals("h", firstIn.readLine());
+            thirdOut.println("h;carol");
+            thirdOut.println(board.encodeBoard(board.getBoard()));
+            assertEquals("h", thirdIn.readLine());
+            assertEquals("n;alice", thirdIn.readLine());
+            assertTrue(thirdIn.readLine().startsWith("s;"));
+            assertEquals("n;carol", firstIn.readLine());
+            assertTrue(firstIn.readLine().startsWith("s;"));
+        } finally {
+            server.close();
+        }
+    }
+
+    /**
+     * Test that the server sends heartbeats and disconnects a player that sent heartbeats and then went silent
+     */
+    @Test
+    public void deadPeerTest() throws IOException {
+        System.setProperty(Heartbeat.INTERVAL_PROPERTY, "50");
+        System.setProperty(Heartbeat.IDLE_TIMEOUT_PROPERTY, "300");
+        GameServer server = new GameServer(0);
+        server.start();
+        try (Socket player = new Socket("localhost", server.getPort())) {
+            PrintWriter out = new PrintWriter(player.getOutputStream(), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(player.getInputStream()));
+
+            out.println("hb");
+            assertEquals("hb", in.readLine()); // The first heartbeat is answered right away
+            out.println("h;alice");
+            assertEquals("h", in.readLine());
+
+            // The player stops sending, so the server closes the connection after the idle timeout
+            long start = System.nanoTime();
+            String input = in.readLine();
+            while (input != null) {
+                assertEquals("hb", input);
+                input = in.readLine();
+            }
+            assertTrue(System.nanoTime() - start < 5000000000L);
+        } finally {
+            server.close();
+            System.clearProperty(Heartbeat.INTERVAL_PROPERTY);
+            System.clearProperty(Heartbeat.IDLE_TIMEOUT_PROPERTY);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package server.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import server.ImpairmentProfile;
+import server.ImpairmentProxy;
+
+public class ImpairmentProxyTest {
+
+    /**
+     * Test that a step keeps the settings of the step before it except for a stall or reset, and that invalid steps are rejected
+     */
+    @Test
+    public void profileTest() {
+        List<ImpairmentProfile.Step> steps = ImpairmentProfile.parse(Arrays.asList(
+            "# 200 ms round trip",
+            "0 delay=100 jitter=20 distribution=normal",
+            "",
+            "500 stall=1000 bandwidth=2000",
+            "900 reorder=0.5 reset")).getSteps();
+
+        assertEquals(3, steps.size());
+        assertEquals(100, steps.get(1).getDelay());
+        assertEquals(ImpairmentProfile.Distribution.NORMAL, steps.get(1).getDistribution());
+        assertEquals(1000, steps.get(1).getStall());
+        assertEquals(2000, steps.get(2).getBandwidth());
+        assertEquals(0.5, steps.get(2).getReorder());
+        assertEquals(0, steps.get(2).getStall());
+        assertTrue(steps.get(2).isReset());
+        assertFalse(steps.get(1).isReset());
+
+        assertThrows(IllegalArgumentException.class, () -> ImpairmentProfile.parse(Arrays.asList("0 latency=100")));
+        assertThrows(IllegalArgumentException.class, () -> ImpairmentProfile.parse(Arrays.asList("100 delay=1", "50 delay=2")));
+        assertThrows(IllegalArgumentException.class, () -> ImpairmentProfile.parse(Arrays.asList("0 reorder=2")));
+    }
+
+    /**
+     * Test that lines take the delay in each direction and keep their order despite the jitter
+     */
+    @Test
+    public void delayTest() throws IOException {
+        try (ServerSocket echo = echoServer()) {
+            ImpairmentProfile profile = ImpairmentProfile.parse(Arrays.asList("0 delay=50 jitter=40 distribution=uniform"));
+            ImpairmentProxy proxy = new ImpairmentProxy(0, "localhost", echo.getLocalPort(), profile);
+            proxy.start();
+            try (Socket socket = new Socket("localhost", proxy.getPort())) {
+                PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+
+                long start = System.nanoTime();
+                for (int i = 0; i < 20; i++) {
+                    out.println("m;" + i + ";0");
+                }
+                for (int i = 0; i < 20; i++) {
+                    assertEquals("m;" + i + ";0", in.readLine());
+                }
+                assertTrue(System.nanoTime() - start >= 20000000L); // At least the smallest delay twice
+            } finally {
+                proxy.close();
+            }
+        }
+    }
+
+    /**
+     * Test that a reset step closes the connection abruptly
+     */
+    @Test
+    public void resetTest() throws IOException {
+        try (ServerSocket echo = echoServer()) {
+            ImpairmentProfile profile = ImpairmentProfile.parse(Arrays.asList("200 reset"));
+            ImpairmentProxy proxy = new ImpairmentProxy(0, "localhost", echo.getLocalPort(), profile);
+            proxy.start();
+            try (Socket socket = new Socket("localhost", proxy.getPort())) {
+                PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+                out.println("hb");
+                assertEquals("hb", in.readLine());
+                assertThrows(IOException.class, in::readLine);
+            } finally {
+                proxy.close();
+            }
+        }
+    }
+
+    /**
+     * @return A server that sends every line back to the client that sent it, on its own thread.
+     * @throws IOException If the server socket can't be opened.
+     */
+    private static ServerSocket echoServer() throws IOException {
+        ServerSocket serverSocket = new ServerSocket(0);
+        Thread thread = new Thread(() -> {
+            try (Socket socket = serverSocket.accept()) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+                PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+                String line = in.readLine();
+                while (line != null) {
+                    out.println(line);
+                    line = in.readLine();
+                }
+            } catch (IOException e) {
+                // The test is over
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return serverSocket;
+    }
+}
@@ -0,0 +1,41 @@
+package server.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import server.SpectatorHub;
+
+public class SpectatorHubTest {
+
+    /**
+     * Test that every watcher receives its snapshot followed by all published messages in order
+     */
+    @Test
+    public void fanOutTest() throws InterruptedException {
+        SpectatorHub hub = new SpectatorHub();
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+
+        hub.subscribe(first, Arrays.asList("ss;0;a", "ss;1;b"));
+        hub.subscribe(second, Arrays.asList("ss;0;a", "ss;1;b"));
+        assertEquals(2, hub.getWatcherCount());
+
+        hub.publish("d;1;2;0");
+        hub.publish("d;3;4;9");
+        hub.close();
+
+        // Closing lets the watchers drain their queues and then removes them
+        for (int i = 0; i < 100 && hub.getWatcherCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, hub.getWatcherCount());
+
+        String expected = "ss;0;a\nss;1;b\nd;1;2;0\nd;3;4;9\n";
+        assertEquals(expected, first.toString());
+        assertEquals(expected, second.toString());
+    }
+}
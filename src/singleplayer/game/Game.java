@@ -5,8 +5,12 @@ import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 // Internal imports
+import events.LateMoveEvent;
+import events.UpdateEvent;
 import singleplayer.players.ComputerPlayer;
 import singleplayer.players.HumanPlayer;
+import singleplayer.players.MonteCarloPlayer;
+import singleplayer.players.Player;
 import tui.GameClientTUI;
 import tui.TerminalColors;
 
@@ -16,7 +20,7 @@ import tui.TerminalColors;
  * moves from each of the players when it's their turn to go. It runs on it's own thread as that's where the 5 minute game loop is.
  * @inv humanPlayer != null, computerPlayer != null, humanPlayerPoints >= 0, computerPlayerPoints >= 0, view != null
  */
-public class Game implements Runnable {
+public class Game implements Runnable, Referee {
     // The constants to tell apart the human and computer player
     static final String HUMAN_PLAYER = "human";
     static final String COMPUTER_PLAYER = "computer";
@@ -24,14 +28,14 @@ public class Game implements Runnable {
     // Human and computer player instances through which moves
     // are demanded and boards updated.
     private HumanPlayer humanPlayer;
-    private ComputerPlayer computerPlayer;
+    private Player computerPlayer;
 
     // The points of each player
     private int humanPlayerPoints;
     private int computerPlayerPoints;
     
     // Indicates whos move it currently is
-    private String currentMove;
+    private volatile String currentMove;
 
     // Re-usable instance of random
     private Random random;
@@ -39,8 +43,8 @@ public class Game implements Runnable {
     // The terminal view to display messages and show prompts to user
     private GameClientTUI view;
 
-    // Indicates whether the game has ended
-    private boolean gameEnded;
+    // Indicates whether the game has ended, volatile since the move thread reads it
+    private volatile boolean gameEnded;
 
     // The game loop thread
     private Thread gameThread;
@@ -54,8 +58,24 @@ public class Game implements Runnable {
      * @post ensures that humanPlayer, computerPlayer, random, view are initialised. And that humanPlayerPoints, computerPlayerPoints == 0. Finally, ensures that game is started.
      */
     public Game(String playerName, GameClientTUI view) {
+        this(playerName, view, false);
+    }
+
+    /**
+     * Constructs a new game against either the random computer player or the {@link MonteCarloPlayer}.
+     * @param playerName The name of the player that will play against the computer.
+     * @param view The TUI.
+     * @param hardComputer Whether to play against the Monte Carlo player instead of the random one.
+     * @pre playerName != null, view != null
+     * @post ensures that humanPlayer, computerPlayer, random, view are initialised. And that humanPlayerPoints, computerPlayerPoints == 0. Finally, ensures that game is started.
+     */
+    public Game(String playerName, GameClientTUI view, boolean hardComputer) {
         humanPlayer = new HumanPlayer(playerName, this, view);
-        computerPlayer = new ComputerPlayer(this);
+        if (hardComputer) {
+            computerPlayer = new MonteCarloPlayer(this);
+        } else {
+            computerPlayer = new ComputerPlayer(this);
+        }
         random = new Random();
         this.view = view;
         humanPlayerPoints = 0;
@@ -107,6 +127,7 @@ public class Game implements Runnable {
         }
 
         gameEnded = true;
+        humanPlayer.turnChanged();
     }
 
     /**
@@ -125,18 +146,21 @@ public class Game implements Runnable {
      * each players points. If the results after a move indicate that all ships have been destroyed it stops 
      * the game by interrupting the game loop thread and informs both players about the result of the game.
      * Also, after each move it requests the respective player to make a move.
-     * @pre x >= 0 && x < 15, y >= 0 && y < 10, currentMove != null, humanPlayer != null, computerPlayer != null, view != null, gameThread != null
+     * @pre x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y, currentMove != null, humanPlayer != null, computerPlayer != null, view != null, gameThread != null
      * @post ensures that the move is made and both players are informed of the results of the move and about who goes next. Also ensure
      * that if all ships are destroyed by one of the players the gameThread is interrputed and human player is informed of who won.
      */
+    @Override
     public void makeMove(int x, int y, boolean isLate) {
         if (!gameEnded) {
 
             if (currentMove.equals(Game.COMPUTER_PLAYER)) { // Enemies move
                 
                 if (isLate) { // If enemy made a late move
-                    currentMove = Game.HUMAN_PLAYER;
+                    LateMoveEvent.emit(Game.COMPUTER_PLAYER);
                     humanPlayer.getMove();
+                    currentMove = Game.HUMAN_PLAYER;
+                    humanPlayer.turnChanged();
                 }
     
                 else { // If enemy made a move on time
@@ -145,13 +169,15 @@ public class Game implements Runnable {
                     // result[0]: isHit, result[1]: isSunk, result[2]: areAllShipsDestroyed
                     // the human player also updates its own board with this move
                     boolean[] result = humanPlayer.enemyMove(x, y); 
+                    UpdateEvent.emit(Game.COMPUTER_PLAYER, x, y, result[0], result[1], 0);
     
-                    computerPlayer.update(x, y, result[0]); // Update the computer's enemy board with the results
+                    computerPlayer.update(x, y, result[0], result[1]); // Update the computer's enemy board with the results
         
                     if (result[2]) { // If enemy destroyed all ships
                         gameThread.interrupt();
                         humanPlayer.gameOver(1);
                         gameEnded = true;
+                        humanPlayer.turnChanged();
     
                     } else { // If all ships weren't destroyed
     
@@ -170,8 +196,9 @@ public class Game implements Runnable {
                         } else { // If no ship was hit
     
                             humanPlayer.printBoards("Enemy missed your ship, your move!", TerminalColors.GREEN_BOLD);
-                            currentMove = Game.HUMAN_PLAYER;
                             humanPlayer.getMove();
+                            currentMove = Game.HUMAN_PLAYER;
+                            humanPlayer.turnChanged();
                         
                         }
             
@@ -183,6 +210,7 @@ public class Game implements Runnable {
     
                 if (isLate) { // If the human player's move was made late
     
+                    LateMoveEvent.emit(Game.HUMAN_PLAYER);
                     view.showEmptyLines(2);
                     view.showMessageLn(TerminalColors.RED_BOLD + "You missed your move!" + TerminalColors.RESET);
                     view.showEmptyLines(1);
@@ -196,13 +224,15 @@ public class Game implements Runnable {
                     // result[0]: isHit, result[1]: isSunk, result[2]: areAllShipsDestroyed
                     // the computer player also updates its own board with this move
                     boolean[] result = computerPlayer.enemyMove(x, y);
+                    UpdateEvent.emit(Game.HUMAN_PLAYER, x, y, result[0], result[1], 0);
     
-                    humanPlayer.update(x, y, result[0]); // Update the humans's enemy board with the results
+                    humanPlayer.update(x, y, result[0], result[1]); // Update the humans's enemy board with the results
     
                     if (result[2]) { // If all ships destroyed
                         gameThread.interrupt();
                         humanPlayer.gameOver(0);
                         gameEnded = true;
+                        humanPlayer.turnChanged();
     
                     } else { // If all ships are not yet destroyed
             
@@ -251,8 +281,9 @@ public class Game implements Runnable {
             currentMove = Game.COMPUTER_PLAYER;
             computerPlayer.getMove();
         } else {
+            humanPlayer.getMove(); // Started before the turn is handed over, so the move thread never finds the human's turn without a timer
             currentMove = Game.HUMAN_PLAYER;
-            humanPlayer.getMove();
+            humanPlayer.turnChanged();
             humanPlayer.printBoards("You're move!", TerminalColors.GREEN_BOLD);
         }
     }
@@ -280,11 +311,10 @@ public class Game implements Runnable {
 
     /**
      * To check whether it is the human players move
-     * @return Whether it is the human players move.
-     * @pre currentMove != null
+     * @return Whether it is the human players move, false if it wasn't decided yet who starts.
      * @post ensures that it returns whether or not it is the human player's move
      */
     public boolean isHumanPlayersMove() {
-        return currentMove.equals(Game.HUMAN_PLAYER);
+        return Game.HUMAN_PLAYER.equals(currentMove);
     }
 }
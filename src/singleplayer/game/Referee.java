@@ -0,0 +1,15 @@
+package singleplayer.game;
+
+/**
+ * The referee interface is what a computer player reports its moves to. The {@link Game} is the referee of a singleplayer game against
+ * a human, but players can also be put against each other without a human, for example in a tournament.
+ */
+public interface Referee {
+    /**
+     * Called by a player when it makes a move.
+     * @param x The X coordinate of the move
+     * @param y The Y coordinate of the move
+     * @param isLate Whether the move was made too late
+     */
+    public void makeMove(int x, int y, boolean isLate);
+}
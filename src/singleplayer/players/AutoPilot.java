@@ -0,0 +1,96 @@
+package singleplayer.players;
+
+// Internal imports
+import constants.GameConstants;
+
+/**
+ * This class makes the move of a human player that is about to run out of time. Instead of losing the turn to a late move, the player
+ * moves {@link #getMargin()} milliseconds before the deadline with the shot that a {@link MonteCarloPlayer} finds within a strict
+ * time budget. The auto-pilot is opt-in with {@link #MARGIN_PROPERTY} and is used by the singleplayer game and the multiplayer client.
+ * It has to be told every result of the player's own shots with {@link #update(int, int, boolean, boolean)}. The methods are synchronized,
+ * since the shot is chosen on a timer thread while the results come from the thread of the game.
+ * @inv player != null, margin > 0, budget > 0
+ */
+public class AutoPilot {
+    // The system property with the time in milliseconds before the deadline at which the auto-pilot moves, 0 or unset to turn it off
+    public static final String MARGIN_PROPERTY = "battleship.autopilot.margin";
+
+    // The system property with the time in milliseconds the auto-pilot may spend on choosing its shot
+    public static final String BUDGET_PROPERTY = "battleship.autopilot.budget";
+
+    // The value that is used if the budget property isn't set
+    public static final long DEFAULT_BUDGET = 200L;
+
+    // The most layouts sampled for a move, the time budget is what usually ends the sampling
+    private static final int MAX_SAMPLES = 50000;
+
+    // Chooses the shots, it only observes the game and never makes a move itself
+    private MonteCarloPlayer player;
+
+    // The time in milliseconds before the deadline at which the auto-pilot moves
+    private long margin;
+
+    // The time in milliseconds the auto-pilot may spend on choosing its shot
+    private long budget;
+
+    /**
+     * @param margin The time in milliseconds before the deadline at which the auto-pilot moves.
+     * @param budget The time in milliseconds the auto-pilot may spend on choosing its shot, at most half the margin is used.
+     * @pre margin > 1, budget > 0
+     * @post ensures that nothing is observed yet
+     */
+    public AutoPilot(long margin, long budget) {
+        this.margin = margin;
+        this.budget = Math.max(1L, Math.min(budget, margin / 2));
+        reset();
+    }
+
+    /**
+     * Creates the auto-pilot that is set with the system properties.
+     * @return The auto-pilot, or null if {@link #MARGIN_PROPERTY} isn't set to a time of more than 1 millisecond.
+     */
+    public static AutoPilot fromProperties() {
+        long margin = Long.getLong(MARGIN_PROPERTY, 0L);
+        if (margin <= 1) {
+            return null;
+        }
+        return new AutoPilot(Math.min(margin, GameConstants.MOVE_TIME), Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET));
+    }
+
+    /**
+     * Chooses the best shot that can be found within the budget.
+     * @return The number of the field, y * BOARD_SIZE_X + x.
+     * @pre that the enemy's board still has fields available to make a move on
+     * @post ensures that the returned field wasn't shot before
+     */
+    public synchronized int chooseField() {
+        return player.chooseField();
+    }
+
+    /**
+     * Records the result of one of the player's own shots, whether the player or the auto-pilot chose it.
+     * @param x The X coordinate of the shot.
+     * @param y The Y coordinate of the shot.
+     * @param isHit Whether a ship was hit.
+     * @param isSunk Whether a ship was sunk.
+     * @pre x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y
+     */
+    public synchronized void update(int x, int y, boolean isHit, boolean isSunk) {
+        player.update(x, y, isHit, isSunk);
+    }
+
+    /**
+     * Forgets everything that was observed, for the next game.
+     * @post ensures that nothing is observed
+     */
+    public synchronized void reset() {
+        player = new MonteCarloPlayer((x, y, isLate) -> { }, budget, MAX_SAMPLES);
+    }
+
+    /**
+     * @return The time in milliseconds before the deadline at which the auto-pilot moves.
+     */
+    public long getMargin() {
+        return margin;
+    }
+}
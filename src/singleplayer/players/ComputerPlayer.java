@@ -3,22 +3,26 @@ package singleplayer.players;
 // External imports
 import java.util.Random;
 
+// Internal imports
+import constants.GameConstants;
 import gameboards.EnemyGameBoard;
 import gameboards.GameBoard;
-import singleplayer.game.Game;
+import singleplayer.game.Referee;
 
 /**
  * This class represents the computer player in a singleplayer game. It mainly serves 
  * the purpose of making moves in the game. Although it also keeps track of its game board and 
  * the opponents game board to make better moves. A future potential improvement is created smarter
- * move making as right now it randomly picks a field that it hasn't already fired upon. Also, even though
+ * move making as right now it randomly picks a field that it hasn't already fired upon, except for the end of the game where the
+ * {@link EndgameSolver} picks the best field once only a few ships are left. The random fields are drawn like a shuffle that is done one
+ * field per move, so a move takes the same time at the end of a game on a big board as at its start. Also, even though
  * each player has 30 seconds to move it is assumed that the computer will be able to find the empty spot in much
  * less than a 30 seconds, hence no timer was imlemented here. 
- * @inv game != null, board != null, enemyBoard != null, random != null
+ * @inv game != null, board != null, enemyBoard != null, random != null, fields != null, 0 <= fieldsLeft <= fields.length
  */
 public class ComputerPlayer implements Player {
-    // Game instance
-    private Game game;
+    // The referee the moves are reported to, usually the game instance
+    private Referee game;
     
     // The computer player's board
     private GameBoard board;
@@ -26,19 +30,42 @@ public class ComputerPlayer implements Player {
     // The enemies board to keep track of computer player's moves
     private EnemyGameBoard enemyBoard;
 
+    // Everything that was observed on the enemies board, used by the endgame solver
+    private ShotHistory history;
+
+    // The sizes of the enemy's ships
+    private int[] fleet;
+
+    // Finds the best field exactly once few ships are left
+    private EndgameSolver endgameSolver;
+
+    // The fields, y * BOARD_SIZE_X + x, of which the first fieldsLeft weren't drawn yet
+    private int[] fields;
+
+    // The amount of fields that weren't drawn yet
+    private int fieldsLeft;
+
     // Re-usable random instance
     Random random;
 
     /**
      * Initialises the computer player
-     * @param game The game instance this player is a part of
+     * @param game The game instance or other referee this player is a part of
      * @pre game != null
      * @post ensures that game, board, enemyBoad and random are initialised
      */
-    public ComputerPlayer(Game game) {
+    public ComputerPlayer(Referee game) {
         this.game = game;
         this.board = new GameBoard(false);
         this.enemyBoard = new EnemyGameBoard();
+        this.history = new ShotHistory();
+        this.fleet = ShotHistory.fleet();
+        this.endgameSolver = new EndgameSolver();
+        this.fields = new int[GameConstants.BOARD_FIELDS];
+        for (int field = 0; field < fields.length; field++) {
+            fields[field] = field;
+        }
+        this.fieldsLeft = fields.length;
         random = new Random();
     }
 
@@ -49,12 +76,24 @@ public class ComputerPlayer implements Player {
      */
 	@Override
 	public void getMove() {
+        int field = endgameSolver.solve(history, fleet);
+        if (field != -1) { // If the endgame solver found the best field
+            game.makeMove(field % GameConstants.BOARD_SIZE_X, field / GameConstants.BOARD_SIZE_X, false);
+            return;
+        }
+
         int x = 0;
         int y= 0;
         boolean validMove = false;
-        while (!validMove) {
-            x = random.nextInt(15);
-            y= random.nextInt(10);
+        while (!validMove) { // Fields that were shot by the endgame solver are still in the fields and are skipped
+            int index = random.nextInt(fieldsLeft);
+            field = fields[index];
+            fieldsLeft--;
+            fields[index] = fields[fieldsLeft];
+            fields[fieldsLeft] = field;
+
+            x = field % GameConstants.BOARD_SIZE_X;
+            y = field / GameConstants.BOARD_SIZE_X;
             validMove = enemyBoard.isValidMove(x, y);
         }
 
@@ -63,7 +102,7 @@ public class ComputerPlayer implements Player {
     
     /**
      * {@inheritDoc}
-     * @pre x >= 0 && x < 15, y >= 0 && y < 10, board != null
+     * @pre x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y, board != null
      * @post ensures that a move is made on the computer players board and correct results
      * about whether ship was hit, sunk and whether all ships are destroyed are returned
      */
@@ -74,13 +113,14 @@ public class ComputerPlayer implements Player {
 
     /**
      * {@inheritDoc}
-     * @pre x >= 0 && x < 15, y >= 0 && y < 10, enemyBoard != null
+     * @pre x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y, enemyBoard != null
      * @post ensures that the enemy's board is updated so that in future the computer
      * player wouldn't make a move on the same field again
      */
 	@Override
-	public void update(int x, int y, boolean isHit) {
+	public void update(int x, int y, boolean isHit, boolean isSunk) {
         enemyBoard.makeMove(x, y, isHit);
+        history.record(x, y, isHit, isSunk);
 
 		
     }
@@ -0,0 +1,238 @@
+package singleplayer.players;
+
+// Internal imports
+import constants.GameConstants;
+
+/**
+ * This class finds the best next shot exactly once only a few ships are left. It enumerates every fleet layout that agrees with a
+ * {@link ShotHistory} with a depth first search and counts for each field that wasn't shot yet in how many layouts a ship is on it. The field
+ * with the highest count has the highest chance of being a hit, assuming every consistent layout is equally likely.
+ * Since all ships are placed horizontally every ship lies in one row, so the board is kept as one bit mask per row and placing, removing
+ * and checking a ship are single bit operations. A row has to fit in an int, so on boards wider than {@link #MAX_BOARD_SIZE_X} the
+ * solver never starts. The search first covers every hit field with a ship and then places the ships that weren't
+ * hit yet on free fields. Ships of the same size are placed in increasing position order so that every layout is counted exactly once.
+ * Any player that keeps a shot history can use the solver: it returns -1 when the placement space is too big and the player should fall back
+ * to its own way of picking a move. An instance is not thread safe.
+ * @inv maxShipsLeft > 0, maxNodes > 0
+ */
+public class EndgameSolver {
+    // Default maximum amount of ships that may be left for the solver to start
+    public static final int DEFAULT_MAX_SHIPS_LEFT = 4;
+
+    // Default maximum amount of search nodes before the solver gives up
+    public static final long DEFAULT_MAX_NODES = 2000000L;
+
+    // The widest board a row mask can hold
+    public static final int MAX_BOARD_SIZE_X = Integer.SIZE - 1;
+
+    // The solver only starts when at most this many ships are not sunk
+    private int maxShipsLeft;
+
+    // The solver gives up after visiting this many search nodes
+    private long maxNodes;
+
+    // The state of the current search
+    private boolean[][][] possible; // [y][x][size] whether a ship can be there according to the history
+    private int[] hitRows;
+    private int[] shotRows;
+    private int[] occupied;
+    private int[] shipsLeft;
+    private int maxSize;
+    private long[] counts;
+    private long layouts;
+    private long nodes;
+    private boolean aborted;
+
+    /**
+     * Initialises the solver with the default thresholds.
+     */
+    public EndgameSolver() {
+        this(DEFAULT_MAX_SHIPS_LEFT, DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * @param maxShipsLeft The solver only starts when at most this many ships are not sunk.
+     * @param maxNodes The solver gives up after visiting this many search nodes.
+     * @pre maxShipsLeft > 0, maxNodes > 0
+     */
+    public EndgameSolver(int maxShipsLeft, long maxNodes) {
+        this.maxShipsLeft = maxShipsLeft;
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Finds the field that is a ship in the most layouts that agree with the history.
+     * @param history Everything that was observed on the enemy's board.
+     * @param fleet The sizes of all ships of the enemy's fleet.
+     * @return The number of the field, y * BOARD_SIZE_X + x, or -1 if too many ships are left, the board is too wide, the search got too big or no layout was found.
+     * @pre history != null, fleet != null
+     * @post ensures that if a field is returned it wasn't shot before and no other field is a ship in more layouts
+     */
+    public int solve(ShotHistory history, int[] fleet) {
+        if (fleet.length - history.getSunkShips() > maxShipsLeft || GameConstants.BOARD_SIZE_X > MAX_BOARD_SIZE_X) {
+            return -1;
+        }
+
+        prepare(history, fleet);
+        coverHits(0);
+        if (aborted || layouts == 0) {
+            return -1;
+        }
+
+        int best = -1;
+        for (int field = 0; field < ShotHistory.FIELDS; field++) {
+            if (!history.isShot(field) && (best == -1 || counts[field] > counts[best])) {
+                best = field;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Getter for the amount of layouts found by the last search.
+     * @return The amount of layouts.
+     */
+    public long getLayouts() {
+        return layouts;
+    }
+
+    /**
+     * Getter for the amount of layouts of the last search that have a ship on the given field.
+     * @param field The number of the field.
+     * @return The amount of layouts with a ship on the field.
+     */
+    public long getCount(int field) {
+        return counts[field];
+    }
+
+    /**
+     * Sets up the bit masks and the table of possible ship positions for a new search.
+     */
+    private void prepare(ShotHistory history, int[] fleet) {
+        maxSize = 0;
+        for (int size : fleet) {
+            maxSize = Math.max(maxSize, size);
+        }
+        shipsLeft = new int[maxSize + 1];
+        for (int size : fleet) {
+            shipsLeft[size]++;
+        }
+
+        hitRows = new int[GameConstants.BOARD_SIZE_Y];
+        shotRows = new int[GameConstants.BOARD_SIZE_Y];
+        occupied = new int[GameConstants.BOARD_SIZE_Y];
+        possible = new boolean[GameConstants.BOARD_SIZE_Y][GameConstants.BOARD_SIZE_X][maxSize + 1];
+        for (int y = 0; y < GameConstants.BOARD_SIZE_Y; y++) {
+            for (int x = 0; x < GameConstants.BOARD_SIZE_X; x++) {
+                int field = y * GameConstants.BOARD_SIZE_X + x;
+                if (history.isShot(field)) {
+                    shotRows[y] |= 1 << x;
+                }
+                if (history.isHit(field)) {
+                    hitRows[y] |= 1 << x;
+                }
+                for (int size = 1; size <= maxSize && x + size <= GameConstants.BOARD_SIZE_X; size++) {
+                    possible[y][x][size] = history.isPossibleShip(x, y, size);
+                }
+            }
+        }
+
+        counts = new long[ShotHistory.FIELDS];
+        layouts = 0;
+        nodes = 0;
+        aborted = false;
+    }
+
+    /**
+     * Covers the first hit field that isn't covered yet with every ship that can be on it, then continues with the next one.
+     * Once all hits are covered the remaining ships are placed with {@link #placeRemaining(int, int)}.
+     * @param fromRow The first row that may still have a hit field that isn't covered.
+     */
+    private void coverHits(int fromRow) {
+        nodes++;
+        if (nodes > maxNodes) {
+            aborted = true;
+            return;
+        }
+
+        int y = fromRow;
+        while (y < GameConstants.BOARD_SIZE_Y && (hitRows[y] & ~occupied[y]) == 0) {
+            y++;
+        }
+        if (y == GameConstants.BOARD_SIZE_Y) { // All hits are covered
+            placeRemaining(maxSize, 0);
+            return;
+        }
+
+        int hitX = Integer.numberOfTrailingZeros(hitRows[y] & ~occupied[y]);
+        for (int size = 1; size <= maxSize && !aborted; size++) {
+            if (shipsLeft[size] == 0) {
+                continue;
+            }
+            int lastX = Math.min(hitX, GameConstants.BOARD_SIZE_X - size);
+            for (int x = Math.max(0, hitX - size + 1); x <= lastX && !aborted; x++) {
+                int ship = ((1 << size) - 1) << x;
+                if ((occupied[y] & ship) == 0 && possible[y][x][size]) {
+                    occupied[y] |= ship;
+                    shipsLeft[size]--;
+                    coverHits(y);
+                    shipsLeft[size]++;
+                    occupied[y] &= ~ship;
+                }
+            }
+        }
+    }
+
+    /**
+     * Places the ships that aren't on a hit field on the free fields, biggest first. Ships of the same size are placed in increasing
+     * position order so that a layout isn't counted more than once.
+     * @param size The size of the ship to place next.
+     * @param fromPosition The first position, y * BOARD_SIZE_X + x, the ship may be placed on.
+     */
+    private void placeRemaining(int size, int fromPosition) {
+        nodes++;
+        if (nodes > maxNodes) {
+            aborted = true;
+            return;
+        }
+
+        while (size >= 1 && shipsLeft[size] == 0) {
+            size--;
+            fromPosition = 0;
+        }
+        if (size == 0) { // All ships are placed
+            countLayout();
+            return;
+        }
+
+        shipsLeft[size]--;
+        for (int position = fromPosition; position < ShotHistory.FIELDS && !aborted; position++) {
+            int x = position % GameConstants.BOARD_SIZE_X;
+            int y = position / GameConstants.BOARD_SIZE_X;
+            if (x + size > GameConstants.BOARD_SIZE_X) {
+                continue;
+            }
+            int ship = ((1 << size) - 1) << x;
+            if ((occupied[y] & ship) == 0 && possible[y][x][size]) {
+                occupied[y] |= ship;
+                placeRemaining(size, position + 1);
+                occupied[y] &= ~ship;
+            }
+        }
+        shipsLeft[size]++;
+    }
+
+    /**
+     * Adds the current layout to the counts of the fields that weren't shot yet.
+     */
+    private void countLayout() {
+        layouts++;
+        for (int y = 0; y < GameConstants.BOARD_SIZE_Y; y++) {
+            int fields = occupied[y] & ~shotRows[y];
+            while (fields != 0) {
+                counts[y * GameConstants.BOARD_SIZE_X + Integer.numberOfTrailingZeros(fields)]++;
+                fields &= fields - 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package singleplayer.players;
+
+// External imports
+import java.util.Arrays;
+
+/**
+ * This class maps field numbers to numbers, for example to the amount of sampled layouts with a ship on the field. Only the fields that
+ * were put in take memory, in a hash table with open addressing, and they are kept in a list in the order they were put in. So a map of
+ * a few ship fields stays small on a board of millions of fields, and going over it or clearing it takes time in the amount of its fields
+ * and not in the size of the board.
+ * @inv table.length is a power of two, table.length >= 2 * size, fields and values hold size entries
+ */
+public class FieldMap {
+    // The smallest amount of slots in the table
+    private static final int MIN_CAPACITY = 16;
+
+    // Spreads the field numbers over the table, the golden ratio in 32 bits
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    // For each slot the index of its entry plus 1, 0 for an empty slot
+    private int[] table;
+
+    // The fields of the entries in the order they were put in
+    private int[] fields;
+
+    // The numbers of the entries
+    private long[] values;
+
+    // The amount of entries
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    public FieldMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Creates an empty map that holds the given amount of fields without growing.
+     * @param expected The amount of fields that is expected.
+     * @pre expected >= 0
+     */
+    public FieldMap(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expected * 2) {
+            capacity *= 2;
+        }
+        this.table = new int[capacity];
+        this.fields = new int[capacity / 2];
+        this.values = new long[capacity / 2];
+        this.size = 0;
+    }
+
+    /**
+     * Gives the number of a field.
+     * @param field The number of the field.
+     * @param missing The number that is returned if the field isn't in the map.
+     * @return The number of the field, or missing.
+     */
+    public long get(int field, long missing) {
+        int entry = table[slot(field)];
+        return entry == 0 ? missing : values[entry - 1];
+    }
+
+    /**
+     * @param field The number of the field.
+     * @return Whether the field is in the map.
+     */
+    public boolean contains(int field) {
+        return table[slot(field)] != 0;
+    }
+
+    /**
+     * Sets the number of a field.
+     * @param field The number of the field.
+     * @param value The number.
+     * @post ensures that get(field, missing) == value
+     */
+    public void put(int field, long value) {
+        int slot = slot(field);
+        if (table[slot] == 0) {
+            insert(slot, field, value);
+        } else {
+            values[table[slot] - 1] = value;
+        }
+    }
+
+    /**
+     * Adds to the number of a field, which is 0 if the field isn't in the map yet.
+     * @param field The number of the field.
+     * @param amount The amount to add.
+     * @post ensures that the field is in the map
+     */
+    public void add(int field, long amount) {
+        int slot = slot(field);
+        if (table[slot] == 0) {
+            insert(slot, field, amount);
+        } else {
+            values[table[slot] - 1] += amount;
+        }
+    }
+
+    /**
+     * Adds the numbers of all fields of another map to this map.
+     * @param other The other map.
+     * @pre other != null
+     */
+    public void addAll(FieldMap other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.fields[i], other.values[i]);
+        }
+    }
+
+    /**
+     * @return The amount of fields in the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index The index of an entry in the order the fields were put in.
+     * @return The field of the entry.
+     * @pre index >= 0 && index < size()
+     */
+    public int getField(int index) {
+        return fields[index];
+    }
+
+    /**
+     * @param index The index of an entry in the order the fields were put in.
+     * @return The number of the entry.
+     * @pre index >= 0 && index < size()
+     */
+    public long getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Removes all fields, keeping the memory for new ones.
+     * @post ensures that size() == 0
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        size = 0;
+    }
+
+    /**
+     * Finds the slot of a field, or the empty slot where it would be put.
+     */
+    private int slot(int field) {
+        int mask = table.length - 1;
+        int hash = field * HASH_MULTIPLIER;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (table[slot] != 0 && fields[table[slot] - 1] != field) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Puts a new entry in an empty slot and doubles the table once it is half full.
+     */
+    private void insert(int slot, int field, long value) {
+        fields[size] = field;
+        values[size] = value;
+        size++;
+        table[slot] = size;
+
+        if (size * 2 >= table.length) {
+            table = new int[table.length * 2];
+            fields = Arrays.copyOf(fields, table.length / 2);
+            values = Arrays.copyOf(values, table.length / 2);
+            for (int i = 0; i < size; i++) {
+                table[slot(fields[i])] = i + 1;
+            }
+        }
+    }
+}
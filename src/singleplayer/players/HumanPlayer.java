@@ -4,16 +4,23 @@ package singleplayer.players;
 import java.util.Timer;
 import java.util.TimerTask;
 
+// Internal imports
+import constants.GameConstants;
+import events.GameOverEvent;
+import events.MoveEvent;
 import gameboards.EnemyGameBoard;
 import gameboards.GameBoard;
 import singleplayer.game.Game;
+import tui.BoardSnapshot;
 import tui.GameClientTUI;
 import tui.TerminalColors;
 
 /**
  * This class represents the human player in a singplayer game. It manages the human players
  * game board and the move thread. As well as creates timer for 30 second in which the user must
- * perform the move, otherwise the timer will perform the move and mark it as a late move. This class
+ * perform the move, otherwise the timer will perform the move and mark it as a late move. If the {@link AutoPilot} is turned on, it
+ * makes a real move shortly before the timer would mark the move as late. The move thread, the timer and the auto-pilot make their moves
+ * under the lock of the player and check there that the turn is still the player's, so no two of them move for the same turn. This class
  * is also responsible for showing messages about the status of the game to the user.
  * @inv playerName != null, game != null, board != null, view != null, enemyBoard != null, moveObj != null, moveThread != null
  */
@@ -45,6 +52,12 @@ public class HumanPlayer implements Player  {
 	// The thread in which moveObj is put in
 	private Thread moveThread;
 
+    // The System.nanoTime() at which the current move was requested, volatile since the timer thread reads it
+    private volatile long turnStart;
+
+    // Moves for the player just before the move would be late, null if it isn't turned on
+    private AutoPilot autoPilot;
+
 
     /**
      * Initialises a new human player
@@ -61,6 +74,7 @@ public class HumanPlayer implements Player  {
         this.view = view;
         this.board = new GameBoard(false);
         this.enemyBoard = new EnemyGameBoard();
+        this.autoPilot = AutoPilot.fromProperties();
         moveObj = new Move(enemyBoard, this, view, game);
         moveThread = new Thread(moveObj);
         moveThread.start();
@@ -76,32 +90,87 @@ public class HumanPlayer implements Player  {
      * a move marked as late is made on behalf of the player.
      */
     public void getMove() {   
+        long turn = System.nanoTime();
+        turnStart = turn;
         timer = new Timer("Timer");
     
         task = new TimerTask() {
             public void run() {
-                game.makeMove(0, 0, true);
-                
+                lateMove(turn);
             }
         };
 
         long delay = 30000L; // 30 seconds
         timer.schedule(task, delay);
+
+        if (autoPilot != null) {
+            timer.schedule(new TimerTask() {
+                public void run() {
+                    autoMove(turn);
+                }
+            }, delay - autoPilot.getMargin());
+        }
     }
 
     /**
-     * Makes the move in the game and cancels the timer.
+     * Called by the timer when the move is late. Marks the move as late in the game, unless the player moved meanwhile.
+     * @param turn The turnStart of the move the timer was started for.
+     * @post ensures that a late move is made if the player didn't make a move for this turn
+     */
+    private synchronized void lateMove(long turn) {
+        if (turn == turnStart && game.isHumanPlayersMove() && !game.hasGameEnded()) {
+            game.makeMove(0, 0, true);
+        }
+    }
+
+    /**
+     * Called by the timer shortly before the move would be late. Makes the move that the auto-pilot chooses, unless the player moved meanwhile.
+     * @param turn The turnStart of the move the auto-pilot was started for.
+     * @pre autoPilot != null
+     * @post ensures that a move is made if the player didn't make it
+     */
+    private void autoMove(long turn) {
+        if (turn != turnStart || !game.isHumanPlayersMove() || game.hasGameEnded()) {
+            return;
+        }
+        int field = autoPilot.chooseField(); // Chosen without the lock, so the move thread isn't held up meanwhile
+        synchronized (this) { // The check and the move are one step for the move thread and the timer
+            if (turn == turnStart && game.isHumanPlayersMove() && !game.hasGameEnded()) {
+                int x = field % GameConstants.BOARD_SIZE_X;
+                int y = field / GameConstants.BOARD_SIZE_X;
+                view.showEmptyLines(1);
+                view.showMessageLn(TerminalColors.BLUE_BOLD + "> Auto-pilot fired " + GameClientTUI.columnName(x) + "," + (y + 1) + " before your time ran out." + TerminalColors.RESET);
+                makeMove(x, y);
+            }
+        }
+    }
+
+    /**
+     * Makes the move in the game and cancels the timer, if it is still the player's move. The turn is checked under the same lock
+     * the timer and the auto-pilot move under, so at most one of them moves for a turn.
      * @param x The X coordinate of the move.
      * @param y The Y coorindate of the move.
-     * @pre timer != null, game != null, x >= 0 && x < 15, y >= 0 && y < 10
-     * @post ensures that the late move timer is canceled and a move is made in the game
+     * @pre timer != null, game != null, x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y
+     * @post ensures that the late move timer is canceled and a move is made in the game, if it was the player's move
      */
-    public void makeMove(int x, int y) {
+    public synchronized void makeMove(int x, int y) {
+        if (!game.isHumanPlayersMove() || game.hasGameEnded()) {
+            return;
+        }
         timer.cancel();
+        MoveEvent.emit(playerName, x, y, System.nanoTime() - turnStart);
         game.makeMove(x, y, false);
     }
 
 	
+    /**
+     * Called by the game once the turn was handed to the player or the game ended, so that a script that waits for its turn goes on.
+     * @pre moveObj != null
+     */
+    public void turnChanged() {
+        moveObj.wakeUp();
+    }
+
     /**
      * Called by the game when game is over.
      * @param result What the result of the game is. 0: win, 1: loss, 2: tie
@@ -109,6 +178,7 @@ public class HumanPlayer implements Player  {
      * @post ensures that the user is informed about the result of the game
      */
     public void gameOver(int result) {
+        GameOverEvent.emit(playerName, result == 0 ? playerName : (result == 1 ? "Computer" : ""), true);
         view.showEmptyLines(2);
         if (result == 0) {
             view.showMessageLn(TerminalColors.GREEN_BOLD + "> Game over: You won!" + TerminalColors.RESET);
@@ -130,9 +200,7 @@ public class HumanPlayer implements Player  {
      */
     public void printBoards(String message, String color) {
         view.showEmptyLines(3);
-        view.printBoard(board.getBoard(), game.getHumanPlayerPoints(), playerName);
-        view.showEmptyLines(4);
-        view.printEnemyBoard(enemyBoard.getBoard(), game.getComputerPlayerPoints(), "Computer");
+        view.showBoards(new BoardSnapshot(board.getBoard(), game.getHumanPlayerPoints(), playerName, enemyBoard.getBoard(), game.getComputerPlayerPoints(), "Computer", true));
         view.showEmptyLines(3);
         view.showMessageLn(color + message + TerminalColors.RESET);
         view.showEmptyLines(1);
@@ -141,7 +209,7 @@ public class HumanPlayer implements Player  {
 
     /**
      * {@inheritDoc}
-     * @pre x >= 0 && x < 15, y >= 0 && y < 10, board != null
+     * @pre x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y, board != null
     * @post ensures that a move is made on the human players board and correct results
      * about whether ship was hit, sunk and whether all ships are destroyed are returned
      */
@@ -152,13 +220,16 @@ public class HumanPlayer implements Player  {
 
     /**
      * {@inheritDoc}
-     * @pre x >= 0 && x < 15, y >= 0 && y < 10, enemyBoard != null
+     * @pre x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y, enemyBoard != null
      * @post ensures that the enemy's board is updated so that in future the human
      * player wouldn't make a move on the same field again
      */
 	@Override
-	public void update(int x, int y, boolean isHit) {
+	public void update(int x, int y, boolean isHit, boolean isSunk) {
 		enemyBoard.makeMove(x, y, isHit);
+		if (autoPilot != null) {
+			autoPilot.update(x, y, isHit, isSunk);
+		}
 		printBoards("You hit enemies ship. Go again!", TerminalColors.GREEN_BOLD);
 	}
 }
@@ -0,0 +1,236 @@
+package singleplayer.players;
+
+// External imports
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+// Internal imports
+import constants.GameConstants;
+import gameboards.EnemyGameBoard;
+import gameboards.GameBoard;
+import singleplayer.game.Referee;
+
+/**
+ * This class represents a stronger computer player. Instead of firing randomly it samples many fleet layouts that agree with everything
+ * it has seen on the enemy's board so far and fires at the field that has a ship in most of them. The sampling runs on all cores with
+ * {@link PlacementSampler} and stops after a configurable time per move or after a configurable amount of layouts, whichever comes first.
+ * The first shots come from the precomputed {@link OpeningBook} as long as the game follows it, and once only a few ships are left
+ * the {@link EndgameSolver} takes over and picks the best field exactly.
+ * @inv board != null, enemyBoard != null, history != null, random != null, moveTime >= 0, maxSamples > 0
+ */
+public class MonteCarloPlayer implements Player {
+    // Default time per move in milliseconds
+    public static final long DEFAULT_MOVE_TIME = 300L;
+
+    // The time per move that doesn't limit the time, so that every move samples maxSamples layouts
+    public static final long NO_TIME_LIMIT = 0L;
+
+    // Default maximum amount of layouts sampled per move
+    public static final int DEFAULT_MAX_SAMPLES = 200000;
+
+    // The pool that is shared by all Monte Carlo players, one worker per core
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    // How many random fields are tried before the board is searched for a field that isn't shot, if no layout could be sampled
+    private static final int RANDOM_ATTEMPTS = 64;
+
+    // The opening book that is shared by all Monte Carlo players, read on first use
+    private static final OpeningBook DEFAULT_BOOK = new OpeningBook();
+
+    // The referee the moves are reported to, usually the game instance
+    private Referee game;
+
+    // The computer player's board
+    private GameBoard board;
+
+    // The enemies board to keep track of computer player's moves
+    private EnemyGameBoard enemyBoard;
+
+    // Everything that was observed on the enemies board
+    private ShotHistory history;
+
+    // The sizes of the enemy's ships
+    private int[] fleet;
+
+    // Finds the best field exactly once few ships are left
+    private EndgameSolver endgameSolver;
+
+    // The opening book, null if it isn't used
+    private OpeningBook book;
+
+    // The node of the opening book the game is at, -1 once the game left the book
+    private int bookNode;
+
+    // The field the book gave for the current node
+    private int bookField;
+
+    // The time per move in milliseconds, or NO_TIME_LIMIT
+    private long moveTime;
+
+    // The maximum amount of layouts sampled per move
+    private int maxSamples;
+
+    // Re-usable random instance
+    private Random random;
+
+    /**
+     * Initialises the player with the default time per move and amount of samples.
+     * @param game The game instance or other referee this player is a part of
+     * @pre game != null
+     */
+    public MonteCarloPlayer(Referee game) {
+        this(game, DEFAULT_MOVE_TIME, DEFAULT_MAX_SAMPLES);
+    }
+
+    /**
+     * Initialises the player.
+     * @param game The game instance or other referee this player is a part of
+     * @param moveTime The time per move in milliseconds, or {@link #NO_TIME_LIMIT}
+     * @param maxSamples The maximum amount of layouts sampled per move
+     * @pre game != null, moveTime >= 0, maxSamples > 0
+     * @post ensures that game, board, enemyBoard, history and random are initialised
+     */
+    public MonteCarloPlayer(Referee game, long moveTime, int maxSamples) {
+        this(game, moveTime, maxSamples, DEFAULT_BOOK);
+    }
+
+    /**
+     * Initialises the player with the given opening book.
+     * @param game The game instance or other referee this player is a part of
+     * @param moveTime The time per move in milliseconds, or {@link #NO_TIME_LIMIT}
+     * @param maxSamples The maximum amount of layouts sampled per move
+     * @param book The opening book or null to sample from the first shot
+     * @pre game != null, moveTime >= 0, maxSamples > 0
+     * @post ensures that game, board, enemyBoard, history and random are initialised
+     */
+    public MonteCarloPlayer(Referee game, long moveTime, int maxSamples, OpeningBook book) {
+        this.game = game;
+        this.book = book;
+        this.bookNode = book != null ? 0 : -1;
+        this.bookField = -1;
+        this.board = new GameBoard(false);
+        this.enemyBoard = new EnemyGameBoard();
+        this.history = new ShotHistory();
+        this.fleet = ShotHistory.fleet();
+        this.endgameSolver = new EndgameSolver();
+        this.moveTime = moveTime;
+        this.maxSamples = maxSamples;
+        this.random = new Random();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @pre game != null, that enemyBoard still has fields available to make a move on
+     * @post ensures that a move is made on a field previously not hit before
+     */
+    @Override
+    public void getMove() {
+        int field = chooseField();
+        game.makeMove(field % GameConstants.BOARD_SIZE_X, field / GameConstants.BOARD_SIZE_X, false);
+    }
+
+    /**
+     * Takes the field from the opening book while the game follows it. Lets the endgame solver pick the field if few enough ships are left. Otherwise samples layouts and picks the field that
+     * isn't shot yet and has a ship in most of them. Ties are broken randomly. Only the fields that have a ship in a layout are compared,
+     * so a move takes time in the amount of ship fields of the layouts and not in the size of the board. If not a single layout could be
+     * sampled a random field that isn't shot yet is picked.
+     * @return The number of the field, y * BOARD_SIZE_X + x.
+     * @pre that enemyBoard still has fields available to make a move on
+     * @post ensures that the returned field wasn't shot before
+     */
+    public int chooseField() {
+        if (bookNode != -1) { // If the game still follows the opening book
+            bookField = book.getShot(bookNode);
+            if (bookField != -1 && !history.isShot(bookField)) {
+                return bookField;
+            }
+            bookNode = -1;
+        }
+
+        int endgameField = endgameSolver.solve(history, fleet);
+        if (endgameField != -1) {
+            return endgameField;
+        }
+
+        long deadline = moveTime == NO_TIME_LIMIT ? PlacementSampler.NO_DEADLINE : System.nanoTime() + moveTime * 1000000L;
+        FieldMap counts = POOL.invoke(new PlacementSampler(history, fleet, deadline, maxSamples, POOL.getParallelism()));
+
+        int best = -1;
+        long bestCount = 0;
+        int ties = 0;
+        for (int i = 0; i < counts.size(); i++) {
+            long count = counts.getValue(i);
+            if (count > bestCount) {
+                best = counts.getField(i);
+                bestCount = count;
+                ties = 1;
+            } else if (count == bestCount) {
+                ties++;
+                if (random.nextInt(ties) == 0) {
+                    best = counts.getField(i);
+                }
+            }
+        }
+        return best != -1 ? best : randomField();
+    }
+
+    /**
+     * Picks a random field that isn't shot yet. Random fields are tried first, only a nearly full board is searched as a whole.
+     * @return The number of the field.
+     * @pre that enemyBoard still has fields available to make a move on
+     */
+    private int randomField() {
+        for (int attempt = 0; attempt < RANDOM_ATTEMPTS; attempt++) {
+            int field = random.nextInt(ShotHistory.FIELDS);
+            if (!history.isShot(field)) {
+                return field;
+            }
+        }
+
+        int amount = 0;
+        int picked = -1;
+        for (int field = 0; field < ShotHistory.FIELDS; field++) {
+            if (!history.isShot(field)) {
+                amount++;
+                if (random.nextInt(amount) == 0) {
+                    picked = field;
+                }
+            }
+        }
+        return picked;
+    }
+
+    /**
+     * Getter for what this player has observed so far.
+     * @return The shot history of this player.
+     */
+    public ShotHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @pre x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y, board != null
+     * @post ensures that a move is made on the computer players board and correct results
+     * about whether ship was hit, sunk and whether all ships are destroyed are returned
+     */
+    @Override
+    public boolean[] enemyMove(int x, int y) {
+        return board.singlePlayerMakeMove(x, y);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @pre x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y, enemyBoard != null
+     * @post ensures that the enemy's board, the shot history and the position in the opening book are updated
+     */
+    @Override
+    public void update(int x, int y, boolean isHit, boolean isSunk) {
+        enemyBoard.makeMove(x, y, isHit);
+        history.record(x, y, isHit, isSunk);
+
+        if (bookNode != -1) { // Follow the result in the book, or leave it if the shot wasn't from the book
+            bookNode = (y * GameConstants.BOARD_SIZE_X + x == bookField) ? OpeningBook.child(bookNode, isHit, isSunk) : -1;
+        }
+    }
+}
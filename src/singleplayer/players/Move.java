@@ -1,11 +1,13 @@
 package singleplayer.players;
 
 // External imports
-import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 // Internal imports
 import gameboards.EnemyGameBoard;
 import singleplayer.game.Game;
+import tui.ConsoleInput;
 import tui.GameClientTUI;
 import tui.TerminalColors;
 
@@ -18,15 +20,21 @@ import tui.TerminalColors;
  * if it is not the user's move. The motive behind this class is the same as the other move class. It runs on its own thread so that
  * user can input commands at any point, for example q to quit the game. It also allows to easily display any other messages in terminal 
  * while still allowing the user to enter commands. This thread is started only after the singleplayer game has begun.
+ * Like the prompts of the TUI it reads from {@link ConsoleInput#system()}, so moves that are typed ahead are never swallowed by another reader.
+ * If the input is a script a line is only taken once it is the user's move or the game has ended. The script then parks until the
+ * game wakes it with {@link #wakeUp()}.
  * TODO: Converge this class with the one in client package
- * @inv game != null, view != null, enemyBoard != null, player != null
+ * @inv game != null, view != null, enemyBoard != null, player != null, input != null
  */
 public class Move implements Runnable {
-    // To convert the char input to an integer
-    private static final String[] alphabet = { "a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "l", "m", "n", "o"};
+    // How long a script waits for the turn before checking it again, in case a wake up was missed
+    private static final long TURN_CHECK_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
 
-    // Scanner variable to get user input
-    private Scanner scanner;
+    // The thread that is waiting for the turn, woken up by wakeUp()
+    private volatile Thread waitingThread;
+
+    // The console input the moves are read from
+    private ConsoleInput input;
 
     // Enemies game board
     private EnemyGameBoard enemyBoard;
@@ -54,6 +62,7 @@ public class Move implements Runnable {
         this.player = player;
         this.view = view;
         this.game = game;
+        this.input = ConsoleInput.system();
     }
 
     /**
@@ -63,7 +72,7 @@ public class Move implements Runnable {
      * because myMove variable in client is always updated about whose move it is.
      * If it user's move and user enters valid coordinates, then the move method is called on client. 
      * @pre view != null, game != null, enemyBoard != null, player != null
-     * @post ensures that a valid move or exiting the program are achieved. 
+     * @post ensures that a valid move, exiting the program or the end of the console are achieved. 
      */
     public void getMove()  {
         boolean validMove = false; // Indicator for whether a move is valid
@@ -75,7 +84,13 @@ public class Move implements Runnable {
 		while (!validMove) {
             
             // view.showEmptyLines(1);
+            if (input.isScripted()) {
+                awaitTurn();
+            }
             String coordinates = getString("");
+            if (coordinates == null) { // The console is closed
+                return;
+            }
 
             if (coordinates.equals("q")) { // If user indicates to exit
                 System.exit(0);
@@ -145,46 +160,53 @@ public class Move implements Runnable {
      * @post ensures that the proper index of the letter from the alphabet is array or -1 if the letter aint in there
      */
     public int indexOfLetterInAlphabet(String letter) {
-        if (letter.length() != 1) { 
+        return GameClientTUI.columnIndex(letter);
+    }
 
-            return -1;
-        
-        } else {
-        
-            for (int i = 0; i < alphabet.length; i++) {
-                if (alphabet[i].equals(letter)) {
-                    return i;
-                }
-            }
-            return -1;
-        
+
+    /**
+     * Waits until it is the user's move or the game has ended. Used for scripts, whose moves would otherwise be taken before the turn comes.
+     * @pre game != null
+     * @post ensures that it is the user's move or the game has ended
+     */
+    private void awaitTurn() {
+        waitingThread = Thread.currentThread();
+        while (!game.isHumanPlayersMove() && !game.hasGameEnded()) {
+            LockSupport.parkNanos(this, TURN_CHECK_INTERVAL);
         }
-     }
+        waitingThread = null;
+    }
 
+    /**
+     * Wakes the script that is waiting for the turn, so that it checks again. Called when the turn became the user's or the game ended.
+     * @post ensures that a waiting script checks the turn again
+     */
+    public void wakeUp() {
+        LockSupport.unpark(waitingThread);
+    }
 
     /**
      * Promopts user the question for coordinates.
      * @param question The question for user to answer.
-     * @return User's input.
+     * @return User's input, or null if the console is closed.
      * @pre question != null, view != null
      * @post ensures that a String response is returned that was entered by the user
      */
     public String getString(String question) {
-        scanner = new Scanner(System.in);
         view.showMessage(TerminalColors.PURPLE_BOLD+ question+ TerminalColors.RESET);
-        return scanner.nextLine();
+        return input.readLine();
         
     }
 
     /**
-     * The thread loop that keeps asking for user input until user indicates to quit.
+     * The thread loop that keeps asking for user input until user indicates to quit or the console is closed.
      * @pre view != null
      * @post ensures that this thread will always ask user for input eithe coordinates or to exit program 
      */
 	@Override
 	public void run() {
         
-        while (true) {
+        while (!input.isClosed()) {
             getMove();
             
         }
@@ -0,0 +1,266 @@
+package singleplayer.players;
+
+// External imports
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+// Internal imports
+import constants.GameConstants;
+
+/**
+ * This class is a precomputed book of the first shots of a game. The first shots on an empty enemy's board only depend on the size of the
+ * board and the fleet, so they can be computed once with many samples and stored in a file. The book is a complete tree where every shot has
+ * three children, one for each possible result: miss, hit, and hit that sunk a ship. The tree is stored as an array in breadth first order
+ * with one byte per shot, so the child of a node is found with a calculation and every lookup is O(1).
+ * The book that is shipped is a resource next to this class, so it is found on the class path wherever the program is started from.
+ * The book is only read on the first lookup. If it is missing or was made for another board size or fleet, the book is empty and every lookup
+ * returns -1. A field is stored in one byte, so boards with {@link #MAX_FIELDS} or more fields never have a book.
+ * Run the main method of this class to (re)build the file.
+ */
+public class OpeningBook {
+    // The resource of the shipped book, next to this class
+    public static final String RESOURCE = "opening-book.bin";
+
+    // The file the main method writes to if none is given, the shipped book in the sources
+    public static final String SOURCE_FILE = "src/singleplayer/players/" + RESOURCE;
+
+    // The depth that is built by default
+    public static final int DEFAULT_DEPTH = 6;
+
+    // The samples that are used per shot by default when building the book
+    public static final int DEFAULT_SAMPLES = 100000;
+
+    // The results of a shot, in the order of the children of a node
+    public static final int MISS = 0;
+    public static final int HIT = 1;
+    public static final int SUNK = 2;
+    private static final int RESULTS = 3;
+
+    // Stored for a node whose shots can't happen
+    private static final int NO_SHOT = 0xFF;
+
+    // The amount of fields from which a field doesn't fit in the byte of a shot anymore
+    public static final int MAX_FIELDS = NO_SHOT;
+
+    // Marks the start of a book file: "BSOB"
+    private static final int MAGIC = 0x42534f42;
+    private static final int VERSION = 1;
+
+    // The file the book is read from, null for the shipped resource
+    private Path file;
+
+    // The shots of the book, null until the file was read
+    private byte[] shots;
+
+    /**
+     * Creates a book that reads the shipped resource on the first lookup.
+     */
+    public OpeningBook() {
+        this.file = null;
+    }
+
+    /**
+     * Creates a book that reads the given file on the first lookup.
+     * @param file The book file.
+     * @pre file != null
+     */
+    public OpeningBook(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Looks up the shot of a node.
+     * @param node The node, 0 for the first shot, after that {@link #child(int, boolean, boolean)} of the previous node.
+     * @return The number of the field to shoot, y * BOARD_SIZE_X + x, or -1 if the book doesn't have that node.
+     * @post ensures that the file is read at most once
+     */
+    public int getShot(int node) {
+        byte[] book = load();
+        if (node < 0 || node >= book.length) {
+            return -1;
+        }
+        int field = book[node] & 0xFF;
+        return field == NO_SHOT ? -1 : field;
+    }
+
+    /**
+     * Gives the node that follows a node after the result of its shot.
+     * @param node The node of the shot.
+     * @param isHit Whether the shot hit a ship.
+     * @param isSunk Whether the shot sunk a ship.
+     * @return The next node.
+     * @pre node >= 0
+     */
+    public static int child(int node, boolean isHit, boolean isSunk) {
+        int result = !isHit ? MISS : (isSunk ? SUNK : HIT);
+        return node * RESULTS + 1 + result;
+    }
+
+    /**
+     * @return The amount of nodes in the book, 0 if the file couldn't be used.
+     */
+    public int size() {
+        return load().length;
+    }
+
+    /**
+     * Reads the book file if that wasn't done yet.
+     * @return The shots of the book, empty if the file couldn't be used.
+     */
+    private synchronized byte[] load() {
+        if (shots == null) {
+            shots = new byte[0];
+            if (ShotHistory.FIELDS >= MAX_FIELDS) {
+                return shots;
+            }
+            try (InputStream stream = file != null ? Files.newInputStream(file) : OpeningBook.class.getResourceAsStream(RESOURCE)) {
+                if (stream == null) { // The resource isn't on the class path
+                    return shots;
+                }
+                DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+                if (in.readInt() == MAGIC && in.readByte() == VERSION) {
+                    in.readByte(); // depth
+                    int sizeX = in.readByte();
+                    int sizeY = in.readByte();
+                    int signature = in.readInt();
+                    byte[] book = new byte[in.readInt()];
+                    in.readFully(book);
+                    if (sizeX == GameConstants.BOARD_SIZE_X && sizeY == GameConstants.BOARD_SIZE_Y && signature == fleetSignature()) {
+                        shots = book;
+                    }
+                }
+            } catch (IOException e) {
+                // No usable book, so every lookup misses
+            }
+        }
+        return shots;
+    }
+
+    /**
+     * Computes the best shots of every node up to the given depth. Every shot is the field that has a ship in most of the
+     * sampled layouts that agree with the results along the way to the node.
+     * @param depth The amount of shots in a path of the book.
+     * @param samples The amount of layouts sampled per node.
+     * @return The shots of the book in breadth first order.
+     * @pre depth >= 1, samples > 0
+     */
+    public static byte[] build(int depth, int samples) {
+        int nodes = 0;
+        for (int level = 0, width = 1; level < depth; level++, width *= RESULTS) {
+            nodes += width;
+        }
+
+        byte[] book = new byte[nodes];
+        Arrays.fill(book, (byte) NO_SHOT);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        int[] fleet = ShotHistory.fleet();
+
+        for (int node = 0; node < nodes; node++) {
+            ShotHistory history = historyOf(node, book, depth);
+            if (history == null) { // A shot on the way to this node can't happen
+                continue;
+            }
+
+            PlacementSampler sampler = new PlacementSampler(history, fleet, PlacementSampler.NO_DEADLINE, samples, pool.getParallelism());
+            FieldMap counts = pool.invoke(sampler);
+            if (sampler.getSamples() == 0) {
+                continue;
+            }
+
+            int best = -1;
+            for (int field = 0; field < ShotHistory.FIELDS; field++) {
+                if (!history.isShot(field) && (best == -1 || counts.get(field, 0) > counts.get(best, 0))) {
+                    best = field;
+                }
+            }
+            book[node] = (byte) best;
+        }
+        pool.shutdown();
+        return book;
+    }
+
+    /**
+     * Writes a book to a file.
+     * @param file The file to write to.
+     * @param book The shots of the book.
+     * @param depth The depth of the book.
+     * @throws IOException If the file can't be written.
+     * @pre file != null, book != null
+     */
+    public static void write(Path file, byte[] book, int depth) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(depth);
+            out.writeByte(GameConstants.BOARD_SIZE_X);
+            out.writeByte(GameConstants.BOARD_SIZE_Y);
+            out.writeInt(fleetSignature());
+            out.writeInt(book.length);
+            out.write(book);
+        }
+    }
+
+    /**
+     * Builds the book and writes it to a file, by default the shipped book when started from the root of the project.
+     * @param args Optionally the depth, the samples per node and the file.
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int samples = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SAMPLES;
+        Path file = Paths.get(args.length > 2 ? args[2] : SOURCE_FILE);
+        if (ShotHistory.FIELDS >= MAX_FIELDS) {
+            System.out.println("An opening book can only be built for boards with less than " + MAX_FIELDS + " fields.");
+            return;
+        }
+
+        try {
+            write(file, build(depth, samples), depth);
+            System.out.println("Opening book of depth " + depth + " written to " + file);
+        } catch (IOException e) {
+            System.out.println("Could not write the opening book. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replays the shots and results on the way from the first shot to a node.
+     * @param depth The depth of the book, a node is at most depth - 1 shots away from the first shot.
+     * @return The history at the node or null if a shot on the way can't happen.
+     */
+    private static ShotHistory historyOf(int node, byte[] book, int depth) {
+        int[] path = new int[depth - 1];
+        int length = 0;
+        while (node > 0) {
+            path[length] = node;
+            length++;
+            node = (node - 1) / RESULTS;
+        }
+
+        ShotHistory history = new ShotHistory();
+        for (int i = length - 1; i >= 0; i--) {
+            int parent = (path[i] - 1) / RESULTS;
+            int result = (path[i] - 1) % RESULTS;
+            int field = book[parent] & 0xFF;
+            if (field == NO_SHOT) {
+                return null;
+            }
+            history.record(field % GameConstants.BOARD_SIZE_X, field / GameConstants.BOARD_SIZE_X, result != MISS, result == SUNK);
+        }
+        return history;
+    }
+
+    /**
+     * @return A number that identifies the fleet, so that a book made for another fleet isn't used.
+     */
+    private static int fleetSignature() {
+        return Arrays.hashCode(ShotHistory.fleet());
+    }
+}
@@ -0,0 +1,296 @@
+package singleplayer.players;
+
+// External imports
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveTask;
+
+// Internal imports
+import constants.GameConstants;
+
+/**
+ * This fork-join task samples random fleet layouts that are consistent with a shot history and counts for each field that wasn't
+ * shot yet in how many of the layouts a ship is on it. The task splits itself until there is one leaf per worker and every leaf samples until
+ * it reached its share of the samples or the deadline passed. The counts of all leaves are added up. The counts are kept in a {@link FieldMap}
+ * that only has the fields a ship was placed on, so adding them up and picking the best field takes time in the amount of fields the
+ * layouts covered and not in the size of the board.
+ * A layout is built in two steps. First every hit field that isn't covered yet gets a random ship that covers it, then the remaining ships are
+ * placed randomly on the free fields. Ships are only put where {@link ShotHistory#isPossibleShip(int, int, int)} allows them, so every layout
+ * that is completed agrees with all misses, hits and sunk ships. If a layout gets stuck it is thrown away.
+ * A leaf remembers which fields it placed ships on, so clearing a layout and counting its ships takes time in the amount of ship fields
+ * and not in the size of the board. The fields that are occupied are marked in an array per worker thread that is kept between moves and
+ * is left empty by every leaf. Only a crowded board, where random positions keep failing, is searched as a whole.
+ * @inv history != null, fleet != null, leaves >= 1
+ */
+public class PlacementSampler extends RecursiveTask<FieldMap> {
+    private static final long serialVersionUID = 1L;
+
+    // How many layouts are attempted between checking the deadline
+    private static final int DEADLINE_CHECK_INTERVAL = 32;
+
+    // How many random positions are tried for a ship before all positions are searched
+    private static final int RANDOM_ATTEMPTS = 16;
+
+    // How many failed layouts are allowed per requested sample
+    private static final int ATTEMPTS_PER_SAMPLE = 20;
+
+    // The deadline that never passes, so that sampling only stops after the maximum amount of layouts
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    // For each worker thread whether a ship of the current layout is on a field, all false between leaves
+    private static final ThreadLocal<boolean[]> OCCUPIED = ThreadLocal.withInitial(() -> new boolean[ShotHistory.FIELDS]);
+
+    // The observations the layouts have to agree with
+    private ShotHistory history;
+
+    // The sizes of the ships in the fleet, biggest first
+    private int[] fleet;
+
+    // The System.nanoTime() after which sampling stops
+    private long deadline;
+
+    // The maximum amount of layouts this task samples
+    private int maxSamples;
+
+    // The amount of leaf tasks this task is split into
+    private int leaves;
+
+    // The fields the ships of the current layout are on, of which the first placedAmount are used, only used by a leaf
+    private int[] placedFields;
+
+    // The amount of fields in placedFields
+    private int placedAmount;
+
+    // Room for the positions a ship can be put on, grown when the whole board is searched, only used by a leaf
+    private int[] candidates;
+
+    // The amount of layouts this task sampled, set when it is done
+    private int samples;
+
+    /**
+     * @param history The observations the layouts have to agree with.
+     * @param fleet The sizes of the ships in the fleet, biggest first.
+     * @param deadline The System.nanoTime() after which sampling stops, or {@link #NO_DEADLINE}.
+     * @param maxSamples The maximum amount of layouts to sample.
+     * @param leaves The amount of leaf tasks to split into, usually the parallelism of the pool.
+     * @pre history != null, fleet != null, maxSamples >= 0, leaves >= 1
+     */
+    public PlacementSampler(ShotHistory history, int[] fleet, long deadline, int maxSamples, int leaves) {
+        this.history = history;
+        this.fleet = fleet;
+        this.deadline = deadline;
+        this.maxSamples = maxSamples;
+        this.leaves = leaves;
+    }
+
+    /**
+     * Splits the task or samples layouts if it is a leaf.
+     * @return For each field that isn't shot and has a ship in at least one layout the amount of layouts with a ship on it.
+     * @post ensures that getSamples() is the amount of layouts sampled
+     */
+    @Override
+    protected FieldMap compute() {
+        if (leaves > 1) {
+            int leftLeaves = leaves / 2;
+            int leftSamples = (int) ((long) maxSamples * leftLeaves / leaves);
+            PlacementSampler left = new PlacementSampler(history, fleet, deadline, leftSamples, leftLeaves);
+            PlacementSampler right = new PlacementSampler(history, fleet, deadline, maxSamples - leftSamples, leaves - leftLeaves);
+
+            left.fork();
+            FieldMap counts = right.compute();
+            FieldMap leftCounts = left.join();
+            samples = right.samples + left.samples;
+            if (leftCounts.size() > counts.size()) { // Add the smaller counts to the bigger ones
+                FieldMap swap = counts;
+                counts = leftCounts;
+                leftCounts = swap;
+            }
+            counts.addAll(leftCounts);
+            return counts;
+        }
+
+        return sampleLayouts();
+    }
+
+    /**
+     * Samples layouts until enough have been sampled or the deadline passed.
+     * @return The counts as described at {@link #compute()}.
+     */
+    private FieldMap sampleLayouts() {
+        SplittableRandom random = new SplittableRandom();
+
+        int maxSize = 0;
+        for (int size : fleet) {
+            maxSize = Math.max(maxSize, size);
+        }
+
+        int shipFields = 0;
+        for (int size : fleet) {
+            shipFields += size;
+        }
+
+        // Re-usable arrays so that sampling doesn't allocate
+        boolean[] occupied = OCCUPIED.get();
+        int[] shipsLeft = new int[maxSize + 1];
+        int[] hits = history.getHitFields();
+        FieldMap counts = new FieldMap(shipFields);
+        candidates = new int[maxSize * maxSize];
+        placedFields = new int[shipFields];
+        placedAmount = 0;
+
+        samples = 0;
+        long attempts = 0;
+        long maxAttempts = (long) maxSamples * ATTEMPTS_PER_SAMPLE;
+        while (samples < maxSamples && attempts < maxAttempts) {
+            if (attempts % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() >= deadline) {
+                break;
+            }
+            attempts++;
+
+            if (sampleLayout(random, occupied, shipsLeft, hits, maxSize)) {
+                samples++;
+                for (int i = 0; i < placedAmount; i++) {
+                    if (!history.isShot(placedFields[i])) {
+                        counts.add(placedFields[i], 1);
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < placedAmount; i++) { // Leave the array of the worker empty for the next leaf
+            occupied[placedFields[i]] = false;
+        }
+        placedAmount = 0;
+        return counts;
+    }
+
+    /**
+     * @return The amount of layouts this task sampled.
+     * @pre the task is done
+     */
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * Tries to build one layout.
+     * @return Whether a complete layout was built, in which case occupied contains its ship fields.
+     */
+    private boolean sampleLayout(SplittableRandom random, boolean[] occupied, int[] shipsLeft, int[] hits, int maxSize) {
+        for (int i = 0; i < placedAmount; i++) { // Clear the previous layout
+            occupied[placedFields[i]] = false;
+        }
+        placedAmount = 0;
+        Arrays.fill(shipsLeft, 0);
+        for (int size : fleet) {
+            shipsLeft[size]++;
+        }
+
+        // Cover the hit fields in a random order
+        for (int i = hits.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = hits[i];
+            hits[i] = hits[j];
+            hits[j] = swap;
+        }
+        for (int hit : hits) {
+            if (occupied[hit]) {
+                continue;
+            }
+
+            int hitX = hit % GameConstants.BOARD_SIZE_X;
+            int y = hit / GameConstants.BOARD_SIZE_X;
+            int amount = 0;
+            for (int size = 1; size <= maxSize; size++) {
+                if (shipsLeft[size] == 0) {
+                    continue;
+                }
+                int lastX = Math.min(hitX, GameConstants.BOARD_SIZE_X - size);
+                for (int x = Math.max(0, hitX - size + 1); x <= lastX; x++) {
+                    if (fits(x, y, size, occupied)) {
+                        candidates[amount] = (y * GameConstants.BOARD_SIZE_X + x) * (maxSize + 1) + size;
+                        amount++;
+                    }
+                }
+            }
+            if (amount == 0) {
+                return false;
+            }
+
+            int candidate = candidates[random.nextInt(amount)];
+            int size = candidate % (maxSize + 1);
+            place(candidate / (maxSize + 1), size, occupied);
+            shipsLeft[size]--;
+        }
+
+        // Place the remaining ships on the free fields
+        for (int size = maxSize; size >= 1; size--) {
+            while (shipsLeft[size] > 0) {
+                if (!placeRandomly(random, size, occupied)) {
+                    return false;
+                }
+                shipsLeft[size]--;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Places a ship on a random free position where it fits.
+     * @return Whether a position was found.
+     */
+    private boolean placeRandomly(SplittableRandom random, int size, boolean[] occupied) {
+        int maxX = GameConstants.BOARD_SIZE_X - size;
+        for (int attempt = 0; attempt < RANDOM_ATTEMPTS; attempt++) {
+            int x = random.nextInt(maxX + 1);
+            int y = random.nextInt(GameConstants.BOARD_SIZE_Y);
+            if (fits(x, y, size, occupied)) {
+                place(y * GameConstants.BOARD_SIZE_X + x, size, occupied);
+                return true;
+            }
+        }
+
+        // The board is crowded, so search all positions
+        int amount = 0;
+        for (int y = 0; y < GameConstants.BOARD_SIZE_Y; y++) {
+            for (int x = 0; x <= maxX; x++) {
+                if (fits(x, y, size, occupied)) {
+                    if (amount == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, amount * 2);
+                    }
+                    candidates[amount] = y * GameConstants.BOARD_SIZE_X + x;
+                    amount++;
+                }
+            }
+        }
+        if (amount == 0) {
+            return false;
+        }
+        place(candidates[random.nextInt(amount)], size, occupied);
+        return true;
+    }
+
+    /**
+     * @return Whether a ship fits on the given position without overlapping other ships and agrees with the history.
+     */
+    private boolean fits(int x, int y, int size, boolean[] occupied) {
+        int start = y * GameConstants.BOARD_SIZE_X + x;
+        for (int field = start; field < start + size; field++) {
+            if (occupied[field]) {
+                return false;
+            }
+        }
+        return history.isPossibleShip(x, y, size);
+    }
+
+    /**
+     * Marks the fields of a ship as occupied and remembers them for clearing and counting.
+     */
+    private void place(int start, int size, boolean[] occupied) {
+        for (int field = start; field < start + size; field++) {
+            occupied[field] = true;
+            placedFields[placedAmount] = field;
+            placedAmount++;
+        }
+    }
+}
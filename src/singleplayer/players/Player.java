@@ -20,9 +20,10 @@ public interface Player {
 
     /**
      * After making a move this updates the enemies board with results provided by the opponent.
-     * @param x
-     * @param y
-     * @param isHit
+     * @param x The X coordinate of the move
+     * @param y The Y coorindate of the move
+     * @param isHit Whether a ship was hit
+     * @param isSunk Whether the hit sunk the ship
      */
-    public void update(int x, int y, boolean isHit);
+    public void update(int x, int y, boolean isHit, boolean isSunk);
 }
@@ -0,0 +1,192 @@
+package singleplayer.players;
+
+// External imports
+import java.util.Arrays;
+
+// Internal imports
+import constants.GameConstants;
+import gameboards.ships.Battleship;
+import gameboards.ships.Carrier;
+import gameboards.ships.Destroyer;
+import gameboards.ships.Patrol;
+import gameboards.ships.Ship;
+import gameboards.ships.SuperPatrol;
+
+/**
+ * This class keeps everything a computer player has learned about the opponent's board: which fields were shot, in which order,
+ * whether they were hits and which shots sunk a ship. The enemy's board only knows hit or not, but the order and the sunk shots are needed
+ * to tell which fleet layouts are still possible. Fields are numbered y * BOARD_SIZE_X + x so that the smart players can work with flat arrays.
+ * Only the shot fields are stored, in a {@link FieldMap}, so a history takes memory in the amount of shots and not in the size of the board.
+ * The hit fields are also kept in a list, so the players can go over them without going over the whole board.
+ * @inv shotFields != null, hitFields != null, shots >= 0, hits >= 0
+ */
+public class ShotHistory {
+    // The amount of fields on the board
+    public static final int FIELDS = GameConstants.BOARD_FIELDS;
+
+    // The flags of a shot field, the number of the shot is stored above them
+    private static final long HIT_FLAG = 2;
+    private static final long SUNK_FLAG = 1;
+    private static final int ORDER_SHIFT = 2;
+
+    // For each shot field the number of the shot on it with HIT_FLAG and SUNK_FLAG
+    private FieldMap shotFields;
+
+    // The fields where a ship was hit, in the order of the shots, of which the first hits are used
+    private int[] hitFields;
+
+    // The amount of shots that hit a ship
+    private int hits;
+
+    // The amount of shots made
+    private int shots;
+
+    // The amount of ships that were sunk
+    private int sunkShips;
+
+    /**
+     * @post ensures that no field is shot
+     */
+    public ShotHistory() {
+        shotFields = new FieldMap();
+        hitFields = new int[16];
+        hits = 0;
+        shots = 0;
+        sunkShips = 0;
+    }
+
+    /**
+     * Stores the result of a shot.
+     * @param x The X coordinate of the shot.
+     * @param y The Y coordinate of the shot.
+     * @param isHit Whether a ship was hit.
+     * @param isSunk Whether the hit sunk the ship.
+     * @pre x >= 0 && x < BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y
+     * @post ensures that the field is marked as shot, unless it was shot before
+     */
+    public void record(int x, int y, boolean isHit, boolean isSunk) {
+        int field = y * GameConstants.BOARD_SIZE_X + x;
+        if (!shotFields.contains(field)) {
+            shotFields.put(field, ((long) shots << ORDER_SHIFT) | (isHit ? HIT_FLAG : 0) | (isHit && isSunk ? SUNK_FLAG : 0));
+            shots++;
+            if (isHit) {
+                if (hits == hitFields.length) {
+                    hitFields = Arrays.copyOf(hitFields, hits * 2);
+                }
+                hitFields[hits] = field;
+                hits++;
+            }
+            if (isHit && isSunk) {
+                sunkShips++;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a ship could be placed on the given fields given everything that was observed. A ship can't be on
+     * a missed field. A ship that has all of its fields hit must have been sunk by its last hit and by no other shot, while a ship
+     * that still has a field that wasn't hit can't contain a field whose shot sunk a ship.
+     * @param x The X coordinate of the front of the ship.
+     * @param y The Y coordinate of the ship.
+     * @param size The size of the ship.
+     * @return Whether the ship could be there.
+     * @pre x >= 0 && x + size <= BOARD_SIZE_X, y >= 0 && y < BOARD_SIZE_Y
+     */
+    public boolean isPossibleShip(int x, int y, int size) {
+        int start = y * GameConstants.BOARD_SIZE_X + x;
+        int sunkFields = 0;
+        long last = -1;
+        boolean allHit = true;
+
+        for (int field = start; field < start + size; field++) {
+            long shot = shotFields.get(field, -1);
+            if (shot == -1) {
+                allHit = false;
+            } else if ((shot & HIT_FLAG) == 0) { // A miss
+                return false;
+            } else {
+                if ((shot & SUNK_FLAG) != 0) {
+                    sunkFields++;
+                }
+                if (shot > last) { // The shot number is stored above the flags, so the later shot is bigger
+                    last = shot;
+                }
+            }
+        }
+
+        if (allHit) {
+            return sunkFields == 1 && (last & SUNK_FLAG) != 0;
+        }
+        return sunkFields == 0;
+    }
+
+    /**
+     * @param field The number of the field.
+     * @return Whether the field was shot.
+     */
+    public boolean isShot(int field) {
+        return shotFields.contains(field);
+    }
+
+    /**
+     * @param field The number of the field.
+     * @return Whether a ship was hit on the field.
+     */
+    public boolean isHit(int field) {
+        return (shotFields.get(field, 0) & HIT_FLAG) != 0;
+    }
+
+    /**
+     * @param field The number of the field.
+     * @return Whether the shot on the field sunk a ship.
+     */
+    public boolean isSunk(int field) {
+        return (shotFields.get(field, 0) & SUNK_FLAG) != 0;
+    }
+
+    /**
+     * @return The numbers of all fields where a ship was hit, in the order of the shots.
+     * @post ensures that the returned array is a copy
+     */
+    public int[] getHitFields() {
+        return Arrays.copyOf(hitFields, hits);
+    }
+
+    /**
+     * @return The amount of shots made.
+     */
+    public int getShots() {
+        return shots;
+    }
+
+    /**
+     * @return The amount of ships that were sunk.
+     */
+    public int getSunkShips() {
+        return sunkShips;
+    }
+
+    /**
+     * Creates the sizes of all ships of the fleet, biggest first.
+     * @return An array with one entry per ship containing its size.
+     * @post ensures that the array contains every ship of every ship type
+     */
+    public static int[] fleet() {
+        Ship[] shipTypes = { new Carrier(), new Battleship(), new Destroyer(), new SuperPatrol(), new Patrol() };
+
+        int amount = 0;
+        for (Ship ship : shipTypes) {
+            amount += ship.getAmount();
+        }
+
+        int[] fleet = new int[amount];
+        int index = 0;
+        for (Ship ship : shipTypes) {
+            for (int i = 0; i < ship.getAmount(); i++) {
+                fleet[index] = ship.getSize();
+                index++;
+            }
+        }
+        return fleet;
+    }
+}
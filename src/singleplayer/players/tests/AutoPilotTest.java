@@ -0,0 +1,34 @@
+package singleplayer.players.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import constants.GameConstants;
+import singleplayer.players.AutoPilot;
+
+public class AutoPilotTest {
+
+    /**
+     * Test that the auto-pilot is off unless its margin is set, that it stays within its budget and that it never shoots a field twice
+     */
+    @Test
+    public void chooseFieldTest() {
+        assertNull(AutoPilot.fromProperties());
+
+        AutoPilot autoPilot = new AutoPilot(1000L, 5000L); // The budget is cut to half the margin
+        assertEquals(1000L, autoPilot.getMargin());
+
+        boolean[] shot = new boolean[GameConstants.BOARD_FIELDS];
+        for (int i = 0; i < 20; i++) {
+            long start = System.nanoTime();
+            int field = autoPilot.chooseField();
+            assertTrue(System.nanoTime() - start < 1000000000L);
+            assertTrue(!shot[field]);
+            shot[field] = true;
+            autoPilot.update(field % GameConstants.BOARD_SIZE_X, field / GameConstants.BOARD_SIZE_X, false, false);
+        }
+    }
+}
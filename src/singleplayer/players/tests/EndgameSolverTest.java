@@ -0,0 +1,63 @@
+package singleplayer.players.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import constants.GameConstants;
+import gameboards.GameBoard;
+import singleplayer.players.EndgameSolver;
+import singleplayer.players.ShotHistory;
+
+public class EndgameSolverTest {
+
+    /**
+     * Test that the solver doesn't start while many ships are left
+     */
+    @Test
+    public void tooManyShipsLeftTest() {
+        assertEquals(-1, new EndgameSolver().solve(new ShotHistory(), ShotHistory.fleet()));
+    }
+
+    /**
+     * Test that the solver finds the last ship when every other field was shot
+     */
+    @Test
+    public void lastShipTest() {
+        GameBoard target = new GameBoard(false);
+        String[][] board = target.getBoard();
+
+        // Find a destroyer to leave on the board
+        int destroyerX = -1;
+        int destroyerY = -1;
+        for (int x = 0; x < GameConstants.BOARD_SIZE_X; x++) {
+            for (int y = 0; y < GameConstants.BOARD_SIZE_Y; y++) {
+                if (board[x][y].equals(GameConstants.FIELD_TYPE_DESTROYER_FRONT)) {
+                    destroyerX = x;
+                    destroyerY = y;
+                }
+            }
+        }
+
+        // Shoot every other field
+        ShotHistory history = new ShotHistory();
+        for (int x = 0; x < GameConstants.BOARD_SIZE_X; x++) {
+            for (int y = 0; y < GameConstants.BOARD_SIZE_Y; y++) {
+                if (y != destroyerY || x < destroyerX || x > destroyerX + 2) {
+                    boolean[] result = target.singlePlayerMakeMove(x, y);
+                    history.record(x, y, result[0], result[1]);
+                }
+            }
+        }
+
+        EndgameSolver solver = new EndgameSolver();
+        int field = solver.solve(history, ShotHistory.fleet());
+
+        // Only the three destroyer fields are left, and each of them is a ship in every layout
+        assertEquals(destroyerY, field / GameConstants.BOARD_SIZE_X);
+        assertTrue(field % GameConstants.BOARD_SIZE_X >= destroyerX && field % GameConstants.BOARD_SIZE_X <= destroyerX + 2);
+        assertTrue(solver.getLayouts() > 0);
+        assertEquals(solver.getLayouts(), solver.getCount(field));
+    }
+}
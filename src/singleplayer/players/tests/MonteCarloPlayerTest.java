@@ -0,0 +1,88 @@
+package singleplayer.players.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import constants.GameConstants;
+import gameboards.GameBoard;
+import singleplayer.players.FieldMap;
+import singleplayer.players.MonteCarloPlayer;
+import singleplayer.players.ShotHistory;
+
+public class MonteCarloPlayerTest {
+
+    /**
+     * Test that the shot history only allows ships that agree with the misses, hits and sunk ships
+     */
+    @Test
+    public void isPossibleShipTest() {
+        ShotHistory history = new ShotHistory();
+
+        history.record(2, 0, false, false); // a miss
+        assertFalse(history.isPossibleShip(0, 0, 3)); // can't be on a miss
+        assertTrue(history.isPossibleShip(3, 0, 3));
+
+        history.record(5, 1, true, false); // a hit that didn't sink
+        assertFalse(history.isPossibleShip(5, 1, 1)); // a patrol would have sunk
+        assertTrue(history.isPossibleShip(5, 1, 2));
+
+        history.record(8, 2, true, true); // a patrol that sunk
+        assertTrue(history.isPossibleShip(8, 2, 1));
+        assertFalse(history.isPossibleShip(7, 2, 2)); // the sunk ship can't have a field that wasn't hit
+
+        history.record(9, 2, true, true); // another ship sunk right next to it
+        assertFalse(history.isPossibleShip(8, 2, 2)); // one ship can't be sunk twice
+        assertEquals(2, history.getSunkShips());
+    }
+
+    /**
+     * Test that the player never fires on the same field twice and sinks the whole fleet
+     */
+    @Test
+    public void playWholeGameTest() {
+        GameBoard target = new GameBoard(false);
+        MonteCarloPlayer player = new MonteCarloPlayer(null, 5, 200);
+
+        boolean allShipsDestroyed = false;
+        int shots = 0;
+        while (!allShipsDestroyed && shots < ShotHistory.FIELDS) {
+            int field = player.chooseField();
+            int x = field % GameConstants.BOARD_SIZE_X;
+            int y = field / GameConstants.BOARD_SIZE_X;
+            assertFalse(player.getHistory().isShot(field));
+
+            boolean[] result = target.singlePlayerMakeMove(x, y);
+            player.update(x, y, result[0], result[1]);
+            allShipsDestroyed = result[2];
+            shots++;
+        }
+
+        assertTrue(allShipsDestroyed);
+        assertEquals(28, player.getHistory().getSunkShips());
+    }
+
+    /**
+     * Test that the field map keeps its numbers while it grows and is empty after clearing
+     */
+    @Test
+    public void fieldMapTest() {
+        FieldMap map = new FieldMap();
+        for (int field = 0; field < 1000; field++) {
+            map.add(field * 1000003, field);
+        }
+        map.add(5 * 1000003, 10);
+
+        assertEquals(1000, map.size());
+        assertEquals(15, map.get(5 * 1000003, -1));
+        assertEquals(-1, map.get(7, -1));
+        assertEquals(0, map.getField(0));
+        assertEquals(999 * 1000003, map.getField(999));
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.contains(5 * 1000003));
+    }
+}
@@ -0,0 +1,70 @@
+package singleplayer.players.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import singleplayer.players.OpeningBook;
+import singleplayer.players.ShotHistory;
+
+public class OpeningBookTest {
+
+    /**
+     * Test that a book that was written is read back the same and that lookups follow the results
+     */
+    @Test
+    public void writeAndReadTest() throws IOException {
+        byte[] book = OpeningBook.build(2, 200);
+        assertEquals(4, book.length); // one first shot and one second shot per result
+
+        Path file = Files.createTempFile("opening-book", ".bin");
+        try {
+            OpeningBook.write(file, book, 2);
+            OpeningBook openingBook = new OpeningBook(file);
+
+            assertEquals(4, openingBook.size());
+            int first = openingBook.getShot(0);
+            assertTrue(first >= 0 && first < ShotHistory.FIELDS);
+            assertEquals(book[0] & 0xFF, first);
+
+            int afterMiss = openingBook.getShot(OpeningBook.child(0, false, false));
+            assertEquals(book[1] & 0xFF, afterMiss);
+            assertTrue(afterMiss != first);
+
+            // Nodes deeper than the book aren't known
+            assertEquals(-1, openingBook.getShot(OpeningBook.child(1, false, false)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test that a missing file gives an empty book
+     */
+    @Test
+    public void missingFileTest() {
+        OpeningBook openingBook = new OpeningBook(Path.of("does-not-exist.bin"));
+        assertEquals(0, openingBook.size());
+        assertEquals(-1, openingBook.getShot(0));
+    }
+
+    /**
+     * Test that the shipped book is found on the class path and was built for the default board size and fleet
+     */
+    @Test
+    public void shippedBookTest() {
+        OpeningBook openingBook = new OpeningBook();
+
+        int nodes = 0;
+        for (int level = 0, width = 1; level < OpeningBook.DEFAULT_DEPTH; level++, width *= 3) {
+            nodes += width;
+        }
+        assertEquals(nodes, openingBook.size()); // a book made for another board or fleet would be empty
+        assertTrue(openingBook.getShot(0) >= 0);
+    }
+}
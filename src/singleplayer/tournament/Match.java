@@ -0,0 +1,109 @@
+package singleplayer.tournament;
+
+// External imports
+import java.util.Random;
+
+// Internal imports
+import constants.GameConstants;
+import gameboards.GameBoard;
+import singleplayer.game.Referee;
+import singleplayer.players.Player;
+
+/**
+ * This class plays one game between two strategies without a human, a TUI or the 5 minute game loop of {@link singleplayer.game.Game}.
+ * The rules are the same: a random seat starts, a hit or sunk ship gives a point and another shot, a miss passes the turn, and the first
+ * one to destroy all ships wins. The match is the referee of both shooters, but instead of calling the next player from inside
+ * {@link #makeMove(int, int, boolean)} it only stores the move and plays the turns in a loop, so a long game doesn't grow the stack.
+ * @inv shooters != null, boards != null, points != null
+ */
+public class Match implements Referee {
+    // The result of a game that neither seat won
+    public static final int DRAW = -1;
+
+    // A game is stopped after this many moves, which is more than enough to shoot every field of both boards
+    private static final int MAX_MOVES = 4 * GameConstants.BOARD_SIZE_X * GameConstants.BOARD_SIZE_Y;
+
+    // The shooter of each seat
+    private Player[] shooters;
+
+    // The board of each seat
+    private GameBoard[] boards;
+
+    // The points of each seat
+    private int[] points;
+
+    // The move the shooter that has the turn reported
+    private int moveX;
+    private int moveY;
+    private boolean moved;
+
+    /**
+     * Sets up a game between two strategies.
+     * @param first The strategy of the first seat.
+     * @param second The strategy of the second seat.
+     * @pre first != null, second != null
+     * @post ensures that both seats have a new shooter and board and no points
+     */
+    public Match(Strategy first, Strategy second) {
+        shooters = new Player[] { first.createShooter(this), second.createShooter(this) };
+        boards = new GameBoard[] { first.createBoard(), second.createBoard() };
+        points = new int[2];
+    }
+
+    /**
+     * Plays the game until one seat destroyed all ships of the other.
+     * @param random Decides which seat starts.
+     * @return 0 if the first seat won, 1 if the second seat won or {@link #DRAW} if the game was stopped with equal points.
+     * @pre random != null
+     */
+    public int play(Random random) {
+        int current = random.nextInt(2);
+        for (int move = 0; move < MAX_MOVES; move++) {
+            moved = false;
+            shooters[current].getMove();
+            if (!moved) { // A shooter that doesn't move loses its turn, like a late move
+                current = 1 - current;
+                continue;
+            }
+
+            boolean[] result = boards[1 - current].singlePlayerMakeMove(moveX, moveY);
+            shooters[current].update(moveX, moveY, result[0], result[1]);
+            if (result[0]) {
+                points[current] += result[1] ? 2 : 1;
+            }
+            if (result[2]) { // All ships destroyed
+                return current;
+            }
+            if (!result[0]) {
+                current = 1 - current;
+            }
+        }
+
+        if (points[0] == points[1]) {
+            return DRAW;
+        }
+        return points[0] > points[1] ? 0 : 1;
+    }
+
+    /**
+     * Getter for the points of a seat.
+     * @param seat 0 for the first seat, 1 for the second.
+     * @return The points of the seat.
+     */
+    public int getPoints(int seat) {
+        return points[seat];
+    }
+
+    /**
+     * {@inheritDoc}
+     * @post ensures that the move is stored to be played by {@link #play(Random)}
+     */
+    @Override
+    public void makeMove(int x, int y, boolean isLate) {
+        if (!isLate) {
+            moveX = x;
+            moveY = y;
+            moved = true;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package singleplayer.tournament;
+
+/**
+ * This class keeps the rating of one strategy in a tournament. It keeps both an Elo rating, which is easy to compare with other
+ * tools, and a Glicko rating, which also keeps a rating deviation that says how sure the rating is. The deviation starts high and
+ * shrinks with every game, and the 95% confidence interval of the rating is the rating plus or minus 1.96 deviations.
+ * @inv name != null, deviation >= MIN_DEVIATION, wins >= 0, losses >= 0, draws >= 0
+ */
+public class Rating {
+    // The rating every strategy starts with
+    public static final double INITIAL_RATING = 1500.0;
+
+    // The rating deviation every strategy starts with
+    public static final double INITIAL_DEVIATION = 350.0;
+
+    // The deviation never drops below this, so that a strategy that changes its strength can still move
+    public static final double MIN_DEVIATION = 30.0;
+
+    // How much one game can change an Elo rating
+    public static final double ELO_K = 16.0;
+
+    // The z value of a 95% confidence interval
+    private static final double Z_95 = 1.96;
+
+    // The Glicko scaling constant ln(10) / 400
+    private static final double Q = Math.log(10) / 400.0;
+
+    // The name of the strategy
+    private String name;
+
+    // The Elo rating
+    private double elo;
+
+    // The Glicko rating and its deviation
+    private double rating;
+    private double deviation;
+
+    // The results of the strategy
+    private int wins;
+    private int losses;
+    private int draws;
+
+    /**
+     * @param name The name of the strategy.
+     * @pre name != null
+     * @post ensures that the ratings have their initial values and no games are played
+     */
+    public Rating(String name) {
+        this.name = name;
+        this.elo = INITIAL_RATING;
+        this.rating = INITIAL_RATING;
+        this.deviation = INITIAL_DEVIATION;
+    }
+
+    /**
+     * Copies a rating, so that a snapshot doesn't change while the tournament goes on.
+     * @param other The rating to copy.
+     * @pre other != null
+     */
+    public Rating(Rating other) {
+        this.name = other.name;
+        this.elo = other.elo;
+        this.rating = other.rating;
+        this.deviation = other.deviation;
+        this.wins = other.wins;
+        this.losses = other.losses;
+        this.draws = other.draws;
+    }
+
+    /**
+     * Updates the ratings of two strategies with the result of a game between them. Both are updated with the ratings
+     * from before the game.
+     * @param a The rating of the first strategy.
+     * @param b The rating of the second strategy.
+     * @param score The score of the first strategy: 1 for a win, 0.5 for a draw and 0 for a loss.
+     * @pre a != null, b != null, a != b, score == 0 || score == 0.5 || score == 1
+     */
+    public static void update(Rating a, Rating b, double score) {
+        double expectedElo = 1.0 / (1.0 + Math.pow(10, (b.elo - a.elo) / 400.0));
+        a.elo += ELO_K * (score - expectedElo);
+        b.elo -= ELO_K * (score - expectedElo);
+
+        double ratingA = a.rating;
+        double deviationA = a.deviation;
+        a.glicko(b.rating, b.deviation, score);
+        b.glicko(ratingA, deviationA, 1 - score);
+
+        if (score == 1) {
+            a.wins++;
+            b.losses++;
+        } else if (score == 0) {
+            a.losses++;
+            b.wins++;
+        } else {
+            a.draws++;
+            b.draws++;
+        }
+    }
+
+    /**
+     * Updates the Glicko rating and deviation with one game against an opponent.
+     */
+    private void glicko(double opponentRating, double opponentDeviation, double score) {
+        double g = 1.0 / Math.sqrt(1 + 3 * Q * Q * opponentDeviation * opponentDeviation / (Math.PI * Math.PI));
+        double expected = 1.0 / (1.0 + Math.pow(10, -g * (rating - opponentRating) / 400.0));
+        double dSquared = 1.0 / (Q * Q * g * g * expected * (1 - expected));
+        double precision = 1.0 / (deviation * deviation) + 1.0 / dSquared;
+
+        rating += Q / precision * g * (score - expected);
+        deviation = Math.max(MIN_DEVIATION, Math.sqrt(1.0 / precision));
+    }
+
+    /**
+     * @return The name of the strategy.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The Elo rating.
+     */
+    public double getElo() {
+        return elo;
+    }
+
+    /**
+     * @return The Glicko rating.
+     */
+    public double getRating() {
+        return rating;
+    }
+
+    /**
+     * @return The Glicko rating deviation.
+     */
+    public double getDeviation() {
+        return deviation;
+    }
+
+    /**
+     * @return The lower end of the 95% confidence interval of the Glicko rating.
+     */
+    public double getLowerBound() {
+        return rating - Z_95 * deviation;
+    }
+
+    /**
+     * @return The upper end of the 95% confidence interval of the Glicko rating.
+     */
+    public double getUpperBound() {
+        return rating + Z_95 * deviation;
+    }
+
+    /**
+     * @return The amount of games won.
+     */
+    public int getWins() {
+        return wins;
+    }
+
+    /**
+     * @return The amount of games lost.
+     */
+    public int getLosses() {
+        return losses;
+    }
+
+    /**
+     * @return The amount of games that were a draw.
+     */
+    public int getDraws() {
+        return draws;
+    }
+
+    /**
+     * @return The amount of games played.
+     */
+    public int getGames() {
+        return wins + losses + draws;
+    }
+
+    /**
+     * @return The rating as a line of the standings.
+     */
+    @Override
+    public String toString() {
+        return String.format("%-20s glicko %6.0f [%6.0f, %6.0f]  elo %6.0f  %d-%d-%d", name, rating, getLowerBound(), getUpperBound(),
+                elo, wins, losses, draws);
+    }
+}
@@ -0,0 +1,63 @@
+package singleplayer.tournament;
+
+// External imports
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Internal imports
+import gameboards.GameBoard;
+import singleplayer.game.Referee;
+import singleplayer.players.Player;
+
+/**
+ * This class is a bot that can take part in a tournament. A bot is a combination of a way of shooting, a {@link Player} that reports its
+ * moves to a {@link Referee}, and a way of placing its ships, a supplier of a new {@link GameBoard} for every game.
+ * @inv name != null, shooter != null, placement != null
+ */
+public class Strategy {
+    // The name the strategy is shown with in the standings
+    private String name;
+
+    // Creates a new shooter for every game
+    private Function<Referee, Player> shooter;
+
+    // Creates a new board for every game
+    private Supplier<GameBoard> placement;
+
+    /**
+     * @param name The name the strategy is shown with in the standings.
+     * @param shooter Creates a new shooter for every game that reports its moves to the given referee.
+     * @param placement Creates a new board for every game.
+     * @pre name != null, shooter != null, placement != null
+     */
+    public Strategy(String name, Function<Referee, Player> shooter, Supplier<GameBoard> placement) {
+        this.name = name;
+        this.shooter = shooter;
+        this.placement = placement;
+    }
+
+    /**
+     * @return The name of the strategy.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Creates the shooter for a new game.
+     * @param referee The referee the shooter reports its moves to.
+     * @return A new shooter.
+     * @pre referee != null
+     */
+    public Player createShooter(Referee referee) {
+        return shooter.apply(referee);
+    }
+
+    /**
+     * Creates the board for a new game.
+     * @return A new board with all ships placed.
+     */
+    public GameBoard createBoard() {
+        return placement.get();
+    }
+}
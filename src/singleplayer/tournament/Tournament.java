@@ -0,0 +1,191 @@
+package singleplayer.tournament;
+
+// External imports
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+// Internal imports
+import gameboards.GameBoard;
+import singleplayer.players.ComputerPlayer;
+import singleplayer.players.MonteCarloPlayer;
+
+/**
+ * This class plays a round-robin tournament between registered strategies: every strategy plays every other strategy a given amount of
+ * games. All games are independent {@link Match}es, so they are played in parallel on an executor and the ratings are updated
+ * as soon as a game finishes. A listener can be set to follow the standings while the tournament is running.
+ * Run the main method to compare the computer players that ship with the game. It plays on half of the cores, since every move of a
+ * {@link MonteCarloPlayer} samples on the pool of the Monte Carlo players, and gives those players a fixed amount of samples per move
+ * instead of a time, so their strength doesn't depend on how busy the cores are.
+ * @inv strategies != null, ratings != null, played >= 0
+ */
+public class Tournament {
+    // The amount of games per pairing if none is given
+    public static final int DEFAULT_GAMES_PER_PAIRING = 20;
+
+    // The amount of layouts the Monte Carlo players of the main method sample per move
+    private static final int TOURNAMENT_SAMPLES = 2000;
+
+    // How many games the main method plays between printing the standings
+    private static final int PRINT_INTERVAL = 10;
+
+    // The registered strategies
+    private List<Strategy> strategies;
+
+    // The rating of each strategy by name, in the order they were registered
+    private Map<String, Rating> ratings;
+
+    // The amount of games that finished
+    private int played;
+
+    // Called with the standings after every game, null if nobody follows the tournament
+    private Consumer<List<Rating>> listener;
+
+    /**
+     * Creates a tournament without strategies.
+     */
+    public Tournament() {
+        strategies = new ArrayList<>();
+        ratings = new LinkedHashMap<>();
+        played = 0;
+    }
+
+    /**
+     * Adds a strategy to the tournament.
+     * @param strategy The strategy to add.
+     * @throws IllegalArgumentException If a strategy with the same name is already registered.
+     * @pre strategy != null
+     * @post ensures that the strategy plays in the next run and has an initial rating
+     */
+    public synchronized void register(Strategy strategy) {
+        if (ratings.containsKey(strategy.getName())) {
+            throw new IllegalArgumentException("A strategy called " + strategy.getName() + " is already registered.");
+        }
+        strategies.add(strategy);
+        ratings.put(strategy.getName(), new Rating(strategy.getName()));
+    }
+
+    /**
+     * Sets the listener that is called with the standings after every game. It is called on the thread of the game after the ratings
+     * are unlocked, so the threads of games that finish at the same time may call it at the same time.
+     * @param listener The listener or null to stop following the tournament.
+     */
+    public synchronized void setListener(Consumer<List<Rating>> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Plays every strategy against every other strategy and waits until all games finished.
+     * @param gamesPerPairing The amount of games between every two strategies.
+     * @param executor The executor the games are played on.
+     * @return The standings after the last game.
+     * @pre gamesPerPairing > 0, executor != null
+     * @post ensures that every pairing played gamesPerPairing more games
+     */
+    public List<Rating> run(int gamesPerPairing, ExecutorService executor) {
+        List<Strategy> players;
+        synchronized (this) {
+            players = new ArrayList<>(strategies);
+        }
+
+        List<CompletableFuture<Void>> games = new ArrayList<>();
+        for (int a = 0; a < players.size(); a++) {
+            for (int b = a + 1; b < players.size(); b++) {
+                Strategy first = players.get(a);
+                Strategy second = players.get(b);
+                for (int game = 0; game < gamesPerPairing; game++) {
+                    games.add(CompletableFuture.runAsync(() -> playGame(first, second), executor));
+                }
+            }
+        }
+        for (CompletableFuture<Void> game : games) {
+            game.join();
+        }
+        return getStandings();
+    }
+
+    /**
+     * Gives a snapshot of the ratings, best Glicko rating first.
+     * @return A copy of the rating of every strategy.
+     */
+    public synchronized List<Rating> getStandings() {
+        List<Rating> standings = new ArrayList<>();
+        for (Rating rating : ratings.values()) {
+            standings.add(new Rating(rating));
+        }
+        standings.sort(Comparator.comparingDouble(Rating::getRating).reversed());
+        return standings;
+    }
+
+    /**
+     * @return The amount of games that finished.
+     */
+    public synchronized int getPlayed() {
+        return played;
+    }
+
+    /**
+     * Plays one game, adds its result to the ratings and informs the listener.
+     */
+    private void playGame(Strategy first, Strategy second) {
+        int winner = new Match(first, second).play(ThreadLocalRandom.current());
+        double score = winner == Match.DRAW ? 0.5 : (winner == 0 ? 1.0 : 0.0);
+        Consumer<List<Rating>> following;
+        List<Rating> standings;
+        synchronized (this) {
+            record(first, second, score);
+            following = listener;
+            standings = following != null ? getStandings() : null;
+        }
+        if (following != null) { // Called without the lock, so a slow listener doesn't hold up the other games
+            following.accept(standings);
+        }
+    }
+
+    /**
+     * Updates the ratings with the result of a game. Called while the ratings are locked.
+     */
+    private void record(Strategy first, Strategy second, double score) {
+        Rating.update(ratings.get(first.getName()), ratings.get(second.getName()), score);
+        played++;
+    }
+
+    /**
+     * Plays a tournament between the computer players that ship with the game and prints the standings.
+     * @param args Optionally the amount of games per pairing and the amount of threads, half of the cores by default.
+     */
+    public static void main(String[] args) {
+        int gamesPerPairing = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES_PER_PAIRING;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        Tournament tournament = new Tournament();
+        tournament.register(new Strategy("random", ComputerPlayer::new, () -> new GameBoard(false)));
+        tournament.register(new Strategy("montecarlo", referee -> new MonteCarloPlayer(referee, MonteCarloPlayer.NO_TIME_LIMIT, TOURNAMENT_SAMPLES, null), () -> new GameBoard(false)));
+        tournament.register(new Strategy("montecarlo-book", referee -> new MonteCarloPlayer(referee, MonteCarloPlayer.NO_TIME_LIMIT, TOURNAMENT_SAMPLES), () -> new GameBoard(false)));
+        tournament.setListener(standings -> {
+            int played = standings.stream().mapToInt(Rating::getGames).sum() / 2;
+            if (played % PRINT_INTERVAL == 0) {
+                System.out.println("After " + played + " games:");
+                standings.forEach(System.out::println);
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tournament-game");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Rating> standings = tournament.run(gamesPerPairing, executor);
+        executor.shutdown();
+
+        System.out.println("Final standings:");
+        standings.forEach(System.out::println);
+    }
+}
@@ -0,0 +1,89 @@
+package singleplayer.tournament.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import gameboards.GameBoard;
+import singleplayer.players.ComputerPlayer;
+import singleplayer.tournament.Match;
+import singleplayer.tournament.Rating;
+import singleplayer.tournament.Strategy;
+import singleplayer.tournament.Tournament;
+
+public class TournamentTest {
+
+    /**
+     * Test that a match is played until one seat destroyed all ships
+     */
+    @Test
+    public void matchTest() {
+        Strategy random = new Strategy("random", ComputerPlayer::new, () -> new GameBoard(false));
+        Match match = new Match(random, random);
+        int winner = match.play(new Random());
+
+        assertTrue(winner == 0 || winner == 1);
+        assertEquals(63 + 28, match.getPoints(winner)); // Every ship field hit and every ship sunk
+        assertTrue(match.getPoints(1 - winner) < match.getPoints(winner));
+    }
+
+    /**
+     * Test that a win moves the ratings apart and makes them more certain
+     */
+    @Test
+    public void ratingTest() {
+        Rating a = new Rating("a");
+        Rating b = new Rating("b");
+        Rating.update(a, b, 1);
+
+        assertTrue(a.getRating() > Rating.INITIAL_RATING && b.getRating() < Rating.INITIAL_RATING);
+        assertTrue(a.getElo() > Rating.INITIAL_RATING && b.getElo() < Rating.INITIAL_RATING);
+        assertEquals(a.getElo() - Rating.INITIAL_RATING, Rating.INITIAL_RATING - b.getElo(), 1e-9);
+        assertTrue(a.getDeviation() < Rating.INITIAL_DEVIATION);
+        assertTrue(a.getLowerBound() < a.getRating() && a.getRating() < a.getUpperBound());
+        assertEquals(1, a.getWins());
+        assertEquals(1, b.getLosses());
+
+        for (int game = 0; game < 1000; game++) {
+            Rating.update(a, b, 0.5);
+        }
+        assertEquals(Rating.MIN_DEVIATION, a.getDeviation(), 1e-9);
+        assertEquals(1001, b.getGames());
+    }
+
+    /**
+     * Test that every pairing plays its games and the listener sees every result
+     */
+    @Test
+    public void roundRobinTest() {
+        Tournament tournament = new Tournament();
+        tournament.register(new Strategy("a", ComputerPlayer::new, () -> new GameBoard(false)));
+        tournament.register(new Strategy("b", ComputerPlayer::new, () -> new GameBoard(false)));
+        tournament.register(new Strategy("c", ComputerPlayer::new, () -> new GameBoard(false)));
+        assertThrows(IllegalArgumentException.class,
+                () -> tournament.register(new Strategy("a", ComputerPlayer::new, () -> new GameBoard(false))));
+
+        AtomicInteger updates = new AtomicInteger();
+        tournament.setListener(standings -> updates.incrementAndGet());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Rating> standings = tournament.run(2, executor);
+        executor.shutdown();
+
+        assertEquals(6, tournament.getPlayed()); // 3 pairings with 2 games each
+        assertEquals(6, updates.get());
+        assertEquals(3, standings.size());
+        for (Rating rating : standings) {
+            assertEquals(4, rating.getGames());
+        }
+        assertTrue(standings.get(0).getRating() >= standings.get(2).getRating());
+    }
+}
@@ -0,0 +1,225 @@
+package tui;
+
+// External imports
+import java.io.PrintStream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+// Internal imports
+import metrics.MetricsRegistry;
+import metrics.StripedCounter;
+
+/**
+ * This class is the only writer of the terminal once it is started. The network and game threads hand it the boards to show as a
+ * {@link BoardSnapshot} and the messages to print, and one render thread draws them, so a thread that gets an update never waits for
+ * the terminal. Messages are printed in the order they were given and are never dropped. Boards are drawn at most {@link #FPS_PROPERTY}
+ * times per second and the latest board wins: if a new snapshot is published before the last one was drawn, the last one is replaced
+ * and drawn no more, at the place in the output where it was published. A burst of updates so costs one drawn board instead of one per update.
+ * Until the render thread is started everything is written right away by the thread that gives it, like before. Threads that wait for
+ * everything to be written park until the render thread wakes them once the queue is empty.
+ * @inv items != null, pending != null, waiters != null, latest != null, out != null, drawer != null, frameInterval >= 0
+ */
+public class BoardRenderer implements Runnable {
+    // The system property with the most boards drawn per second, 0 or less to draw every board right away on the calling thread
+    public static final String FPS_PROPERTY = "battleship.render.fps";
+
+    // The value that is used if the property isn't set
+    public static final int DEFAULT_FPS = 30;
+
+    // The time in milliseconds the output that is still queued gets to be written when the program exits
+    private static final long EXIT_DRAIN_TIME = 1000L;
+
+    // Queued where the latest snapshot is drawn, compared by identity
+    private static final Object FRAME = new Object();
+
+    // Counts the snapshots that were replaced before they were drawn
+    private static final StripedCounter SKIPPED = MetricsRegistry.global().counter("client_render_frames_skipped_total", "Boards that were replaced by a newer one before they were drawn");
+
+    // The renderer of this process, created on first use
+    private static BoardRenderer system;
+
+    // The messages and frame markers that weren't written yet
+    private ConcurrentLinkedQueue<Object> items;
+
+    // The amount of items that were queued but not written yet
+    private AtomicInteger pending;
+
+    // The threads that wait for all items to be written, woken by the render thread once there are none left
+    private ConcurrentLinkedQueue<Thread> waiters;
+
+    // The snapshot that is drawn at the next frame marker, null if there is none
+    private AtomicReference<BoardSnapshot> latest;
+
+    // The stream everything is written to
+    private PrintStream out;
+
+    // Turns a snapshot into the text of the boards
+    private Function<BoardSnapshot, String> drawer;
+
+    // The least time in nanoseconds between two drawn boards
+    private long frameInterval;
+
+    // The render thread, null until started
+    private volatile Thread renderer;
+
+    /**
+     * Creates a renderer. The render thread isn't started yet.
+     * @param out The stream to write to.
+     * @param drawer Turns a snapshot into the text of the boards.
+     * @param fps The most boards drawn per second once the render thread is started.
+     * @pre out != null, drawer != null, fps > 0
+     * @post ensures that nothing is queued
+     */
+    public BoardRenderer(PrintStream out, Function<BoardSnapshot, String> drawer, int fps) {
+        this.items = new ConcurrentLinkedQueue<>();
+        this.pending = new AtomicInteger();
+        this.waiters = new ConcurrentLinkedQueue<>();
+        this.latest = new AtomicReference<>();
+        this.out = out;
+        this.drawer = drawer;
+        this.frameInterval = TimeUnit.SECONDS.toNanos(1) / fps;
+    }
+
+    /**
+     * Gives the renderer of this process, which writes to System.out and draws with {@link GameClientTUI#drawBoards(BoardSnapshot)}. It is
+     * created on first use and its render thread is started, unless {@link #FPS_PROPERTY} is 0 or less. The output that is still
+     * queued when the program exits is written before it ends.
+     * @return The renderer of this process.
+     */
+    public static synchronized BoardRenderer system() {
+        if (system == null) {
+            int fps = Integer.getInteger(FPS_PROPERTY, DEFAULT_FPS);
+            system = new BoardRenderer(System.out, GameClientTUI::drawBoards, Math.max(1, fps));
+            if (fps > 0) {
+                BoardRenderer started = system;
+                started.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> started.awaitEmpty(EXIT_DRAIN_TIME), "board-renderer-exit"));
+            }
+        }
+        return system;
+    }
+
+    /**
+     * Starts the render thread. It is a daemon, so it doesn't keep the program running.
+     * @return The render thread.
+     * @post ensures that queued items are written by the render thread
+     */
+    public Thread start() {
+        Thread thread = new Thread(this, "board-renderer");
+        thread.setDaemon(true);
+        renderer = thread;
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Shows the boards of a snapshot. If the snapshot that was published before wasn't drawn yet it is replaced by this one.
+     * @param snapshot The boards to show.
+     * @pre snapshot != null
+     * @post ensures that this snapshot or a newer one is drawn after the items that were queued before the oldest undrawn snapshot
+     */
+    public void publish(BoardSnapshot snapshot) {
+        if (renderer == null) {
+            write(drawer.apply(snapshot));
+            return;
+        }
+
+        if (latest.getAndSet(snapshot) == null) {
+            pending.incrementAndGet();
+            items.offer(FRAME);
+        } else {
+            SKIPPED.increment();
+        }
+        LockSupport.unpark(renderer);
+    }
+
+    /**
+     * Prints a text as it is, without adding a new line.
+     * @param text The text to print.
+     * @pre text != null
+     * @post ensures that the text is printed after all items that were queued before it
+     */
+    public void print(String text) {
+        if (renderer == null) {
+            write(text);
+            return;
+        }
+
+        pending.incrementAndGet();
+        items.offer(text);
+        LockSupport.unpark(renderer);
+    }
+
+    /**
+     * Waits until all queued items are written.
+     * @param timeout The maximum time to wait in milliseconds.
+     * @return Whether all items were written.
+     * @pre timeout >= 0
+     */
+    public boolean awaitEmpty(long timeout) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        try {
+            while (pending.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waiters.remove(current);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the queued items forever. A frame marker waits until the frame interval passed since the last drawn board, so that the
+     * snapshots that are published meanwhile replace each other, and then draws the latest snapshot.
+     */
+    @Override
+    public void run() {
+        long nextFrame = System.nanoTime();
+        while (true) {
+            Object item = items.poll();
+            if (item == null) {
+                out.flush();
+                LockSupport.park(this);
+                continue;
+            }
+
+            if (item == FRAME) {
+                long wait = nextFrame - System.nanoTime();
+                while (wait > 0) {
+                    LockSupport.parkNanos(this, wait);
+                    wait = nextFrame - System.nanoTime();
+                }
+                BoardSnapshot snapshot = latest.getAndSet(null);
+                if (snapshot != null) {
+                    write(drawer.apply(snapshot));
+                }
+                nextFrame = System.nanoTime() + frameInterval;
+            } else {
+                write((String) item);
+            }
+            if (pending.decrementAndGet() == 0) {
+                out.flush();
+                for (Thread waiter : waiters) {
+                    LockSupport.unpark(waiter);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param text The text to write to the stream.
+     */
+    private synchronized void write(String text) {
+        out.print(text);
+    }
+}
@@ -0,0 +1,159 @@
+package tui;
+
+/**
+ * This class is a copy of the two boards that are shown together, with the score and name of their players. The boards are copied
+ * when the snapshot is made, so the snapshot can be drawn later on the render thread while the game goes on changing the boards.
+ * A snapshot that is made with the lock of the boards copies them lazily instead: only when they are first read, which is on the render
+ * thread, while it holds that lock. A snapshot that is replaced by a newer one before it is drawn is so never copied, and the game thread
+ * that publishes it doesn't copy at all. The boards are then the boards at the time of drawing, which are never older than when published.
+ * The first board is always drawn in full. The second board is drawn like an enemy's board, with only its hits, unless it is a board
+ * that the viewer may see in full, like the boards a spectator gets.
+ * @inv firstBoard != null, secondBoard != null, firstName != null, secondName != null, lock == null if the boards are copied
+ */
+public class BoardSnapshot {
+    // The lock the boards are changed under, until they are copied, null once they are copied
+    private Object lock;
+
+    // The copy of the board that is drawn first, or the board itself until it is copied
+    private String[][] firstBoard;
+
+    // The score of the player of the first board
+    private int firstScore;
+
+    // The name of the player of the first board
+    private String firstName;
+
+    // The copy of the board that is drawn second, or the board itself until it is copied
+    private String[][] secondBoard;
+
+    // The score of the player of the second board
+    private int secondScore;
+
+    // The name of the player of the second board
+    private String secondName;
+
+    // Indicates whether the second board is drawn like an enemy's board
+    private boolean secondHidden;
+
+    /**
+     * Copies the boards.
+     * @param firstBoard The board that is drawn first.
+     * @param firstScore The score of the player of the first board.
+     * @param firstName The name of the player of the first board.
+     * @param secondBoard The board that is drawn second.
+     * @param secondScore The score of the player of the second board.
+     * @param secondName The name of the player of the second board.
+     * @param secondHidden Whether the second board is drawn like an enemy's board.
+     * @pre firstBoard != null, secondBoard != null, firstScore >= 0, secondScore >= 0, firstName != null, secondName != null
+     * @post ensures that later changes to the given boards don't change the snapshot
+     */
+    public BoardSnapshot(String[][] firstBoard, int firstScore, String firstName, String[][] secondBoard, int secondScore, String secondName, boolean secondHidden) {
+        this.firstBoard = copy(firstBoard);
+        this.firstScore = firstScore;
+        this.firstName = firstName;
+        this.secondBoard = copy(secondBoard);
+        this.secondScore = secondScore;
+        this.secondName = secondName;
+        this.secondHidden = secondHidden;
+    }
+
+    /**
+     * Keeps the boards to copy them once they are first read, see {@link BoardSnapshot}.
+     * @param lock The lock that every change of the boards holds.
+     * @param firstBoard The board that is drawn first.
+     * @param firstScore The score of the player of the first board.
+     * @param firstName The name of the player of the first board.
+     * @param secondBoard The board that is drawn second.
+     * @param secondScore The score of the player of the second board.
+     * @param secondName The name of the player of the second board.
+     * @param secondHidden Whether the second board is drawn like an enemy's board.
+     * @pre lock != null, firstBoard != null, secondBoard != null, firstScore >= 0, secondScore >= 0, firstName != null, secondName != null
+     * @post ensures that changes to the given boards after they are first read don't change the snapshot
+     */
+    public BoardSnapshot(Object lock, String[][] firstBoard, int firstScore, String firstName, String[][] secondBoard, int secondScore, String secondName, boolean secondHidden) {
+        this.lock = lock;
+        this.firstBoard = firstBoard;
+        this.firstScore = firstScore;
+        this.firstName = firstName;
+        this.secondBoard = secondBoard;
+        this.secondScore = secondScore;
+        this.secondName = secondName;
+        this.secondHidden = secondHidden;
+    }
+
+    /**
+     * Copies the boards while holding their lock, if they weren't copied yet.
+     */
+    private synchronized void copyBoards() {
+        if (lock != null) {
+            synchronized (lock) {
+                firstBoard = copy(firstBoard);
+                secondBoard = copy(secondBoard);
+            }
+            lock = null;
+        }
+    }
+
+    /**
+     * @param board The board to copy.
+     * @return A copy of every column of the board.
+     */
+    private static String[][] copy(String[][] board) {
+        String[][] copy = new String[board.length][];
+        for (int x = 0; x < board.length; x++) {
+            copy[x] = board[x].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * @return The copy of the board that is drawn first.
+     */
+    public String[][] getFirstBoard() {
+        copyBoards();
+        return firstBoard;
+    }
+
+    /**
+     * @return The score of the player of the first board.
+     */
+    public int getFirstScore() {
+        return firstScore;
+    }
+
+    /**
+     * @return The name of the player of the first board.
+     */
+    public String getFirstName() {
+        return firstName;
+    }
+
+    /**
+     * @return The copy of the board that is drawn second.
+     */
+    public String[][] getSecondBoard() {
+        copyBoards();
+        return secondBoard;
+    }
+
+    /**
+     * @return The score of the player of the second board.
+     */
+    public int getSecondScore() {
+        return secondScore;
+    }
+
+    /**
+     * @return The name of the player of the second board.
+     */
+    public String getSecondName() {
+        return secondName;
+    }
+
+    /**
+     * @return Whether the second board is drawn like an enemy's board.
+     */
+    public boolean isSecondHidden() {
+        return secondHidden;
+    }
+}
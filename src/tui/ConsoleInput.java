@@ -0,0 +1,263 @@
+package tui;
+
+// External imports
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class reads the console on its own thread and puts every line in a ring of preallocated slots, so that a prompt waits on the ring
+ * instead of on the console and no memory is allocated per prompt. Waiting on the queue can be limited with a deadline and can be cancelled from another thread, which isn't possible
+ * for a thread that is blocked on reading the console. This way a move prompt can end exactly when the turn ends, and the lines that
+ * the user typed meanwhile are kept for the next prompt. All prompts of the client, the TUI questions and both move threads, read from the one
+ * {@link #system()} instance, so there is a single buffer on System.in and no prompt can swallow lines that were meant for another one.
+ * For unattended sessions the input can be a script, see {@link #SCRIPT_PROPERTY}. A script has one answer or move per line, lines that start
+ * with # are skipped, and a line that starts with @ and a time in milliseconds, like "@1500 a,2", is only given to a prompt once that much time
+ * has passed since the script was started. The lines of a script are echoed through the {@link BoardRenderer} when they are taken, so the output reads like a typed session.
+ * @inv lines != null, reader != null, 0 <= count <= lines.length, 0 <= head < lines.length
+ */
+public class ConsoleInput implements Runnable {
+    // The deadline that is given to wait without a time limit
+    public static final long NO_DEADLINE = 0L;
+
+    // The system property with the file the console input of the process reads as a script, - for a script on System.in
+    public static final String SCRIPT_PROPERTY = "battleship.script";
+
+    // The value of the script property that reads the script from System.in
+    public static final String STANDARD_INPUT = "-";
+
+    // The amount of lines that are kept until they are taken, the reader thread waits while they are all in use
+    private static final int CAPACITY = 256;
+
+    // The console input of this process, created on first use
+    private static ConsoleInput system;
+
+    // The ring with the lines that were read but not taken yet, guarded by this
+    private String[] lines;
+
+    // The index of the oldest line in the ring
+    private int head;
+
+    // The amount of lines in the ring
+    private int count;
+
+    // The reader of the console, only used by the reader thread
+    private BufferedReader reader;
+
+    // The amount of cancels so far, a waiting reader stops when it changes, guarded by this
+    private long cancels;
+
+    // Indicates whether the console is closed and no more lines will come, guarded by this
+    private boolean closed;
+
+    // Indicates whether the stream is a script instead of a person typing
+    private boolean scripted;
+
+    /**
+     * Creates a console input that reads the given stream. The reader thread isn't started yet.
+     * @param in The stream to read lines from.
+     * @pre in != null
+     * @post ensures that no lines are queued and that the input isn't closed
+     */
+    public ConsoleInput(InputStream in) {
+        this(in, false);
+    }
+
+    /**
+     * Creates a console input that reads the given stream, which can be a script. The reader thread isn't started yet.
+     * @param in The stream to read lines from.
+     * @param scripted Whether the stream is a script with comments and times as described at {@link ConsoleInput}.
+     * @pre in != null
+     * @post ensures that no lines are queued and that the input isn't closed
+     */
+    public ConsoleInput(InputStream in, boolean scripted) {
+        this.lines = new String[CAPACITY];
+        this.reader = new BufferedReader(new InputStreamReader(in));
+        this.scripted = scripted;
+    }
+
+    /**
+     * Gives the console input of this process, which reads System.in or the script of {@link #SCRIPT_PROPERTY}. It is created and started on first use.
+     * @return The console input of this process.
+     * @throws UncheckedIOException If the script file can't be opened.
+     */
+    public static synchronized ConsoleInput system() {
+        if (system == null) {
+            String script = System.getProperty(SCRIPT_PROPERTY);
+            if (script == null) {
+                system = new ConsoleInput(System.in);
+            } else if (script.equals(STANDARD_INPUT)) {
+                system = new ConsoleInput(System.in, true);
+            } else {
+                try {
+                    system = new ConsoleInput(Files.newInputStream(Paths.get(script)), true);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not open the script " + script, e);
+                }
+            }
+            system.start();
+        }
+        return system;
+    }
+
+    /**
+     * Starts the reader thread. It is a daemon, so it doesn't keep the program running.
+     * @return The reader thread.
+     */
+    public Thread start() {
+        Thread thread = new Thread(this, "console-reader");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Waits for the next line without a time limit.
+     * @return The line, or null if the wait was cancelled or the console is closed.
+     */
+    public String readLine() {
+        return readLine(NO_DEADLINE);
+    }
+
+    /**
+     * Waits for the next line until the deadline.
+     * @param deadline The System.nanoTime() at which to stop waiting, or {@link #NO_DEADLINE}.
+     * @return The line, or null if the deadline passed, the wait was cancelled with {@link #cancel()} or the console is closed.
+     * @post ensures that a line is only taken from the ring if it is returned
+     */
+    public String readLine(long deadline) {
+        String line = take(deadline);
+        if (line != null && scripted) {
+            BoardRenderer.system().print(line + System.lineSeparator());
+        }
+        return line;
+    }
+
+    /**
+     * Takes the oldest line from the ring, waiting for one until the deadline, a cancel or the end of the console.
+     */
+    private synchronized String take(long deadline) {
+        long generation = cancels;
+        try {
+            while (count == 0) {
+                if (cancels != generation || closed) { // Cancelled during this wait, or no more lines will come
+                    return null;
+                }
+                if (deadline == NO_DEADLINE) {
+                    wait();
+                } else {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+
+        String line = lines[head];
+        lines[head] = null;
+        head = (head + 1) % lines.length;
+        count--;
+        notifyAll(); // The reader thread may wait for a free slot
+        return line;
+    }
+
+    /**
+     * Makes a thread that is waiting in {@link #readLine(long)} stop waiting and return null. Lines that were typed are kept.
+     * Cancels only count up, so any amount of them leaves nothing behind for later reads.
+     * @post ensures that a wait that started before this call ends
+     */
+    public synchronized void cancel() {
+        cancels++;
+        notifyAll();
+    }
+
+    /**
+     * @return Whether the input is a script instead of a person typing.
+     */
+    public boolean isScripted() {
+        return scripted;
+    }
+
+    /**
+     * @return Whether the console is closed and all its lines were taken.
+     */
+    public synchronized boolean isClosed() {
+        return closed && count == 0;
+    }
+
+    /**
+     * Reads lines from the console and puts them in the ring until the console is closed. The lines of a script are put in at their time.
+     */
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        try {
+            String line = reader.readLine();
+            while (line != null) {
+                if (!scripted) {
+                    put(line);
+                } else if (!line.startsWith("#")) {
+                    put(waitForTime(line, start));
+                }
+                line = reader.readLine();
+            }
+        } catch (IOException e) {
+            // The console can't be read anymore, which is treated like its end
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Puts a line in the ring, waiting while all slots are in use.
+     * @throws InterruptedException If the reader thread is interrupted while waiting.
+     */
+    private synchronized void put(String line) throws InterruptedException {
+        while (count == lines.length) {
+            wait();
+        }
+        lines[(head + count) % lines.length] = line;
+        count++;
+        notifyAll();
+    }
+
+    /**
+     * Waits until the time of a script line has come, if it has one.
+     * @param line The line of the script.
+     * @param start The System.nanoTime() at which the script was started.
+     * @return The line without its time.
+     * @throws InterruptedException If the reader thread is interrupted while waiting.
+     */
+    private String waitForTime(String line, long start) throws InterruptedException {
+        int space = line.indexOf(' ');
+        if (!line.startsWith("@") || space < 2) {
+            return line;
+        }
+
+        long time;
+        try {
+            time = Long.parseLong(line.substring(1, space));
+        } catch (NumberFormatException e) {
+            return line; // Not a time, so the line is an answer that starts with @
+        }
+        long wait = start + TimeUnit.MILLISECONDS.toNanos(time) - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        return line.substring(space + 1);
+    }
+}
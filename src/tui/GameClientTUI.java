@@ -1,48 +1,63 @@
 package tui;
 
 // External imports
-import java.util.Scanner;
+import java.util.NoSuchElementException;
 
 // Internal imports
 import constants.GameConstants;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
 
 /**
  * This class is a TUI for the game client. Is prompts questions to the user and displays messages.
  * Also it has methods to print out player's board, the score and name and the enemy's board, score and name.
- * @inv scanner != null
+ * The answers are read from {@link ConsoleInput#system()}, the one console input that all prompts of the process share, so no prompt
+ * buffers input that was meant for another one and answers that are pasted or scripted ahead are kept for the next prompts.
+ * Everything is printed through {@link BoardRenderer#system()}, so messages keep their order behind boards that are drawn on the render thread.
+ * @inv in != null, renderer != null
  */
 public class GameClientTUI {
 
-    // Re-usable scanner instance for user input
-    private Scanner in;
+    // The console input that is shared by all prompts
+    private ConsoleInput in;
 
-    // The letters to print on the game board
-    private static final String[] alphabet = { "a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "l", "m", "n", "o"};
+    // The renderer that writes everything to the terminal
+    private BoardRenderer renderer;
+
+    // The time it takes to print a board
+    private static final Histogram RENDER_TIME = MetricsRegistry.global().histogram("client_render_nanoseconds", "Time to print one board");
+
+    // The amount of letters that are used to name the columns
+    private static final int LETTERS = 26;
 
     /**
-     * Initialises the scanner
-     * @post ensures that in != null
+     * Initialises the console input and the renderer
+     * @post ensures that in != null, renderer != null
      */
     public GameClientTUI() {
-        this.in = new Scanner(System.in);
+        this.in = ConsoleInput.system();
+        this.renderer = BoardRenderer.system();
     }
 
     /**
      * Simple method to get an integer input from the user given a certain question.
-     * It keeps asking for the integer until a valid one is entered.
+     * It keeps asking for the integer until a valid one is entered. Only the first word of the answer is used.
      * @param question The question be answered by the user.
      * @return The integer answer to the question.
+     * @throws NoSuchElementException If the console is closed.
      * @pre question != null, in != null
      * @post ensures that an actual integer is returned
      */
     public int getInt(String question) {
-        int answer;
 		showMessage(question);
 		while(true){
 			try {
-                answer = Integer.parseInt(in.next());
-                in.nextLine();
-                return answer;
+                String answer = readLine().trim();
+                int end = 0;
+                while (end < answer.length() && !Character.isWhitespace(answer.charAt(end))) {
+                    end++;
+                }
+                return Integer.parseInt(answer.substring(0, end));
 			} catch(NumberFormatException ne) {
                 showEmptyLines(1);
                 showMessageLn(TerminalColors.RED_BOLD+ "> That's not a valid number." + TerminalColors.RESET);
@@ -56,15 +71,32 @@ public class GameClientTUI {
      * Simple method to get a String input from the user given a certain question.
      * @param question The question to be answered by the user.
      * @return The answer to the question.
+     * @throws NoSuchElementException If the console is closed.
      * @pre question != null, in != null
      * @post enusres that a string response is returned 
      */
     public String getString(String question) {
         
-        System.out.print(question);
-        return in.nextLine();
+        showMessage(question);
+        return readLine();
         
     }
+
+    /**
+     * Waits for the next line of the console. A wait that is cancelled by a move prompt is started again.
+     * @return The line.
+     * @throws NoSuchElementException If the console is closed.
+     */
+    private String readLine() {
+        String line = in.readLine();
+        while (line == null) {
+            if (in.isClosed()) {
+                throw new NoSuchElementException("No line found");
+            }
+            line = in.readLine();
+        }
+        return line;
+    }
     
     /**
      * Simple method to get a boolean input from the user given a certain question.
@@ -88,23 +120,45 @@ public class GameClientTUI {
 	}
 
     /**
-     * Requests the game type: multiplayer or singleplayer until the user inputs a valid answer
-     * @return The game type player chose m: multiplayer, s: singleplayer.
-     * @post ensures that one of the game types is returned m in the case of multiplayer and s in the case of singleplayer
+     * Requests the game type: multiplayer, singleplayer or watching a game until the user inputs a valid answer
+     * @return The game type player chose m: multiplayer, s: singleplayer, w: watch.
+     * @post ensures that one of the game types is returned m in the case of multiplayer, s in the case of singleplayer and w in the case of watching
      */
     public String getGameType() {
         String gameType = "";
         boolean correctGameType = false;
 		while (!correctGameType) {
 			showEmptyLines(1);
-			gameType = getString(TerminalColors.PURPLE_BOLD + "> Enter game type you want to play. For multiplayer type m, for singleplayer s: " + TerminalColors.RESET);
-			if (gameType.equalsIgnoreCase("m") || gameType.equalsIgnoreCase("s")) {
+			gameType = getString(TerminalColors.PURPLE_BOLD + "> Enter game type you want to play. For multiplayer type m, for singleplayer s, to watch a game w: " + TerminalColors.RESET);
+			if (gameType.equalsIgnoreCase("m") || gameType.equalsIgnoreCase("s") || gameType.equalsIgnoreCase("w")) {
 				correctGameType = true;
 			}
         }
         return gameType;
     }
 
+    /**
+     * Asks whether the user wants to play against the hard computer player.
+     * @return Whether the user chose the hard computer player.
+     * @post ensures that true is returned only if the user entered h
+     */
+    public boolean getHardComputer() {
+        showEmptyLines(1);
+        String difficulty = getString(TerminalColors.PURPLE_BOLD + "> Enter h to play against the hard computer, anything else for easy: " + TerminalColors.RESET);
+        return difficulty.equalsIgnoreCase("h");
+    }
+
+    /**
+     * Asks whether the board should be placed away from where the opponent usually shoots.
+     * @return Whether the user chose adaptive placement.
+     * @post ensures that true is returned only if the user entered a
+     */
+    public boolean getAdaptivePlacement() {
+        showEmptyLines(1);
+        String placement = getString(TerminalColors.PURPLE_BOLD + "> Enter a to place your ships where your opponent usually shoots late, anything else for random: " + TerminalColors.RESET);
+        return placement.equalsIgnoreCase("a");
+    }
+
     /**
      * Simple method to more easily display messages in terminal
      * @param message The message to be displayed.
@@ -112,7 +166,21 @@ public class GameClientTUI {
      * @post ensures that a message on the same line is printed
      */
     public void showMessage(String message) {
-		System.out.print(message);
+		write(message);
+    }
+
+    /**
+     * Shows the time that is left to send a move in the user's turn.
+     * @param millis The time in milliseconds, -1 if it isn't the user's move.
+     * @post ensures that the time left or that it isn't the user's move is printed
+     */
+    public void showTurnTime(long millis) {
+        showEmptyLines(1);
+        if (millis < 0) {
+            showMessageLn(TerminalColors.RED_BOLD + "> It's not your move." + TerminalColors.RESET);
+        } else {
+            showMessageLn(TerminalColors.BLUE_BOLD + String.format("> %d.%d seconds left to move.", millis / 1000, millis % 1000 / 100) + TerminalColors.RESET);
+        }
     }
 
     /**
@@ -122,7 +190,7 @@ public class GameClientTUI {
      * @post ensures that a message on a new line is printed
      */
     public void showMessageLn(String message) {
-        System.out.println(message);
+        write(message + System.lineSeparator());
     }
 
     /**
@@ -133,9 +201,48 @@ public class GameClientTUI {
      * @post ensures that the specified amount of empty lines is printed
      */
     public void showEmptyLines(int count) {
-        for (int i = 0; i < count; i++) {
-            System.out.println(" ");
+        StringBuilder text = new StringBuilder();
+        appendBoardLine(text, "newLine", count);
+        write(text.toString());
+    }
+
+    /**
+     * Shows two boards together, see {@link BoardSnapshot}. While the render thread runs the boards are drawn by it, and if newer boards
+     * are shown before these were drawn only the newer ones are drawn.
+     * @param snapshot The boards to show.
+     * @pre snapshot != null
+     * @post ensures that these boards or newer ones are printed
+     */
+    public void showBoards(BoardSnapshot snapshot) {
+        renderer.publish(snapshot);
+    }
+
+    /**
+     * Gives the text of the two boards of a snapshot: the first board, four empty lines and the second board.
+     * @param snapshot The boards to draw.
+     * @return The text of the boards.
+     * @pre snapshot != null
+     */
+    public static String drawBoards(BoardSnapshot snapshot) {
+        long start = System.nanoTime();
+        StringBuilder text = new StringBuilder();
+        appendBoard(text, snapshot.getFirstBoard(), snapshot.getFirstScore(), snapshot.getFirstName());
+        appendBoardLine(text, "newLine", 4);
+        if (snapshot.isSecondHidden()) {
+            appendEnemyBoard(text, snapshot.getSecondBoard(), snapshot.getSecondScore(), snapshot.getSecondName());
+        } else {
+            appendBoard(text, snapshot.getSecondBoard(), snapshot.getSecondScore(), snapshot.getSecondName());
         }
+        RENDER_TIME.record(System.nanoTime() - start);
+        return text.toString();
+    }
+
+    /**
+     * Prints a text through the renderer, so that it comes after the boards that were shown before.
+     * @param text The text to print.
+     */
+    private void write(String text) {
+        renderer.print(text);
     }
 
     /**
@@ -146,35 +253,44 @@ public class GameClientTUI {
      * @post ensures that the correctly formatted score with name is printed
      */
     public void printScore(int score, String name, String playerType) {
-        showEmptyLines(2);
+        StringBuilder text = new StringBuilder();
+        appendScore(text, score, name, playerType);
+        write(text.toString());
+    }
+
+    /**
+     * Adds the score and name of a player to the text of a board, see {@link #printScore(int, String, String)}.
+     */
+    private static void appendScore(StringBuilder text, int score, String name, String playerType) {
+        appendBoardLine(text, "newLine", 2);
         for(int i = 0; i < 7; i++) {
-            printBoardLine("space", 5); // left margin
+            appendBoardLine(text, "space", 5); // left margin
             if(i == 0 || i == 6) {
-                printBoardLine("space", 3);
-                printBoardLine("cyan", 29);
-                printBoardLine("space", 3);                       
+                appendBoardLine(text, "space", 3);
+                appendBoardLine(text, "cyan", 29);
+                appendBoardLine(text, "space", 3);                       
             }
             else if(i == 1 || i  == 5) {
-                printBoardLine("space", 2);
-                printBoardLine("cyan", 31);
-                printBoardLine("space", 2);                       
+                appendBoardLine(text, "space", 2);
+                appendBoardLine(text, "cyan", 31);
+                appendBoardLine(text, "space", 2);                       
             }
             else if(i == 2) {
-                printBoardLine("space", 1);
-                printBoardLine("cyan", 5);
-                System.out.print(TerminalColors.WHITE_FONT_BOLD_CYAN_BACKGROUND +  playerType + ": " + name + TerminalColors.RESET); 
-                printBoardLine("cyan", 26 - playerType.length() - name.length());  
+                appendBoardLine(text, "space", 1);
+                appendBoardLine(text, "cyan", 5);
+                text.append(TerminalColors.WHITE_FONT_BOLD_CYAN_BACKGROUND +  playerType + ": " + name + TerminalColors.RESET); 
+                appendBoardLine(text, "cyan", 26 - playerType.length() - name.length());  
             }
             else if(i == 3) {
-                printBoardLine("cyan", 35);                       
+                appendBoardLine(text, "cyan", 35);                       
             }
             else if(i == 4) {
-                printBoardLine("space", 1);
-                printBoardLine("cyan", 5);
-                System.out.print(TerminalColors.WHITE_FONT_BOLD_CYAN_BACKGROUND + "Score: " + score + TerminalColors.RESET); 
-                printBoardLine("cyan", 21 - String.valueOf(score).length());  
+                appendBoardLine(text, "space", 1);
+                appendBoardLine(text, "cyan", 5);
+                text.append(TerminalColors.WHITE_FONT_BOLD_CYAN_BACKGROUND + "Score: " + score + TerminalColors.RESET); 
+                appendBoardLine(text, "cyan", 21 - String.valueOf(score).length());  
             }
-            printBoardLine("newLine", 1);
+            appendBoardLine(text, "newLine", 1);
         }
     }
 
@@ -185,87 +301,99 @@ public class GameClientTUI {
      * @post ensures that a board is correctly printed with the score banner
      */
     public void printBoard(String[][] board, int score, String name) {
+        long start = System.nanoTime();
+        StringBuilder text = new StringBuilder();
+        appendBoard(text, board, score, name);
+        write(text.toString());
+        RENDER_TIME.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Adds the text of a board to the given text, see {@link #printBoard(String[][], int, String)}.
+     */
+    private static void appendBoard(StringBuilder text, String[][] board, int score, String name) {
 
         /* New lines */
-        printBoardLine("newLine", 1);
+        appendBoardLine(text, "newLine", 1);
         /* New lines */
 
-        printScore(score, name, "Player name");
+        appendScore(text, score, name, "Player name");
 
         /* New lines */
-        printBoardLine("newLine", 2);
+        appendBoardLine(text, "newLine", 2);
         /* New lines */
 
-        for (int i = 0; i < 10; i++) {
+        for (int i = 0; i < GameConstants.BOARD_SIZE_Y; i++) {
             
             /* ALPHABET AT THE TOP */
             if (i == 0) {
-                System.out.print("      "); // Left margin
-                for (int j = 0; j < 15; j++) {
-                    printBoardLine("space", 2);
-                    System.out.print(alphabet[j].toUpperCase());
-                    printBoardLine("space", 3);
+                text.append("      "); // Left margin
+                for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) {
+                    String column = columnName(j).toUpperCase();
+                    appendBoardLine(text, "space", 2);
+                    text.append(column);
+                    appendBoardLine(text, "space", Math.max(1, 4 - column.length()));
                 }
-                printBoardLine("newLine", 1); // New line
-                for (int j = 0; j < 15; j++) {
-                    printBoardLine("space", 5);
+                appendBoardLine(text, "newLine", 1); // New line
+                for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) {
+                    appendBoardLine(text, "space", 5);
                 }
             }
             /* ALPHABET AT THE TOP */
             
 
             /* New line */
-            printBoardLine("newLine", 1);
+            appendBoardLine(text, "newLine", 1);
             /* New line */
 
             if (i != 0) {
-                System.out.print("      "); 
-                for (int j = 0; j < 15; j++) { 
-                    printBoardLine("blue", 5);
-                    if (j != 14) {   
-                        printBoardLine("blue", 1);
+                text.append("      "); 
+                for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) { 
+                    appendBoardLine(text, "blue", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "blue", 1);
                     }
                 }
             }
 
             /* New line */
-            printBoardLine("newLine", 1);
+            appendBoardLine(text, "newLine", 1);
             /* New line */
 
             /* Line above the letters */
-            for (int j = 0; j < 15; j++) {
+            for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) {
                 if (j == 0) {
-                    System.out.print("  ");
-                    printBoardLine("space", 4);
+                    text.append("  ");
+                    appendBoardLine(text, "space", 4);
                 }
                 if (board[j][i].equals("WATER")) {
-                    printBoardLine("blue", 5);
-                    if (j != 14) {   
-                        printBoardLine("blue", 1);
+                    appendBoardLine(text, "blue", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "blue", 1);
                     }
 
                 } else if (board[j][i].equals("WATER_HIT")) {
-                    printBoardLine("black", 5);
-                    if (j != 14) {   
-                        printBoardLine("blue", 1);
+                    appendBoardLine(text, "black", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "blue", 1);
                     }
                 } else if (!board[j][i].equals("WATER_HIT") && board[j][i].endsWith(GameConstants.FIELD_TYPE_HIT_EXTENSION)) {
-                    printBoardLine("red", 5);
+                    appendBoardLine(text, "red", 5);
                     if (board[j][i].endsWith("BACK_HIT") || board[j][i].equals("PATROL_HIT")) {
-                        if (j != 14) {   
-                            printBoardLine("blue", 1);
+                        if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                            appendBoardLine(text, "blue", 1);
                         }
                     } else {
-                        printBoardLine("red", 1);
+                        appendBoardLine(text, "red", 1);
                     }
                 } else {
-                    printBoardLine("white", 5);
+                    appendBoardLine(text, "white", 5);
                     if (board[j][i].endsWith("BACK") || board[j][i].equals("PATROL")) {
-                        if (j != 14) {   
-                            printBoardLine("blue", 1);
+                        if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                            appendBoardLine(text, "blue", 1);
                         }
                     } else {
-                        printBoardLine("white", 1);
+                        appendBoardLine(text, "white", 1);
                     }
                 }
             }
@@ -274,59 +402,53 @@ public class GameClientTUI {
             
 
             /* New line */
-            printBoardLine("newLine", 1);
+            appendBoardLine(text, "newLine", 1);
             /* New line */
 
             /* Line of letters */
-            for (int j = 0; j < 15; j++) {
+            for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) {
 
                 /* Number on the left */
                 if (j == 0) {
-                    if (i+1 == 10) {
-                        printBoardLine("space", 2);
-                        System.out.print(String.valueOf(i+1).toUpperCase());
-                        printBoardLine("space", 2);
-                    } else {
-                        String toPrint = String.valueOf(i+1) + "  "; // This is necessary because every number besides ten takes up one space so it needs to be equaled out
-                        printBoardLine("space", 2);
-                        System.out.print(toPrint.toUpperCase());
-                        printBoardLine("space", 1);
-                    }
+                    String row = String.valueOf(i+1); // Padded so that every number takes up the same space
+                    appendBoardLine(text, "space", 2);
+                    text.append(row);
+                    appendBoardLine(text, "space", Math.max(1, 4 - row.length()));
                 }
                 /* Number on the left */
                 
                 /* Actual letter printing W for water and S for ship */
                 if (board[j][i].equals("WATER")) {
-                    printBoardLine("blue", 5);
-                    if (j != 14) {   
-                        printBoardLine("blue", 1);
+                    appendBoardLine(text, "blue", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "blue", 1);
                     }
                 } else if (board[j][i].equals("WATER_HIT")) {
-                    printBoardLine("black", 5);
-                    if (j != 14) {   
-                        printBoardLine("blue", 1);
+                    appendBoardLine(text, "black", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "blue", 1);
                     }
                 } else if (!board[j][i].equals("WATER_HIT") && board[j][i].endsWith(GameConstants.FIELD_TYPE_HIT_EXTENSION)) {
-                    printBoardLine("red", 2);
-                    printBoardLine("ship-hit", 1);
-                    printBoardLine("red", 2);
+                    appendBoardLine(text, "red", 2);
+                    appendBoardLine(text, "ship-hit", 1);
+                    appendBoardLine(text, "red", 2);
                     if (board[j][i].endsWith("BACK_HIT") || board[j][i].equals("PATROL_HIT")) {
-                        if (j != 14) {   
-                            printBoardLine("blue", 1);
+                        if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                            appendBoardLine(text, "blue", 1);
                         }
                     } else {
-                        printBoardLine("red", 1);
+                        appendBoardLine(text, "red", 1);
                     }
                 } else {
-                    printBoardLine("white", 2);
-                    printBoardLine("ship", 1);
-                    printBoardLine("white", 2);
+                    appendBoardLine(text, "white", 2);
+                    appendBoardLine(text, "ship", 1);
+                    appendBoardLine(text, "white", 2);
                     if (board[j][i].endsWith("BACK") || board[j][i].equals("PATROL")) {
-                        if (j != 14) {   
-                            printBoardLine("blue", 1);
+                        if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                            appendBoardLine(text, "blue", 1);
                         }
                     } else {
-                        printBoardLine("white", 1);
+                        appendBoardLine(text, "white", 1);
                     }
                 }
                 /* Actual letter printing W for water and S for ship */
@@ -334,43 +456,43 @@ public class GameClientTUI {
             /* Line of letters */
 
             /* New line */
-            printBoardLine("newLine", 1);
+            appendBoardLine(text, "newLine", 1);
             /* New line */
             
             /* Line below the letters */
-            for (int j = 0; j < 15; j++) {
+            for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) {
                 if (j == 0) {
-                    System.out.print("  ");
-                    printBoardLine("space", 4);
+                    text.append("  ");
+                    appendBoardLine(text, "space", 4);
                 }
                 if (board[j][i].equals("WATER")) {
-                    printBoardLine("blue", 5);
-                    if (j != 14) {   
-                        printBoardLine("blue", 1);
+                    appendBoardLine(text, "blue", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "blue", 1);
                     }
 
                 } else if (board[j][i].equals("WATER_HIT")) {
-                    printBoardLine("black", 5);
-                    if (j != 14) {   
-                        printBoardLine("blue", 1);
+                    appendBoardLine(text, "black", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "blue", 1);
                     }
                 } else if (!board[j][i].equals("WATER_HIT") && board[j][i].endsWith(GameConstants.FIELD_TYPE_HIT_EXTENSION)) {
-                    printBoardLine("red", 5);
+                    appendBoardLine(text, "red", 5);
                     if (board[j][i].endsWith("BACK_HIT") || board[j][i].equals("PATROL_HIT")) {
-                        if (j != 14) {   
-                            printBoardLine("blue", 1);
+                        if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                            appendBoardLine(text, "blue", 1);
                         }
                     } else {
-                        printBoardLine("red", 1);
+                        appendBoardLine(text, "red", 1);
                     }
                 } else {
-                    printBoardLine("white", 5);
+                    appendBoardLine(text, "white", 5);
                     if (board[j][i].endsWith("BACK") || board[j][i].equals("PATROL")) {
-                        if (j != 14) {   
-                            printBoardLine("blue", 1);
+                        if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                            appendBoardLine(text, "blue", 1);
                         }
                     } else {
-                        printBoardLine("white", 1);
+                        appendBoardLine(text, "white", 1);
                     }
                 }
             }
@@ -378,7 +500,7 @@ public class GameClientTUI {
     
         }
         /* New line */
-        printBoardLine("newLine", 1);
+        appendBoardLine(text, "newLine", 1);
         /* New line */
     }
 
@@ -393,74 +515,91 @@ public class GameClientTUI {
      * @post ensures that the enemy board is correctly printed with the score banner
      */
     public void printEnemyBoard(String[][] board, int score, String name) {
+        long start = System.nanoTime();
+        StringBuilder text = new StringBuilder();
+        appendEnemyBoard(text, board, score, name);
+        write(text.toString());
+        RENDER_TIME.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Adds the text of a board to the given text, see {@link #printEnemyBoard(String[][], int, String)}.
+     */
+    private static void appendEnemyBoard(StringBuilder text, String[][] board, int score, String name) {
 
         /* New lines */
-        printBoardLine("newLine", 1);
+        appendBoardLine(text, "newLine", 1);
         /* New lines */
 
-        printScore(score, name, "Enemy name");
+        appendScore(text, score, name, "Enemy name");
 
         /* New lines */
-        printBoardLine("newLine", 2);
+        appendBoardLine(text, "newLine", 2);
         /* New lines */
 
-        for (int i = 0; i < 10; i++) {
+        for (int i = 0; i < GameConstants.BOARD_SIZE_Y; i++) {
             
             /* ALPHABET AT THE TOP */
             if (i == 0) {
-                System.out.print("      "); // Left margin
-                for (int j = 0; j < 15; j++) {
-                    printBoardLine("space", 2);
-                    System.out.print(alphabet[j].toUpperCase());
-                    printBoardLine("space", 3);
+                text.append("      "); // Left margin
+                for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) {
+                    String column = columnName(j).toUpperCase();
+                    appendBoardLine(text, "space", 2);
+                    text.append(column);
+                    appendBoardLine(text, "space", Math.max(1, 4 - column.length()));
                 }
-                printBoardLine("newLine", 1); // New line
-                for (int j = 0; j < 15; j++) {
-                    printBoardLine("space", 5);
+                appendBoardLine(text, "newLine", 1); // New line
+                for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) {
+                    appendBoardLine(text, "space", 5);
                 }
             }
             /* ALPHABET AT THE TOP */
             
 
             /* New line */
-            printBoardLine("newLine", 1);
+            appendBoardLine(text, "newLine", 1);
             /* New line */
 
             if (i != 0) {
-                System.out.print("      "); 
-                for (int j = 0; j < 15; j++) { 
-                    printBoardLine("blue", 5);
-                    if (j != 14) {   
-                        printBoardLine("blue", 1);
+                text.append("      "); 
+                for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) { 
+                    appendBoardLine(text, "blue", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "blue", 1);
                     }
                 }
             }
 
             /* New line */
-            printBoardLine("newLine", 1);
+            appendBoardLine(text, "newLine", 1);
             /* New line */
 
             /* Line above the letters */
-            for (int j = 0; j < 15; j++) {
+            for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) {
                 if (j == 0) {
-                    System.out.print("  ");
-                    printBoardLine("space", 4);
+                    text.append("  ");
+                    appendBoardLine(text, "space", 4);
                 }
                 if (board[j][i].equals("WATER")) {
-                    printBoardLine("blue", 5);
-                    if (j != 14) {   
-                        printBoardLine("blue", 1);
+                    appendBoardLine(text, "blue", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "blue", 1);
                     }
 
                 } else if (board[j][i].equals("WATER_HIT")) {
-                    printBoardLine("black", 5);
-                    if (j != 14) {   
-                        printBoardLine("black", 1);
+                    appendBoardLine(text, "black", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "black", 1);
+                    }
+                } else if (board[j][i].equals("SHOT_PENDING")) { // Sent but not confirmed by the server yet
+                    appendBoardLine(text, "yellow", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "blue", 1);
                     }
                 } else {
-                    printBoardLine("red", 5);
-                    if (j != 14) {   
-                        printBoardLine("red", 1);
+                    appendBoardLine(text, "red", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "red", 1);
                     }
                 }
             }
@@ -469,43 +608,42 @@ public class GameClientTUI {
             
 
             /* New line */
-            printBoardLine("newLine", 1);
+            appendBoardLine(text, "newLine", 1);
             /* New line */
 
             /* Line of letters */
-            for (int j = 0; j < 15; j++) {
+            for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) {
 
                 /* Number on the left */
                 if (j == 0) {
-                    if (i+1 == 10) {
-                        printBoardLine("space", 2);
-                        System.out.print(String.valueOf(i+1).toUpperCase());
-                        printBoardLine("space", 2);
-                    } else {
-                        String toPrint = String.valueOf(i+1) + "  "; // This is necessary because every number besides ten takes up one space so it needs to be equaled out
-                        printBoardLine("space", 2);
-                        System.out.print(toPrint.toUpperCase());
-                        printBoardLine("space", 1);
-                    }
+                    String row = String.valueOf(i+1); // Padded so that every number takes up the same space
+                    appendBoardLine(text, "space", 2);
+                    text.append(row);
+                    appendBoardLine(text, "space", Math.max(1, 4 - row.length()));
                 }
                 /* Number on the left */
                 
                 /* Actual letter printing W for water and S for ship */
                 if (board[j][i].equals("WATER")) {
-                    printBoardLine("blue", 5);
-                    if (j != 14) {   
-                        printBoardLine("blue", 1);
+                    appendBoardLine(text, "blue", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "blue", 1);
                     }
 
                 } else if (board[j][i].equals("WATER_HIT")) {
-                    printBoardLine("black", 5);
-                    if (j != 14) {   
-                        printBoardLine("black", 1);
+                    appendBoardLine(text, "black", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "black", 1);
+                    }
+                } else if (board[j][i].equals("SHOT_PENDING")) {
+                    appendBoardLine(text, "yellow", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "blue", 1);
                     }
                 } else {
-                    printBoardLine("red", 5);
-                    if (j != 14) {   
-                        printBoardLine("red", 1);
+                    appendBoardLine(text, "red", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "red", 1);
                     }
                 }
                 /* Actual letter printing W for water and S for ship */
@@ -513,30 +651,35 @@ public class GameClientTUI {
             /* Line of letters */
 
             /* New line */
-            printBoardLine("newLine", 1);
+            appendBoardLine(text, "newLine", 1);
             /* New line */
             
             /* Line below the letters */
-            for (int j = 0; j < 15; j++) {
+            for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) {
                 if (j == 0) {
-                    System.out.print("  ");
-                    printBoardLine("space", 4);
+                    text.append("  ");
+                    appendBoardLine(text, "space", 4);
                 }
                 if (board[j][i].equals("WATER")) {
-                    printBoardLine("blue", 5);
-                    if (j != 14) {   
-                        printBoardLine("blue", 1);
+                    appendBoardLine(text, "blue", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "blue", 1);
                     }
 
                 } else if (board[j][i].equals("WATER_HIT")) {
-                    printBoardLine("black", 5);
-                    if (j != 14) {   
-                        printBoardLine("black", 1);
+                    appendBoardLine(text, "black", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "black", 1);
+                    }
+                } else if (board[j][i].equals("SHOT_PENDING")) {
+                    appendBoardLine(text, "yellow", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "blue", 1);
                     }
                 } else {
-                    printBoardLine("red", 5);
-                    if (j != 14) {   
-                        printBoardLine("red", 1);
+                    appendBoardLine(text, "red", 5);
+                    if (j != GameConstants.BOARD_SIZE_X - 1) {   
+                        appendBoardLine(text, "red", 1);
                     }
                 }
             }
@@ -544,7 +687,7 @@ public class GameClientTUI {
     
         }
         /* New line */
-        printBoardLine("newLine", 1);
+        appendBoardLine(text, "newLine", 1);
         /* New line */
     }
 
@@ -556,36 +699,91 @@ public class GameClientTUI {
      * @post ensures that the correct amount and color of lines are printed 
      */
     public void printBoardLine(String code, int amount){
+        StringBuilder text = new StringBuilder();
+        appendBoardLine(text, code, amount);
+        write(text.toString());
+    }
+
+    /**
+     * Adds specific lines for the board a specific amount of times to the text of a board, see {@link #printBoardLine(String, int)}.
+     */
+    private static void appendBoardLine(StringBuilder text, String code, int amount){
         for(int i = 0; i < amount; i++){
             switch (code) {
                 case "black": 
-                    System.out.print(TerminalColors.BLACK_BACKGROUND + " "+ TerminalColors.RESET);
+                    text.append(TerminalColors.BLACK_BACKGROUND + " "+ TerminalColors.RESET);
                     break;
                 case "blue":
-                    System.out.print(TerminalColors.BLUE_BACKGROUND + " "+ TerminalColors.RESET);
+                    text.append(TerminalColors.BLUE_BACKGROUND + " "+ TerminalColors.RESET);
                     break;
                 case "white":
-                    System.out.print(TerminalColors.WHITE_BACKGROUND + " "+ TerminalColors.RESET);
+                    text.append(TerminalColors.WHITE_BACKGROUND + " "+ TerminalColors.RESET);
                     break;
                 case "ship":
-                    System.out.print(TerminalColors.BLACK_FONT_WHITE_BACKGROUND + "S" + TerminalColors.RESET);
+                    text.append(TerminalColors.BLACK_FONT_WHITE_BACKGROUND + "S" + TerminalColors.RESET);
                     break;
                 case "ship-hit":
-                    System.out.print(TerminalColors.BLACK_FONT_RED_BACKGROUND + "S" + TerminalColors.RESET);
+                    text.append(TerminalColors.BLACK_FONT_RED_BACKGROUND + "S" + TerminalColors.RESET);
                     break;
                 case "space":
-                    System.out.print(" ");
+                    text.append(" ");
                     break;
                 case "newLine":
-                    System.out.println(" ");
+                    text.append(" ").append(System.lineSeparator());
                     break;
                 case "cyan":
-                    System.out.print(TerminalColors.CYAN_BACKGROUND + " "+ TerminalColors.RESET);
+                    text.append(TerminalColors.CYAN_BACKGROUND + " "+ TerminalColors.RESET);
                     break;
                 case "red":
-                    System.out.print(TerminalColors.RED_BACKGROUND + " "+ TerminalColors.RESET);
+                    text.append(TerminalColors.RED_BACKGROUND + " "+ TerminalColors.RESET);
                    break;
+                case "yellow":
+                    text.append(TerminalColors.YELLOW_BACKGROUND + " "+ TerminalColors.RESET);
+                    break;
             }
        }
     }
+
+    /**
+     * Gives the name of a column of the board as the user types it. The columns are named a to z like before, and on wider boards
+     * they go on like spreadsheet columns: aa, ab, ... az, ba and so on.
+     * @param x The X coordinate of the column.
+     * @return The name of the column in lower case.
+     * @pre x >= 0
+     */
+    public static String columnName(int x) {
+        StringBuilder name = new StringBuilder();
+        int column = x + 1;
+        while (column > 0) {
+            column--;
+            name.insert(0, (char) ('a' + column % LETTERS));
+            column /= LETTERS;
+        }
+        return name.toString();
+    }
+
+    /**
+     * Gives the X coordinate of a column name that was typed by the user, the opposite of {@link #columnName(int)}.
+     * @param name The name of the column.
+     * @return The X coordinate, or -1 if the name isn't the name of a column on the board.
+     * @pre name != null
+     */
+    public static int columnIndex(String name) {
+        if (name.isEmpty()) {
+            return -1;
+        }
+
+        long column = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char letter = name.charAt(i);
+            if (letter < 'a' || letter > 'z') {
+                return -1;
+            }
+            column = column * LETTERS + (letter - 'a' + 1);
+            if (column > GameConstants.BOARD_SIZE_X) {
+                return -1;
+            }
+        }
+        return (int) column - 1;
+    }
 }
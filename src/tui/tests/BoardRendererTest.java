@@ -0,0 +1,93 @@
+package tui.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import tui.BoardRenderer;
+import tui.BoardSnapshot;
+
+public class BoardRendererTest {
+
+    /**
+     * Test that snapshots which are published while a board is drawn replace each other, that only the latest is drawn and that
+     * messages are neither dropped nor moved in front of the boards that were published before them
+     */
+    @Test
+    public void latestFrameWinsTest() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CountDownLatch drawing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BoardRenderer renderer = new BoardRenderer(new PrintStream(output, true), snapshot -> {
+            if (snapshot.getFirstName().equals("first")) { // Keeps the render thread busy until the other snapshots are published
+                drawing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "[" + snapshot.getFirstName() + "]";
+        }, 1000);
+
+        // Without the render thread everything is written right away
+        renderer.print("<");
+        renderer.publish(snapshot("start"));
+        assertEquals("<[start]", output.toString());
+        output.reset();
+
+        renderer.start();
+        renderer.publish(snapshot("first"));
+        drawing.await();
+        renderer.print("a");
+        renderer.publish(snapshot("second"));
+        renderer.publish(snapshot("third"));
+        renderer.print("b");
+        renderer.publish(snapshot("fourth"));
+        release.countDown();
+
+        assertTrue(renderer.awaitEmpty(1000));
+        assertEquals("[first]a[fourth]b", output.toString());
+    }
+
+    /**
+     * Test that a snapshot doesn't change when the board it was made of changes
+     */
+    @Test
+    public void snapshotCopyTest() {
+        String[][] board = {{"WATER", "PATROL"}, {"WATER", "WATER"}};
+        BoardSnapshot snapshot = new BoardSnapshot(board, 0, "emils", board, 1, "enemy", true);
+        board[0][1] = "PATROL_HIT";
+        assertEquals("PATROL", snapshot.getFirstBoard()[0][1]);
+        assertEquals("PATROL", snapshot.getSecondBoard()[0][1]);
+    }
+
+    /**
+     * Test that a snapshot with the lock of its boards copies them when they are first read, and not before
+     */
+    @Test
+    public void lazySnapshotTest() {
+        Object lock = new Object();
+        String[][] board = {{"WATER", "PATROL"}, {"WATER", "WATER"}};
+        BoardSnapshot snapshot = new BoardSnapshot(lock, board, 0, "emils", board, 1, "enemy", true);
+        board[0][1] = "PATROL_HIT";
+        assertEquals("PATROL_HIT", snapshot.getFirstBoard()[0][1]);
+        board[1][0] = "WATER_HIT";
+        assertEquals("WATER", snapshot.getFirstBoard()[1][0]);
+        assertEquals("WATER", snapshot.getSecondBoard()[1][0]);
+    }
+
+    /**
+     * @param name The name of the first player.
+     * @return A snapshot of two empty boards.
+     */
+    private static BoardSnapshot snapshot(String name) {
+        String[][] board = {{"WATER"}};
+        return new BoardSnapshot(board, 0, name, board, 0, "enemy", true);
+    }
+}
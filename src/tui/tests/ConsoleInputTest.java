@@ -0,0 +1,114 @@
+package tui.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import tui.ConsoleInput;
+
+public class ConsoleInputTest {
+
+    /**
+     * Test that a read stops at its deadline and when it is cancelled, and that no typed line is lost by that
+     */
+    @Test
+    public void deadlineAndCancelTest() throws Exception {
+        PipedOutputStream console = new PipedOutputStream();
+        ConsoleInput input = new ConsoleInput(new PipedInputStream(console));
+        input.start();
+
+        long start = System.nanoTime();
+        assertNull(input.readLine(start + 50000000L));
+        assertTrue(System.nanoTime() - start >= 50000000L);
+
+        Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            input.cancel();
+        });
+        canceller.start();
+        assertNull(input.readLine());
+        canceller.join();
+
+        // A cancel without a waiting reader doesn't cancel the next read
+        input.cancel();
+        console.write("a,2\nq\n".getBytes());
+        console.flush();
+        assertEquals("a,2", input.readLine());
+        assertEquals("q", input.readLine(System.nanoTime() + 1000000000L));
+        console.close();
+    }
+
+    /**
+     * Test that many cancels leave nothing behind and that more lines than the ring holds are all kept in order
+     */
+    @Test
+    public void manyCancelsAndLinesTest() throws Exception {
+        PipedOutputStream console = new PipedOutputStream();
+        ConsoleInput input = new ConsoleInput(new PipedInputStream(console));
+        input.start();
+
+        for (int i = 0; i < 10000; i++) {
+            input.cancel();
+        }
+        Thread typist = new Thread(() -> {
+            try {
+                for (int i = 0; i < 1000; i++) {
+                    console.write((i + "\n").getBytes());
+                }
+                console.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        typist.start();
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.toString(i), input.readLine(System.nanoTime() + 1000000000L));
+        }
+        typist.join();
+        assertNull(input.readLine());
+        assertTrue(input.isClosed());
+    }
+
+    /**
+     * Test that the end of the input is noticed after all lines were taken
+     */
+    @Test
+    public void closedTest() throws IOException {
+        ConsoleInput input = new ConsoleInput(new ByteArrayInputStream("emils\n".getBytes()));
+        input.start();
+        assertEquals("emils", input.readLine());
+        assertNull(input.readLine());
+        assertTrue(input.isClosed());
+        assertNull(input.readLine());
+    }
+
+    /**
+     * Test that a script skips its comments and gives a line with a time only once that time has passed
+     */
+    @Test
+    public void scriptTest() {
+        String script = "# Join as alice\nalice\n@100 a,2\n@x\n";
+        ConsoleInput input = new ConsoleInput(new ByteArrayInputStream(script.getBytes()), true);
+        long start = System.nanoTime();
+        input.start();
+
+        assertTrue(input.isScripted());
+        assertEquals("alice", input.readLine());
+        assertEquals("a,2", input.readLine());
+        assertTrue(System.nanoTime() - start >= 100000000L);
+        assertEquals("@x", input.readLine()); // Not a time, so it is kept as it is
+        assertNull(input.readLine());
+    }
+}
@@ -0,0 +1,35 @@
+package tui.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import constants.GameConstants;
+import tui.GameClientTUI;
+
+public class GameClientTUITest {
+
+    /**
+     * Test that column names go on like spreadsheet columns after z and that they are turned back into the same column
+     */
+    @Test
+    public void columnNameTest() {
+        assertEquals("a", GameClientTUI.columnName(0));
+        assertEquals("o", GameClientTUI.columnName(14));
+        assertEquals("z", GameClientTUI.columnName(25));
+        assertEquals("aa", GameClientTUI.columnName(26));
+        assertEquals("az", GameClientTUI.columnName(51));
+        assertEquals("ba", GameClientTUI.columnName(52));
+        assertEquals("all", GameClientTUI.columnName(999));
+
+        for (int x = 0; x < GameConstants.BOARD_SIZE_X; x++) {
+            assertEquals(x, GameClientTUI.columnIndex(GameClientTUI.columnName(x)));
+        }
+
+        // Names of columns that aren't on the board and names that aren't columns at all
+        assertEquals(-1, GameClientTUI.columnIndex(GameClientTUI.columnName(GameConstants.BOARD_SIZE_X)));
+        assertEquals(-1, GameClientTUI.columnIndex(""));
+        assertEquals(-1, GameClientTUI.columnIndex("A"));
+        assertEquals(-1, GameClientTUI.columnIndex("a1"));
+    }
+}